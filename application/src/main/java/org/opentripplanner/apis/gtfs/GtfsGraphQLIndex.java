@@ -93,6 +93,12 @@ class GtfsGraphQLIndex {
 
   static final Logger LOG = LoggerFactory.getLogger(GtfsGraphQLIndex.class);
 
+  /**
+   * The response header with the version of the real-time data used to answer the request, see
+   * {@link org.opentripplanner.transit.service.TransitService#getRealtimeDataVersion()}.
+   */
+  static final String REALTIME_DATA_VERSION_HEADER = "OTPRealtimeDataVersion";
+
   private static final GraphQLSchema indexSchema = buildSchema();
 
   protected static GraphQLSchema buildSchema() {
@@ -251,8 +257,14 @@ class GtfsGraphQLIndex {
       requestContext
     );
 
+    // All data fetchers of the request use the same transit service, so they see the real-time
+    // data of this version
     return Response
       .status(Response.Status.OK)
+      .header(
+        REALTIME_DATA_VERSION_HEADER,
+        requestContext.transitService().getRealtimeDataVersion()
+      )
       .entity(GraphQLResponseSerializer.serialize(executionResult))
       .build();
   }
@@ -6,8 +6,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
@@ -47,10 +47,13 @@ public class AStar<
   private final Duration timeout;
 
   private final ShortestPathTree<State, Edge, Vertex> spt;
-  private final BinHeap<State> pq;
+  private final StateQueue<State> pq;
+  private final Consumer<State> removeDominatedState;
   private final List<State> targetAcceptedStates;
 
   private State u;
+  /** The first state dominated by the state being added to the tree. */
+  private State firstDominated;
   private int nVisited;
 
   AStar(
@@ -63,7 +66,8 @@ public class AStar<
     SearchTerminationStrategy<State> terminationStrategy,
     DominanceFunction<State> dominanceFunction,
     Duration timeout,
-    Collection<State> initialStates
+    Collection<State> initialStates,
+    AStarQueueType queueType
   ) {
     this.heuristic = heuristic;
     this.skipEdgeStrategy = skipEdgeStrategy;
@@ -77,7 +81,8 @@ public class AStar<
     this.spt = new ShortestPathTree<>(dominanceFunction);
 
     // Initialized with a reasonable size, see #4445
-    this.pq = new BinHeap<>(1000);
+    this.pq = StateQueue.of(queueType, 1000);
+    this.removeDominatedState = pq.supportsRemove() ? this::dominated : null;
     this.nVisited = 0;
     this.targetAcceptedStates = new ArrayList<>();
 
@@ -106,12 +111,12 @@ public class AStar<
   private boolean iterate() {
     // print debug info
     if (verbose) {
-      double w = pq.peek_min_key();
+      double w = pq.peekMinKey();
       LOG.debug("pq min key = {}", w);
     }
 
     // get the lowest-weight state in the queue
-    u = pq.extract_min();
+    u = pq.extractMin();
 
     // check that this state has not been dominated
     // and mark vertex as visited
@@ -169,12 +174,19 @@ public class AStar<
         }
 
         // spt.add returns true if the state is hopeful; enqueue state if it's hopeful
-        if (spt.add(v)) {
+        firstDominated = null;
+        if (spt.add(v, removeDominatedState)) {
           // report to the visitor if there is one
           if (traverseVisitor != null) {
             traverseVisitor.visitEnqueue();
           }
-          pq.insert(v, estimate);
+          if (firstDominated == null) {
+            pq.insert(v, estimate);
+          } else {
+            pq.replaceDominated(firstDominated, v, estimate);
+          }
+        } else if (firstDominated != null) {
+          pq.removeDominated(firstDominated);
         }
       }
     }
@@ -182,12 +194,25 @@ public class AStar<
     return true;
   }
 
+  /**
+   * Called for each state removed from the tree because it is dominated by the state being added.
+   * The first one is kept, so the new state can take its place in the queue, the others are
+   * removed from the queue.
+   */
+  private void dominated(State state) {
+    if (firstDominated == null) {
+      firstDominated = state;
+    } else {
+      pq.removeDominated(state);
+    }
+  }
+
   private void runSearch() {
     OTPRequestTimeoutException.checkForTimeout();
     long abortTime = DateUtils.absoluteTimeout(timeout);
 
     /* the core of the A* algorithm */
-    while (!pq.empty()) { // Until the priority queue is empty:
+    while (!pq.isEmpty()) { // Until the priority queue is empty:
       /*
        * Terminate based on timeout. We don't check the termination on every round, as it is
        * expensive to fetch the current time, compared to just running one more round.
@@ -99,6 +99,9 @@ public abstract class AStarBuilder<
 
   protected abstract Duration streetRoutingTimeout();
 
+  /** The priority queue used by the search. */
+  protected abstract AStarQueueType queueType();
+
   public Builder setOriginBackEdge(Edge originBackEdge) {
     this.originBackEdge = originBackEdge;
     return builder;
@@ -117,8 +120,24 @@ public abstract class AStarBuilder<
     return build().getPathsToTarget();
   }
 
+  protected Set<Vertex> fromVertices() {
+    return fromVertices;
+  }
+
+  protected Set<Vertex> toVertices() {
+    return toVertices;
+  }
+
+  /**
+   * The vertices the search starts from: the from-vertices in a depart-after search, and the
+   * to-vertices in an arrive-by search.
+   */
+  protected Set<Vertex> originVertices() {
+    return arriveBy ? toVertices : fromVertices;
+  }
+
   private AStar<State, Edge, Vertex> build() {
-    final Set<Vertex> origin = arriveBy ? toVertices : fromVertices;
+    final Set<Vertex> origin = originVertices();
     final Set<Vertex> destination = arriveBy ? fromVertices : toVertices;
 
     Collection<State> initialStates;
@@ -148,7 +167,8 @@ public abstract class AStarBuilder<
       terminationStrategy,
       Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
       streetRoutingTimeout(),
-      initialStates
+      initialStates,
+      queueType()
     );
   }
 
@@ -0,0 +1,22 @@
+package org.opentripplanner.astar;
+
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.astar.model.IndexedDaryHeap;
+
+/**
+ * The priority queue used by the {@link AStar} search.
+ */
+public enum AStarQueueType {
+  /**
+   * A {@link BinHeap}. States which are dominated after they are enqueued are left in the queue,
+   * and dropped when they are extracted.
+   */
+  BINARY_HEAP,
+  /**
+   * An {@link IndexedDaryHeap}. States are removed from the queue as soon as they are dominated, so
+   * the queue only contains states which are still in the shortest path tree. This keeps the queue
+   * smaller on dense street graphs, where many states are dominated. A new state takes the place
+   * of the state it dominates in the queue, and its key is decreased.
+   */
+  INDEXED_DARY_HEAP,
+}
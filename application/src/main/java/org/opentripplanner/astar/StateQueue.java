@@ -0,0 +1,135 @@
+package org.opentripplanner.astar;
+
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.astar.model.IndexedDaryHeap;
+import org.opentripplanner.astar.spi.IndexedQueueItem;
+
+/**
+ * The priority queue of the {@link AStar} search, see {@link AStarQueueType}.
+ */
+interface StateQueue<T extends IndexedQueueItem> {
+  static <T extends IndexedQueueItem> StateQueue<T> of(AStarQueueType type, int capacity) {
+    return switch (type) {
+      case BINARY_HEAP -> new BinHeapQueue<>(capacity);
+      case INDEXED_DARY_HEAP -> new IndexedHeapQueue<>(capacity);
+    };
+  }
+
+  void insert(T state, double key);
+
+  T extractMin();
+
+  double peekMinKey();
+
+  boolean isEmpty();
+
+  /**
+   * Remove a state which is dominated. The state may be left in the queue, if the queue does not
+   * support removal. Return {@code true} if the state is removed.
+   */
+  boolean removeDominated(T state);
+
+  /**
+   * Add a state which dominates a state that was added earlier. If the queue supports it, the
+   * dominated state is replaced by the new state, and the key is decreased, instead of removing the
+   * dominated state and inserting the new one. The new state is inserted if the dominated state is
+   * no longer in the queue.
+   */
+  void replaceDominated(T dominated, T state, double key);
+
+  /**
+   * Return {@code true} if {@link #removeDominated(IndexedQueueItem)} removes states from the
+   * queue.
+   */
+  boolean supportsRemove();
+
+  class BinHeapQueue<T extends IndexedQueueItem> implements StateQueue<T> {
+
+    private final BinHeap<T> heap;
+
+    BinHeapQueue(int capacity) {
+      this.heap = new BinHeap<>(capacity);
+    }
+
+    @Override
+    public void insert(T state, double key) {
+      heap.insert(state, key);
+    }
+
+    @Override
+    public T extractMin() {
+      return heap.extract_min();
+    }
+
+    @Override
+    public double peekMinKey() {
+      return heap.peek_min_key();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return heap.empty();
+    }
+
+    @Override
+    public boolean removeDominated(T state) {
+      return false;
+    }
+
+    @Override
+    public void replaceDominated(T dominated, T state, double key) {
+      heap.insert(state, key);
+    }
+
+    @Override
+    public boolean supportsRemove() {
+      return false;
+    }
+  }
+
+  class IndexedHeapQueue<T extends IndexedQueueItem> implements StateQueue<T> {
+
+    private final IndexedDaryHeap<T> heap;
+
+    IndexedHeapQueue(int capacity) {
+      this.heap = new IndexedDaryHeap<>(capacity);
+    }
+
+    @Override
+    public void insert(T state, double key) {
+      heap.insert(state, key);
+    }
+
+    @Override
+    public T extractMin() {
+      return heap.extractMin();
+    }
+
+    @Override
+    public double peekMinKey() {
+      return heap.peekMinKey();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return heap.isEmpty();
+    }
+
+    @Override
+    public boolean removeDominated(T state) {
+      return heap.remove(state);
+    }
+
+    @Override
+    public void replaceDominated(T dominated, T state, double key) {
+      if (!heap.replace(dominated, state, key)) {
+        heap.insert(state, key);
+      }
+    }
+
+    @Override
+    public boolean supportsRemove() {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Arrays;
+import org.opentripplanner.astar.spi.IndexedQueueItem;
+
+/**
+ * An indexed d-ary min-heap. Each element keeps track of its position in the heap, see
+ * {@link IndexedQueueItem}, so an element can be removed or replaced in O(log n) time
+ * without searching for it. This allows the search to remove states which are dominated before
+ * they reach the head of the queue, instead of leaving them in the queue until they are
+ * extracted, as is done with the {@link BinHeap}.
+ * <p>
+ * A 4-ary heap is used by default. Compared with a binary heap, it is half as deep and the
+ * children of a node are next to each other in memory, which make inserts and decrease-key
+ * operations cheaper at the cost of a few more comparisons when the minimum is extracted.
+ * <p>
+ * An element may be copied (cloned) together with its queue index, so the index is always checked
+ * against the element stored at that position before it is used.
+ * <p>
+ * This class is NOT THREAD-SAFE.
+ */
+public class IndexedDaryHeap<T extends IndexedQueueItem> {
+
+  private static final int DEFAULT_ARITY = 4;
+  private static final int DEFAULT_CAPACITY = 1000;
+
+  private final int arity;
+  private double[] keys;
+  private T[] elements;
+  private int size = 0;
+
+  public IndexedDaryHeap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public IndexedDaryHeap(int capacity) {
+    this(DEFAULT_ARITY, capacity);
+  }
+
+  @SuppressWarnings("unchecked")
+  public IndexedDaryHeap(int arity, int capacity) {
+    if (arity < 2) {
+      throw new IllegalArgumentException("The heap arity must be at least 2: " + arity);
+    }
+    capacity = Math.max(capacity, 10);
+    this.arity = arity;
+    this.keys = new double[capacity];
+    this.elements = (T[]) new IndexedQueueItem[capacity];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Return the element with the smallest key, or {@code null} if the heap is empty.
+   */
+  public T peekMin() {
+    return size == 0 ? null : elements[0];
+  }
+
+  public double peekMinKey() {
+    if (size == 0) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    return keys[0];
+  }
+
+  /**
+   * Return {@code true} if the given element is in this heap.
+   */
+  public boolean contains(T element) {
+    int i = element.getQueueIndex();
+    return i >= 0 && i < size && elements[i] == element;
+  }
+
+  /**
+   * Add the element to the heap. An element which is already in the heap must be rekeyed using
+   * {@link #replace(IndexedQueueItem, IndexedQueueItem, double)}, not inserted again.
+   */
+  public void insert(T element, double key) {
+    if (size == elements.length) {
+      int capacity = elements.length * 2;
+      elements = Arrays.copyOf(elements, capacity);
+      keys = Arrays.copyOf(keys, capacity);
+    }
+    siftUp(size++, element, key);
+  }
+
+  /**
+   * Remove and return the element with the smallest key, or {@code null} if the heap is empty.
+   */
+  public T extractMin() {
+    if (size == 0) {
+      return null;
+    }
+    T min = elements[0];
+    min.setQueueIndex(IndexedQueueItem.NOT_IN_QUEUE);
+    removeAt(0);
+    return min;
+  }
+
+  /**
+   * Remove the given element from the heap. Return {@code false} if the element is not in the
+   * heap.
+   */
+  public boolean remove(T element) {
+    if (!contains(element)) {
+      return false;
+    }
+    int i = element.getQueueIndex();
+    element.setQueueIndex(IndexedQueueItem.NOT_IN_QUEUE);
+    removeAt(i);
+    return true;
+  }
+
+  /**
+   * Put the replacement in the position of the given element, and change its key. This is a
+   * decrease-key for immutable elements: the search replaces a dominated state with the state
+   * dominating it, which has the same vertex and usually a smaller key. The key may also be
+   * increased. Return {@code false}, and leave the heap unchanged, if the element is not in the
+   * heap.
+   */
+  public boolean replace(T element, T replacement, double key) {
+    if (!contains(element)) {
+      return false;
+    }
+    int i = element.getQueueIndex();
+    element.setQueueIndex(IndexedQueueItem.NOT_IN_QUEUE);
+    if (key < keys[i]) {
+      siftUp(i, replacement, key);
+    } else {
+      siftDown(i, replacement, key);
+    }
+    return true;
+  }
+
+  /**
+   * Empty the heap.
+   */
+  public void reset() {
+    for (int i = 0; i < size; ++i) {
+      elements[i].setQueueIndex(IndexedQueueItem.NOT_IN_QUEUE);
+      elements[i] = null;
+    }
+    size = 0;
+  }
+
+  /**
+   * Fill the hole at position {@code i} with the last element.
+   */
+  private void removeAt(int i) {
+    --size;
+    T last = elements[size];
+    double lastKey = keys[size];
+    elements[size] = null;
+
+    if (i == size) {
+      return;
+    }
+    if (i > 0 && lastKey < keys[parent(i)]) {
+      siftUp(i, last, lastKey);
+    } else {
+      siftDown(i, last, lastKey);
+    }
+  }
+
+  /**
+   * Move the hole at position {@code i} up until the element can be placed.
+   */
+  private void siftUp(int i, T element, double key) {
+    while (i > 0) {
+      int parent = parent(i);
+      if (keys[parent] <= key) {
+        break;
+      }
+      set(i, elements[parent], keys[parent]);
+      i = parent;
+    }
+    set(i, element, key);
+  }
+
+  /**
+   * Move the hole at position {@code i} down until the element can be placed.
+   */
+  private void siftDown(int i, T element, double key) {
+    while (true) {
+      int first = i * arity + 1;
+      if (first >= size) {
+        break;
+      }
+      int last = Math.min(first + arity, size);
+      int min = first;
+      for (int c = first + 1; c < last; ++c) {
+        if (keys[c] < keys[min]) {
+          min = c;
+        }
+      }
+      if (key <= keys[min]) {
+        break;
+      }
+      set(i, elements[min], keys[min]);
+      i = min;
+    }
+    set(i, element, key);
+  }
+
+  private void set(int i, T element, double key) {
+    elements[i] = element;
+    keys[i] = key;
+    element.setQueueIndex(i);
+  }
+
+  private int parent(int i) {
+    return (i - 1) / arity;
+  }
+}
@@ -11,6 +11,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
 import org.opentripplanner.astar.spi.AStarVertex;
@@ -126,6 +128,15 @@ public class ShortestPathTree<
    * be enqueued
    */
   public boolean add(State newState) {
+    return add(newState, null);
+  }
+
+  /**
+   * Same as {@link #add(AStarState)}, but the states removed from the tree because they are
+   * dominated by the new state are passed to the given consumer. The search uses this to remove
+   * the dominated states from the priority queue.
+   */
+  public boolean add(State newState, @Nullable Consumer<State> dominatedStates) {
     Vertex vertex = newState.getVertex();
     List<State> states = stateSets.get(vertex);
 
@@ -149,6 +160,9 @@ public class ShortestPathTree<
       }
       if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
         it.remove();
+        if (dominatedStates != null) {
+          dominatedStates.accept(oldState);
+        }
       }
     }
 
@@ -207,8 +221,9 @@ public class ShortestPathTree<
    * for this vertex, which indicates that it has not been ruled out as a state on an optimal path.
    * Many shortest path algorithms will decrease the key of a vertex in the priority queue when it
    * is updated, but we store states in the queue rather than vertices, and states do not get
-   * updated or change their weight.
-   * TODO consider just removing states from the priority queue.
+   * updated or change their weight. The {@link IndexedDaryHeap} removes dominated states from the
+   * queue, or replaces them with the state dominating them and decreases the key, see
+   * {@link #add(AStarState, Consumer)}, but the {@link BinHeap} does not.
    * <p>
    * When the Fibonacci heap was replaced with a binary heap, the decrease-key operation was
    * removed for the same reason: both improve theoretical run time complexity, at the cost of
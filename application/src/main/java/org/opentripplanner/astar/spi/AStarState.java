@@ -6,7 +6,7 @@ public interface AStarState<
   State extends AStarState<State, Edge, Vertex>,
   Edge extends AStarEdge<State, Edge, Vertex>,
   Vertex extends AStarVertex<State, Edge, Vertex>
-> {
+> extends IndexedQueueItem {
   boolean isFinal();
 
   State getBackState();
@@ -0,0 +1,17 @@
+package org.opentripplanner.astar.spi;
+
+/**
+ * An element which keeps track of its own position in an indexed priority queue. This allows the
+ * queue to find, remove and rekey an element in constant time, instead of searching for it.
+ * <p>
+ * The index is owned by the queue, it should not be set by anyone else. An element can only be
+ * part of one indexed queue at the time.
+ */
+public interface IndexedQueueItem {
+  /** The index used to signal that the item is not in a queue. */
+  int NOT_IN_QUEUE = -1;
+
+  int getQueueIndex();
+
+  void setQueueIndex(int index);
+}
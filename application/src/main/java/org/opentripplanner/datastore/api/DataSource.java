@@ -128,6 +128,21 @@ public interface DataSource {
     );
   }
 
+  /**
+   * Replace the target data source with the content of this data source, and remove this one.
+   * Write to a temporary data source and move it to the target, to avoid leaving the target
+   * partly written if the write fails. Files are replaced atomically, a reader sees either the
+   * old or the new content.
+   */
+  default void moveTo(DataSource target) {
+    throw new UnsupportedOperationException(
+      "This datasource type " +
+      getClass().getSimpleName() +
+      " do not support MOVE. Can not move: " +
+      path()
+    );
+  }
+
   /**
    * Return an info string like this:
    * <p>
@@ -7,7 +7,10 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.zip.GZIPInputStream;
+import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.datastore.api.FileType;
 
 public class FileDataSource extends AbstractFileDataSource {
@@ -43,4 +46,24 @@ public class FileDataSource extends AbstractFileDataSource {
       throw new RuntimeException("File not found " + path() + ": " + e.getLocalizedMessage(), e);
     }
   }
+
+  @Override
+  public void moveTo(DataSource target) {
+    if (!(target instanceof FileDataSource targetFile)) {
+      throw new IllegalArgumentException("Can not move " + path() + " to " + target.path());
+    }
+    try {
+      Files.move(
+        file.toPath(),
+        targetFile.file.toPath(),
+        StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING
+      );
+    } catch (IOException e) {
+      throw new RuntimeException(
+        "Failed to move " + path() + " to " + target.path() + ": " + e.getLocalizedMessage(),
+        e
+      );
+    }
+  }
 }
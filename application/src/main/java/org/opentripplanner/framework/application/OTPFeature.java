@@ -18,6 +18,13 @@ public enum OTPFeature {
   APIBikeRental(true, false, "Enable the bike rental endpoint."),
   APIServerInfo(true, false, "Enable the server info endpoint."),
   APIUpdaterStatus(true, false, "Enable endpoint for graph updaters status."),
+  CompactAccessEgressSearch(
+    false,
+    false,
+    "Use the compact street graph to find the WALK access and egress stops. The search is faster " +
+    "and allocates a lot less, but it uses the path with the shortest walk time instead of the " +
+    "lowest cost. The A* search is used if the path to a stop can not be walked."
+  ),
   ConsiderPatternsForDirectTransfers(
     true,
     false,
@@ -42,6 +42,12 @@ public class GraphBuilder implements Runnable {
 
   private boolean hasTransitData = false;
 
+  /** The module building the streets from OSM, or {@code null} if there is no OSM data. */
+  @Nullable
+  private GraphBuilderModule osmModule = null;
+
+  private Duration osmModuleDuration = Duration.ZERO;
+
   @Inject
   public GraphBuilder(
     Graph baseGraph,
@@ -98,7 +104,8 @@ public class GraphBuilder implements Runnable {
     graphBuilder.hasTransitData = hasTransitData;
 
     if (hasOsm) {
-      graphBuilder.addModule(factory.osmModule());
+      graphBuilder.osmModule = factory.osmModule();
+      graphBuilder.addModule(graphBuilder.osmModule);
     }
 
     if (hasGtfs) {
@@ -143,6 +150,18 @@ public class GraphBuilder implements Runnable {
       graphBuilder.addModule(it);
     }
 
+    // The contraction hierarchy and the landmarks are snapshots of the streets, build them after
+    // the streets are split by linking and the elevation is set. Linking transit to a saved street
+    // graph splits edges, so they are only built for the final graph.
+    if (
+      (hasOsm || loadStreetGraph) && !saveStreetGraph && !config.contractionHierarchyModes.isEmpty()
+    ) {
+      graphBuilder.addModule(factory.contractionHierarchyModule());
+    }
+    if ((hasOsm || loadStreetGraph) && !saveStreetGraph && !config.landmarks.modes.isEmpty()) {
+      graphBuilder.addModule(factory.landmarkModule());
+    }
+
     if (hasTransitData) {
       // Add links to flex areas after the streets has been split, so that also the split edges are connected
       if (OTPFeature.FlexRouting.isOn()) {
@@ -192,7 +211,11 @@ public class GraphBuilder implements Runnable {
     }
 
     for (GraphBuilderModule load : graphBuilderModules) {
+      long moduleStartTime = System.currentTimeMillis();
       load.buildGraph();
+      if (load == osmModule) {
+        osmModuleDuration = Duration.ofMillis(System.currentTimeMillis() - moduleStartTime);
+      }
     }
 
     new DataImportIssueSummary(issueStore.listIssues()).logSummary();
@@ -217,6 +240,13 @@ public class GraphBuilder implements Runnable {
     return hasTransitData;
   }
 
+  /**
+   * The time it took to build the streets from the OSM data, zero if no OSM data was loaded.
+   */
+  public Duration osmModuleDuration() {
+    return osmModuleDuration;
+  }
+
   public DataImportIssueSummary issueSummary() {
     return new DataImportIssueSummary(issueStore.listIssues());
   }
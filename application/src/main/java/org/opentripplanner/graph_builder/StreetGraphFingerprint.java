@@ -0,0 +1,181 @@
+package org.opentripplanner.graph_builder;
+
+import static org.opentripplanner.model.projectinfo.OtpProjectInfo.projectInfo;
+
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.opentripplanner.datastore.api.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A fingerprint of the inputs used to build a street graph: the OSM and elevation data sources,
+ * the build config and the serialization version of OTP. In an incremental build the fingerprint
+ * is saved when a street graph is built, and compared with the current inputs in the next build to
+ * decide if the street graph can be reused.
+ * <p>
+ * The data sources are identified by their URI, size and last modified time. Their content is not
+ * read, since that would take almost as long as building the street graph. A data source with an
+ * unknown size or modification time is always considered changed.
+ * <p>
+ * The whole build config is part of the fingerprint, so changing a transit parameter in it also
+ * triggers a new street graph build. This is on purpose, it is much safer than keeping track of
+ * which parameters are used to build the streets.
+ */
+public class StreetGraphFingerprint {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StreetGraphFingerprint.class);
+
+  private static final String UNKNOWN = "unknown";
+  private static final String STREET_GRAPH = "streetGraph";
+  private static final String OSM_MODULE_DURATION = "osmModuleDurationSeconds";
+
+  /** The fingerprint of each input, sorted by key. */
+  private final SortedMap<String, String> inputs;
+
+  /** The fingerprint of the street graph built from the inputs, if it is built. */
+  private final String streetGraph;
+
+  /** The time it took to build the streets from the OSM data in the street graph build. */
+  private final Duration osmModuleDuration;
+
+  private StreetGraphFingerprint(
+    SortedMap<String, String> inputs,
+    String streetGraph,
+    Duration osmModuleDuration
+  ) {
+    this.inputs = inputs;
+    this.streetGraph = streetGraph;
+    this.osmModuleDuration = osmModuleDuration;
+  }
+
+  /**
+   * Create a fingerprint of the current inputs of the street graph.
+   *
+   * @param dataSources the OSM and elevation data sources.
+   * @param buildConfig the build config as JSON.
+   */
+  public static StreetGraphFingerprint of(Collection<DataSource> dataSources, String buildConfig) {
+    var inputs = new TreeMap<String, String>();
+    inputs.put("otpSerializationVersionId", projectInfo().getOtpSerializationVersionId());
+    inputs.put(
+      "buildConfig",
+      Hashing.sha256().hashString(buildConfig, StandardCharsets.UTF_8).toString()
+    );
+    for (DataSource dataSource : dataSources) {
+      inputs.put(dataSource.type() + " " + dataSource.uri(), fingerprint(dataSource));
+    }
+    return new StreetGraphFingerprint(inputs, UNKNOWN, Duration.ZERO);
+  }
+
+  /**
+   * Read a fingerprint saved by {@link #save(File)}. Returns an empty result if the file does not
+   * exist or can not be read.
+   */
+  public static Optional<StreetGraphFingerprint> load(File file) {
+    if (!file.exists()) {
+      return Optional.empty();
+    }
+    var properties = new Properties();
+    try (var reader = new FileReader(file, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    } catch (IOException e) {
+      LOG.warn("Unable to read the street graph fingerprint {}: {}", file, e.getMessage());
+      return Optional.empty();
+    }
+    var inputs = new TreeMap<String, String>();
+    properties.stringPropertyNames().forEach(key -> inputs.put(key, properties.getProperty(key)));
+    String streetGraph = inputs.remove(STREET_GRAPH);
+    String duration = inputs.remove(OSM_MODULE_DURATION);
+    return Optional.of(
+      new StreetGraphFingerprint(
+        inputs,
+        streetGraph == null ? UNKNOWN : streetGraph,
+        duration == null ? Duration.ZERO : Duration.ofSeconds(Long.parseLong(duration))
+      )
+    );
+  }
+
+  /**
+   * Return a copy of this fingerprint with the street graph built from the inputs, and the time it
+   * took to build the streets from the OSM data.
+   */
+  public StreetGraphFingerprint withStreetGraph(
+    DataSource streetGraph,
+    Duration osmModuleDuration
+  ) {
+    return new StreetGraphFingerprint(inputs, fingerprint(streetGraph), osmModuleDuration);
+  }
+
+  /**
+   * Save the fingerprint, replacing the previous content of the file.
+   */
+  public void save(File file) throws IOException {
+    var properties = new Properties();
+    properties.putAll(inputs);
+    properties.put(STREET_GRAPH, streetGraph);
+    properties.put(OSM_MODULE_DURATION, Long.toString(osmModuleDuration.toSeconds()));
+    try (var writer = new FileWriter(file, StandardCharsets.UTF_8)) {
+      properties.store(writer, "The inputs of the street graph, used by the incremental build");
+    }
+  }
+
+  /**
+   * List the inputs which are added, removed or changed compared with a saved fingerprint, and the
+   * street graph if it is not the one built from the saved inputs. The street graph can be reused
+   * if the list is empty.
+   */
+  public List<String> listChanges(StreetGraphFingerprint saved, DataSource streetGraph) {
+    var changes = new ArrayList<String>();
+    for (Map.Entry<String, String> it : inputs.entrySet()) {
+      if (isChanged(it.getValue(), saved.inputs.get(it.getKey()))) {
+        changes.add(it.getKey());
+      }
+    }
+    for (String key : saved.inputs.keySet()) {
+      if (!inputs.containsKey(key)) {
+        changes.add(key + " (removed)");
+      }
+    }
+    if (!streetGraph.exists() || isChanged(fingerprint(streetGraph), saved.streetGraph)) {
+      changes.add(STREET_GRAPH + " " + streetGraph.path());
+    }
+    return changes;
+  }
+
+  /**
+   * The time it took to build the streets from the OSM data when the street graph was built. This
+   * is the time an incremental build saves by reusing the street graph.
+   */
+  public Duration osmModuleDuration() {
+    return osmModuleDuration;
+  }
+
+  /* private methods */
+
+  private static String fingerprint(DataSource dataSource) {
+    if (
+      dataSource.size() == DataSource.UNKNOWN || dataSource.lastModified() == DataSource.UNKNOWN
+    ) {
+      return UNKNOWN;
+    }
+    return dataSource.size() + " bytes, modified " + dataSource.lastModified();
+  }
+
+  private static boolean isChanged(String current, String saved) {
+    return UNKNOWN.equals(current) || !current.equals(saved);
+  }
+}
@@ -0,0 +1,55 @@
+package org.opentripplanner.graph_builder.module;
+
+import java.util.Set;
+import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+import org.opentripplanner.street.search.ch.ContractionHierarchyMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build a {@link ContractionHierarchy} of the street graph for the configured street modes and
+ * store it in the graph. The hierarchy is a snapshot of the street graph, so this module must run
+ * after all other modules changing the streets, like linking and elevation.
+ */
+public class ContractionHierarchyModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ContractionHierarchyModule.class);
+
+  private final Graph graph;
+  private final Set<StreetMode> modes;
+
+  public ContractionHierarchyModule(Graph graph, Set<StreetMode> modes) {
+    this.graph = graph;
+    this.modes = modes;
+  }
+
+  @Override
+  public void buildGraph() {
+    LOG.info("Building contraction hierarchy for {}...", modes);
+    long start = System.currentTimeMillis();
+    var contractionHierarchy = ContractionHierarchy.of(graph.getVertices(), modes);
+    graph.setContractionHierarchy(contractionHierarchy);
+    LOG.info(
+      "Building contraction hierarchy complete in {} s: {}",
+      (System.currentTimeMillis() - start) / 1000,
+      contractionHierarchy
+    );
+  }
+
+  @Override
+  public void checkInputs() {
+    for (StreetMode mode : modes) {
+      if (!ContractionHierarchyMetric.isSupported(mode)) {
+        throw new OtpAppException(
+          "The street mode %s is not supported by the contraction hierarchy, see the build " +
+          "config parameter 'contractionHierarchyModes'.",
+          mode
+        );
+      }
+    }
+  }
+}
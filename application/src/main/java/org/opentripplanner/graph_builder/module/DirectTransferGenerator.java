@@ -1,9 +1,12 @@
 package org.opentripplanner.graph_builder.module;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -18,6 +21,8 @@ import org.opentripplanner.graph_builder.module.nearbystops.StraightLineNearbySt
 import org.opentripplanner.graph_builder.module.nearbystops.StreetNearbyStopFinder;
 import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.street.model.edge.Edge;
@@ -81,88 +86,26 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     AtomicInteger nTransfersTotal = new AtomicInteger();
     AtomicInteger nLinkedStops = new AtomicInteger();
 
-    // This is a synchronizedMultimap so that a parallel stream may be used to insert elements.
-    var transfersByStop = Multimaps.<StopLocation, PathTransfer>synchronizedMultimap(
-      HashMultimap.create()
-    );
+    List<RouteRequest> transferProfiles = distinctTransferProfiles(transferRequests);
 
-    stops
+    // The transfers of each stop are found in parallel, and collected without locking. The
+    // collector creates a multimap per thread and merges them when all stops are processed.
+    Multimap<StopLocation, PathTransfer> transfersByStop = stops
       .stream()
       .parallel()
-      .forEach(ts0 -> {
-        /* Make transfers to each nearby stop that has lowest weight on some trip pattern.
-         * Use map based on the list of edges, so that only distinct transfers are stored. */
-        Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
-        RegularStop stop = ts0.getStop();
-
-        if (stop.transfersNotAllowed()) {
-          return;
-        }
-
-        LOG.debug("Linking stop '{}' {}", stop, ts0);
-
-        for (RouteRequest transferProfile : transferRequests) {
-          for (NearbyStop sd : nearbyStopFinder.findNearbyStops(
-            ts0,
-            transferProfile,
-            transferProfile.journey().transfer(),
-            false
-          )) {
-            // Skip the origin stop, loop transfers are not needed.
-            if (sd.stop == stop) {
-              continue;
-            }
-            if (sd.stop.transfersNotAllowed()) {
-              continue;
-            }
-            distinctTransfers.put(
-              new TransferKey(stop, sd.stop, sd.edges),
-              new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
-            );
-          }
-          if (OTPFeature.FlexRouting.isOn()) {
-            // This code is for finding transfers from AreaStops to Stops, transfers
-            // from Stops to AreaStops and between Stops are already covered above.
-            for (NearbyStop sd : nearbyStopFinder.findNearbyStops(
-              ts0,
-              transferProfile,
-              transferProfile.journey().transfer(),
-              true
-            )) {
-              // Skip the origin stop, loop transfers are not needed.
-              if (sd.stop == stop) {
-                continue;
-              }
-              if (sd.stop instanceof RegularStop) {
-                continue;
-              }
-              distinctTransfers.put(
-                new TransferKey(sd.stop, stop, sd.edges),
-                new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
-              );
-            }
-          }
-        }
-
-        LOG.debug(
-          "Linked stop {} with {} transfers to stops with different patterns.",
-          stop,
-          distinctTransfers.size()
-        );
-        if (distinctTransfers.isEmpty()) {
-          issueStore.add(new StopNotLinkedForTransfers(ts0));
-        } else {
-          distinctTransfers
-            .values()
-            .forEach(transfer -> transfersByStop.put(transfer.from, transfer));
+      .flatMap(ts0 -> {
+        Collection<PathTransfer> transfers = findTransfers(nearbyStopFinder, transferProfiles, ts0);
+        if (!transfers.isEmpty()) {
           nLinkedStops.incrementAndGet();
-          nTransfersTotal.addAndGet(distinctTransfers.size());
+          nTransfersTotal.addAndGet(transfers.size());
         }
 
         //Keep lambda! A method-ref would causes incorrect class and line number to be logged
         //noinspection Convert2MethodRef
         progress.step(m -> LOG.info(m));
-      });
+        return transfers.stream();
+      })
+      .collect(Multimaps.toMultimap(t -> t.from, t -> t, HashMultimap::create));
 
     timetableRepository.addAllTransfersByStops(transfersByStop);
 
@@ -174,6 +117,99 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     );
   }
 
+  /**
+   * Transfer requests which result in the same street search, give the same transfers. Keep only
+   * the first of them, so the street search is done once for each stop.
+   */
+  static List<RouteRequest> distinctTransferProfiles(List<RouteRequest> transferRequests) {
+    var profiles = new LinkedHashMap<TransferProfileKey, RouteRequest>();
+    for (RouteRequest request : transferRequests) {
+      profiles.putIfAbsent(TransferProfileKey.of(request), request);
+    }
+    if (profiles.size() < transferRequests.size()) {
+      LOG.info(
+        "{} of the {} transfer requests are equal to another one and are skipped.",
+        transferRequests.size() - profiles.size(),
+        transferRequests.size()
+      );
+    }
+    return List.copyOf(profiles.values());
+  }
+
+  /**
+   * Make transfers to each nearby stop that has lowest weight on some trip pattern.
+   *
+   * @return the distinct transfers from and to the stop, empty if the stop is not linked.
+   */
+  private Collection<PathTransfer> findTransfers(
+    NearbyStopFinder nearbyStopFinder,
+    List<RouteRequest> transferProfiles,
+    TransitStopVertex ts0
+  ) {
+    // Use map based on the list of edges, so that only distinct transfers are stored.
+    Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
+    RegularStop stop = ts0.getStop();
+
+    if (stop.transfersNotAllowed()) {
+      return List.of();
+    }
+
+    LOG.debug("Linking stop '{}' {}", stop, ts0);
+
+    for (RouteRequest transferProfile : transferProfiles) {
+      for (NearbyStop sd : nearbyStopFinder.findNearbyStops(
+        ts0,
+        transferProfile,
+        transferProfile.journey().transfer(),
+        false
+      )) {
+        // Skip the origin stop, loop transfers are not needed.
+        if (sd.stop == stop) {
+          continue;
+        }
+        if (sd.stop.transfersNotAllowed()) {
+          continue;
+        }
+        distinctTransfers.put(
+          new TransferKey(stop, sd.stop, sd.edges),
+          new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
+        );
+      }
+      if (OTPFeature.FlexRouting.isOn()) {
+        // This code is for finding transfers from AreaStops to Stops, transfers
+        // from Stops to AreaStops and between Stops are already covered above.
+        for (NearbyStop sd : nearbyStopFinder.findNearbyStops(
+          ts0,
+          transferProfile,
+          transferProfile.journey().transfer(),
+          true
+        )) {
+          // Skip the origin stop, loop transfers are not needed.
+          if (sd.stop == stop) {
+            continue;
+          }
+          if (sd.stop instanceof RegularStop) {
+            continue;
+          }
+          distinctTransfers.put(
+            new TransferKey(sd.stop, stop, sd.edges),
+            new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
+          );
+        }
+      }
+    }
+
+    LOG.debug(
+      "Linked stop {} with {} transfers to stops with different patterns.",
+      stop,
+      distinctTransfers.size()
+    );
+    if (distinctTransfers.isEmpty()) {
+      issueStore.add(new StopNotLinkedForTransfers(ts0));
+    }
+    return distinctTransfers.values();
+  }
+
   /**
    * Factory method for creating a NearbyStopFinder. Will create different finders depending on
    * whether the graph has a street network and if ConsiderPatternsForDirectTransfers feature is
@@ -200,4 +236,22 @@ public class DirectTransferGenerator implements GraphBuilderModule {
   }
 
   private record TransferKey(StopLocation source, StopLocation target, List<Edge> edges) {}
+
+  /**
+   * The parts of a transfer request used by the street search, see
+   * {@link org.opentripplanner.street.search.request.StreetSearchRequestMapper}.
+   */
+  private record TransferProfileKey(
+    StreetMode mode,
+    boolean wheelchair,
+    RoutingPreferences preferences
+  ) {
+    static TransferProfileKey of(RouteRequest request) {
+      return new TransferProfileKey(
+        request.journey().transfer().mode(),
+        request.wheelchair(),
+        request.preferences()
+      );
+    }
+  }
 }
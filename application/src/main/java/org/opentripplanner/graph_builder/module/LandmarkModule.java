@@ -0,0 +1,62 @@
+package org.opentripplanner.graph_builder.module;
+
+import java.util.Set;
+import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.search.landmark.Landmarks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Select landmarks and compute the {@link Landmarks} distance tables for the configured street
+ * modes, and store them in the graph. The tables are a snapshot of the street graph, so this
+ * module must run after all other modules changing the streets, like linking and elevation.
+ */
+public class LandmarkModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LandmarkModule.class);
+
+  private final Graph graph;
+  private final Set<StreetMode> modes;
+  private final int numberOfLandmarks;
+
+  public LandmarkModule(Graph graph, Set<StreetMode> modes, int numberOfLandmarks) {
+    this.graph = graph;
+    this.modes = modes;
+    this.numberOfLandmarks = numberOfLandmarks;
+  }
+
+  @Override
+  public void buildGraph() {
+    LOG.info("Computing {} landmarks for {}...", numberOfLandmarks, modes);
+    long start = System.currentTimeMillis();
+    var landmarks = Landmarks.of(graph.getVertices(), modes, numberOfLandmarks);
+    graph.setLandmarks(landmarks);
+    LOG.info(
+      "Computing landmarks complete in {} s: {}",
+      (System.currentTimeMillis() - start) / 1000,
+      landmarks
+    );
+  }
+
+  @Override
+  public void checkInputs() {
+    for (StreetMode mode : modes) {
+      if (!Landmarks.isSupported(mode)) {
+        throw new OtpAppException(
+          "The street mode %s is not supported by the landmarks, see the build config parameter " +
+          "'landmarks.modes'.",
+          mode
+        );
+      }
+    }
+    if (numberOfLandmarks < 1) {
+      throw new OtpAppException(
+        "The number of landmarks must be at least 1, see the build config parameter " +
+        "'landmarks.count'."
+      );
+    }
+  }
+}
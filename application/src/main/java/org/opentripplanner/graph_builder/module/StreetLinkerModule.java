@@ -12,6 +12,7 @@ import org.opentripplanner.graph_builder.issues.ParkAndRideEntranceRemoved;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.LinkingDirection;
+import org.opentripplanner.routing.linking.VertexLinker.LinkCandidates;
 import org.opentripplanner.routing.vehicle_parking.VehicleParking;
 import org.opentripplanner.routing.vehicle_parking.VehicleParkingHelper;
 import org.opentripplanner.street.model.edge.Edge;
@@ -106,6 +107,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
       );
     }
 
+    List<TransitStopVertex> stopsToLink = new ArrayList<>();
     for (TransitStopVertex tStop : vertices) {
       // Stops with pathways do not need to be connected to the street network, since there are explicit entrances defined for that
       if (tStop.hasPathways()) {
@@ -115,7 +117,13 @@ public class StreetLinkerModule implements GraphBuilderModule {
       if (tStop.isConnectedToGraph()) {
         continue;
       }
+      stopsToLink.add(tStop);
+    }
+
+    // Find the closest edges of all stops in parallel, before the stops are linked one by one
+    var candidates = graph.getLinker().findPermanentLinkCandidates(stopsToLink, WALK_ONLY);
 
+    for (TransitStopVertex tStop : stopsToLink) {
       // ordinarily stops only need to be accessible by foot
       StopLinkType linkType = StopLinkType.WALK_ONLY;
 
@@ -125,7 +133,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
         linkType = StopLinkType.WALK_AND_CAR;
       }
 
-      linkStopToStreetNetwork(tStop, linkType);
+      linkStopToStreetNetwork(tStop, linkType, candidates);
 
       //noinspection Convert2MethodRef
       progress.step(m -> LOG.info(m));
@@ -140,7 +148,11 @@ public class StreetLinkerModule implements GraphBuilderModule {
    * car-accessible. Therefore, flex stops are ensured to be connected to the car-accessible
    * edge. This may lead to several links being created.
    */
-  private void linkStopToStreetNetwork(TransitStopVertex tStop, StopLinkType linkType) {
+  private void linkStopToStreetNetwork(
+    TransitStopVertex tStop,
+    StopLinkType linkType,
+    LinkCandidates candidates
+  ) {
     graph
       .getLinker()
       .linkVertexPermanently(
@@ -155,7 +167,8 @@ public class StreetLinkerModule implements GraphBuilderModule {
           }
 
           return linkEdges;
-        }
+        },
+        candidates
       );
   }
 
@@ -238,12 +251,14 @@ public class StreetLinkerModule implements GraphBuilderModule {
 
   private void linkTransitEntrances(Graph graph) {
     LOG.info("Linking transit entrances to graph...");
-    for (TransitEntranceVertex tEntrance : graph.getVerticesOfType(TransitEntranceVertex.class)) {
+    var entrances = graph.getVerticesOfType(TransitEntranceVertex.class);
+    var candidates = graph.getLinker().findPermanentLinkCandidates(entrances, WALK_ONLY);
+    for (TransitEntranceVertex tEntrance : entrances) {
       graph
         .getLinker()
         .linkVertexPermanently(
           tEntrance,
-          new TraverseModeSet(TraverseMode.WALK),
+          WALK_ONLY,
           LinkingDirection.BOTH_WAYS,
           (vertex, streetVertex) ->
             List.of(
@@ -255,7 +270,8 @@ public class StreetLinkerModule implements GraphBuilderModule {
                 streetVertex,
                 (TransitEntranceVertex) vertex
               )
-            )
+            ),
+          candidates
         );
     }
   }
@@ -276,14 +292,17 @@ public class StreetLinkerModule implements GraphBuilderModule {
         )
       );
 
-    for (StationCentroidVertex station : graph.getVerticesOfType(StationCentroidVertex.class)) {
+    var stations = graph.getVerticesOfType(StationCentroidVertex.class);
+    var candidates = graph.getLinker().findPermanentLinkCandidates(stations, WALK_ONLY);
+    for (StationCentroidVertex station : stations) {
       graph
         .getLinker()
         .linkVertexPermanently(
           station,
-          new TraverseModeSet(TraverseMode.WALK),
+          WALK_ONLY,
           LinkingDirection.BOTH_WAYS,
-          stationAndStreetVertexLinker
+          stationAndStreetVertexLinker,
+          candidates
         );
     }
   }
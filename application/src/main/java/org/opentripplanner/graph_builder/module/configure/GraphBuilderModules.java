@@ -23,7 +23,9 @@ import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.graph_builder.issue.report.DataImportIssueReporter;
 import org.opentripplanner.graph_builder.issue.service.DefaultDataImportIssueStore;
+import org.opentripplanner.graph_builder.module.ContractionHierarchyModule;
 import org.opentripplanner.graph_builder.module.DirectTransferGenerator;
+import org.opentripplanner.graph_builder.module.LandmarkModule;
 import org.opentripplanner.graph_builder.module.RouteToCentroidStationIdsValidator;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
 import org.opentripplanner.graph_builder.module.islandpruning.PruneIslands;
@@ -224,6 +226,21 @@ public class GraphBuilderModules {
     return result;
   }
 
+  @Provides
+  @Singleton
+  static ContractionHierarchyModule provideContractionHierarchyModule(
+    BuildConfig config,
+    Graph graph
+  ) {
+    return new ContractionHierarchyModule(graph, config.contractionHierarchyModes);
+  }
+
+  @Provides
+  @Singleton
+  static LandmarkModule provideLandmarkModule(BuildConfig config, Graph graph) {
+    return new LandmarkModule(graph, config.landmarks.modes, config.landmarks.count);
+  }
+
   @Provides
   @Singleton
   static DirectTransferGenerator provideDirectTransferGenerator(
@@ -353,7 +370,7 @@ public class GraphBuilderModules {
     OsmModule osmModule,
     File cacheDirectory
   ) {
-    var cachedElevationsFile = new File(cacheDirectory, "cached_elevations.obj");
+    var cachedElevationsFile = new File(cacheDirectory, "cached_elevations.bin");
 
     return new ElevationModule(
       it,
@@ -9,7 +9,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.ComposingSkipEdgeStrategy;
@@ -30,6 +32,7 @@ import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
 import org.opentripplanner.street.search.state.State;
@@ -43,6 +46,9 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
   private final DataOverlayContext dataOverlayContext;
   private final Set<Vertex> ignoreVertices;
 
+  @Nullable
+  private final CompactStreetGraph compactStreetGraph;
+
   /**
    * Construct a NearbyStopFinder for the given graph and search radius.
    *
@@ -69,11 +75,32 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
     int maxStopCount,
     DataOverlayContext dataOverlayContext,
     Set<Vertex> ignoreVertices
+  ) {
+    this(durationLimit, maxStopCount, dataOverlayContext, ignoreVertices, null);
+  }
+
+  /**
+   * Construct a NearbyStopFinder for the given graph and search radius.
+   *
+   * @param maxStopCount The maximum stops to return. 0 means no limit. Regardless of the maxStopCount
+   *                     we will always return all the directly connected stops.
+   * @param ignoreVertices   A set of stop vertices to ignore and not return NearbyStops for.
+   * @param compactStreetGraph If set, the stops reached by WALK are found using the compact street
+   *                           graph instead of the A* search, see
+   *                           {@link StreetSearchBuilder#getCompactStates}.
+   */
+  public StreetNearbyStopFinder(
+    Duration durationLimit,
+    int maxStopCount,
+    DataOverlayContext dataOverlayContext,
+    Set<Vertex> ignoreVertices,
+    @Nullable CompactStreetGraph compactStreetGraph
   ) {
     this.dataOverlayContext = dataOverlayContext;
     this.durationLimit = durationLimit;
     this.maxStopCount = maxStopCount;
     this.ignoreVertices = ignoreVertices;
+    this.compactStreetGraph = compactStreetGraph;
   }
 
   /**
@@ -123,42 +150,33 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
     }
     stopsFound = new ArrayList<>(stopsFound);
 
-    ShortestPathTree<State, Edge, Vertex> spt = StreetSearchBuilder
-      .of()
-      .setSkipEdgeStrategy(getSkipEdgeStrategy())
-      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
-      .setRequest(request)
-      .setArriveBy(reverseDirection)
-      .setStreetRequest(streetRequest)
-      .setFrom(reverseDirection ? null : originVertices)
-      .setTo(reverseDirection ? originVertices : null)
-      .setDataOverlayContext(dataOverlayContext)
-      .getShortestPathTree();
+    var compactStates = compactSearch(originVertices, request, streetRequest, reverseDirection);
+    Collection<State> states = compactStates.isPresent()
+      ? compactStates.get()
+      : aStarSearch(originVertices, request, streetRequest, reverseDirection);
 
     // Only used if OTPFeature.FlexRouting.isOn()
     Multimap<AreaStop, State> locationsMap = ArrayListMultimap.create();
 
-    if (spt != null) {
-      // TODO use GenericAStar and a traverseVisitor? Add an earliestArrival switch to genericAStar?
-      for (State state : spt.getAllStates()) {
-        Vertex targetVertex = state.getVertex();
-        if (originVertices.contains(targetVertex) || ignoreVertices.contains(targetVertex)) {
-          continue;
-        }
-        if (targetVertex instanceof TransitStopVertex tsv && state.isFinal()) {
-          stopsFound.add(NearbyStop.nearbyStopForState(state, tsv.getStop()));
-        }
-        if (
-          OTPFeature.FlexRouting.isOn() &&
-          targetVertex instanceof StreetVertex streetVertex && !streetVertex.areaStops().isEmpty()
-        ) {
-          for (AreaStop areaStop : ((StreetVertex) targetVertex).areaStops()) {
-            // This is for a simplification, so that we only return one vertex from each
-            // stop location. All vertices are added to the multimap, which is filtered
-            // below, so that only the closest vertex is added to stopsFound
-            if (canBoardFlex(state, reverseDirection)) {
-              locationsMap.put(areaStop, state);
-            }
+    // TODO use GenericAStar and a traverseVisitor? Add an earliestArrival switch to genericAStar?
+    for (State state : states) {
+      Vertex targetVertex = state.getVertex();
+      if (originVertices.contains(targetVertex) || ignoreVertices.contains(targetVertex)) {
+        continue;
+      }
+      if (targetVertex instanceof TransitStopVertex tsv && state.isFinal()) {
+        stopsFound.add(NearbyStop.nearbyStopForState(state, tsv.getStop()));
+      }
+      if (
+        OTPFeature.FlexRouting.isOn() &&
+        targetVertex instanceof StreetVertex streetVertex && !streetVertex.areaStops().isEmpty()
+      ) {
+        for (AreaStop areaStop : ((StreetVertex) targetVertex).areaStops()) {
+          // This is for a simplification, so that we only return one vertex from each
+          // stop location. All vertices are added to the multimap, which is filtered
+          // below, so that only the closest vertex is added to stopsFound
+          if (canBoardFlex(state, reverseDirection)) {
+            locationsMap.put(areaStop, state);
           }
         }
       }
@@ -186,6 +204,86 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
     return stopsFound;
   }
 
+  private Collection<State> aStarSearch(
+    Set<Vertex> originVertices,
+    RouteRequest request,
+    StreetRequest streetRequest,
+    boolean reverseDirection
+  ) {
+    ShortestPathTree<State, Edge, Vertex> spt = StreetSearchBuilder
+      .of()
+      .setSkipEdgeStrategy(getSkipEdgeStrategy())
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setRequest(request)
+      .setArriveBy(reverseDirection)
+      .setStreetRequest(streetRequest)
+      .setFrom(reverseDirection ? null : originVertices)
+      .setTo(reverseDirection ? originVertices : null)
+      .setDataOverlayContext(dataOverlayContext)
+      .getShortestPathTree();
+
+    return spt == null ? List.of() : spt.getAllStates();
+  }
+
+  /**
+   * Find the states at the stops using the compact street graph, see
+   * {@link StreetSearchBuilder#getCompactStates}. Only the states at the stops, and at the area
+   * stops if flex routing is on, are created. The path with the shortest walk time is used, not
+   * the one with the lowest weight as in the A* search.
+   * <p>
+   * Empty is returned if the compact street graph is not set, for other modes than WALK, for
+   * wheelchair requests, and if the path to one of the stops can not be walked.
+   */
+  private Optional<List<State>> compactSearch(
+    Set<Vertex> originVertices,
+    RouteRequest request,
+    StreetRequest streetRequest,
+    boolean reverseDirection
+  ) {
+    if (
+      compactStreetGraph == null || streetRequest.mode() != StreetMode.WALK || request.wheelchair()
+    ) {
+      return Optional.empty();
+    }
+    var states = StreetSearchBuilder
+      .of()
+      .setRequest(request)
+      .setArriveBy(reverseDirection)
+      .setStreetRequest(streetRequest)
+      .setFrom(reverseDirection ? null : originVertices)
+      .setTo(reverseDirection ? originVertices : null)
+      .setDataOverlayContext(dataOverlayContext)
+      .getCompactStates(compactStreetGraph, durationLimit, this::isCompactSearchTarget);
+
+    if (states.isEmpty() || maxStopCount == 0) {
+      return states;
+    }
+    // The A* search stops when the max number of stops is reached, keep the closest stops
+    var sorted = new ArrayList<>(states.get());
+    sorted.sort(Comparator.comparing(State::getWeight));
+    var result = new ArrayList<State>();
+    int nStops = 0;
+    for (State state : sorted) {
+      if (hasReachedStop(state)) {
+        if (nStops == maxStopCount) {
+          continue;
+        }
+        ++nStops;
+      }
+      result.add(state);
+    }
+    return Optional.of(result);
+  }
+
+  private boolean isCompactSearchTarget(Vertex vertex) {
+    return (
+      vertex instanceof TransitStopVertex ||
+      (OTPFeature.FlexRouting.isOn() &&
+        vertex instanceof StreetVertex streetVertex &&
+        !streetVertex.areaStops().isEmpty())
+    );
+  }
+
   private SkipEdgeStrategy<State, Edge> getSkipEdgeStrategy() {
     var durationSkipEdgeStrategy = new DurationSkipEdgeStrategy(durationLimit);
 
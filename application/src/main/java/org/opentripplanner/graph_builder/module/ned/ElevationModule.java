@@ -2,13 +2,8 @@ package org.opentripplanner.graph_builder.module.ned;
 
 import static org.opentripplanner.street.model.elevation.ElevationUtils.computeEllipsoidToGeoidDifference;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.nio.file.Files;
 import java.time.Duration;
 import java.time.Instant;
@@ -27,7 +22,6 @@ import org.geotools.referencing.CRS;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
-import org.opentripplanner.framework.geometry.EncodedPolyline;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.framework.lang.IntUtils;
 import org.opentripplanner.framework.logging.ProgressTracker;
@@ -110,12 +104,13 @@ public class ElevationModule implements GraphBuilderModule {
   private final ThreadLocal<Coverage> coverageInterpolatorThreadLocal = new ThreadLocal<>();
   private final DataImportIssueStore issueStore;
   /**
-   * A map of PackedCoordinateSequence values identified by Strings of encoded polylines.
+   * The elevation profiles calculated in a previous build, identified by the street geometry.
    * <p>
-   * Note: Since this map has a key of only the encoded polylines, it is assumed that all other
-   * inputs are the same as those that occurred in the graph build that produced this data.
+   * Note: Since the profiles are identified by the geometry only, it is assumed that the elevation
+   * data is the same as in the graph build that produced this data.
    */
-  private HashMap<String, PackedCoordinateSequence> cachedElevations;
+  private ElevationProfileCache cachedElevations;
+  private final AtomicInteger nCachedProfilesUsed = new AtomicInteger(0);
   // the first coordinate in the first StreetWithElevationEdge which is used for initializing coverage instances
   private Coordinate examplarCoordinate;
   /** Used only when the ElevationModule is requested to be ran with a single thread */
@@ -176,13 +171,23 @@ public class ElevationModule implements GraphBuilderModule {
     graph.setDistanceBetweenElevationSamples(this.distanceBetweenSamplesM);
 
     // try to load in the cached elevation data
-    if (readCachedElevations) {
-      // try to load in the cached elevation data
+    if (readCachedElevations && cachedElevationsFile.exists()) {
       try {
-        ObjectInputStream in = new ObjectInputStream(new FileInputStream(cachedElevationsFile));
-        cachedElevations = (HashMap<String, PackedCoordinateSequence>) in.readObject();
-        LOG.info("Cached elevation data loaded into memory!");
-      } catch (IOException | ClassNotFoundException e) {
+        cachedElevations =
+          ElevationProfileCache.open(
+            cachedElevationsFile,
+            distanceBetweenSamplesM,
+            includeEllipsoidToGeoidDifference
+          );
+        if (cachedElevations == null) {
+          LOG.warn(
+            "The cached elevations were calculated with another distance between samples or " +
+            "geoid difference setting, they are not used."
+          );
+        } else {
+          LOG.info("Cached elevation data opened, {} profiles.", cachedElevations.size());
+        }
+      } catch (IOException | RuntimeException e) {
         issueStore.add(
           new Graphwide(
             String.format(
@@ -253,6 +258,14 @@ public class ElevationModule implements GraphBuilderModule {
     }
 
     LOG.info(progress.completeMessage());
+    if (cachedElevations != null) {
+      LOG.info(
+        "Reused {} of {} elevation profiles from the cache.",
+        nCachedProfilesUsed.get(),
+        totalElevationEdges
+      );
+      closeCachedElevations();
+    }
 
     // Iterate again to find edges that had elevation calculated.
     LinkedList<StreetEdge> edgesWithCalculatedElevations = new LinkedList<>();
@@ -265,19 +278,13 @@ public class ElevationModule implements GraphBuilderModule {
     if (writeCachedElevations) {
       // write information from edgesWithElevation to a new cache file for subsequent graph builds
       LOG.info("Writing elevation cache");
-      HashMap<String, PackedCoordinateSequence> newCachedElevations = new HashMap<>();
-      for (StreetEdge streetEdge : edgesWithCalculatedElevations) {
-        newCachedElevations.put(
-          EncodedPolyline.encode(streetEdge.getGeometry()).points(),
-          streetEdge.getElevationProfile()
-        );
-      }
       try {
-        ObjectOutputStream out = new ObjectOutputStream(
-          new BufferedOutputStream(new FileOutputStream(cachedElevationsFile))
+        ElevationProfileCache.write(
+          cachedElevationsFile,
+          distanceBetweenSamplesM,
+          includeEllipsoidToGeoidDifference,
+          edgesWithCalculatedElevations
         );
-        out.writeObject(newCachedElevations);
-        out.close();
       } catch (IOException e) {
         issueStore.add(new Graphwide("Failed to write cached elevation file: " + e.getMessage()));
       }
@@ -320,6 +327,28 @@ public class ElevationModule implements GraphBuilderModule {
     }
   }
 
+  /**
+   * Look up the elevation profile in the cache. If the cache can not be read, the profile is
+   * calculated.
+   */
+  private PackedCoordinateSequence getCachedElevationProfile(Geometry geometry) {
+    try {
+      return cachedElevations.get(geometry);
+    } catch (IOException e) {
+      LOG.warn("Failed to read cached elevation profile: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  private void closeCachedElevations() {
+    try {
+      cachedElevations.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close the cached elevations file: {}", e.getMessage());
+    }
+    cachedElevations = null;
+  }
+
   private void updateElevationMetadata(Graph graph) {
     if (nPointsOutsideDEM.get() < nPointsEvaluated.get()) {
       graph.hasElevation = true;
@@ -403,12 +432,11 @@ public class ElevationModule implements GraphBuilderModule {
     // first try to find a cached value if possible
     Geometry edgeGeometry = ee.getGeometry();
     if (cachedElevations != null) {
-      PackedCoordinateSequence coordinateSequence = cachedElevations.get(
-        EncodedPolyline.encode(edgeGeometry).points()
-      );
+      PackedCoordinateSequence coordinateSequence = getCachedElevationProfile(edgeGeometry);
       if (coordinateSequence != null) {
         // found a cached value! Set the elevation profile with the pre-calculated data.
         setEdgeElevationProfile(ee, coordinateSequence);
+        nCachedProfilesUsed.incrementAndGet();
         return;
       }
     }
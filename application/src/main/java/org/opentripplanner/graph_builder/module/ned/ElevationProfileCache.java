@@ -0,0 +1,239 @@
+package org.opentripplanner.graph_builder.module.ned;
+
+import com.google.common.hash.Hashing;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.opentripplanner.street.model.edge.StreetEdge;
+
+/**
+ * A file of calculated elevation profiles, used to reuse the profiles of unchanged streets in
+ * later graph builds. The profiles are keyed by a 64-bit hash of the coordinates of the street
+ * geometry, rounded to 7 decimals like in OSM. So a street gets the same key in every build as
+ * long as its geometry is unchanged, even if the OSM ids or the order of the edges change.
+ * <p>
+ * The file starts with an index of all keys, sorted, followed by the profiles. The index is
+ * memory-mapped and searched with a binary search, and a profile is read from the file only when
+ * it is found. So the cache does not use heap memory, except for the profiles in use.
+ * <p>
+ * The distance between the samples and the use of the geoid difference are stored in the file. If
+ * they differ from the current build, the cache is not used.
+ * <p>
+ * This class is thread-safe.
+ */
+class ElevationProfileCache implements Closeable {
+
+  private static final int MAGIC = 0x4f54454c;
+  private static final int FORMAT_VERSION = 1;
+
+  private static final double COORDINATE_PRECISION = 1e7;
+
+  /** Magic, version, distance between samples, geoid difference flag and number of profiles. */
+  private static final int HEADER_SIZE = 4 + 4 + 8 + 1 + 4;
+
+  /** Key, offset of the profile in the file and number of points in the profile. */
+  private static final int INDEX_ENTRY_SIZE = 8 + 8 + 4;
+
+  /** Each point in a profile is stored as the distance along the edge and the elevation. */
+  private static final int POINT_SIZE = 8 + 8;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer index;
+  private final int size;
+
+  private ElevationProfileCache(FileChannel channel, MappedByteBuffer index, int size) {
+    this.channel = channel;
+    this.index = index;
+    this.size = size;
+  }
+
+  /**
+   * Open a cache file written by {@link #write(File, double, boolean, Collection)}.
+   *
+   * @return {@code null} if the file was written with other parameters than the given ones.
+   * @throws IOException if the file can not be read, or it is not an elevation profile cache.
+   */
+  @Nullable
+  static ElevationProfileCache open(
+    File file,
+    double distanceBetweenSamplesM,
+    boolean includeEllipsoidToGeoidDifference
+  ) throws IOException {
+    var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    try {
+      var header = ByteBuffer.allocate(HEADER_SIZE);
+      readFully(channel, header, 0);
+      if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+        throw new IOException("Unknown format of the elevation cache " + file);
+      }
+      if (
+        header.getDouble() != distanceBetweenSamplesM ||
+        (header.get() != 0) != includeEllipsoidToGeoidDifference
+      ) {
+        channel.close();
+        return null;
+      }
+      int size = header.getInt();
+      var index = channel.map(
+        FileChannel.MapMode.READ_ONLY,
+        HEADER_SIZE,
+        (long) size * INDEX_ENTRY_SIZE
+      );
+      return new ElevationProfileCache(channel, index, size);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Write the elevation profiles of the given street edges to a new cache file, replacing the
+   * previous one. The file is written to a temporary file first, so a cache opened from the same
+   * file is still valid while the new one is written.
+   */
+  static void write(
+    File file,
+    double distanceBetweenSamplesM,
+    boolean includeEllipsoidToGeoidDifference,
+    Collection<StreetEdge> edges
+  ) throws IOException {
+    List<Entry> entries = new ArrayList<>(edges.size());
+    for (StreetEdge edge : edges) {
+      entries.add(new Entry(key(edge.getGeometry()), edge.getElevationProfile()));
+    }
+    entries.sort(Comparator.comparingLong(Entry::key));
+    entries = removeDuplicateKeys(entries);
+
+    File tempFile = new File(file.getPath() + ".tmp");
+    try (
+      var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))
+    ) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeDouble(distanceBetweenSamplesM);
+      out.writeBoolean(includeEllipsoidToGeoidDifference);
+      out.writeInt(entries.size());
+
+      long offset = HEADER_SIZE + (long) entries.size() * INDEX_ENTRY_SIZE;
+      for (Entry entry : entries) {
+        int numPoints = entry.profile().size();
+        out.writeLong(entry.key());
+        out.writeLong(offset);
+        out.writeInt(numPoints);
+        offset += (long) numPoints * POINT_SIZE;
+      }
+      for (Entry entry : entries) {
+        var profile = entry.profile();
+        for (int i = 0; i < profile.size(); i++) {
+          out.writeDouble(profile.getX(i));
+          out.writeDouble(profile.getY(i));
+        }
+      }
+    }
+    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * The elevation profile of a street with the given geometry, or {@code null} if it is not
+   * cached.
+   */
+  @Nullable
+  PackedCoordinateSequence get(Geometry geometry) throws IOException {
+    long key = key(geometry);
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int position = mid * INDEX_ENTRY_SIZE;
+      long midKey = index.getLong(position);
+      if (midKey < key) {
+        low = mid + 1;
+      } else if (midKey > key) {
+        high = mid - 1;
+      } else {
+        return readProfile(index.getLong(position + 8), index.getInt(position + 16));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The number of elevation profiles in the cache.
+   */
+  int size() {
+    return size;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  static long key(Geometry geometry) {
+    var hasher = Hashing.murmur3_128().newHasher();
+    for (Coordinate c : geometry.getCoordinates()) {
+      hasher.putLong(Math.round(c.x * COORDINATE_PRECISION));
+      hasher.putLong(Math.round(c.y * COORDINATE_PRECISION));
+    }
+    return hasher.hash().asLong();
+  }
+
+  /* private methods */
+
+  private PackedCoordinateSequence readProfile(long offset, int numPoints) throws IOException {
+    var buffer = ByteBuffer.allocate(numPoints * POINT_SIZE);
+    readFully(channel, buffer, offset);
+    var coordinates = new Coordinate[numPoints];
+    for (int i = 0; i < numPoints; i++) {
+      coordinates[i] = new Coordinate(buffer.getDouble(), buffer.getDouble());
+    }
+    return new PackedCoordinateSequence.Double(coordinates);
+  }
+
+  /**
+   * Read from the given position until the buffer is full, and flip it.
+   */
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+    throws IOException {
+    while (buffer.hasRemaining()) {
+      int n = channel.read(buffer, position + buffer.position());
+      if (n < 0) {
+        throw new IOException("Unexpected end of the elevation cache");
+      }
+    }
+    buffer.flip();
+  }
+
+  /**
+   * Streets with the same geometry have the same profile, keep one of them. Expects the entries to
+   * be sorted by key.
+   */
+  private static List<Entry> removeDuplicateKeys(List<Entry> entries) {
+    List<Entry> result = new ArrayList<>(entries.size());
+    for (Entry entry : entries) {
+      if (result.isEmpty() || result.getLast().key() != entry.key()) {
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  private record Entry(long key, PackedCoordinateSequence profile) {}
+}
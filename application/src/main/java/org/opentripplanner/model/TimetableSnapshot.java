@@ -13,18 +13,22 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import javax.annotation.Nullable;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.framework.Result;
 import org.opentripplanner.transit.model.network.Route;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.model.timetable.RealTimeTripTimes;
 import org.opentripplanner.transit.model.timetable.Trip;
 import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
 import org.opentripplanner.transit.model.timetable.TripOnServiceDate;
@@ -141,12 +145,47 @@ public class TimetableSnapshot {
   private final Map<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById;
   private final Map<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay;
 
+  /**
+   * The last service date each trip created at runtime was updated for. This is used to purge the
+   * added trips and the patterns and routes they refer to when they have expired. It is only
+   * maintained in the buffer, committed snapshots do not need it.
+   */
+  private final Map<FeedScopedId, LocalDate> lastServiceDateOfRealTimeAddedTrip = new HashMap<>();
+
+  /**
+   * The last committed snapshot. The indexes of a new snapshot are shared with it if they have not
+   * changed since, so the cost of a commit does not depend on the number of trips added or
+   * modified by earlier real-time updates. Only set in the buffer.
+   */
+  @Nullable
+  private TimetableSnapshot lastCommittedSnapshot;
+
+  /**
+   * {@code true} if any of the indexes, except the timetables, have been modified since the last
+   * commit.
+   */
+  private boolean indexesModified = true;
+
   /**
    * Boolean value indicating that timetable snapshot is read only if true. Once it is true, it
    * shouldn't be possible to change it to false anymore.
    */
   private final boolean readOnly;
 
+  /**
+   * The number of commits of the buffer. A committed snapshot keeps the version it was committed
+   * with, so two snapshots with the same version contain the same real-time data.
+   */
+  private long version;
+
+  /**
+   * The real-time transit layer updated in the same commit as this snapshot, or null if there is
+   * no real-time transit layer or this is the buffer. Routing should use this layer together with
+   * this snapshot, so that they see the same real-time data.
+   */
+  @Nullable
+  private final TransitLayer realtimeTransitLayer;
+
   /**
    * Boolean value indicating that this timetable snapshot contains changes compared to the state of
    * the last commit if true.
@@ -164,7 +203,9 @@ public class TimetableSnapshot {
       new HashMap<>(),
       new HashMap<>(),
       HashMultimap.create(),
-      false
+      false,
+      0,
+      null
     );
   }
 
@@ -178,7 +219,9 @@ public class TimetableSnapshot {
     Map<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById,
     Map<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay,
     SetMultimap<StopLocation, TripPattern> patternsForStop,
-    boolean readOnly
+    boolean readOnly,
+    long version,
+    @Nullable TransitLayer realtimeTransitLayer
   ) {
     this.timetables = timetables;
     this.realTimeNewTripPatternsForModifiedTrips = realTimeNewTripPatternsForModifiedTrips;
@@ -190,6 +233,8 @@ public class TimetableSnapshot {
     this.realTimeAddedTripOnServiceDateForTripAndDay = realTimeAddedTripOnServiceDateForTripAndDay;
     this.patternsForStop = patternsForStop;
     this.readOnly = readOnly;
+    this.version = version;
+    this.realtimeTransitLayer = realtimeTransitLayer;
   }
 
   /**
@@ -304,6 +349,10 @@ public class TimetableSnapshot {
     TripPattern pattern = realTimeTripUpdate.pattern();
     LocalDate serviceDate = realTimeTripUpdate.serviceDate();
     TripTimes updatedTripTimes = realTimeTripUpdate.updatedTripTimes();
+    if (updatedTripTimes instanceof RealTimeTripTimes realTimeTripTimes) {
+      // The update is finished, the trip times are not modified after this
+      realTimeTripTimes.compactDelays();
+    }
 
     Timetable tt = resolve(pattern, serviceDate);
     TimetableBuilder ttb = tt.copyOf().withServiceDate(serviceDate);
@@ -319,7 +368,8 @@ public class TimetableSnapshot {
       // Remember this pattern for the added trip id and service date
       FeedScopedId tripId = trip.getId();
       TripIdAndServiceDate tripIdAndServiceDate = new TripIdAndServiceDate(tripId, serviceDate);
-      realTimeNewTripPatternsForModifiedTrips.put(tripIdAndServiceDate, pattern);
+      var previous = realTimeNewTripPatternsForModifiedTrips.put(tripIdAndServiceDate, pattern);
+      indexesModified |= previous != pattern;
     }
 
     // To make these trip patterns visible for departureRow searches.
@@ -328,13 +378,14 @@ public class TimetableSnapshot {
     Route route = trip.getRoute();
 
     if (realTimeTripUpdate.routeCreation()) {
-      realtimeAddedRoutes.put(route.getId(), route);
+      indexesModified |= realtimeAddedRoutes.put(route.getId(), route) != route;
     }
     if (realTimeTripUpdate.tripCreation()) {
       FeedScopedId tripId = trip.getId();
-      realTimeAddedTrips.put(tripId, trip);
-      realTimeAddedPatternForTrip.put(trip, pattern);
-      realTimeAddedPatternsForRoute.put(route, pattern);
+      indexesModified |= realTimeAddedTrips.put(tripId, trip) != trip;
+      indexesModified |= realTimeAddedPatternForTrip.put(trip, pattern) != pattern;
+      indexesModified |= realTimeAddedPatternsForRoute.put(route, pattern);
+      lastServiceDateOfRealTimeAddedTrip.merge(tripId, serviceDate, TimetableSnapshot::max);
       TripOnServiceDate tripOnServiceDate = realTimeTripUpdate.addedTripOnServiceDate();
 
       if (tripOnServiceDate != null) {
@@ -343,6 +394,7 @@ public class TimetableSnapshot {
           new TripIdAndServiceDate(tripId, serviceDate),
           tripOnServiceDate
         );
+        indexesModified = true;
       }
     }
 
@@ -371,25 +423,44 @@ public class TimetableSnapshot {
     if (!force && !this.isDirty()) {
       return null;
     }
-    TimetableSnapshot ret = new TimetableSnapshot(
-      Map.copyOf(timetables),
-      Map.copyOf(realTimeNewTripPatternsForModifiedTrips),
-      Map.copyOf(realtimeAddedRoutes),
-      Map.copyOf(realTimeAddedTrips),
-      Map.copyOf(realTimeAddedPatternForTrip),
-      ImmutableSetMultimap.copyOf(realTimeAddedPatternsForRoute),
-      Map.copyOf(realTimeAddedTripOnServiceDateById),
-      Map.copyOf(realTimeAddedTripOnServiceDateForTripAndDay),
-      ImmutableSetMultimap.copyOf(patternsForStop),
-      true
-    );
 
+    TransitLayer updatedRealtimeTransitLayer = null;
     if (transitLayerUpdater != null) {
-      transitLayerUpdater.update(dirtyTimetables.values(), timetables);
+      updatedRealtimeTransitLayer = transitLayerUpdater.update(dirtyTimetables.values(), timetables);
     }
 
+    ++version;
+    // Share the indexes of the last committed snapshot if they are unchanged
+    var indexes = (indexesModified || lastCommittedSnapshot == null) ? null : lastCommittedSnapshot;
+    TimetableSnapshot ret = new TimetableSnapshot(
+      Map.copyOf(timetables),
+      indexes == null
+        ? Map.copyOf(realTimeNewTripPatternsForModifiedTrips)
+        : indexes.realTimeNewTripPatternsForModifiedTrips,
+      indexes == null ? Map.copyOf(realtimeAddedRoutes) : indexes.realtimeAddedRoutes,
+      indexes == null ? Map.copyOf(realTimeAddedTrips) : indexes.realTimeAddedTrips,
+      indexes == null
+        ? Map.copyOf(realTimeAddedPatternForTrip)
+        : indexes.realTimeAddedPatternForTrip,
+      indexes == null
+        ? ImmutableSetMultimap.copyOf(realTimeAddedPatternsForRoute)
+        : indexes.realTimeAddedPatternsForRoute,
+      indexes == null
+        ? Map.copyOf(realTimeAddedTripOnServiceDateById)
+        : indexes.realTimeAddedTripOnServiceDateById,
+      indexes == null
+        ? Map.copyOf(realTimeAddedTripOnServiceDateForTripAndDay)
+        : indexes.realTimeAddedTripOnServiceDateForTripAndDay,
+      indexes == null ? ImmutableSetMultimap.copyOf(patternsForStop) : indexes.patternsForStop,
+      true,
+      version,
+      updatedRealtimeTransitLayer
+    );
+
     this.dirtyTimetables.clear();
     this.dirty = false;
+    this.indexesModified = false;
+    this.lastCommittedSnapshot = ret;
 
     return ret;
   }
@@ -415,6 +486,9 @@ public class TimetableSnapshot {
     ) {
       dirty = true;
     }
+    if (newTripPatternsForModifiedTripsWereCleared || addedTripPatternsWereCleared) {
+      indexesModified = true;
+    }
   }
 
   /**
@@ -438,6 +512,7 @@ public class TimetableSnapshot {
       // Dissociate the given trip from any realtime-added pattern.
       // The trip will then fall back to its original scheduled pattern.
       realTimeNewTripPatternsForModifiedTrips.remove(new TripIdAndServiceDate(tripId, serviceDate));
+      indexesModified = true;
       // Remove times for the trip from any timetables
       // under that now-obsolete realtime-added pattern.
       SortedSet<Timetable> sortedTimetables = this.timetables.get(pattern);
@@ -475,7 +550,9 @@ public class TimetableSnapshot {
   }
 
   /**
-   * Removes all Timetables which are valid for a ServiceDate on-or-before the one supplied.
+   * Removes all Timetables which are valid for a ServiceDate on-or-before the one supplied, and
+   * all trips added by real-time updates that are not running after it. The trip patterns and
+   * routes created for these trips are removed from the indexes when no trip refers to them.
    *
    * @return true if any data has been modified and false if no purging has happened.
    */
@@ -516,9 +593,54 @@ public class TimetableSnapshot {
       }
     }
 
+    if (purgeExpiredRealTimeAddedTrips(serviceDate)) {
+      modified = true;
+    }
+    if (modified) {
+      clearPatternsForStop();
+      indexesModified = true;
+    }
     return modified;
   }
 
+  /**
+   * The version of the real-time data in this snapshot, increasing with each commit. Readers can
+   * use it to check that they see the same real-time data across several requests.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * @return the real-time transit layer committed together with this snapshot, or null if it is not
+   * available. See {@link #realtimeTransitLayer}.
+   */
+  @Nullable
+  public TransitLayer getRealtimeTransitLayer() {
+    return realtimeTransitLayer;
+  }
+
+  /**
+   * All real-time timetables in this snapshot, for all trip patterns and service dates.
+   */
+  public List<Timetable> listTimetables() {
+    return timetables.values().stream().flatMap(Collection::stream).toList();
+  }
+
+  /**
+   * The number of trip patterns with real-time timetables.
+   */
+  public int countPatternsWithRealTimeTimetables() {
+    return timetables.size();
+  }
+
+  /**
+   * The number of trips on a service date that have been moved to a new trip pattern.
+   */
+  public int countNewTripPatternsForModifiedTrips() {
+    return realTimeNewTripPatternsForModifiedTrips.size();
+  }
+
   public boolean isDirty() {
     if (readOnly) {
       return false;
@@ -587,9 +709,68 @@ public class TimetableSnapshot {
       .keySet()
       .removeIf(route -> feedId.equals(route.getId().getFeedId()));
     realtimeAddedRoutes.keySet().removeIf(id -> feedId.equals(id.getFeedId()));
+    lastServiceDateOfRealTimeAddedTrip.keySet().removeIf(id -> feedId.equals(id.getFeedId()));
     return removedEntry;
   }
 
+  /**
+   * Remove the trips added by real-time updates whose last service date is on-or-before the one
+   * supplied, and the trips on service date, patterns and routes only used by them.
+   *
+   * @return true if any trip was removed
+   */
+  private boolean purgeExpiredRealTimeAddedTrips(LocalDate serviceDate) {
+    boolean removedTripOnServiceDate = realTimeAddedTripOnServiceDateForTripAndDay
+      .keySet()
+      .removeIf(tripIdAndServiceDate -> !serviceDate.isBefore(tripIdAndServiceDate.serviceDate()));
+    if (removedTripOnServiceDate) {
+      realTimeAddedTripOnServiceDateById
+        .values()
+        .removeIf(tripOnServiceDate ->
+          !serviceDate.isBefore(tripOnServiceDate.getServiceDate())
+        );
+    }
+
+    var expiredTripIds = new HashSet<FeedScopedId>();
+    lastServiceDateOfRealTimeAddedTrip.forEach((tripId, lastServiceDate) -> {
+      if (!serviceDate.isBefore(lastServiceDate)) {
+        expiredTripIds.add(tripId);
+      }
+    });
+    if (expiredTripIds.isEmpty()) {
+      return removedTripOnServiceDate;
+    }
+
+    lastServiceDateOfRealTimeAddedTrip.keySet().removeAll(expiredTripIds);
+    for (FeedScopedId tripId : expiredTripIds) {
+      Trip trip = realTimeAddedTrips.remove(tripId);
+      if (trip != null) {
+        realTimeAddedPatternForTrip.remove(trip);
+      }
+    }
+
+    // Keep the patterns and routes still used by a trip that has not expired
+    var patternsInUse = new HashSet<>(realTimeAddedPatternForTrip.values());
+    realTimeAddedPatternsForRoute.values().removeIf(pattern -> !patternsInUse.contains(pattern));
+    realtimeAddedRoutes
+      .values()
+      .removeIf(route -> !realTimeAddedPatternsForRoute.containsKey(route));
+    return true;
+  }
+
+  /**
+   * Remove the patterns which are no longer in use from the stop index.
+   *
+   * @return true if any pattern was removed
+   */
+  private boolean clearPatternsForStop() {
+    var patternsInUse = new HashSet<TripPattern>();
+    patternsInUse.addAll(timetables.keySet());
+    patternsInUse.addAll(realTimeNewTripPatternsForModifiedTrips.values());
+    patternsInUse.addAll(realTimeAddedPatternForTrip.values());
+    return patternsForStop.values().removeIf(pattern -> !patternsInUse.contains(pattern));
+  }
+
   /**
    * Add the patterns to the stop index, only if they come from a modified pattern
    */
@@ -598,7 +779,7 @@ public class TimetableSnapshot {
       //TODO - SIRI: Add pattern to index?
 
       for (var stop : tripPattern.getStops()) {
-        patternsForStop.put(stop, tripPattern);
+        indexesModified |= patternsForStop.put(stop, tripPattern);
       }
     }
   }
@@ -638,6 +819,10 @@ public class TimetableSnapshot {
     dirty = true;
   }
 
+  private static LocalDate max(LocalDate a, LocalDate b) {
+    return a.isAfter(b) ? a : b;
+  }
+
   private void validateNotReadOnly() {
     if (readOnly) {
       throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
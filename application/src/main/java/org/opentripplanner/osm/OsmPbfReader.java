@@ -0,0 +1,256 @@
+package org.opentripplanner.osm;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+import org.openstreetmap.osmosis.osmbinary.Fileformat;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+
+/**
+ * Read the blocks of an OpenStreetMap PBF file and pass them to an {@link OsmParser}. The
+ * blocks are decompressed and decoded on a pool of worker threads, while the parser is called on
+ * the reading thread in the order the blocks appear in the file. This way the parser and the
+ * {@link org.opentripplanner.graph_builder.module.osm.OsmDatabase} do not need to be thread-safe.
+ * <p>
+ * The first time a file is read, the entity types of each block are recorded in a
+ * {@link BlockIndex}. Later passes over the same file use the index to skip the blocks that do not
+ * contain the entities of the current {@link OsmParserPhase}, without decompressing them. PBF files
+ * are usually sorted by entity type, so the ways pass only decodes the way blocks and the nodes
+ * pass only decodes the node blocks.
+ */
+class OsmPbfReader {
+
+  private static final String HEADER_BLOCK = "OSMHeader";
+  private static final String DATA_BLOCK = "OSMData";
+
+  /** The maximum size of a blob header and a blob, as defined by the PBF format. */
+  private static final int MAX_HEADER_SIZE = 64 * 1024;
+  private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+  private final ExecutorService executor;
+  private final int maxBlocksInProgress;
+
+  OsmPbfReader(int numberOfThreads) {
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("At least one thread is needed: " + numberOfThreads);
+    }
+    var threadCount = new AtomicInteger();
+    this.executor =
+      Executors.newFixedThreadPool(
+        numberOfThreads,
+        r -> {
+          var thread = new Thread(r, "osm-pbf-reader-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+      );
+    // Keep enough blocks in progress for all threads to be busy while the parser is working,
+    // but not so many that the decoded blocks use a lot of memory.
+    this.maxBlocksInProgress = 2 * numberOfThreads;
+  }
+
+  /**
+   * Read all blocks in the input stream which may contain entities of the given phase. The stream
+   * is not closed.
+   *
+   * @param index The entity types of each block in the file. It is populated if it is empty, and
+   *              used to skip blocks if it is not.
+   */
+  void read(InputStream input, OsmParserPhase phase, BlockIndex index, OsmParser parser)
+    throws IOException {
+    var in = new DataInputStream(input);
+    var inProgress = new ArrayDeque<Future<DecodedBlock>>();
+    boolean buildIndex = index.isEmpty();
+    int blockNumber = 0;
+
+    for (var header = readHeader(in); header != null; header = readHeader(in), ++blockNumber) {
+      int blobSize = header.getDatasize();
+      if (blobSize < 0 || blobSize > MAX_BLOB_SIZE) {
+        throw new IOException("Invalid PBF blob size: " + blobSize);
+      }
+      boolean skip =
+        !buildIndex && DATA_BLOCK.equals(header.getType()) && !index.contains(blockNumber, phase);
+      if (skip) {
+        in.skipNBytes(blobSize);
+        continue;
+      }
+      byte[] data = new byte[blobSize];
+      in.readFully(data);
+      var blob = new RawBlob(header.getType(), data);
+      inProgress.add(executor.submit(() -> decode(blob)));
+      if (inProgress.size() >= maxBlocksInProgress) {
+        parse(inProgress.remove(), parser, buildIndex ? index : null);
+      }
+    }
+    while (!inProgress.isEmpty()) {
+      parse(inProgress.remove(), parser, buildIndex ? index : null);
+    }
+    parser.complete();
+  }
+
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /* private methods */
+
+  /**
+   * Read the next blob header.
+   *
+   * @return {@code null} at the end of the file.
+   */
+  @Nullable
+  private static Fileformat.BlobHeader readHeader(DataInputStream in) throws IOException {
+    int headerSize;
+    try {
+      headerSize = in.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    if (headerSize < 0 || headerSize > MAX_HEADER_SIZE) {
+      throw new IOException("Invalid PBF blob header size: " + headerSize);
+    }
+    byte[] header = new byte[headerSize];
+    in.readFully(header);
+    return Fileformat.BlobHeader.parseFrom(header);
+  }
+
+  private static DecodedBlock decode(RawBlob blob) throws IOException {
+    byte[] data = uncompress(Fileformat.Blob.parseFrom(blob.data()));
+    return switch (blob.type()) {
+      case HEADER_BLOCK -> new DecodedBlock(Osmformat.HeaderBlock.parseFrom(data), null);
+      case DATA_BLOCK -> new DecodedBlock(null, Osmformat.PrimitiveBlock.parseFrom(data));
+      // Unknown blocks must be skipped according to the specification
+      default -> new DecodedBlock(null, null);
+    };
+  }
+
+  private static byte[] uncompress(Fileformat.Blob blob) throws IOException {
+    if (blob.hasRaw()) {
+      return blob.getRaw().toByteArray();
+    }
+    if (!blob.hasZlibData()) {
+      throw new IOException("Unsupported PBF blob compression, only zlib is supported.");
+    }
+    var inflater = new Inflater();
+    try {
+      inflater.setInput(blob.getZlibData().toByteArray());
+      byte[] data = new byte[blob.getRawSize()];
+      int size = inflater.inflate(data);
+      if (size != data.length || !inflater.finished()) {
+        throw new IOException("Unexpected size of uncompressed PBF blob: " + size);
+      }
+      return data;
+    } catch (DataFormatException e) {
+      throw new InvalidProtocolBufferException("Invalid zlib data in PBF blob: " + e.getMessage());
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static void parse(
+    Future<DecodedBlock> future,
+    OsmParser parser,
+    @Nullable BlockIndex index
+  ) throws IOException {
+    DecodedBlock block;
+    try {
+      block = future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading OSM data", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioe) {
+        throw ioe;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+    if (block.header() != null) {
+      parser.parse(block.header());
+    }
+    if (block.data() != null) {
+      if (index != null) {
+        index.add(block.data());
+      }
+      parser.parse(block.data());
+    } else if (index != null) {
+      // Keep the numbering of the index in sync with the blocks in the file
+      index.addEmpty();
+    }
+  }
+
+  private record RawBlob(String type, byte[] data) {}
+
+  private record DecodedBlock(
+    @Nullable Osmformat.HeaderBlock header,
+    @Nullable Osmformat.PrimitiveBlock data
+  ) {}
+
+  /**
+   * The entity types in each block of a PBF file, by the position of the block in the file.
+   * Header blocks and unknown blocks are included, so the numbering is the same as in the file.
+   */
+  static class BlockIndex {
+
+    private static final byte NODES = 1;
+    private static final byte WAYS = 2;
+    private static final byte RELATIONS = 4;
+
+    private final List<Byte> blocks = new ArrayList<>();
+
+    boolean isEmpty() {
+      return blocks.isEmpty();
+    }
+
+    int size() {
+      return blocks.size();
+    }
+
+    boolean contains(int blockNumber, OsmParserPhase phase) {
+      // Blocks added to the file after it was indexed are always read
+      if (blockNumber >= blocks.size()) {
+        return true;
+      }
+      byte mask =
+        switch (phase) {
+          case Relations -> RELATIONS;
+          case Ways -> WAYS;
+          case Nodes -> NODES;
+        };
+      return (blocks.get(blockNumber) & mask) != 0;
+    }
+
+    private void add(Osmformat.PrimitiveBlock block) {
+      byte types = 0;
+      for (var group : block.getPrimitivegroupList()) {
+        if (group.getNodesCount() > 0 || group.hasDense()) {
+          types |= NODES;
+        }
+        if (group.getWaysCount() > 0) {
+          types |= WAYS;
+        }
+        if (group.getRelationsCount() > 0) {
+          types |= RELATIONS;
+        }
+      }
+      blocks.add(types);
+    }
+
+    private void addEmpty() {
+      blocks.add((byte) 0);
+    }
+  }
+}
@@ -5,7 +5,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.ZoneId;
-import org.openstreetmap.osmosis.osmbinary.file.BlockInputStream;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.datastore.api.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
@@ -22,7 +21,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Parser for the OpenStreetMap PBF format. Parses files in three passes: First the relations, then
- * the ways, then the nodes are also loaded.
+ * the ways, then the nodes are also loaded. The blocks of the file are decoded in parallel, and
+ * the second and third pass only decode the blocks containing ways and nodes, see
+ * {@link OsmPbfReader}.
  */
 public class OsmProvider {
 
@@ -40,6 +41,9 @@ public class OsmProvider {
   private final WayPropertySet wayPropertySet;
   private byte[] cachedBytes = null;
 
+  /** The entity types of each block in the file, recorded in the first pass. */
+  private final OsmPbfReader.BlockIndex blockIndex = new OsmPbfReader.BlockIndex();
+
   /** For tests */
   public OsmProvider(File file, boolean cacheDataInMem) {
     this(
@@ -67,19 +71,22 @@ public class OsmProvider {
   }
 
   public void readOsm(OsmDatabase osmdb) {
+    var reader = new OsmPbfReader(Runtime.getRuntime().availableProcessors());
     try {
       OsmParser parser = new OsmParser(osmdb, this);
 
-      parsePhase(parser, OsmParserPhase.Relations);
+      parsePhase(reader, parser, OsmParserPhase.Relations);
       osmdb.doneFirstPhaseRelations();
 
-      parsePhase(parser, OsmParserPhase.Ways);
+      parsePhase(reader, parser, OsmParserPhase.Ways);
       osmdb.doneSecondPhaseWays();
 
-      parsePhase(parser, OsmParserPhase.Nodes);
+      parsePhase(reader, parser, OsmParserPhase.Nodes);
       osmdb.doneThirdPhaseNodes();
     } catch (Exception ex) {
       throw new IllegalStateException("error loading OSM from path " + source.path(), ex);
+    } finally {
+      reader.shutdown();
     }
   }
 
@@ -105,21 +112,11 @@ public class OsmProvider {
     return ProgressTracker.track("Parse OSM " + phase, 1000, size, inputStream, m -> LOG.info(m));
   }
 
-  private void parsePhase(OsmParser parser, OsmParserPhase phase) throws IOException {
+  private void parsePhase(OsmPbfReader reader, OsmParser parser, OsmParserPhase phase)
+    throws IOException {
     parser.setPhase(phase);
-    BlockInputStream in = null;
-    try {
-      in = new BlockInputStream(createInputStream(phase), parser);
-      in.process();
-    } finally {
-      // Close
-      try {
-        if (in != null) {
-          in.close();
-        }
-      } catch (Exception e) {
-        LOG.error(e.getMessage(), e);
-      }
+    try (InputStream in = createInputStream(phase)) {
+      reader.read(in, phase, blockIndex, parser);
     }
   }
 
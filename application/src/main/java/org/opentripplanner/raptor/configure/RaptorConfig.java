@@ -1,10 +1,14 @@
 package org.opentripplanner.raptor.configure;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.request.RaptorEnvironment;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.rangeraptor.ConcurrentRangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.DefaultRangeRaptorWorker;
 import org.opentripplanner.raptor.rangeraptor.RangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.RangeRaptorWorkerComposite;
@@ -13,6 +17,7 @@ import org.opentripplanner.raptor.rangeraptor.context.SearchContextViaLeg;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.raptor.rangeraptor.internalapi.PassThroughPointsService;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RangeRaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerState;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
@@ -21,6 +26,7 @@ import org.opentripplanner.raptor.rangeraptor.multicriteria.configure.McRangeRap
 import org.opentripplanner.raptor.rangeraptor.standard.configure.StdRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
 
 /**
  * This class is responsible for creating a new search and holding application scoped Raptor state.
@@ -32,6 +38,12 @@ import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
  */
 public class RaptorConfig<T extends RaptorTripSchedule> {
 
+  /**
+   * Each search-window slice should have enough iterations to make up for the extra work done
+   * in the first iterations of the slice, where no later arrivals exist to prune the search.
+   */
+  private static final int MIN_ITERATIONS_PER_SLICE = 10;
+
   private final RaptorEnvironment environment;
   private final RaptorTuningParameters tuningParameters;
 
@@ -95,6 +107,44 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return createRangeRaptor(context, worker);
   }
 
+  /**
+   * Create a multi-criteria range-raptor router with the search-window split into slices, and
+   * the slices routed in parallel, see {@link ConcurrentRangeRaptor}. The number of slices is
+   * given by the {@link RaptorTuningParameters#searchWindowSlices()}. A plain {@link RangeRaptor}
+   * is returned if the search-window is too short to be split.
+   * <p>
+   * This is only supported for a forward search without via locations, and requires a thread
+   * pool.
+   */
+  public RaptorRouter<T> createConcurrentRangeRaptorWithMcWorker(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    Heuristics heuristics
+  ) {
+    var sliceRequests = splitSearchWindow(request);
+    if (sliceRequests.size() < 2) {
+      return createRangeRaptorWithMcWorker(transitData, request, heuristics);
+    }
+    var slices = new ArrayList<RangeRaptor<T>>();
+    ParetoComparator<RaptorPath<T>> pathParetoComparator = null;
+
+    for (int i = 0; i < sliceRequests.size(); ++i) {
+      var context = context(transitData, sliceRequests.get(i));
+      var leg = context.legs().getFirst();
+      var c = new McRangeRaptorConfig<>(leg, passThroughPointsService).withHeuristics(heuristics);
+      var worker = createWorker(leg, c.state(), c.strategy());
+      boolean earliestSlice = i == sliceRequests.size() - 1;
+      slices.add(createRangeRaptor(context, worker, earliestSlice));
+      pathParetoComparator = c.destinationPathParetoComparator();
+    }
+    return new ConcurrentRangeRaptor<>(
+      slices,
+      pathParetoComparator,
+      threadPool(),
+      environment::mapInterruptedException
+    );
+  }
+
   public RangeRaptor<T> createRangeRaptorWithHeuristicSearch(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request
@@ -129,6 +179,10 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return environment.mapInterruptedException(e);
   }
 
+  public int searchWindowSlices() {
+    return tuningParameters.searchWindowSlices();
+  }
+
   public RaptorSearchWindowCalculator searchWindowCalculator() {
     return new RaptorSearchWindowCalculator(tuningParameters.dynamicSearchWindowCoefficients());
   }
@@ -159,6 +213,14 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   }
 
   private RangeRaptor<T> createRangeRaptor(SearchContext<T> ctx, RangeRaptorWorker<T> worker) {
+    return createRangeRaptor(ctx, worker, true);
+  }
+
+  private RangeRaptor<T> createRangeRaptor(
+    SearchContext<T> ctx,
+    RangeRaptorWorker<T> worker,
+    boolean iterateOverAccessWithTimePenalty
+  ) {
     return new RangeRaptor<>(
       worker,
       ctx.transit(),
@@ -167,7 +229,46 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
       ctx.calculator(),
       ctx.createLifeCyclePublisher(),
       ctx.performanceTimers(),
-      environment.timeoutHook()
+      environment.timeoutHook(),
+      iterateOverAccessWithTimePenalty
     );
   }
+
+  /**
+   * Split the search-window of the request into slices with at least
+   * {@link #MIN_ITERATIONS_PER_SLICE} range-raptor iterations each. The slices are ordered with
+   * the latest departure times first, and together they iterate over the same departure times as
+   * the original request. The earliest slice keeps the original earliest-departure-time, and
+   * includes the part of the search-window less than one iteration step.
+   */
+  private List<RaptorRequest<T>> splitSearchWindow(RaptorRequest<T> request) {
+    var params = request.searchParams();
+    int step = tuningParameters.iterationDepartureStepInSeconds();
+    int nIterations = params.searchWindowInSeconds() / step;
+    int nSlices = Math.min(
+      tuningParameters.searchWindowSlices(),
+      nIterations / MIN_ITERATIONS_PER_SLICE
+    );
+    if (nSlices < 2) {
+      return List.of(request);
+    }
+    var slices = new ArrayList<RaptorRequest<T>>();
+    int edt = params.earliestDepartureTime();
+    int end = edt + params.searchWindowInSeconds();
+
+    for (int i = 0; i < nSlices; ++i) {
+      int sliceIterations = nIterations * (i + 1) / nSlices - nIterations * i / nSlices;
+      int sliceEdt = i == nSlices - 1 ? edt : end - sliceIterations * step;
+      slices.add(
+        request
+          .mutate()
+          .searchParams()
+          .earliestDepartureTime(sliceEdt)
+          .searchWindowInSeconds(end - sliceEdt)
+          .build()
+      );
+      end = sliceEdt;
+    }
+    return slices;
+  }
 }
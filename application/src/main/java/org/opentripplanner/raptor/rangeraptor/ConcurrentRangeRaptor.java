@@ -0,0 +1,155 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
+
+/**
+ * Run a range-raptor search with the search-window split into slices of departure times. Each
+ * slice is an independent {@link RangeRaptor} search over a part of the search-window, and the
+ * slices are routed in parallel. The first slice is routed in the caller thread, the rest is
+ * submitted to the thread pool.
+ * <p>
+ * The paths found in each slice are merged into one pareto set, using the same pareto comparator
+ * as the destination arrivals in each slice. A slice can not use the stop arrivals found in the
+ * slices with later departure times, so each slice finds paths which would have been pruned in a
+ * plain range-raptor search. These paths are dominated at the destination and dropped when the
+ * results are merged. The stop arrivals are merged by taking the best value for each stop.
+ * <p>
+ * The slices should be ordered with the latest departure times first, the same order as the
+ * range-raptor iterations.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class ConcurrentRangeRaptor<T extends RaptorTripSchedule> implements RaptorRouter<T> {
+
+  private final List<? extends RaptorRouter<T>> slices;
+  private final ParetoComparator<RaptorPath<T>> pathParetoComparator;
+  private final ExecutorService threadPool;
+  private final Function<InterruptedException, RuntimeException> mapInterruptedException;
+
+  public ConcurrentRangeRaptor(
+    List<? extends RaptorRouter<T>> slices,
+    ParetoComparator<RaptorPath<T>> pathParetoComparator,
+    ExecutorService threadPool,
+    Function<InterruptedException, RuntimeException> mapInterruptedException
+  ) {
+    if (slices.isEmpty()) {
+      throw new IllegalArgumentException("At least one slice is required.");
+    }
+    this.slices = List.copyOf(slices);
+    this.pathParetoComparator = pathParetoComparator;
+    this.threadPool = threadPool;
+    this.mapInterruptedException = mapInterruptedException;
+  }
+
+  @Override
+  public RaptorRouterResult<T> route() {
+    var futures = new ArrayList<Future<RaptorRouterResult<T>>>();
+    var results = new ArrayList<RaptorRouterResult<T>>();
+    try {
+      for (var slice : slices.subList(1, slices.size())) {
+        futures.add(threadPool.submit(slice::route));
+      }
+      results.add(slices.getFirst().route());
+      for (var future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw mapInterruptedException.apply(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(
+        "Failed to run search-window slices in parallel. Details: " + e.getMessage(),
+        e
+      );
+    } finally {
+      // Stop the slices still running if one of the slices failed or the search timed out, this
+      // has no effect on the slices which are complete.
+      futures.forEach(it -> it.cancel(true));
+    }
+    return new MergedResult<>(results, mergePaths(results));
+  }
+
+  private Collection<RaptorPath<T>> mergePaths(List<RaptorRouterResult<T>> results) {
+    var paths = new ParetoSet<>(pathParetoComparator);
+    for (var result : results) {
+      paths.addAll(result.extractPaths());
+    }
+    return List.copyOf(paths);
+  }
+
+  private record MergedResult<T extends RaptorTripSchedule>(
+    List<RaptorRouterResult<T>> results,
+    Collection<RaptorPath<T>> paths
+  )
+    implements RaptorRouterResult<T> {
+    @Override
+    public Collection<RaptorPath<T>> extractPaths() {
+      return paths;
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestOverallArrivals() {
+      return merge(results.stream().map(RaptorRouterResult::extractBestOverallArrivals).toList());
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestTransitArrivals() {
+      return merge(results.stream().map(RaptorRouterResult::extractBestTransitArrivals).toList());
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestNumberOfTransfers() {
+      return merge(results.stream().map(RaptorRouterResult::extractBestNumberOfTransfers).toList());
+    }
+
+    @Override
+    public boolean isDestinationReached() {
+      return !paths.isEmpty();
+    }
+
+    /**
+     * Merge the stop arrivals of each slice, the best value is the lowest value. This is only
+     * true for a forward search, slicing is not supported in a reverse search.
+     */
+    private static SingleCriteriaStopArrivals merge(List<SingleCriteriaStopArrivals> arrivals) {
+      IntPredicate isReached = stop -> arrivals.stream().anyMatch(it -> it.isReached(stop));
+      IntUnaryOperator value = stop ->
+        arrivals
+          .stream()
+          .filter(it -> it.isReached(stop))
+          .mapToInt(it -> it.value(stop))
+          .min()
+          .orElseThrow();
+
+      return new SingleCriteriaStopArrivals() {
+        @Override
+        public boolean isReached(int stop) {
+          return isReached.test(stop);
+        }
+
+        @Override
+        public int value(int stop) {
+          return value.applyAsInt(stop);
+        }
+      };
+    }
+  }
+}
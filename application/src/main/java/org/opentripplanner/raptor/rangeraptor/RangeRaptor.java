@@ -69,6 +69,12 @@ public final class RangeRaptor<T extends RaptorTripSchedule> implements RaptorRo
 
   private final int minNumberOfRounds;
 
+  /**
+   * When the search-window is split in slices and searched in parallel, only the slice with the
+   * earliest departure times iterate over the access paths with a time-penalty.
+   */
+  private final boolean iterateOverAccessWithTimePenalty;
+
   public RangeRaptor(
     RangeRaptorWorker<T> worker,
     RaptorTransitDataProvider<T> transitData,
@@ -77,7 +83,8 @@ public final class RangeRaptor<T extends RaptorTripSchedule> implements RaptorRo
     RaptorTransitCalculator<T> calculator,
     LifeCycleEventPublisher lifeCyclePublisher,
     RaptorTimers timers,
-    Runnable timeoutHook
+    Runnable timeoutHook,
+    boolean iterateOverAccessWithTimePenalty
   ) {
     this.worker = requireNonNull(worker);
     this.transitData = requireNonNull(transitData);
@@ -88,6 +95,7 @@ public final class RangeRaptor<T extends RaptorTripSchedule> implements RaptorRo
     this.roundTracker = requireNonNull(roundTracker);
     this.lifeCycle = requireNonNull(lifeCyclePublisher);
     this.timeoutHook = requireNonNull(timeoutHook);
+    this.iterateOverAccessWithTimePenalty = iterateOverAccessWithTimePenalty;
   }
 
   public RaptorRouterResult<T> route() {
@@ -108,7 +116,7 @@ public final class RangeRaptor<T extends RaptorTripSchedule> implements RaptorRo
 
       // Iterate over virtual departure times - this is needed to allow access with a time-penalty
       // which falls outside the search-window due to the added time-penalty.
-      if (!calculator.oneIterationOnly()) {
+      if (iterateOverAccessWithTimePenalty && !calculator.oneIterationOnly()) {
         final IntIterator as = accessPaths.iterateOverPathsWithPenalty(iterationDepartureTime);
         while (as.hasNext()) {
           iterationDepartureTime = as.next();
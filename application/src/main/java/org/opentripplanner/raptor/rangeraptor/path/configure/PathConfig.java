@@ -66,9 +66,11 @@ public class PathConfig<T extends RaptorTripSchedule> {
     );
   }
 
-  /* private members */
-
-  private ParetoComparator<RaptorPath<T>> createPathParetoComparator(
+  /**
+   * Create the pareto comparator used by {@link #createDestArrivalPaths(ParetoSetCost,
+   * DominanceFunction)}. This can be used to merge paths from searches with the same request.
+   */
+  public ParetoComparator<RaptorPath<T>> createPathParetoComparator(
     ParetoSetCost costConfig,
     DominanceFunction c2Comp
   ) {
@@ -85,6 +87,8 @@ public class PathConfig<T extends RaptorTripSchedule> {
     return paretoComparator(paretoSetTimeConfig(), costConfig, relaxC1, c2Comp);
   }
 
+  /* private members */
+
   private ParetoSetTime paretoSetTimeConfig() {
     boolean preferLatestDeparture =
       ctx.searchParams().preferLateArrival() != ctx.searchDirection().isInReverse();
@@ -18,8 +18,8 @@ import org.opentripplanner.raptor.api.request.SearchParams;
 import org.opentripplanner.raptor.api.request.SearchParamsBuilder;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.raptor.configure.RaptorConfig;
-import org.opentripplanner.raptor.rangeraptor.RangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.slf4j.Logger;
@@ -128,12 +128,18 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
 
   private RaptorResponse<T> createAndRunDynamicRRWorker(RaptorRequest<T> request) {
     LOG.debug("Main request: {}", request);
-    RangeRaptor<T> rangeRaptorRouter;
+    RaptorRouter<T> rangeRaptorRouter;
 
     // Create worker
     if (request.profile().is(MULTI_CRITERIA)) {
       rangeRaptorRouter =
-        config.createRangeRaptorWithMcWorker(transitData, request, getDestinationHeuristics());
+        isItPossibleToRunSearchWindowSlicesInParallel(request)
+          ? config.createConcurrentRangeRaptorWithMcWorker(
+            transitData,
+            request,
+            getDestinationHeuristics()
+          )
+          : config.createRangeRaptorWithMcWorker(transitData, request, getDestinationHeuristics());
     } else {
       rangeRaptorRouter = config.createRangeRaptorWithStdWorker(transitData, request);
     }
@@ -163,6 +169,20 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     );
   }
 
+  /**
+   * The multi-criteria search-window can be split in slices and searched in parallel for forward
+   * searches without via locations.
+   */
+  private boolean isItPossibleToRunSearchWindowSlicesInParallel(RaptorRequest<T> request) {
+    return (
+      config.isMultiThreaded() &&
+      request.runInParallel() &&
+      config.searchWindowSlices() > 1 &&
+      request.searchDirection().isForward() &&
+      !request.searchParams().hasViaLocations()
+    );
+  }
+
   /**
    * @throws DestinationNotReachedException if destination is not reached
    */
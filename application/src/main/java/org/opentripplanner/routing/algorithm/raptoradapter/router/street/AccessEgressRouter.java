@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.collection.ListUtils;
 import org.opentripplanner.graph_builder.module.nearbystops.StreetNearbyStopFinder;
@@ -58,11 +59,15 @@ public class AccessEgressRouter {
     var originVertices = accessOrEgress.isAccess()
       ? verticesContainer.getFromVertices()
       : verticesContainer.getToVertices();
+    var compactStreetGraph = OTPFeature.CompactAccessEgressSearch.isOn()
+      ? verticesContainer.getCompactStreetGraph()
+      : null;
     var streetAccessEgress = new StreetNearbyStopFinder(
       durationLimit,
       maxStopCount,
       dataOverlayContext,
-      ignoreVertices
+      ignoreVertices,
+      compactStreetGraph
     )
       .findNearbyStops(originVertices, request, streetRequest, accessOrEgress.isEgress());
 
@@ -15,6 +15,7 @@ import org.opentripplanner.routing.impl.GraphPathFinder;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
 import org.opentripplanner.street.search.state.State;
 
@@ -47,17 +48,24 @@ public class DirectStreetRouter {
         return Collections.emptyList();
       }
 
-      // we could also get a persistent router-scoped GraphPathFinder but there's no setup cost here
-      GraphPathFinder gpFinder = new GraphPathFinder(
-        serverContext.traverseVisitor(),
-        serverContext.dataOverlayContext(request),
-        maxCarSpeed
-      );
-      List<GraphPath<State, Edge, Vertex>> paths = gpFinder.graphPathFinderEntryPoint(
+      List<GraphPath<State, Edge, Vertex>> paths = findPathsUsingContractionHierarchy(
+        serverContext,
         directRequest,
         temporaryVertices
       );
 
+      if (paths.isEmpty()) {
+        // we could also get a persistent router-scoped GraphPathFinder but there's no setup cost
+        // here
+        GraphPathFinder gpFinder = new GraphPathFinder(
+          serverContext.traverseVisitor(),
+          serverContext.dataOverlayContext(request),
+          maxCarSpeed,
+          serverContext.graph().getLandmarks()
+        );
+        paths = gpFinder.graphPathFinderEntryPoint(directRequest, temporaryVertices);
+      }
+
       // Convert the internal GraphPaths to itineraries
       final GraphPathToItineraryMapper graphPathToItineraryMapper = new GraphPathToItineraryMapper(
         serverContext.transitService().getTimeZone(),
@@ -76,6 +84,55 @@ public class DirectStreetRouter {
     }
   }
 
+  /**
+   * Find the path using the contraction hierarchy of the graph. Return an empty list if the graph
+   * has no hierarchy for the mode, if the request can not be served by it or if no path is found.
+   * The caller should then fall back to the A* search.
+   */
+  private static List<GraphPath<State, Edge, Vertex>> findPathsUsingContractionHierarchy(
+    OtpServerRequestContext serverContext,
+    RouteRequest request,
+    TemporaryVerticesContainer temporaryVertices
+  ) {
+    var contractionHierarchy = serverContext.graph().getContractionHierarchy();
+    if (contractionHierarchy == null || !canUseContractionHierarchy(serverContext, request)) {
+      return List.of();
+    }
+    StreetMode mode = request.journey().direct().mode();
+    return StreetSearchBuilder
+      .of()
+      .setRequest(request)
+      .setStreetRequest(request.journey().direct())
+      .setVerticesContainer(temporaryVertices)
+      .getContractionHierarchyPathsToTarget(
+        contractionHierarchy,
+        request.preferences().street().maxDirectDuration().valueOf(mode)
+      );
+  }
+
+  /**
+   * The weights in the contraction hierarchy do not depend on the time, so the hierarchy can only
+   * be used if the request does not add time-dependent or context-dependent costs. The preferences
+   * are checked against the metric of the hierarchy when it is searched, see
+   * {@link StreetSearchBuilder#getContractionHierarchyPathsToTarget}.
+   */
+  private static boolean canUseContractionHierarchy(
+    OtpServerRequestContext serverContext,
+    RouteRequest request
+  ) {
+    if (
+      request.wheelchair() ||
+      serverContext.traverseVisitor() != null ||
+      serverContext.dataOverlayContext(request) != null
+    ) {
+      return false;
+    }
+    return switch (request.journey().direct().mode()) {
+      case CAR, BIKE -> true;
+      default -> false;
+    };
+  }
+
   private static boolean straightLineDistanceIsWithinLimit(
     RouteRequest request,
     TemporaryVerticesContainer vertexContainer,
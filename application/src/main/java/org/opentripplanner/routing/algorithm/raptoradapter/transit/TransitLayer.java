@@ -12,6 +12,8 @@ import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTripPatternCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripScheduleSearchType;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.SiteRepository;
@@ -34,8 +36,11 @@ public class TransitLayer {
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
    * The same trip pattern can therefore have multiple running dates and trip pattern is not
    * required to "run" on its service date.
+   * <p>
+   * The values are immutable and share the unchanged parts with the previous version, so copying
+   * the transit layer and replacing the values for a date is cheap.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private final HashMap<LocalDate, TripPatternsRunningOnDate> tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -52,6 +57,12 @@ public class TransitLayer {
 
   private final RaptorRequestTransferCache transferCache;
 
+  /**
+   * The trip patterns filtered for a request depend on the trip patterns in this transit layer,
+   * so each copy of the transit layer has its own cache.
+   */
+  private final RaptorRequestTripPatternCache tripPatternCache;
+
   private ConstrainedTransfersForPatterns constrainedTransfers;
 
   private final TransferIndexGenerator transferIndexGenerator;
@@ -59,21 +70,25 @@ public class TransitLayer {
   @Nullable
   private final int[] stopBoardAlightTransferCosts;
 
+  private final TripScheduleSearchType tripScheduleSearchType;
+
   /**
    * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
    * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * keys and their values in the map. The copy gets a new empty trip pattern cache.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
-      transitLayer.tripPatternsRunningOnDate,
+      new HashMap<>(transitLayer.tripPatternsRunningOnDate),
       transitLayer.transfersByStopIndex,
       transitLayer.transferService,
       transitLayer.siteRepository,
       transitLayer.transferCache,
+      transitLayer.tripPatternCache.emptyCopy(),
       transitLayer.constrainedTransfers,
       transitLayer.transferIndexGenerator,
-      transitLayer.stopBoardAlightTransferCosts
+      transitLayer.stopBoardAlightTransferCosts,
+      transitLayer.tripScheduleSearchType
     );
   }
 
@@ -83,18 +98,48 @@ public class TransitLayer {
     TransferService transferService,
     SiteRepository siteRepository,
     RaptorRequestTransferCache transferCache,
+    RaptorRequestTripPatternCache tripPatternCache,
     ConstrainedTransfersForPatterns constrainedTransfers,
     TransferIndexGenerator transferIndexGenerator,
-    @Nullable int[] stopBoardAlightTransferCosts
+    @Nullable int[] stopBoardAlightTransferCosts,
+    TripScheduleSearchType tripScheduleSearchType
   ) {
-    this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
+    this(
+      mapTripPatternsRunningOnDate(tripPatternsRunningOnDate),
+      transfersByStopIndex,
+      transferService,
+      siteRepository,
+      transferCache,
+      tripPatternCache,
+      constrainedTransfers,
+      transferIndexGenerator,
+      stopBoardAlightTransferCosts,
+      tripScheduleSearchType
+    );
+  }
+
+  private TransitLayer(
+    HashMap<LocalDate, TripPatternsRunningOnDate> tripPatternsRunningOnDate,
+    List<List<Transfer>> transfersByStopIndex,
+    TransferService transferService,
+    SiteRepository siteRepository,
+    RaptorRequestTransferCache transferCache,
+    RaptorRequestTripPatternCache tripPatternCache,
+    ConstrainedTransfersForPatterns constrainedTransfers,
+    TransferIndexGenerator transferIndexGenerator,
+    @Nullable int[] stopBoardAlightTransferCosts,
+    TripScheduleSearchType tripScheduleSearchType
+  ) {
+    this.tripPatternsRunningOnDate = tripPatternsRunningOnDate;
     this.transfersByStopIndex = transfersByStopIndex;
     this.transferService = transferService;
     this.siteRepository = siteRepository;
     this.transferCache = transferCache;
+    this.tripPatternCache = tripPatternCache;
     this.constrainedTransfers = constrainedTransfers;
     this.transferIndexGenerator = transferIndexGenerator;
     this.stopBoardAlightTransferCosts = stopBoardAlightTransferCosts;
+    this.tripScheduleSearchType = tripScheduleSearchType;
   }
 
   @Nullable
@@ -108,7 +153,15 @@ public class TransitLayer {
    * happening on that date. Trip pattern can have multiple running dates.
    */
   public Collection<TripPatternForDate> getTripPatternsForRunningDate(LocalDate date) {
-    return tripPatternsRunningOnDate.getOrDefault(date, List.of());
+    return getTripPatternsRunningOnDate(date);
+  }
+
+  /**
+   * Same as {@link #getTripPatternsForRunningDate(LocalDate)}, but returns the immutable indexed
+   * collection, which can be edited to create a new version for the same date.
+   */
+  public TripPatternsRunningOnDate getTripPatternsRunningOnDate(LocalDate date) {
+    return tripPatternsRunningOnDate.getOrDefault(date, TripPatternsRunningOnDate.EMPTY);
   }
 
   public int getStopCount() {
@@ -121,8 +174,7 @@ public class TransitLayer {
    * or departures is happening on that date. Trip pattern can have multiple running dates.
    */
   public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
-    return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : new ArrayList<>();
+    return new ArrayList<>(getTripPatternsRunningOnDate(runningPeriodDate));
   }
 
   /**
@@ -153,10 +205,23 @@ public class TransitLayer {
     transferCache.put(transfersByStopIndex, request);
   }
 
+  /**
+   * Create the transfers for the given requests in a background thread. The requests are kept
+   * and the transfers are created again if they are evicted from the cache, see
+   * {@link RaptorRequestTransferCache#rewarmAsync()}.
+   */
+  public void warmUpTransferCacheAsync(List<RouteRequest> requests) {
+    transferCache.warmUpAsync(transfersByStopIndex, requests);
+  }
+
   public RaptorRequestTransferCache getTransferCache() {
     return transferCache;
   }
 
+  public RaptorRequestTripPatternCache getTripPatternCache() {
+    return tripPatternCache;
+  }
+
   @Nullable
   public ConstrainedTransfersForPatterns getConstrainedTransfers() {
     return constrainedTransfers;
@@ -175,15 +240,33 @@ public class TransitLayer {
     return stopBoardAlightTransferCosts;
   }
 
+  /**
+   * The trip search used by Raptor to find the trip to board or alight in a scheduled timetable.
+   */
+  public TripScheduleSearchType getTripScheduleSearchType() {
+    return tripScheduleSearchType;
+  }
+
   /**
    * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * to the HashMap implementation. The trip pattern cache is invalidated.
    */
   public void replaceTripPatternsForDate(
     LocalDate date,
-    List<TripPatternForDate> tripPatternForDates
+    TripPatternsRunningOnDate tripPatternForDates
   ) {
     this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
+    tripPatternCache.invalidate();
+  }
+
+  private static HashMap<LocalDate, TripPatternsRunningOnDate> mapTripPatternsRunningOnDate(
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate
+  ) {
+    var map = new HashMap<LocalDate, TripPatternsRunningOnDate>();
+    tripPatternsRunningOnDate.forEach((date, patterns) ->
+      map.put(date, TripPatternsRunningOnDate.of(patterns))
+    );
+    return map;
   }
 
   public void setConstrainedTransfers(ConstrainedTransfersForPatterns constrainedTransfers) {
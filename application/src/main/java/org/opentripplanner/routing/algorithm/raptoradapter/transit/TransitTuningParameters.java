@@ -3,6 +3,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 import java.time.Duration;
 import java.util.List;
 import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripScheduleSearchType;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.site.StopTransferPriority;
 
@@ -47,6 +48,26 @@ public interface TransitTuningParameters {
       return 5;
     }
 
+    @Override
+    public boolean transferCacheQuantizePreferences() {
+      return false;
+    }
+
+    @Override
+    public boolean transferCacheAsyncWarmUp() {
+      return false;
+    }
+
+    @Override
+    public int tripPatternCacheMaxSize() {
+      return 5;
+    }
+
+    @Override
+    public TripScheduleSearchType tripScheduleSearchType() {
+      return TripScheduleSearchType.TIME_FUNCTION;
+    }
+
     @Override
     public Duration maxSearchWindow() {
       return Duration.ofHours(24);
@@ -83,6 +104,32 @@ public interface TransitTuningParameters {
    */
   int transferCacheMaxSize();
 
+  /**
+   * Round the walk and bike speeds and reluctances to coarser steps before looking up the
+   * pre-calculated transfers. Requests with almost the same preferences then share the same
+   * transfers, at the cost of a small difference in the transfer duration and cost.
+   */
+  boolean transferCacheQuantizePreferences();
+
+  /**
+   * Create the transfers for the {@link #transferCacheRequests()} in a background thread, instead
+   * of waiting for them before the server starts.
+   */
+  boolean transferCacheAsyncWarmUp();
+
+  /**
+   * The maximum number of distinct service days and filters for which the filtered trip patterns
+   * should be cached. The cache is cleared each time the real-time updaters apply a new set of
+   * updates. Set to zero to disable the cache.
+   */
+  int tripPatternCacheMaxSize();
+
+  /**
+   * The implementation used by Raptor to search for the trip to board or alight in a scheduled
+   * timetable. This only affects the performance, the result is the same.
+   */
+  TripScheduleSearchType tripScheduleSearchType();
+
   /**
    * The maximum search window that can be set through the searchWindow API parameter. Due to the
    * way timetable data are collected before a Raptor trip search, using a search window larger than
@@ -0,0 +1,205 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@link TripPatternForDate}s running on a single date, indexed by the pattern index of the
+ * trip pattern. The same pattern may run on the date for more than one service date, so each
+ * pattern index holds a small array of trip patterns for date.
+ * <p>
+ * The pattern indexes are split in chunks of {@link #CHUNK_SIZE}. An {@link Editor} copies only
+ * the chunks it changes, and the new instance shares all other chunks with the original. Applying
+ * a real-time update to the {@link TransitLayer} is then proportional to the number of changed
+ * patterns, not to the number of patterns running on the date.
+ * <p>
+ * A trip pattern for date is only included once, adding an equal element is ignored - the same as
+ * adding it to a {@link java.util.Set}.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public final class TripPatternsRunningOnDate extends AbstractCollection<TripPatternForDate> {
+
+  static final int CHUNK_SIZE = 64;
+  private static final int CHUNK_SHIFT = 6;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private static final TripPatternForDate[][][] EMPTY_CHUNKS = new TripPatternForDate[0][][];
+
+  public static final TripPatternsRunningOnDate EMPTY = new TripPatternsRunningOnDate(
+    EMPTY_CHUNKS,
+    0
+  );
+
+  /** Indexed by chunk, pattern index in chunk and then element. Chunks and slots may be null. */
+  private final TripPatternForDate[][][] chunks;
+  private final int size;
+
+  private TripPatternsRunningOnDate(TripPatternForDate[][][] chunks, int size) {
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+  public static TripPatternsRunningOnDate of(Collection<TripPatternForDate> tripPatternsForDate) {
+    var editor = EMPTY.edit();
+    tripPatternsForDate.forEach(editor::add);
+    return editor.build();
+  }
+
+  public Editor edit() {
+    return new Editor(this);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof TripPatternForDate tripPatternForDate)) {
+      return false;
+    }
+    return indexOf(slot(chunks, patternIndex(tripPatternForDate)), tripPatternForDate) >= 0;
+  }
+
+  @Override
+  public Iterator<TripPatternForDate> iterator() {
+    return new Iterator<>() {
+      private int chunk = 0;
+      private int slot = 0;
+      private int element = 0;
+      private TripPatternForDate next = advance();
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public TripPatternForDate next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        var current = next;
+        next = advance();
+        return current;
+      }
+
+      private TripPatternForDate advance() {
+        for (; chunk < chunks.length; ++chunk, slot = 0) {
+          var c = chunks[chunk];
+          if (c == null) {
+            continue;
+          }
+          for (; slot < CHUNK_SIZE; ++slot, element = 0) {
+            var s = c[slot];
+            if (s != null && element < s.length) {
+              return s[element++];
+            }
+          }
+        }
+        return null;
+      }
+    };
+  }
+
+  private static int patternIndex(TripPatternForDate tripPatternForDate) {
+    return tripPatternForDate.getTripPattern().patternIndex();
+  }
+
+  private static TripPatternForDate[] slot(TripPatternForDate[][][] chunks, int patternIndex) {
+    int chunk = patternIndex >>> CHUNK_SHIFT;
+    if (chunk >= chunks.length || chunks[chunk] == null) {
+      return null;
+    }
+    return chunks[chunk][patternIndex & CHUNK_MASK];
+  }
+
+  private static int indexOf(TripPatternForDate[] slot, TripPatternForDate tripPatternForDate) {
+    if (slot != null) {
+      for (int i = 0; i < slot.length; ++i) {
+        if (slot[i].equals(tripPatternForDate)) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Add and remove trip patterns for date, and build a new instance. The original is not changed.
+   * An editor is not thread-safe, and should not be used after {@link #build()} is called.
+   */
+  public static final class Editor {
+
+    private TripPatternForDate[][][] chunks;
+    private int size;
+
+    /** The chunks already copied by this editor, these can be changed in place. */
+    private boolean[] copied;
+
+    private Editor(TripPatternsRunningOnDate original) {
+      this.chunks = original.chunks.clone();
+      this.size = original.size;
+      this.copied = new boolean[chunks.length];
+    }
+
+    public Editor add(TripPatternForDate tripPatternForDate) {
+      int patternIndex = patternIndex(tripPatternForDate);
+      var slot = slot(chunks, patternIndex);
+      if (indexOf(slot, tripPatternForDate) >= 0) {
+        return this;
+      }
+      TripPatternForDate[] newSlot;
+      if (slot == null) {
+        newSlot = new TripPatternForDate[] { tripPatternForDate };
+      } else {
+        newSlot = Arrays.copyOf(slot, slot.length + 1);
+        newSlot[slot.length] = tripPatternForDate;
+      }
+      setSlot(patternIndex, newSlot);
+      ++size;
+      return this;
+    }
+
+    public Editor remove(TripPatternForDate tripPatternForDate) {
+      int patternIndex = patternIndex(tripPatternForDate);
+      var slot = slot(chunks, patternIndex);
+      int index = indexOf(slot, tripPatternForDate);
+      if (index < 0) {
+        return this;
+      }
+      TripPatternForDate[] newSlot = null;
+      if (slot.length > 1) {
+        newSlot = new TripPatternForDate[slot.length - 1];
+        System.arraycopy(slot, 0, newSlot, 0, index);
+        System.arraycopy(slot, index + 1, newSlot, index, slot.length - index - 1);
+      }
+      setSlot(patternIndex, newSlot);
+      --size;
+      return this;
+    }
+
+    public TripPatternsRunningOnDate build() {
+      return new TripPatternsRunningOnDate(chunks, size);
+    }
+
+    private void setSlot(int patternIndex, TripPatternForDate[] slot) {
+      int chunk = patternIndex >>> CHUNK_SHIFT;
+      if (chunk >= chunks.length) {
+        chunks = Arrays.copyOf(chunks, chunk + 1);
+        copied = Arrays.copyOf(copied, chunk + 1);
+      }
+      if (!copied[chunk]) {
+        chunks[chunk] =
+          chunks[chunk] == null ? new TripPatternForDate[CHUNK_SIZE][] : chunks[chunk].clone();
+        copied[chunk] = true;
+      }
+      chunks[chunk][patternIndex & CHUNK_MASK] = slot;
+    }
+  }
+}
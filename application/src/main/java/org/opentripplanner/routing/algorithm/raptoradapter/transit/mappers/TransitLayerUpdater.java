@@ -3,7 +3,6 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -11,6 +10,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
@@ -26,14 +26,15 @@ import org.slf4j.LoggerFactory;
 /**
  * Update the TransitLayer from a set of TimeTables. A shallow copy is made of the TransitLayer
  * (this also includes a shallow copy of the TripPatternsForDate map). TripPatterns are matched on
- * id and replaced by their updated versions. The realtime TransitLayer is then switched out with
- * the updated copy in an atomic operation. This ensures that any TransitLayer that is referenced
- * from the Graph is never changed.
+ * id and replaced by their updated versions. The trip patterns running on each date are
+ * structurally shared, so only the changed parts of them are copied. The realtime TransitLayer is
+ * then switched out with the updated copy in an atomic operation. This ensures that any
+ * TransitLayer that is referenced from the Graph is never changed.
  *
- * This is a way of keeping the TransitLayer up to date (in sync with the TimetableRepository plus its most
- * recent TimetableSnapshot) without repeatedly deriving it from scratch every few seconds. The same
- * incremental changes are applied to both the TimetableSnapshot and the TransitLayer and they are
- * published together.
+ * This is a way of keeping the TransitLayer up to date (in sync with the TimetableRepository plus
+ * its most recent TimetableSnapshot) without repeatedly deriving it from scratch every few seconds.
+ * The same incremental changes are applied to both the TimetableSnapshot and the TransitLayer and
+ * they are published together.
  */
 public class TransitLayerUpdater {
 
@@ -53,25 +54,41 @@ public class TransitLayerUpdater {
    */
   private final Map<TripIdAndServiceDate, TripPatternForDate> tripPatternsForTripIdAndServiceDateCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
+  /**
+   * The real-time transit layer created by the previous update. The next update is based on it,
+   * not on the layer returned by the transit service - the transit service may return the layer
+   * committed with the timetable snapshot it uses, which is not updated.
+   */
+  @Nullable
+  private TransitLayer lastRealtimeTransitLayer = null;
 
   public TransitLayerUpdater(TransitEditorService transitService) {
     this.transitService = transitService;
   }
 
-  public void update(
+  /**
+   * Apply the updated timetables to a copy of the real-time transit layer and publish it.
+   *
+   * @return the updated real-time transit layer, or null if there is no real-time transit layer
+   */
+  @Nullable
+  public TransitLayer update(
     Collection<Timetable> updatedTimetables,
     Map<TripPattern, SortedSet<Timetable>> timetables
   ) {
     if (!transitService.hasRealtimeTransitLayer()) {
-      return;
+      return null;
     }
 
     long startTime = System.currentTimeMillis();
 
     // Make a shallow copy of the realtime transit layer. Only the objects that are copied will be
     // changed during this update process.
-    TransitLayer realtimeTransitLayer = new TransitLayer(transitService.getRealtimeTransitLayer());
+    TransitLayer realtimeTransitLayer = new TransitLayer(
+      lastRealtimeTransitLayer != null
+        ? lastRealtimeTransitLayer
+        : transitService.getRealtimeTransitLayer()
+    );
 
     // Instantiate a TripPatternForDateMapper with the new TripPattern mappings
     TripPatternForDateMapper tripPatternForDateMapper = new TripPatternForDateMapper(
@@ -155,13 +172,10 @@ public class TransitLayerUpdater {
     // Now loop through all running period dates of old and new TripPatternsForDate and update
     // the tripPatternsByRunningPeriodDate accordingly
     for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(
-        date,
-        p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
-      );
+      // Only the parts of the current patterns for the date that change are copied
+      var patternsForDate = realtimeTransitLayer.getTripPatternsRunningOnDate(date).edit();
 
-      // Remove old cached tripPatterns where tripTimes are no longer running
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
+      // Remove old tripPatterns where tripTimes are no longer running
 
       for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : oldTripPatternsForDate
         .asMap()
@@ -213,21 +227,28 @@ public class TransitLayerUpdater {
         }
       }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+      realtimeTransitLayer.replaceTripPatternsForDate(date, patternsForDate.build());
     }
 
     if (transferIndexGenerator != null) {
       realtimeTransitLayer.setConstrainedTransfers(transferIndexGenerator.generateTransfers());
     }
 
-    // Switch out the reference with the updated realtimeTransitLayer. This is synchronized to
-    // guarantee that the reference is set after all the fields have been updated.
+    // Switch out the reference with the updated realtimeTransitLayer. The reference is volatile
+    // to guarantee that it is set after all the fields have been updated. Requests that use a
+    // timetable snapshot get the layer committed with it instead, see TimetableSnapshot.
     transitService.setRealtimeTransitLayer(realtimeTransitLayer);
+    lastRealtimeTransitLayer = realtimeTransitLayer;
+
+    // The transfer cache is shared with the previous layer, create any evicted warm-up entries
+    // again without blocking the graph writer thread.
+    realtimeTransitLayer.getTransferCache().rewarmAsync();
 
     LOG.debug(
       "UPDATING {} tripPatterns took {} ms",
       updatedTimetables.size(),
       System.currentTimeMillis() - startTime
     );
+    return realtimeTransitLayer;
   }
 }
@@ -0,0 +1,210 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.api.model.RaptorTransferConstraint;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorBoardOrAlightEvent;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * This is the same search as the {@link TripScheduleAlightSearch}, but the arrival times are read
+ * directly from the {@link TripSearchTimetable#packedArrivalTimes()}. See
+ * {@link PackedTripScheduleBoardSearch} for the details.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class PackedTripScheduleAlightSearch<T extends RaptorTripSchedule>
+  implements RaptorTripScheduleSearch<T>, RaptorBoardOrAlightEvent<T> {
+
+  private final TripSearchTimetable<T> timetable;
+  private final int[] arrivalTimes;
+  private final int nTrips;
+  private final int binarySearchThreshold;
+
+  private int latestAlightTime;
+  private int stopPositionInPattern;
+
+  /** The index of the first trip at the current stop position in the arrival times array */
+  private int offset;
+
+  private T candidateTrip;
+  private int candidateTripIndex = RaptorConstants.NOT_FOUND;
+
+  /**
+   * Use {@link TripScheduleSearchFactory#create(SearchDirection, TripSearchTimetable,
+   * TripScheduleSearchType)} to create a trip schedule search.
+   */
+  PackedTripScheduleAlightSearch(TripSearchTimetable<T> timetable, int binarySearchThreshold) {
+    this.timetable = timetable;
+    this.arrivalTimes = timetable.packedArrivalTimes();
+    this.nTrips = timetable.numberOfTripSchedules();
+    this.binarySearchThreshold = binarySearchThreshold;
+  }
+
+  /* TripScheduleBoardOrAlightEvent implementation using fly-weight pattern */
+
+  @Override
+  public T trip() {
+    return candidateTrip;
+  }
+
+  @Override
+  public int tripIndex() {
+    return candidateTripIndex;
+  }
+
+  @Override
+  public int time() {
+    return candidateTrip.arrival(stopPositionInPattern);
+  }
+
+  @Override
+  public int earliestBoardTime() {
+    return latestAlightTime;
+  }
+
+  @Override
+  public int stopPositionInPattern() {
+    return stopPositionInPattern;
+  }
+
+  @Override
+  public RaptorTransferConstraint transferConstraint() {
+    return RaptorTransferConstraint.REGULAR_TRANSFER;
+  }
+
+  @Override
+  public boolean empty() {
+    return candidateTripIndex == RaptorConstants.NOT_FOUND;
+  }
+
+  /* TripScheduleSearch implementation */
+
+  /**
+   * Find the last trip leaving from the given stop BEFORE the the {@code latestAlightTime}, but
+   * after the given trip ({@code tripIndexLowerBound}).
+   *
+   * @param latestAlightTime      The latest acceptable alight time (exclusive).
+   * @param stopPositionInPattern The stop to board.
+   * @param tripIndexLowerBound   Upper bound for trip index to search for (exclusive).
+   */
+  @Override
+  public RaptorBoardOrAlightEvent<T> search(
+    int latestAlightTime,
+    int stopPositionInPattern,
+    int tripIndexLowerBound
+  ) {
+    this.latestAlightTime = latestAlightTime;
+    this.stopPositionInPattern = stopPositionInPattern;
+    this.offset = stopPositionInPattern * nTrips;
+    this.candidateTrip = null;
+    this.candidateTripIndex = RaptorConstants.NOT_FOUND;
+
+    // No previous trip is found
+    if (tripIndexLowerBound == UNBOUNDED_TRIP_INDEX) {
+      if (nTrips > binarySearchThreshold) {
+        return findFirstAlightingOptimizedForLargeSetOfTrips();
+      } else {
+        return findAlightingBySteppingForwardInTime(0);
+      }
+    }
+    // We have already found a candidate in a previous search;
+    // Hence searching forward from the lower bound is the fastest way to proceed.
+    // We have to add 1 to the lower bound for go from exclusive to inclusive
+    return findAlightingBySteppingForwardInTime(tripIndexLowerBound + 1);
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(PackedTripScheduleAlightSearch.class)
+      .addObj("nTrips", nTrips)
+      .addObj("latestAlightTime", latestAlightTime)
+      .addObj("stopPos", stopPositionInPattern)
+      .addObj("tripIndex", candidateTripIndex)
+      .addObj("trip", candidateTrip)
+      .toString();
+  }
+
+  /* private methods */
+
+  private RaptorBoardOrAlightEvent<T> findFirstAlightingOptimizedForLargeSetOfTrips() {
+    int indexBestGuess = binarySearchForTripIndex();
+
+    // Use the best guess from the binary search to look for a candidate trip
+    // We can not use upper bound to exit the search. We need to continue
+    // until we find a valid trip in service.
+    var result = findAlightingBySteppingForwardInTime(indexBestGuess);
+
+    if (!result.empty()) {
+      return this;
+    }
+    return findAlightingBySteppingBackwardsInTime(indexBestGuess);
+  }
+
+  /**
+   * Search forward from the given lower bound (inclusive) for the last trip in the sequence of
+   * trips arriving before or at the {@code latestAlightTime}.
+   */
+  private RaptorBoardOrAlightEvent<T> findAlightingBySteppingForwardInTime(
+    int tripIndexLowerBound
+  ) {
+    final int[] times = arrivalTimes;
+    final int limit = latestAlightTime;
+    final int end = offset + nTrips;
+    int i = offset + tripIndexLowerBound;
+
+    while (i < end && times[i] <= limit) {
+      ++i;
+    }
+    int tripIndex = i - 1 - offset;
+
+    if (tripIndex >= tripIndexLowerBound) {
+      candidateTripIndex = tripIndex;
+      candidateTrip = timetable.getTripSchedule(candidateTripIndex);
+    }
+    return this;
+  }
+
+  /**
+   * Search backwards from the given upper bound (exclusive) for the last trip arriving before or
+   * at the {@code latestAlightTime}.
+   */
+  private RaptorBoardOrAlightEvent<T> findAlightingBySteppingBackwardsInTime(
+    final int tripIndexUpperBound
+  ) {
+    final int[] times = arrivalTimes;
+
+    for (int i = offset + tripIndexUpperBound - 1; i >= offset; --i) {
+      if (times[i] <= latestAlightTime) {
+        candidateTripIndex = i - offset;
+        candidateTrip = timetable.getTripSchedule(candidateTripIndex);
+        return this;
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Do a branch-free binary search to find the lower bound index for where to start the search.
+   * The search stops when the last trip arriving before the latest alight time is within the next
+   * {@link #binarySearchThreshold} trips.
+   *
+   * @return a better lower bound index (inclusive)
+   */
+  private int binarySearchForTripIndex() {
+    final int[] times = arrivalTimes;
+    final int limit = latestAlightTime;
+    int lower = offset;
+    int n = nTrips;
+
+    while (n > binarySearchThreshold) {
+      int half = n >>> 1;
+      lower = times[lower + half] <= limit ? lower + half : lower;
+      n -= half;
+    }
+    return lower - offset;
+  }
+}
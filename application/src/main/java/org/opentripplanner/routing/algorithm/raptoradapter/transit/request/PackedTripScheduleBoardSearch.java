@@ -0,0 +1,213 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.api.model.RaptorTransferConstraint;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorBoardOrAlightEvent;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * This is the same search as the {@link TripScheduleBoardSearch}, but the departure times are read
+ * directly from the {@link TripSearchTimetable#packedDepartureTimes()}. The departure times for a
+ * stop position is a contiguous slice of the array, so the linear search is a tight loop over the
+ * array without a function call per trip. The binary search is branch-free, the JIT compiles the
+ * select to a conditional move, so there is no mispredicted branch in each step.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class PackedTripScheduleBoardSearch<T extends RaptorTripSchedule>
+  implements RaptorTripScheduleSearch<T>, RaptorBoardOrAlightEvent<T> {
+
+  private final TripSearchTimetable<T> timetable;
+  private final int[] departureTimes;
+  private final int nTrips;
+  private final int binarySearchThreshold;
+
+  private int earliestBoardTime;
+  private int stopPositionInPattern;
+
+  /** The index of the first trip at the current stop position in the departure times array */
+  private int offset;
+
+  private T candidateTrip;
+  private int candidateTripIndex = RaptorConstants.NOT_FOUND;
+
+  /**
+   * Use {@link TripScheduleSearchFactory#create(SearchDirection, TripSearchTimetable,
+   * TripScheduleSearchType)} to create a trip schedule search.
+   */
+  PackedTripScheduleBoardSearch(TripSearchTimetable<T> timetable, int binarySearchThreshold) {
+    this.timetable = timetable;
+    this.departureTimes = timetable.packedDepartureTimes();
+    this.nTrips = timetable.numberOfTripSchedules();
+    this.binarySearchThreshold = binarySearchThreshold;
+  }
+
+  /* TripScheduleBoardOrAlightEvent implementation using fly-weight pattern */
+
+  @Override
+  public T trip() {
+    return candidateTrip;
+  }
+
+  @Override
+  public int tripIndex() {
+    return candidateTripIndex;
+  }
+
+  @Override
+  public int time() {
+    return candidateTrip.departure(stopPositionInPattern);
+  }
+
+  @Override
+  public int earliestBoardTime() {
+    return earliestBoardTime;
+  }
+
+  @Override
+  public int stopPositionInPattern() {
+    return stopPositionInPattern;
+  }
+
+  @Override
+  public RaptorTransferConstraint transferConstraint() {
+    return RaptorTransferConstraint.REGULAR_TRANSFER;
+  }
+
+  @Override
+  public boolean empty() {
+    return candidateTripIndex == RaptorConstants.NOT_FOUND;
+  }
+
+  /* TripScheduleSearch implementation */
+
+  /**
+   * Find the first trip leaving from the given stop AFTER the the 'earliestTime', but
+   * before the given trip ({@code tripIndexUpperBound}).
+   *
+   * @param earliestTime     The time of arrival at the given stop for the previous trip.
+   * @param stopPositionInPattern The stop to board
+   * @param tripIndexUpperBound   Upper bound for trip index to search for. Exclusive - search start
+   *                              at {@code tripIndexUpperBound - 1}.
+   *                              Use {@code -1} (negative value) for an unbounded search.
+   */
+  @Override
+  public RaptorBoardOrAlightEvent<T> search(
+    int earliestTime,
+    int stopPositionInPattern,
+    int tripIndexUpperBound
+  ) {
+    this.earliestBoardTime = earliestTime;
+    this.stopPositionInPattern = stopPositionInPattern;
+    this.offset = stopPositionInPattern * nTrips;
+    this.candidateTrip = null;
+    this.candidateTripIndex = RaptorConstants.NOT_FOUND;
+
+    // No previous trip is found
+    if (tripIndexUpperBound == UNBOUNDED_TRIP_INDEX) {
+      if (nTrips > binarySearchThreshold) {
+        return findFirstBoardingOptimizedForLargeSetOfTrips();
+      } else {
+        return findBoardingBySteppingBackwardsInTime(nTrips);
+      }
+    }
+    // We have already found a candidate in a previous search;
+    // Hence searching reverse from the upper bound is the fastest way to proceed.
+    return findBoardingBySteppingBackwardsInTime(tripIndexUpperBound);
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(PackedTripScheduleBoardSearch.class)
+      .addObj("nTrips", nTrips)
+      .addObj("earliestBoardTime", earliestBoardTime)
+      .addObj("stopPos", stopPositionInPattern)
+      .addObj("tripIndex", candidateTripIndex)
+      .addObj("trip", candidateTrip)
+      .toString();
+  }
+
+  /* private methods */
+
+  private RaptorBoardOrAlightEvent<T> findFirstBoardingOptimizedForLargeSetOfTrips() {
+    int indexBestGuess = binarySearchForTripIndex();
+
+    // Use the upper bound from the binary search to look for a candidate trip
+    // We can not use lower bound to exit the search. We need to continue
+    // until we find a valid trip in service.
+    var result = findBoardingBySteppingBackwardsInTime(indexBestGuess);
+
+    if (!result.empty()) {
+      return this;
+    }
+    return findBoardingBySteppingForwardInTime(indexBestGuess);
+  }
+
+  /**
+   * Search backwards from the given upper bound (exclusive) for the first trip in the sequence of
+   * trips boarding after or at the {@code earliestBoardTime}.
+   */
+  private RaptorBoardOrAlightEvent<T> findBoardingBySteppingBackwardsInTime(
+    int tripIndexUpperBound
+  ) {
+    final int[] times = departureTimes;
+    final int limit = earliestBoardTime;
+    int i = offset + tripIndexUpperBound - 1;
+
+    while (i >= offset && times[i] >= limit) {
+      --i;
+    }
+    int tripIndex = i + 1 - offset;
+
+    if (tripIndex < tripIndexUpperBound) {
+      candidateTripIndex = tripIndex;
+      candidateTrip = timetable.getTripSchedule(candidateTripIndex);
+    }
+    return this;
+  }
+
+  /**
+   * Search forward from the given lower bound (inclusive) for the first trip boarding after or at
+   * the {@code earliestBoardTime}.
+   */
+  private RaptorBoardOrAlightEvent<T> findBoardingBySteppingForwardInTime(
+    final int tripIndexLowerBound
+  ) {
+    final int[] times = departureTimes;
+    final int end = offset + nTrips;
+
+    for (int i = offset + tripIndexLowerBound; i < end; ++i) {
+      if (times[i] >= earliestBoardTime) {
+        candidateTripIndex = i - offset;
+        candidateTrip = timetable.getTripSchedule(candidateTripIndex);
+        return this;
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Do a branch-free binary search to find the upper bound index for where to start the search.
+   * The search stops when the first trip departing after the earliest board time is within the
+   * next {@link #binarySearchThreshold} trips.
+   *
+   * @return a better upper bound index (exclusive)
+   */
+  private int binarySearchForTripIndex() {
+    final int[] times = departureTimes;
+    final int limit = earliestBoardTime;
+    int lower = offset;
+    int n = nTrips;
+
+    while (n > binarySearchThreshold) {
+      int half = n >>> 1;
+      lower = times[lower + half] < limit ? lower + half : lower;
+      n -= half;
+    }
+    return Math.min(lower - offset + n + 1, nTrips);
+  }
+}
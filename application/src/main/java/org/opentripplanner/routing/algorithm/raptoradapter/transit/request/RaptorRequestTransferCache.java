@@ -3,9 +3,15 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.opentripplanner.framework.lang.DoubleUtils;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
@@ -20,14 +26,48 @@ import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Cache the {@link RaptorTransferIndex} for each distinct set of street preferences relevant for
+ * transfers. Creating the index is expensive on large networks, since all transfers for all stops
+ * are re-calculated.
+ * <p>
+ * If {@code quantizePreferences} is enabled, the walk and bike speeds and reluctances are rounded
+ * to coarser steps before the request is used as a cache key and to calculate the transfers. Small
+ * changes in the preferences then share the same cache entry.
+ * <p>
+ * The requests used to warm up the cache are kept, so the cache can be warmed up again in the
+ * background if any of them are evicted.
+ */
 public class RaptorRequestTransferCache {
 
   private static final Logger LOG = LoggerFactory.getLogger(RaptorRequestTransferCache.class);
 
+  private static final double WALK_SPEED_STEP = 0.1;
+  private static final double BIKE_SPEED_STEP = 0.5;
+  private static final double RELUCTANCE_STEP = 0.25;
+
   private final LoadingCache<CacheKey, RaptorTransferIndex> transferCache;
+  private final boolean quantizePreferences;
+
+  private final LongAdder buildCount = new LongAdder();
+  private final LongAdder buildTimeNanos = new LongAdder();
+
+  private volatile List<CacheKey> warmUpKeys = List.of();
+
+  /** {@code true} if a warm-up is queued and has not started yet. */
+  private final AtomicBoolean rewarmPending = new AtomicBoolean(false);
+
+  /** Created on first use, the warm-up is not used in most tests. */
+  private ExecutorService warmUpExecutor;
 
   public RaptorRequestTransferCache(int maximumSize) {
-    transferCache = CacheBuilder.newBuilder().maximumSize(maximumSize).build(cacheLoader());
+    this(maximumSize, false);
+  }
+
+  public RaptorRequestTransferCache(int maximumSize, boolean quantizePreferences) {
+    this.quantizePreferences = quantizePreferences;
+    this.transferCache =
+      CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build(cacheLoader());
   }
 
   public LoadingCache<CacheKey, RaptorTransferIndex> getTransferCache() {
@@ -35,43 +75,148 @@ public class RaptorRequestTransferCache {
   }
 
   public void put(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
-    final CacheKey cacheKey = new CacheKey(transfersByStopIndex, request);
-    final RaptorTransferIndex raptorTransferIndex = RaptorTransferIndex.create(
-      transfersByStopIndex,
-      cacheKey.request
-    );
+    final CacheKey cacheKey = createKey(transfersByStopIndex, request);
+    final RaptorTransferIndex raptorTransferIndex = create(cacheKey);
 
     LOG.info("Initializing cache with request: {}", cacheKey.options);
     transferCache.put(cacheKey, raptorTransferIndex);
   }
 
   public RaptorTransferIndex get(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
+    return get(createKey(transfersByStopIndex, request));
+  }
+
+  /**
+   * Set the requests used to warm up the cache and create the transfers for them in a background
+   * thread. Routing requests are not blocked; if a request needs the transfers before they
+   * are created it waits for the same calculation to complete.
+   */
+  public void warmUpAsync(List<List<Transfer>> transfersByStopIndex, List<RouteRequest> requests) {
+    this.warmUpKeys =
+      requests.stream().map(request -> createKey(transfersByStopIndex, request)).toList();
+    rewarmAsync();
+  }
+
+  /**
+   * Create the transfers again, in a background thread, for each of the warm-up requests not in
+   * the cache. This is called after the real-time transit layer is replaced; The cache is shared
+   * by all copies of the transit layer, but warm-up entries may have been evicted by other
+   * requests. If a warm-up is already queued, nothing more is queued, so a burst of real-time
+   * commits only creates the missing transfers once.
+   */
+  public void rewarmAsync() {
+    // Look up the keys in the map view, it does not count as a hit or a miss in the cache stats
+    if (warmUpKeys.stream().allMatch(key -> transferCache.asMap().containsKey(key))) {
+      return;
+    }
+    // Only one warm-up is queued at a time, it checks the keys when it runs
+    if (!rewarmPending.compareAndSet(false, true)) {
+      return;
+    }
+    warmUpExecutor().execute(() -> {
+      rewarmPending.set(false);
+      warmUpKeys.forEach(key -> {
+        if (!transferCache.asMap().containsKey(key)) {
+          LOG.info("Warming up cache with request: {}", key.options);
+          get(key);
+        }
+      });
+    });
+  }
+
+  /** The number of times the transfers for a request are created, including warm-up. */
+  public long buildCount() {
+    return buildCount.sum();
+  }
+
+  /** The total time spent creating transfers, including warm-up. */
+  public double buildTimeNanos() {
+    return buildTimeNanos.sum();
+  }
+
+  private RaptorTransferIndex get(CacheKey cacheKey) {
     try {
-      return transferCache.get(new CacheKey(transfersByStopIndex, request));
+      return transferCache.get(cacheKey);
     } catch (ExecutionException e) {
       throw new RuntimeException("Failed to get item from transfer cache", e);
     }
   }
 
+  private CacheKey createKey(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
+    var streetRequest = StreetSearchRequestMapper.mapToTransferRequest(request).build();
+    if (quantizePreferences) {
+      streetRequest = quantize(streetRequest);
+    }
+    return new CacheKey(transfersByStopIndex, streetRequest);
+  }
+
+  private RaptorTransferIndex create(CacheKey cacheKey) {
+    long start = System.nanoTime();
+    var index = RaptorTransferIndex.create(cacheKey.transfersByStopIndex, cacheKey.request);
+    buildTimeNanos.add(System.nanoTime() - start);
+    buildCount.increment();
+    return index;
+  }
+
+  private synchronized ExecutorService warmUpExecutor() {
+    if (warmUpExecutor == null) {
+      warmUpExecutor =
+        Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setNameFormat("transfer-cache-warm-up").setDaemon(true).build()
+        );
+    }
+    return warmUpExecutor;
+  }
+
   private CacheLoader<CacheKey, RaptorTransferIndex> cacheLoader() {
     return new CacheLoader<>() {
       @Override
       public RaptorTransferIndex load(CacheKey cacheKey) {
         LOG.info("Adding runtime request to cache: {}", cacheKey.options);
-        return RaptorTransferIndex.create(cacheKey.transfersByStopIndex, cacheKey.request);
+        return create(cacheKey);
       }
     };
   }
 
+  /**
+   * Round the walk and bike speeds and reluctances to coarser steps. The street preferences are
+   * already normalized, but with up to two decimals, which gives too many distinct cache entries
+   * when clients vary them.
+   */
+  private static StreetSearchRequest quantize(StreetSearchRequest request) {
+    return StreetSearchRequest
+      .copyOf(request)
+      .withPreferences(preferences ->
+        preferences
+          .withWalk(walk ->
+            walk
+              .withSpeed(roundToStep(walk.speed(), WALK_SPEED_STEP))
+              .withReluctance(roundToStep(walk.reluctance(), RELUCTANCE_STEP))
+              .withStairsReluctance(roundToStep(walk.stairsReluctance(), RELUCTANCE_STEP))
+              .withEscalatorReluctance(roundToStep(walk.escalatorReluctance(), RELUCTANCE_STEP))
+          )
+          .withBike(bike ->
+            bike
+              .withSpeed(roundToStep(bike.speed(), BIKE_SPEED_STEP))
+              .withReluctance(roundToStep(bike.reluctance(), RELUCTANCE_STEP))
+          )
+      )
+      .build();
+  }
+
+  private static double roundToStep(double value, double step) {
+    return DoubleUtils.roundTo2Decimals(Math.round(value / step) * step);
+  }
+
   private static class CacheKey {
 
     private final List<List<Transfer>> transfersByStopIndex;
     private final StreetSearchRequest request;
     private final StreetRelevantOptions options;
 
-    private CacheKey(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
+    private CacheKey(List<List<Transfer>> transfersByStopIndex, StreetSearchRequest request) {
       this.transfersByStopIndex = transfersByStopIndex;
-      this.request = StreetSearchRequestMapper.mapToTransferRequest(request).build();
+      this.request = request;
       this.options = new StreetRelevantOptions(this.request);
     }
 
@@ -0,0 +1,109 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+
+/**
+ * Cache the trip patterns filtered and merged over the search days, used to create the
+ * {@link RaptorRoutingRequestTransitData} for a request. Creating these is expensive, and most
+ * requests use the same service days and the same filter.
+ * <p>
+ * The cached data is immutable and shared by all requests with the same search-time-zero, the same
+ * number of additional search days and an equal {@link TransitDataProviderFilter}. The cache is
+ * tied to one {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer},
+ * a copy of the transit layer gets a new empty cache. This invalidates the cache when the
+ * real-time updater publishes a new transit layer.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class RaptorRequestTripPatternCache {
+
+  private final int maximumSize;
+  private final Cache<CacheKey, FilteredTripPatterns> cache;
+
+  public RaptorRequestTripPatternCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Create a new empty cache with the same size as this cache.
+   */
+  public RaptorRequestTripPatternCache emptyCopy() {
+    return new RaptorRequestTripPatternCache(maximumSize);
+  }
+
+  /**
+   * Drop all cached trip patterns. This must be called if the trip patterns in the transit layer
+   * is changed.
+   */
+  public void invalidate() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Return the cached trip patterns for the given search days and filter, or create and cache
+   * them if not found. Requests for the same key waits for the first one to create the value.
+   */
+  FilteredTripPatterns get(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    Supplier<FilteredTripPatterns> creator
+  ) {
+    if (maximumSize == 0) {
+      return creator.get();
+    }
+    var key = new CacheKey(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter
+    );
+    try {
+      return cache.get(key, creator::get);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from trip pattern cache", e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(RaptorRequestTripPatternCache.class)
+      .addNum("maximumSize", maximumSize)
+      .addNum("size", cache.size())
+      .toString();
+  }
+
+  private record CacheKey(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {}
+
+  /**
+   * The trip patterns for a request, the lists are read-only.
+   */
+  record FilteredTripPatterns(
+    List<TripPatternForDates> patternIndex,
+    List<int[]> activeTripPatternsPerStop
+  ) {
+    FilteredTripPatterns {
+      patternIndex = Collections.unmodifiableList(patternIndex);
+      activeTripPatternsPerStop = Collections.unmodifiableList(activeTripPatternsPerStop);
+    }
+  }
+}
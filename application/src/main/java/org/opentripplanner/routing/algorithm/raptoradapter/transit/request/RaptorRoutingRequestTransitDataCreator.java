@@ -94,7 +94,8 @@ class RaptorRoutingRequestTransitDataCreator {
     ZonedDateTime transitSearchTimeZero,
     List<TripPatternForDate> patternForDateList,
     TransitDataProviderFilter filter,
-    TransitGroupPriorityService transitGroupPriorityService
+    TransitGroupPriorityService transitGroupPriorityService,
+    TripScheduleSearchType tripScheduleSearchType
   ) {
     // Group TripPatternForDate objects by TripPattern.
     // This is done in a loop to increase performance.
@@ -148,7 +149,8 @@ class RaptorRoutingRequestTransitDataCreator {
             tripPattern.getAlightingPossible(),
             BoardAlight.ALIGHT
           ),
-          transitGroupPriorityService.lookupTransitGroupPriorityId(tripPattern.getPattern())
+          transitGroupPriorityService.lookupTransitGroupPriorityId(tripPattern.getPattern()),
+          tripScheduleSearchType
         )
       );
     }
@@ -168,7 +170,13 @@ class RaptorRoutingRequestTransitDataCreator {
       filter
     );
 
-    return merge(transitSearchTimeZero, tripPatternForDates, filter, transitGroupPriorityService);
+    return merge(
+      transitSearchTimeZero,
+      tripPatternForDates,
+      filter,
+      transitGroupPriorityService,
+      transitLayer.getTripScheduleSearchType()
+    );
   }
 
   private static List<TripPatternForDate> filterActiveTripPatterns(
@@ -62,13 +62,16 @@ public class TripPatternForDates
 
   private final int priorityGroupId;
 
+  private final TripScheduleSearchType tripScheduleSearchType;
+
   TripPatternForDates(
     RoutingTripPattern tripPattern,
     TripPatternForDate[] tripPatternForDates,
     int[] offsets,
     BitSet boardingPossible,
     BitSet alightningPossible,
-    int priorityGroupId
+    int priorityGroupId,
+    TripScheduleSearchType tripScheduleSearchType
   ) {
     this.tripPattern = tripPattern;
     this.tripPatternForDates = tripPatternForDates;
@@ -76,6 +79,7 @@ public class TripPatternForDates
     this.boardingPossible = boardingPossible;
     this.alightingPossible = alightningPossible;
     this.priorityGroupId = priorityGroupId;
+    this.tripScheduleSearchType = tripScheduleSearchType;
 
     int numberOfTripSchedules = 0;
     boolean hasFrequencies = false;
@@ -196,7 +200,7 @@ public class TripPatternForDates
     if (useCustomizedTripSearch()) {
       return createCustomizedTripSearch(direction);
     }
-    return TripScheduleSearchFactory.create(direction, this);
+    return TripScheduleSearchFactory.create(direction, this, tripScheduleSearchType);
   }
 
   @Override
@@ -216,6 +220,16 @@ public class TripPatternForDates
     return (int index) -> departureTimes[base + index];
   }
 
+  @Override
+  public int[] packedArrivalTimes() {
+    return arrivalTimes;
+  }
+
+  @Override
+  public int[] packedDepartureTimes() {
+    return departureTimes;
+  }
+
   public IntUnaryOperator getArrivalTimesForTrip(int index) {
     return (int stopPositionInPattern) ->
       arrivalTimes[stopPositionInPattern * numberOfTripSchedules + index];
@@ -30,8 +30,25 @@ public class TripScheduleSearchFactory {
     SearchDirection searchDirection,
     TripSearchTimetable<T> timetable
   ) {
-    return searchDirection.isForward()
-      ? new TripScheduleBoardSearch<>(timetable, BINARY_SEARCH_THRESHOLD)
-      : new TripScheduleAlightSearch<>(timetable, BINARY_SEARCH_THRESHOLD);
+    return create(searchDirection, timetable, TripScheduleSearchType.TIME_FUNCTION);
+  }
+
+  /**
+   * Create a new search based on the given direction and search type, see
+   * {@link #create(SearchDirection, TripSearchTimetable)}.
+   */
+  public static <T extends RaptorTripSchedule> RaptorTripScheduleSearch<T> create(
+    SearchDirection searchDirection,
+    TripSearchTimetable<T> timetable,
+    TripScheduleSearchType searchType
+  ) {
+    return switch (searchType) {
+      case TIME_FUNCTION -> searchDirection.isForward()
+        ? new TripScheduleBoardSearch<>(timetable, BINARY_SEARCH_THRESHOLD)
+        : new TripScheduleAlightSearch<>(timetable, BINARY_SEARCH_THRESHOLD);
+      case PACKED_ARRAY -> searchDirection.isForward()
+        ? new PackedTripScheduleBoardSearch<>(timetable, BINARY_SEARCH_THRESHOLD)
+        : new PackedTripScheduleAlightSearch<>(timetable, BINARY_SEARCH_THRESHOLD);
+    };
   }
 }
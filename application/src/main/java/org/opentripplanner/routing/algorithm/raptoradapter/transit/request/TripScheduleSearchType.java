@@ -0,0 +1,20 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+/**
+ * The implementation used to search for the trip to board or alight in a scheduled timetable.
+ * Both return the same trips, the difference is only the performance.
+ */
+public enum TripScheduleSearchType {
+  /**
+   * Look up the times through the {@link TripSearchTimetable#getDepartureTimes(int)} and
+   * {@link TripSearchTimetable#getArrivalTimes(int)} functions, one function call per trip
+   * compared. See {@link TripScheduleBoardSearch} and {@link TripScheduleAlightSearch}.
+   */
+  TIME_FUNCTION,
+
+  /**
+   * Search the times for the stop position directly in the packed arrays of the timetable. See
+   * {@link PackedTripScheduleBoardSearch} and {@link PackedTripScheduleAlightSearch}.
+   */
+  PACKED_ARRAY,
+}
@@ -26,4 +26,17 @@ public interface TripSearchTimetable<T extends RaptorTripSchedule> extends Rapto
    * seconds from midnight on the search date.
    */
   IntUnaryOperator getDepartureTimes(int stopPositionInPattern);
+
+  /**
+   * The arrival times of all trips packed in one array, ordered by stop position first and trip
+   * index second. The arrival time of trip {@code i} at stop position {@code s} is at index
+   * {@code s * numberOfTripSchedules() + i}. The array is shared, and must not be modified.
+   */
+  int[] packedArrivalTimes();
+
+  /**
+   * The departure times of all trips packed in one array, in the same order as the
+   * {@link #packedArrivalTimes()}. The array is shared, and must not be modified.
+   */
+  int[] packedDepartureTimes();
 }
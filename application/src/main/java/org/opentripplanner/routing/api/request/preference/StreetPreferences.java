@@ -9,6 +9,7 @@ import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
+import org.opentripplanner.astar.AStarQueueType;
 import org.opentripplanner.framework.lang.DoubleUtils;
 import org.opentripplanner.framework.model.Units;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
@@ -36,6 +37,7 @@ public final class StreetPreferences implements Serializable {
   private final IntersectionTraversalModel intersectionTraversalModel;
   private final DurationForEnum<StreetMode> maxDirectDuration;
   private final Duration routingTimeout;
+  private final AStarQueueType searchQueue;
 
   private StreetPreferences() {
     this.turnReluctance = 1.0;
@@ -45,6 +47,7 @@ public final class StreetPreferences implements Serializable {
     this.intersectionTraversalModel = IntersectionTraversalModel.SIMPLE;
     this.maxDirectDuration = durationForStreetModeOf(ofHours(4));
     this.routingTimeout = Duration.ofSeconds(5);
+    this.searchQueue = AStarQueueType.BINARY_HEAP;
   }
 
   private StreetPreferences(Builder builder) {
@@ -55,6 +58,7 @@ public final class StreetPreferences implements Serializable {
     this.intersectionTraversalModel = requireNonNull(builder.intersectionTraversalModel);
     this.maxDirectDuration = requireNonNull(builder.maxDirectDuration);
     this.routingTimeout = requireNonNull(builder.routingTimeout);
+    this.searchQueue = requireNonNull(builder.searchQueue);
   }
 
   public static Builder of() {
@@ -103,6 +107,11 @@ public final class StreetPreferences implements Serializable {
     return routingTimeout;
   }
 
+  /** The priority queue used by the street search(AStar). */
+  public AStarQueueType searchQueue() {
+    return searchQueue;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -113,6 +122,7 @@ public final class StreetPreferences implements Serializable {
       drivingDirection == that.drivingDirection &&
       elevator.equals(that.elevator) &&
       routingTimeout.equals(that.routingTimeout) &&
+      searchQueue == that.searchQueue &&
       intersectionTraversalModel == that.intersectionTraversalModel &&
       maxDirectDuration.equals(that.maxDirectDuration) &&
       accessEgress.equals(that.accessEgress)
@@ -127,6 +137,7 @@ public final class StreetPreferences implements Serializable {
       elevator,
       accessEgress,
       routingTimeout,
+      searchQueue,
       intersectionTraversalModel,
       maxDirectDuration
     );
@@ -139,6 +150,7 @@ public final class StreetPreferences implements Serializable {
       .addNum("turnReluctance", turnReluctance, DEFAULT.turnReluctance)
       .addEnum("drivingDirection", drivingDirection, DEFAULT.drivingDirection)
       .addDuration("routingTimeout", routingTimeout, DEFAULT.routingTimeout())
+      .addEnum("searchQueue", searchQueue, DEFAULT.searchQueue)
       .addObj("elevator", elevator, DEFAULT.elevator)
       .addObj(
         "intersectionTraversalModel",
@@ -159,6 +171,7 @@ public final class StreetPreferences implements Serializable {
     private IntersectionTraversalModel intersectionTraversalModel;
     private DurationForEnum<StreetMode> maxDirectDuration;
     private Duration routingTimeout;
+    private AStarQueueType searchQueue;
     private AccessEgressPreferences accessEgress;
 
     public Builder(StreetPreferences original) {
@@ -170,6 +183,7 @@ public final class StreetPreferences implements Serializable {
       this.accessEgress = original.accessEgress;
       this.maxDirectDuration = original.maxDirectDuration;
       this.routingTimeout = original.routingTimeout;
+      this.searchQueue = original.searchQueue;
     }
 
     public StreetPreferences original() {
@@ -216,6 +230,11 @@ public final class StreetPreferences implements Serializable {
       return this;
     }
 
+    public Builder withSearchQueue(AStarQueueType searchQueue) {
+      this.searchQueue = searchQueue;
+      return this;
+    }
+
     public Builder apply(Consumer<Builder> body) {
       body.accept(this);
       return this;
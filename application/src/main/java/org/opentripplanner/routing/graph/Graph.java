@@ -28,6 +28,9 @@ import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.model.vertex.VertexLabel;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
+import org.opentripplanner.street.search.landmark.Landmarks;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.SiteRepository;
@@ -79,6 +82,22 @@ public class Graph implements Serializable {
 
   private transient StreetIndex streetIndex;
 
+  private transient volatile CompactStreetGraph compactStreetGraph;
+
+  /**
+   * A contraction hierarchy of the street graph, used to speed up direct car and bicycle routing.
+   * Only created if enabled in the build config.
+   */
+  @Nullable
+  private ContractionHierarchy contractionHierarchy = null;
+
+  /**
+   * Distances to and from a set of landmarks, used to speed up direct street routing. Only created
+   * if enabled in the build config.
+   */
+  @Nullable
+  private Landmarks landmarks = null;
+
   /** The convex hull of all the graph vertices. Generated at the time the Graph is built. */
   private Geometry convexHull = null;
 
@@ -329,6 +348,42 @@ public class Graph implements Serializable {
     return streetIndex.getVertexLinker();
   }
 
+  /**
+   * Get a compact, primitive array copy of the street graph, used for fast travel time searches.
+   * The compact graph is created the first time this method is called, and does not reflect
+   * changes made to the graph after that. Do not use this during graph build.
+   */
+  public CompactStreetGraph getCompactStreetGraph() {
+    if (compactStreetGraph == null) {
+      synchronized (this) {
+        if (compactStreetGraph == null) {
+          LOG.info("Create compact street graph...");
+          compactStreetGraph = CompactStreetGraph.of(getVertices());
+          LOG.info("Create compact street graph complete.");
+        }
+      }
+    }
+    return compactStreetGraph;
+  }
+
+  @Nullable
+  public ContractionHierarchy getContractionHierarchy() {
+    return contractionHierarchy;
+  }
+
+  public void setContractionHierarchy(@Nullable ContractionHierarchy contractionHierarchy) {
+    this.contractionHierarchy = contractionHierarchy;
+  }
+
+  @Nullable
+  public Landmarks getLandmarks() {
+    return landmarks;
+  }
+
+  public void setLandmarks(@Nullable Landmarks landmarks) {
+    this.landmarks = landmarks;
+  }
+
   /**
    * Calculates convexHull of all the vertices during build time
    */
@@ -13,6 +13,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -23,6 +24,7 @@ import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.lang.OtpNumberFormat;
 import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.model.projectinfo.GraphFileHeader;
 import org.opentripplanner.model.projectinfo.OtpProjectInfo;
@@ -166,6 +168,7 @@ public class SerializedGraphObject implements Serializable {
 
   private static SerializedGraphObject load(InputStream inputStream, String sourceDescription) {
     // TODO store version information, halt load if versions mismatch
+    long startTime = System.currentTimeMillis();
     try (inputStream) {
       LOG.info("Reading graph from '{}'", sourceDescription);
       Input input = new Input(inputStream);
@@ -186,7 +189,7 @@ public class SerializedGraphObject implements Serializable {
       serObj.reconstructEdgeLists();
       serObj.timetableRepository.getSiteRepository().reindexAfterDeserialization();
       serObj.timetableRepository.index();
-      logSerializationCompleteStatus(serObj.graph, serObj.timetableRepository);
+      logSerializationCompleteStatus(startTime, serObj.graph, serObj.timetableRepository);
       return serObj;
     } catch (IOException e) {
       LOG.error("IO exception while loading graph: {}", e.getLocalizedMessage(), e);
@@ -257,9 +260,12 @@ public class SerializedGraphObject implements Serializable {
   }
 
   private static void logSerializationCompleteStatus(
+    long startTime,
     Graph graph,
     TimetableRepository timetableRepository
   ) {
+    long endTime = System.currentTimeMillis();
+    String time = DurationUtils.durationToStr(Duration.ofMillis(endTime - startTime));
     var f = new OtpNumberFormat();
     var nStops = f.formatNumber(timetableRepository.getSiteRepository().stopIndexSize());
     var nTransfers = f.formatNumber(timetableRepository.getTransferService().listAll().size());
@@ -267,6 +273,7 @@ public class SerializedGraphObject implements Serializable {
     var nVertices = f.formatNumber(graph.countVertices());
     var nEdges = f.formatNumber(graph.countEdges());
 
+    LOG.info("Graph loading took {}.", time);
     LOG.info("Graph loaded.   |V|={} |E|={}", nVertices, nEdges);
     LOG.info(
       "Transit loaded. |Stops|={} |Patterns|={} |ConstrainedTransfers|={}",
@@ -2,11 +2,14 @@ package org.opentripplanner.routing.linking;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
@@ -98,7 +101,52 @@ public class VertexLinker {
     LinkingDirection direction,
     BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
   ) {
-    link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction);
+    link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction, null);
+  }
+
+  /**
+   * Link a vertex permanently, using the edges found by
+   * {@link #findPermanentLinkCandidates(Collection, TraverseModeSet)} if they are still valid. The
+   * result is the same as for {@link #linkVertexPermanently(Vertex, TraverseModeSet,
+   * LinkingDirection, BiFunction)}.
+   */
+  public void linkVertexPermanently(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    LinkingDirection direction,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    LinkCandidates candidates
+  ) {
+    link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction, candidates);
+  }
+
+  /**
+   * Search for the street edges to permanently link each of the given vertices to. Searching the
+   * spatial index and calculating the distances is the expensive part of linking, so this is done
+   * in parallel for all vertices. The graph is not changed, the vertices must be linked with
+   * {@link #linkVertexPermanently(Vertex, TraverseModeSet, LinkingDirection, BiFunction,
+   * LinkCandidates)} afterward, one by one.
+   * <p>
+   * Linking a vertex may split the edges found for another vertex. So when a vertex is linked, the
+   * edges found for it are only used if none of them is split. Otherwise, the search is repeated.
+   * Splitting an edge does not bring any other edges closer to a vertex, so the edges found are
+   * the same as a new search would find.
+   */
+  public LinkCandidates findPermanentLinkCandidates(
+    Collection<? extends Vertex> vertices,
+    TraverseModeSet traverseModes
+  ) {
+    Map<Vertex, VertexCandidates> candidates = vertices
+      .parallelStream()
+      .collect(
+        Collectors.toMap(
+          v -> v,
+          v -> findVertexCandidates(v, traverseModes),
+          (a, b) -> a,
+          IdentityHashMap::new
+        )
+      );
+    return new LinkCandidates(traverseModes, candidates);
   }
 
   public DisposableEdgeCollection linkVertexForRealTime(
@@ -107,7 +155,7 @@ public class VertexLinker {
     LinkingDirection direction,
     BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
   ) {
-    return link(vertex, traverseModes, direction, Scope.REALTIME, edgeFunction);
+    return link(vertex, traverseModes, direction, Scope.REALTIME, edgeFunction, null);
   }
 
   public DisposableEdgeCollection linkVertexForRequest(
@@ -116,7 +164,7 @@ public class VertexLinker {
     LinkingDirection direction,
     BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
   ) {
-    return link(vertex, traverseModes, direction, Scope.REQUEST, edgeFunction);
+    return link(vertex, traverseModes, direction, Scope.REQUEST, edgeFunction, null);
   }
 
   public void removeEdgeFromIndex(Edge edge, Scope scope) {
@@ -173,6 +221,7 @@ public class VertexLinker {
    * @param direction     The direction of the new edges to be created
    * @param scope         The scope of the split
    * @param edgeFunction  How the provided vertex should be linked into the street graph
+   * @param candidates    The edges found for the vertex in advance, if any
    * @return A DisposableEdgeCollection with edges created by this method. It is the caller's
    * responsibility to call the dispose method on this object when the edges are no longer needed.
    */
@@ -181,7 +230,8 @@ public class VertexLinker {
     TraverseModeSet traverseModes,
     LinkingDirection direction,
     Scope scope,
-    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    @Nullable LinkCandidates candidates
   ) {
     DisposableEdgeCollection tempEdges = (scope != Scope.PERMANENT)
       ? new DisposableEdgeCollection(graph, scope)
@@ -194,7 +244,8 @@ public class VertexLinker {
         direction,
         scope,
         INITIAL_SEARCH_RADIUS_METERS,
-        tempEdges
+        tempEdges,
+        candidates
       );
       if (streetVertices.isEmpty()) {
         streetVertices =
@@ -204,7 +255,8 @@ public class VertexLinker {
             direction,
             scope,
             MAX_SEARCH_RADIUS_METERS,
-            tempEdges
+            tempEdges,
+            candidates
           );
       }
 
@@ -232,7 +284,52 @@ public class VertexLinker {
     LinkingDirection direction,
     Scope scope,
     int radiusMeters,
-    DisposableEdgeCollection tempEdges
+    DisposableEdgeCollection tempEdges,
+    @Nullable LinkCandidates candidates
+  ) {
+    List<DistanceTo<StreetEdge>> candidateEdges = candidates == null
+      ? null
+      : candidates.get(vertex, traverseModes, radiusMeters);
+
+    if (candidateEdges == null || !candidateEdges.stream().allMatch(it -> isInGraph(it.item))) {
+      candidateEdges = findCandidateEdges(vertex, traverseModes, scope, radiusMeters);
+    }
+
+    if (candidateEdges.isEmpty()) {
+      return Set.of();
+    }
+
+    final double xscale = Math.cos(vertex.getLat() * Math.PI / 180);
+    Set<DistanceTo<StreetEdge>> closestEdges = getClosestEdgesPerMode(
+      traverseModes,
+      candidateEdges
+    );
+    Set<AreaEdgeList> linkedAreas = new HashSet<>();
+    return closestEdges
+      .stream()
+      .map(ce -> link(vertex, ce.item, xscale, scope, direction, tempEdges, linkedAreas))
+      .filter(v -> v != null)
+      .collect(Collectors.toSet());
+  }
+
+  private VertexCandidates findVertexCandidates(Vertex vertex, TraverseModeSet traverseModes) {
+    var initial = findCandidateEdges(
+      vertex,
+      traverseModes,
+      Scope.PERMANENT,
+      INITIAL_SEARCH_RADIUS_METERS
+    );
+    var max = initial.isEmpty()
+      ? findCandidateEdges(vertex, traverseModes, Scope.PERMANENT, MAX_SEARCH_RADIUS_METERS)
+      : null;
+    return new VertexCandidates(initial, max);
+  }
+
+  private List<DistanceTo<StreetEdge>> findCandidateEdges(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    Scope scope,
+    int radiusMeters
   ) {
     final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
 
@@ -257,20 +354,15 @@ public class VertexLinker {
       .filter(ead -> ead.distanceDegreesLat < radiusDeg)
       .toList();
 
-    if (candidateEdges.isEmpty()) {
-      return Set.of();
-    }
+    return candidateEdges;
+  }
 
-    Set<DistanceTo<StreetEdge>> closestEdges = getClosestEdgesPerMode(
-      traverseModes,
-      candidateEdges
-    );
-    Set<AreaEdgeList> linkedAreas = new HashSet<>();
-    return closestEdges
-      .stream()
-      .map(ce -> link(vertex, ce.item, xscale, scope, direction, tempEdges, linkedAreas))
-      .filter(v -> v != null)
-      .collect(Collectors.toSet());
+  /**
+   * An edge is removed from the graph when it is split permanently. This does the same check as
+   * {@link Edge#isReachableFromGraph()}, without logging a warning.
+   */
+  private static boolean isInGraph(Edge edge) {
+    return edge.getToVertex().getIncoming().contains(edge);
   }
 
   /**
@@ -519,6 +611,54 @@ public class VertexLinker {
     }
   }
 
+  /**
+   * The edges found within the initial search radius of a vertex, and within the max search radius
+   * if none are found within the initial radius.
+   */
+  private record VertexCandidates(
+    List<DistanceTo<StreetEdge>> initial,
+    @Nullable List<DistanceTo<StreetEdge>> max
+  ) {}
+
+  /**
+   * The street edges found for a set of vertices, see
+   * {@link #findPermanentLinkCandidates(Collection, TraverseModeSet)}.
+   */
+  public static final class LinkCandidates {
+
+    private final TraverseModeSet traverseModes;
+    private final Map<Vertex, VertexCandidates> candidates;
+
+    private LinkCandidates(
+      TraverseModeSet traverseModes,
+      Map<Vertex, VertexCandidates> candidates
+    ) {
+      this.traverseModes = traverseModes;
+      this.candidates = candidates;
+    }
+
+    /**
+     * The edges found for the given vertex and radius, or {@code null} if they are not searched
+     * for.
+     */
+    @Nullable
+    private List<DistanceTo<StreetEdge>> get(
+      Vertex vertex,
+      TraverseModeSet traverseModes,
+      int radiusMeters
+    ) {
+      var vertexCandidates = candidates.get(vertex);
+      if (vertexCandidates == null || !this.traverseModes.equals(traverseModes)) {
+        return null;
+      }
+      return switch (radiusMeters) {
+        case INITIAL_SEARCH_RADIUS_METERS -> vertexCandidates.initial();
+        case MAX_SEARCH_RADIUS_METERS -> vertexCandidates.max();
+        default -> null;
+      };
+    }
+  }
+
   /**
    * Link a new vertex permanently with area geometry
    */
@@ -10,19 +10,17 @@ package org.opentripplanner.routing.util;
  * <p>
  * The JMM guarantees reference assignment alone is atomic (no read-tearing), but does not guarantee
  * that the combined process of assigning to fields of X and then assigning a reference to X is
- * atomic.
+ * atomic. A write to a volatile field happens-before every subsequent read of that field, which
+ * gives us the desired effect without a lock. Readers never block, not even while the updater
+ * thread is publishing a new value.
  * <p>
- * This class encapsulates the simple mechanism giving us the desired effect, revealing its
- * semantics through the type name, and providing an object to lock on (to avoid cluttering compound
- * types with lock fields, or locking on the entire compound type instance just to publish one of
- * its fields). Using private fields, it also prevents the containing object from bypassing the
- * synchronized block and accessing the reference directly, and prevents other code from interfering
- * with (locking on) the lock object.
+ * This class encapsulates the simple mechanism, revealing its semantics through the type name.
+ * Using a private field, it also prevents the containing object from bypassing the volatile field
+ * and keeping a reference that is not safely published.
  */
 public class ConcurrentPublished<T> {
 
-  private final Object lock = new Object();
-  private T value;
+  private volatile T value;
 
   /**
    * The published value should be effectively immutable, i.e. all writes to its fields and
@@ -30,14 +28,10 @@ public class ConcurrentPublished<T> {
    * modify its fields or referenced objects.
    */
   public void publish(T value) {
-    synchronized (lock) {
-      this.value = value;
-    }
+    this.value = value;
   }
 
   public T get() {
-    synchronized (lock) {
-      return value;
-    }
+    return value;
   }
 }
@@ -0,0 +1,95 @@
+package org.opentripplanner.standalone;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.graph_builder.StreetGraphFingerprint;
+import org.opentripplanner.standalone.config.CommandLineParameters;
+import org.opentripplanner.standalone.configure.LoadApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An incremental build, {@code --build --incremental}, is done in two steps. First a street graph
+ * is built and saved, the same as {@code --buildStreet}, but only if the inputs of the street
+ * graph have changed since the last incremental build. Then the transit data is built on top of
+ * the saved street graph, the same as {@code --loadStreet}.
+ * <p>
+ * Only the OSM module is skipped when the street graph is reused. The other modules, like the
+ * island pruning and the elevation modules, run on the loaded street graph as usual.
+ */
+class IncrementalGraphBuild {
+
+  private static final Logger LOG = LoggerFactory.getLogger(IncrementalGraphBuild.class);
+
+  /** The fingerprint of the street graph inputs, saved in the base directory. */
+  static final String STREET_GRAPH_FINGERPRINT_FILENAME = "streetGraph-inputs.properties";
+
+  private final CommandLineParameters cli;
+
+  IncrementalGraphBuild(CommandLineParameters cli) {
+    this.cli = cli;
+  }
+
+  /**
+   * Build and save a new street graph if its inputs have changed since the last incremental build,
+   * or the street graph does not exist.
+   *
+   * @return the parameters for building the transit data on top of the street graph.
+   */
+  CommandLineParameters buildStreetGraphIfChanged() {
+    var loadApp = new LoadApplication(cli);
+    var streetGraph = loadApp.getStreetGraphDataStore();
+    var fingerprintFile = new File(cli.getBaseDirectory(), STREET_GRAPH_FINGERPRINT_FILENAME);
+    var fingerprint = loadApp.streetGraphFingerprint();
+    var saved = StreetGraphFingerprint.load(fingerprintFile);
+
+    if (saved.isPresent()) {
+      List<String> changes = fingerprint.listChanges(saved.get(), streetGraph);
+      if (changes.isEmpty()) {
+        LOG.info(
+          "Incremental build: The street graph inputs are unchanged, reusing {}. The OSM module " +
+          "is skipped, it took {} in the street graph build.",
+          streetGraph.path(),
+          DurationUtils.durationToStr(saved.get().osmModuleDuration())
+        );
+        return cli.incrementalTransitBuild();
+      }
+      LOG.info(
+        "Incremental build: The street graph inputs have changed, building a new street graph. " +
+        "Changes: {}",
+        String.join(", ", changes)
+      );
+    } else {
+      LOG.info("Incremental build: No previous street graph fingerprint found, building one.");
+    }
+
+    Duration osmModuleDuration = buildStreetGraph();
+    try {
+      fingerprint.withStreetGraph(streetGraph, osmModuleDuration).save(fingerprintFile);
+    } catch (IOException e) {
+      // The next build will build the street graph again, this is not an error
+      LOG.warn(
+        "Unable to save the street graph fingerprint {}: {}",
+        fingerprintFile,
+        e.getMessage()
+      );
+    }
+    return cli.incrementalTransitBuild();
+  }
+
+  /**
+   * Build and save the street graph, and return the time the OSM module took.
+   */
+  private Duration buildStreetGraph() {
+    var params = cli.incrementalStreetGraphBuild();
+    var loadApp = new LoadApplication(params);
+    var config = loadApp.config();
+    OTPMain.detectUnusedConfigParams(params, config);
+    loadApp.validateConfigAndDataSources();
+    var app = loadApp.appConstruction();
+    return OTPMain.buildAndSaveGraph(app, config).osmModuleDuration();
+  }
+}
@@ -104,6 +104,10 @@ public class OTPMain {
    * @throws RuntimeException if an error occurs while loading the graph.
    */
   private static void startOTPServer(CommandLineParameters cli) {
+    if (cli.doIncrementalBuild()) {
+      cli = new IncrementalGraphBuild(cli).buildStreetGraphIfChanged();
+    }
+
     boolean graphAvailable = false;
     LOG.info(
       "Searching for configuration and input files in {}",
@@ -134,34 +138,8 @@ public class OTPMain {
 
     /* Start graph builder if requested. */
     if (cli.doBuildStreet() || cli.doBuildTransit()) {
-      // Abort building a graph if the file can not be saved
-      SerializedGraphObject.verifyTheOutputGraphIsWritableIfDataSourceExist(
-        app.graphOutputDataSource()
-      );
-
-      GraphBuilder graphBuilder = app.createGraphBuilder();
-      if (graphBuilder != null) {
-        graphBuilder.run();
-        graphAvailable = true;
-      } else {
-        throw new IllegalStateException("An error occurred while building the graph.");
-      }
-      // Store graph and config used to build it, also store router-config for easy deployment
-      // with using the embedded router config.
-      new SerializedGraphObject(
-        app.graph(),
-        app.timetableRepository(),
-        app.worldEnvelopeRepository(),
-        config.buildConfig(),
-        config.routerConfig(),
-        DataImportIssueSummary.combine(graphBuilder.issueSummary(), app.dataImportIssueSummary()),
-        app.emissionsDataModel(),
-        app.stopConsolidationRepository(),
-        app.streetLimitationParameters()
-      )
-        .save(app.graphOutputDataSource());
-      // Log size info for the deduplicator
-      LOG.info("Memory optimized {}", app.graph().deduplicator.toString());
+      buildAndSaveGraph(app, config);
+      graphAvailable = true;
     }
 
     if (!graphAvailable) {
@@ -176,10 +154,43 @@ public class OTPMain {
     }
   }
 
+  /**
+   * Build the graph and save it to the graph output data source, together with the config used to
+   * build it. The router-config is also stored for easy deployment with the embedded router config.
+   */
+  static GraphBuilder buildAndSaveGraph(ConstructApplication app, ConfigModel config) {
+    // Abort building a graph if the file can not be saved
+    SerializedGraphObject.verifyTheOutputGraphIsWritableIfDataSourceExist(
+      app.graphOutputDataSource()
+    );
+
+    GraphBuilder graphBuilder = app.createGraphBuilder();
+    if (graphBuilder == null) {
+      throw new IllegalStateException("An error occurred while building the graph.");
+    }
+    graphBuilder.run();
+
+    new SerializedGraphObject(
+      app.graph(),
+      app.timetableRepository(),
+      app.worldEnvelopeRepository(),
+      config.buildConfig(),
+      config.routerConfig(),
+      DataImportIssueSummary.combine(graphBuilder.issueSummary(), app.dataImportIssueSummary()),
+      app.emissionsDataModel(),
+      app.stopConsolidationRepository(),
+      app.streetLimitationParameters()
+    )
+      .save(app.graphOutputDataSource());
+    // Log size info for the deduplicator
+    LOG.info("Memory optimized {}", app.graph().deduplicator.toString());
+    return graphBuilder;
+  }
+
   /**
    * Optionally, check if the config is valid and if not abort the startup process.
    */
-  private static void detectUnusedConfigParams(CommandLineParameters cli, ConfigModel config) {
+  static void detectUnusedConfigParams(CommandLineParameters cli, ConfigModel config) {
     if (cli.abortOnUnknownConfig) {
       config.abortOnUnknownParameters();
     }
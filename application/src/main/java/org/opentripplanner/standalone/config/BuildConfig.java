@@ -33,10 +33,12 @@ import org.opentripplanner.gtfs.graphbuilder.GtfsFeedParameters;
 import org.opentripplanner.model.calendar.ServiceDateInterval;
 import org.opentripplanner.netex.config.NetexFeedParameters;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.fares.FareServiceFactory;
 import org.opentripplanner.standalone.config.buildconfig.DemConfig;
 import org.opentripplanner.standalone.config.buildconfig.GtfsConfig;
 import org.opentripplanner.standalone.config.buildconfig.IslandPruningConfig;
+import org.opentripplanner.standalone.config.buildconfig.LandmarkConfig;
 import org.opentripplanner.standalone.config.buildconfig.NetexConfig;
 import org.opentripplanner.standalone.config.buildconfig.OsmConfig;
 import org.opentripplanner.standalone.config.buildconfig.S3BucketConfig;
@@ -104,6 +106,8 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public final String configVersion;
 
+  public final Set<StreetMode> contractionHierarchyModes;
+
   public final boolean dataImportReport;
 
   public final int maxDataImportIssuesPerFile;
@@ -150,6 +154,9 @@ public class BuildConfig implements OtpDataStoreConfig {
   /** See {@link IslandPruningConfig}. */
   public final IslandPruningConfig islandPruning;
 
+  /** See {@link LandmarkConfig}. */
+  public final LandmarkConfig landmarks;
+
   public final Duration maxTransferDuration;
   public final NetexFeedParameters netexDefaults;
   public final GtfsFeedParameters gtfsDefaults;
@@ -217,6 +224,29 @@ public class BuildConfig implements OtpDataStoreConfig {
         .summary("Deployment version of the *" + BUILD_CONFIG_FILENAME + "*.")
         .description(OtpConfig.CONFIG_VERSION_DESCRIPTION)
         .asString(null);
+    contractionHierarchyModes =
+      root
+        .of("contractionHierarchyModes")
+        .since(V2_7)
+        .summary("Build a contraction hierarchy for direct street routing with these modes.")
+        .description(
+          """
+A contraction hierarchy is a preprocessed copy of the street graph where long car and bicycle
+routes can be found a lot faster than with a plain A* search. The hierarchy is stored in the
+graph, and it is used for direct street routing when the request has no time-dependent, rental
+or wheelchair constraints. The search falls back to A* if no path is found in the hierarchy.
+
+The hierarchy is customized for the default preferences, and it is only used if the request gives
+the streets the same weights. The turn costs are not part of the hierarchy, so the
+`turnReluctance` must be zero. For `bike` the bicycle preferences must also be the defaults, the
+car reluctance may be changed.
+
+Only `car` and `bike` are supported. Computing the hierarchy takes time and memory when the
+graph is built, and makes the graph bigger. The hierarchy is not built if the street graph is
+saved separately, since the street graph is changed when transit data is linked to it.
+"""
+        )
+        .asEnumSet(StreetMode.class);
     dataImportReport =
       root
         .of("dataImportReport")
@@ -267,6 +297,8 @@ all of the elevation values in the street edges.
 
     islandPruning = IslandPruningConfig.fromConfig(root);
 
+    landmarks = LandmarkConfig.fromConfig(root);
+
     maxDataImportIssuesPerFile =
       root
         .of("maxDataImportIssuesPerFile")
@@ -467,22 +499,25 @@ the centroid.
 When set to true, the elevation module will create a file cache for calculated elevation data.
 Subsequent graph builds can reuse the data in this file.
   
-After building the graph, a file called `cached_elevations.obj` will be written to the cache
+After building the graph, a file called `cached_elevations.bin` will be written to the cache
 directory. By default, this file is not written during graph builds. There is also a graph build
 parameter called `readCachedElevations` which is set to `true` by default.
 
-In graph builds, the elevation module will attempt to read the `cached_elevations.obj` file from
+In graph builds, the elevation module will attempt to read the `cached_elevations.bin` file from
 the cache directory. The cache directory defaults to `/var/otp/cache`, but this can be overridden
 via the CLI argument `--cache <directory>`. For the same graph build for multiple Northeast US
 states, the time it took with using this pre-downloaded and precalculated data became roughly 9
 minutes.
 
 The cached data is a lookup table where the coordinate sequences of respective street edges are
-used as keys for calculated data. It is assumed that all of the other input data except for the
-OpenStreetMap data remains the same between graph builds. Therefore, if the underlying elevation
-data is changed, or different configuration values for `elevationUnitMultiplier` or
-`includeEllipsoidToGeoidDifference` are used, then this data becomes invalid and all elevation data
-should be recalculated. Over time, various edits to OpenStreetMap will cause this cached data to
+used as keys for calculated data. The file is memory-mapped, so it does not use heap memory, and
+streets with an unchanged geometry reuse their elevation profile even if other parts of the
+OpenStreetMap data are changed. The cache is not used if it was written with other values for
+`distanceBetweenElevationSamples` or `includeEllipsoidToGeoidDifference`. It is assumed that all
+of the other input data except for the OpenStreetMap data remains the same between graph builds.
+Therefore, if the underlying elevation data is changed, or a different configuration value for
+`elevationUnitMultiplier` is used, then this data becomes invalid and all elevation data should be
+recalculated. Over time, various edits to OpenStreetMap will cause this cached data to
 become stale and not include new OSM ways. Therefore, periodic update of this cached data is
 recommended.
 """
@@ -25,7 +25,7 @@ import java.util.List;
  *
  * @author abyrd
  */
-public class CommandLineParameters {
+public class CommandLineParameters implements Cloneable {
 
   private static final String TIP = " Use --help to see available options.";
   private static final int DEFAULT_PORT = 8080;
@@ -75,6 +75,14 @@ public class CommandLineParameters {
   )
   public boolean loadStreet = false;
 
+  @Parameter(
+    names = { "--incremental" },
+    description = "Used with '--build'. Reuse 'streetGraph.obj' if the OSM and DEM data and the " +
+    "build config are unchanged since it was built, otherwise build and save a new " +
+    "'streetGraph.obj' first. The transit data is built on top of the street graph."
+  )
+  public boolean incremental = false;
+
   @Parameter(
     names = { "--save" },
     description = "Save the 'graph.obj' to local disk or data source " +
@@ -201,6 +209,46 @@ public class CommandLineParameters {
     return load || (serve && doBuildTransit());
   }
 
+  public boolean doIncrementalBuild() {
+    return build && incremental;
+  }
+
+  /**
+   * The parameters for building the street graph in an incremental build, the same as
+   * {@code --buildStreet}.
+   */
+  public CommandLineParameters incrementalStreetGraphBuild() {
+    var params = clone();
+    params.build = false;
+    params.incremental = false;
+    params.buildStreet = true;
+    params.save = false;
+    params.serve = false;
+    return params;
+  }
+
+  /**
+   * The parameters for building the transit data on top of the street graph in an incremental
+   * build, the same as {@code --loadStreet}.
+   */
+  public CommandLineParameters incrementalTransitBuild() {
+    var params = clone();
+    params.build = false;
+    params.incremental = false;
+    params.loadStreet = true;
+    return params;
+  }
+
+  @Override
+  public CommandLineParameters clone() {
+    try {
+      return (CommandLineParameters) super.clone();
+    } catch (CloneNotSupportedException e) {
+      /* this will never happen since our super is the cloneable object */
+      throw new RuntimeException(e);
+    }
+  }
+
   /**
    * @param port a port that we plan to bind to
    * @throws ParameterException if that port is not available
@@ -265,6 +313,9 @@ public class CommandLineParameters {
     if (buildStreet) {
       validateParamNotSet("--buildStreet", serve, "--serve");
     }
+    if (incremental && !build) {
+      throw new ParameterException("--incremental can only be used with --build." + TIP);
+    }
   }
 
   private void validateParamNotSet(String mainParam, boolean noneCompliantParam, String name) {
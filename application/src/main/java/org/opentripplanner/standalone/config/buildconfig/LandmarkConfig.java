@@ -0,0 +1,68 @@
+package org.opentripplanner.standalone.config.buildconfig;
+
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
+
+import java.util.Set;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+
+/**
+ * Landmark settings for the street routing heuristic
+ */
+public class LandmarkConfig {
+
+  public Set<StreetMode> modes;
+  public int count;
+
+  public static LandmarkConfig fromConfig(NodeAdapter root) {
+    return fromSubConfig(
+      root
+        .of("landmarks")
+        .since(V2_7)
+        .summary("Precompute landmark distances to speed up direct street routing.")
+        .description(
+          """
+        The distances between all street vertices and a small set of landmarks are used to give the
+        A* search a better estimate of the remaining distance to the destination than the straight
+        line distance. This reduces the number of visited states a lot where the streets take
+        detours around rivers, fjords and motorways.
+        """
+        )
+        .asObject()
+    );
+  }
+
+  /** Create a LandmarkConfig from a JSON configuration node. */
+  public static LandmarkConfig fromSubConfig(NodeAdapter config) {
+    LandmarkConfig landmarks = new LandmarkConfig();
+
+    landmarks.modes =
+      config
+        .of("modes")
+        .since(V2_7)
+        .summary("The street modes to compute landmark distances for.")
+        .description(
+          """
+        Only `walk`, `bike` and `car` are supported. The distances are not computed if the street
+        graph is saved separately, since the street graph is changed when transit data is linked to
+        it.
+        """
+        )
+        .asEnumSet(StreetMode.class);
+
+    landmarks.count =
+      config
+        .of("count")
+        .since(V2_7)
+        .summary("The number of landmarks.")
+        .description(
+          """
+        More landmarks give better estimates, but each landmark uses 4 bytes for each vertex in the
+        graph and for each mode.
+        """
+        )
+        .asInt(16);
+
+    return landmarks;
+  }
+}
@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.Map;
 import org.opentripplanner.raptor.api.request.DynamicSearchWindowCoefficients;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripScheduleSearchType;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
 import org.opentripplanner.standalone.config.routerequest.RouteRequestConfig;
@@ -25,9 +27,14 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
 
   private final int maxNumberOfTransfers;
   private final int scheduledTripBinarySearchThreshold;
+  private final TripScheduleSearchType tripScheduleSearchType;
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
+  private final int searchWindowSlices;
   private final int transferCacheMaxSize;
+  private final boolean transferCacheQuantizePreferences;
+  private final boolean transferCacheAsyncWarmUp;
+  private final int tripPatternCacheMaxSize;
   private final List<RouteRequest> transferCacheRequests;
   private final List<Duration> pagingSearchWindowAdjustments;
 
@@ -84,6 +91,20 @@ few percents.
 """
         )
         .asInt(dft.scheduledTripBinarySearchThreshold());
+    this.tripScheduleSearchType =
+      c
+        .of("tripScheduleSearchType")
+        .since(V2_7)
+        .summary("The search used to find the trip to board or alight in a scheduled timetable.")
+        .description(
+          """
+Both searches return the same trips, this only affects the performance. The `time-function` search
+looks up the time for each trip compared through a function. The `packed-array` search reads the
+times directly from the arrays holding the times for all trips in a pattern, and uses a branch-free
+binary search on patterns with many trips.
+"""
+        )
+        .asEnum(TripScheduleSearchType.TIME_FUNCTION);
     this.iterationDepartureStepInSeconds =
       c
         .of("iterationDepartureStepInSeconds")
@@ -113,6 +134,23 @@ no extra threads are started and the search is done in one thread.
 """
         )
         .asInt(0);
+    this.searchWindowSlices =
+      c
+        .of("searchWindowSlices")
+        .since(V2_7)
+        .summary("Split the search-window in slices and search each slice in parallel.")
+        .description(
+          """
+The multi-criteria RangeRaptor search iterates over each minute in the search-window. If this is
+larger than 1, the search-window is split into this number of slices, and the slices are searched in
+parallel using the `searchThreadPoolSize` threads. The results are merged into one set of pareto
+optimal paths. This reduces the response time of searches with a long search-window, but uses more
+CPU in total, because each slice can not reuse the arrivals found by the later slices. This only
+has an effect if the `searchThreadPoolSize` is larger than 0, and it is not used in arrive-by and
+via searches.
+"""
+        )
+        .asInt(dft.searchWindowSlices());
     // Dynamic Search Window
     this.stopBoardAlightDuringTransferCost =
       c
@@ -158,6 +196,57 @@ Use values in a range from `0` to `100 000`. **All key/value pairs are required
           " If too low, requests may be slower. If too high, more memory may be used then required."
         )
         .asInt(25);
+    this.transferCacheQuantizePreferences =
+      c
+        .of("transferCacheQuantizePreferences")
+        .since(V2_7)
+        .summary(
+          "Round the walk and bike preferences to coarser steps before looking up cached transfers."
+        )
+        .description(
+          """
+Creating the stop-to-stop transfers for a new set of preferences means re-calculating all transfers
+in the network, this may take several seconds on a large network. When enabled, the walk speed is
+rounded to 0.1 m/s, the bike speed to 0.5 m/s and the walk, stairs, escalator and bike reluctances
+to 0.25 before the transfers are looked up and calculated. Requests with almost the same preferences
+then share the same cached transfers, with a small difference in transfer duration and cost.
+"""
+        )
+        .asBoolean(false);
+    this.transferCacheAsyncWarmUp =
+      c
+        .of("transferCacheAsyncWarmUp")
+        .since(V2_7)
+        .summary("Create the transfers for the `transferCacheRequests` in the background.")
+        .description(
+          """
+If `false` the server waits for the transfers for all `transferCacheRequests` to be created before
+it starts. If `true` the server starts at once and the transfers are created in a background
+thread; a routing request in need of the same transfers waits for them to be created. In both
+cases, the transfers are created again in the background if they are evicted from the cache and
+the real-time updaters apply new updates.
+"""
+        )
+        .asBoolean(false);
+
+    this.tripPatternCacheMaxSize =
+      c
+        .of("tripPatternCacheMaxSize")
+        .since(V2_7)
+        .summary(
+          "The maximum number of distinct search days and filters to cache trip patterns for."
+        )
+        .description(
+          """
+Before each transit search the trip patterns running on the search days are filtered using the
+request transit filters (modes, banned trips, wheelchair and so on) and merged into the data
+structure used by Raptor. The result is cached and shared by all requests with the same service day
+and the same filters. The cache is cleared each time the real-time updaters apply new updates. If
+too low, requests may be slower. If too high, more memory may be used then required. Set it to `0`
+to disable the cache.
+"""
+        )
+        .asInt(10);
 
     this.transferCacheRequests =
       c
@@ -248,6 +337,11 @@ for more info."
     return searchThreadPoolSize;
   }
 
+  @Override
+  public int searchWindowSlices() {
+    return searchWindowSlices;
+  }
+
   @Override
   public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return dynamicSearchWindowCoefficients;
@@ -268,6 +362,26 @@ for more info."
     return transferCacheMaxSize;
   }
 
+  @Override
+  public boolean transferCacheQuantizePreferences() {
+    return transferCacheQuantizePreferences;
+  }
+
+  @Override
+  public boolean transferCacheAsyncWarmUp() {
+    return transferCacheAsyncWarmUp;
+  }
+
+  @Override
+  public int tripPatternCacheMaxSize() {
+    return tripPatternCacheMaxSize;
+  }
+
+  @Override
+  public TripScheduleSearchType tripScheduleSearchType() {
+    return tripScheduleSearchType;
+  }
+
   @Override
   public List<RouteRequest> transferCacheRequests() {
     return transferCacheRequests;
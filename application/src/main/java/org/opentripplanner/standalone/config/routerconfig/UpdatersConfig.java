@@ -2,6 +2,7 @@ package org.opentripplanner.standalone.config.routerconfig;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V1_5;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.BIKE_RENTAL;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.MQTT_GTFS_RT_UPDATER;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.REAL_TIME_ALERTS;
@@ -124,7 +125,52 @@ public class UpdatersConfig implements UpdatersParameters {
         .summary(
           "Should expired real-time data be purged from the graph. Apply to GTFS-RT and Siri updates."
         )
-        .asBoolean(dflt.purgeExpiredData())
+        .asBoolean(dflt.purgeExpiredData()),
+      c
+        .of("parallelTripUpdateMatching")
+        .since(V2_7)
+        .summary("Match GTFS-RT trip updates against the scheduled trips in parallel.")
+        .description(
+          """
+          If enabled, the fuzzy trip matching and the calculation of the updated trip times of
+          SCHEDULED trip updates are done in parallel, before the updates are applied to the
+          timetable snapshot one by one in the order they are received. The result is the same as
+          without it, but large GTFS-RT feeds are processed faster on machines with several cores.
+          Applies to GTFS-RT updates only.
+          """
+        )
+        .asBoolean(dflt.parallelTripUpdateMatching()),
+      c
+        .of("persistenceDirectory")
+        .since(V2_7)
+        .summary("Save the real-time data to this directory, and restore it at startup.")
+        .description(
+          """
+          If set, the real-time state of the updated trips (delays, cancellations and the state of
+          each stop) is written to a binary file in this directory at regular intervals. When OTP
+          starts, the file is read before the updaters run, so real-time data is available at once
+          instead of after the first full fetch of each feed. Trips added by real-time updates and
+          trips moved to a new trip pattern are not saved, they are restored by the updaters.
+          Applies to GTFS-RT and Siri updates, each uses its own file in the directory.
+          """
+        )
+        .asString(dflt.persistenceDirectory()),
+      c
+        .of("persistenceInterval")
+        .since(V2_7)
+        .summary("How often the real-time data is saved, if `persistenceDirectory` is set.")
+        .asDuration(dflt.persistenceInterval()),
+      c
+        .of("persistenceMaxAge")
+        .since(V2_7)
+        .summary("The max age of saved real-time data restored at startup.")
+        .description(
+          """
+          If the real-time data in `persistenceDirectory` was saved longer ago than this when OTP
+          starts, it is outdated and not restored.
+          """
+        )
+        .asDuration(dflt.persistenceMaxAge())
     );
   }
 
@@ -3,6 +3,7 @@ package org.opentripplanner.standalone.config.routerconfig.updaters;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V1_5;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
@@ -56,6 +57,19 @@ public class PollingTripUpdaterConfig {
 """
         )
         .asEnum(BackwardsDelayPropagationType.REQUIRED_NO_DATA),
+      c
+        .of("skipUnchangedTripUpdates")
+        .since(V2_7)
+        .summary("Skip the trip updates that are unchanged since the previous poll.")
+        .description(
+          """
+          Trip updates are identified by trip id and start date, and are unchanged if they are equal
+          except for the timestamp. Trip updates without a trip id or start date are always applied.
+          A full dataset is only applied partially if all the trips of the previous poll are still
+          in it, otherwise it replaces all the previous updates as usual.
+          """
+        )
+        .asBoolean(false),
       c.of("feedId").since(V1_5).summary("Which feed the updates apply to.").asString(),
       url,
       headers
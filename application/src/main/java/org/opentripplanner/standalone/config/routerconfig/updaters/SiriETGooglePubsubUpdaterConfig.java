@@ -1,7 +1,9 @@
 package org.opentripplanner.standalone.config.routerconfig.updaters;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 import static org.opentripplanner.updater.siri.updater.google.SiriETGooglePubsubUpdaterParameters.INITIAL_GET_DATA_TIMEOUT;
+import static org.opentripplanner.updater.siri.updater.google.SiriETGooglePubsubUpdaterParameters.MAX_BATCH_LATENCY;
 import static org.opentripplanner.updater.siri.updater.google.SiriETGooglePubsubUpdaterParameters.RECONNECT_PERIOD;
 
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
@@ -79,7 +81,32 @@ public class SiriETGooglePubsubUpdaterConfig {
         .of("fuzzyTripMatching")
         .since(V2_1)
         .summary("If the trips should be matched fuzzily.")
-        .asBoolean(false)
+        .asBoolean(false),
+      c
+        .of("maxBatchSize")
+        .since(V2_7)
+        .summary("Apply the updates in batches of this number of estimated vehicle journeys.")
+        .description(
+          """
+          If set to a positive number, the estimated vehicle journeys of consecutive messages are
+          collected and applied together when this number is reached or `maxBatchLatency` has
+          passed. If the same dated vehicle journey is updated more than once in a batch, only the
+          newest update is applied. Only one batch is applied at a time, and the subscriber waits
+          when the next batch is full. If 0, each message is applied on its own.
+          """
+        )
+        .asInt(0),
+      c
+        .of("maxBatchLatency")
+        .since(V2_7)
+        .summary("The longest time an update waits in a batch before it is applied.")
+        .description(
+          """
+          Only used if `maxBatchSize` is set. An update may wait longer if the previous batch is
+          still being applied.
+          """
+        )
+        .asDuration(MAX_BATCH_LATENCY)
     );
   }
 }
@@ -2,6 +2,7 @@ package org.opentripplanner.standalone.config.routerconfig.updaters;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_0;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
@@ -43,7 +44,20 @@ public class SiriETUpdaterConfig {
         .since(V2_0)
         .summary("If the fuzzy trip matcher should be used to match trips.")
         .asBoolean(false),
-      HttpHeadersConfig.headers(c, V2_3)
+      HttpHeadersConfig.headers(c, V2_3),
+      c
+        .of("streamingBatchSize")
+        .since(V2_7)
+        .summary("Read the updates as a stream and apply them in batches of this size.")
+        .description(
+          """
+          If set, the estimated vehicle journeys are read one at a time instead of unmarshalling
+          the whole delivery, and applied in batches of this number of journeys. This keeps the
+          memory used by large deliveries proportional to the batch size. Set to 0 to read the
+          whole delivery at once.
+          """
+        )
+        .asInt(0)
     );
   }
 }
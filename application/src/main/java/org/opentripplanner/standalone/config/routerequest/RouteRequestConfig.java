@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 import static org.opentripplanner.standalone.config.routerequest.ItineraryFiltersConfig.mapItineraryFilterParams;
 import static org.opentripplanner.standalone.config.routerequest.TransferConfig.mapTransferPreferences;
 import static org.opentripplanner.standalone.config.routerequest.TriangleOptimizationConfig.mapOptimizationTriangle;
@@ -595,6 +596,21 @@ your users receive a timely response. You can also limit the max duration. There
             """
           )
           .asDuration(dft.routingTimeout())
+      )
+      .withSearchQueue(
+        c
+          .of("streetSearchQueue")
+          .since(V2_7)
+          .summary("The priority queue used by the street search.")
+          .description(
+            """
+The `binary-heap` leaves states which are dominated after they are queued in the queue, and skips
+them when they are dequeued. The `indexed-dary-heap` removes dominated states from the queue, and
+the first dominated state is replaced by the state dominating it, using a decrease-key operation.
+This keeps the queue smaller, which may speed up the street search on dense street networks.
+            """
+          )
+          .asEnum(dft.searchQueue())
       );
   }
 
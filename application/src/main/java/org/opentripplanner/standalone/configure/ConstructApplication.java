@@ -225,7 +225,11 @@ public class ConstructApplication {
     TimetableRepository timetableRepository
   ) {
     var transferCacheRequests = transitTuningConfig.transferCacheRequests();
-    if (!transferCacheRequests.isEmpty()) {
+    var transitLayer = timetableRepository.getTransitLayer();
+    if (transitTuningConfig.transferCacheAsyncWarmUp()) {
+      LOG.info("Creating initial raptor transfer cache in the background.");
+      transitLayer.warmUpTransferCacheAsync(transferCacheRequests);
+    } else if (!transferCacheRequests.isEmpty()) {
       var progress = ProgressTracker.track(
         "Creating initial raptor transfer cache",
         1,
@@ -235,13 +239,16 @@ public class ConstructApplication {
       LOG.info(progress.startMessage());
 
       transferCacheRequests.forEach(request -> {
-        timetableRepository.getTransitLayer().initTransferCacheForRequest(request);
+        transitLayer.initTransferCacheForRequest(request);
 
         //noinspection Convert2MethodRef
         progress.step(s -> LOG.info(s));
       });
 
       LOG.info(progress.completeMessage());
+
+      // Keep the requests, so evicted entries are created again after real-time updates
+      transitLayer.warmUpTransferCacheAsync(transferCacheRequests);
     }
   }
 
@@ -1,10 +1,13 @@
 package org.opentripplanner.standalone.configure;
 
+import java.util.ArrayList;
 import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.datastore.api.FileType;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
+import org.opentripplanner.graph_builder.StreetGraphFingerprint;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.SerializedGraphObject;
@@ -50,6 +53,22 @@ public class LoadApplication {
       : factory.datastore().getStreetGraph();
   }
 
+  public DataSource getStreetGraphDataStore() {
+    return factory.datastore().getStreetGraph();
+  }
+
+  /**
+   * The fingerprint of the OSM and DEM data sources and the build config, used by the incremental
+   * build to decide if the street graph can be reused.
+   */
+  public StreetGraphFingerprint streetGraphFingerprint() {
+    var store = factory.datastore();
+    var dataSources = new ArrayList<DataSource>();
+    dataSources.addAll(store.listExistingSourcesFor(FileType.OSM));
+    dataSources.addAll(store.listExistingSourcesFor(FileType.DEM));
+    return StreetGraphFingerprint.of(dataSources, config().buildConfig().toJson());
+  }
+
   /** Construct application from serialized graph */
   public ConstructApplication appConstruction(SerializedGraphObject obj) {
     return createAppConstruction(
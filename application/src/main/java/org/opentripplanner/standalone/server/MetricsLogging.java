@@ -1,5 +1,6 @@
 package org.opentripplanner.standalone.server;
 
+import io.micrometer.core.instrument.FunctionTimer;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
@@ -19,6 +20,7 @@ import jakarta.inject.Inject;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
@@ -49,12 +51,24 @@ public class MetricsLogging {
     new UptimeMetrics().bindTo(Metrics.globalRegistry);
 
     if (timetableRepository.getTransitLayer() != null) {
+      var transferCache = timetableRepository.getTransitLayer().getTransferCache();
       new GuavaCacheMetrics(
-        timetableRepository.getTransitLayer().getTransferCache().getTransferCache(),
+        transferCache.getTransferCache(),
         "raptorTransfersCache",
         List.of(Tag.of("cache", "raptorTransfers"))
       )
         .bindTo(Metrics.globalRegistry);
+      FunctionTimer
+        .builder(
+          "raptorTransfersCache.build",
+          transferCache,
+          c -> c.buildCount(),
+          c -> c.buildTimeNanos(),
+          TimeUnit.NANOSECONDS
+        )
+        .description("Time spent creating the transfers, including warm-up")
+        .tags(List.of(Tag.of("cache", "raptorTransfers")))
+        .register(Metrics.globalRegistry);
     }
     new ExecutorServiceMetrics(
       ForkJoinPool.commonPool(),
@@ -1,9 +1,15 @@
 package org.opentripplanner.street.search;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 import org.opentripplanner.astar.AStarBuilder;
+import org.opentripplanner.astar.AStarQueueType;
+import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.spi.DominanceFunction;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
@@ -12,12 +18,19 @@ import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+import org.opentripplanner.street.search.ch.ContractionHierarchySearch;
+import org.opentripplanner.street.search.compact.CompactStateChain;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
+import org.opentripplanner.street.search.compact.CompactStreetSearch;
+import org.opentripplanner.street.search.compact.CompactStreetSearchResult;
 import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 
 public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, StreetSearchBuilder> {
 
@@ -64,11 +77,122 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
     return this;
   }
 
+  /**
+   * Compute the travel time from the origin to all vertices within the max duration, using the
+   * given compact street graph instead of the A* search on the object graph. This is a lot faster,
+   * but only the travel time is computed, and only the length, permission and speed of each edge
+   * is accounted for. The heuristic, skip-edge and termination strategies are not used. Only the
+   * WALK, BIKE and CAR street modes are supported.
+   *
+   * @see CompactStreetSearch
+   */
+  public CompactStreetSearchResult getCompactSearchResult(
+    CompactStreetGraph compactStreetGraph,
+    Duration maxDuration
+  ) {
+    var preferences = routeRequest.preferences();
+    var traverseMode =
+      switch (streetRequest.mode()) {
+        case WALK -> TraverseMode.WALK;
+        case BIKE -> TraverseMode.BICYCLE;
+        case CAR -> TraverseMode.CAR;
+        default -> throw new IllegalArgumentException(
+          "Street mode not supported by the compact search: " + streetRequest.mode()
+        );
+      };
+    double speed = traverseMode == TraverseMode.BICYCLE
+      ? preferences.bike().speed()
+      : preferences.walk().speed();
+
+    return new CompactStreetSearch(
+      compactStreetGraph,
+      traverseMode,
+      speed,
+      preferences.walk().stairsTimeFactor(),
+      arriveBy(),
+      maxDuration
+    )
+      .route(originVertices());
+  }
+
+  /**
+   * Find the states at the reached vertices accepted by the target filter, using the given compact
+   * street graph, see {@link #getCompactSearchResult(CompactStreetGraph, Duration)}. The compact
+   * search does not create any {@link State}s, the states are only created for the paths to the
+   * targets, by traversing the path edges using the full street model, see
+   * {@link CompactStateChain}. Targets reached after the max duration in the full street model are
+   * left out.
+   * <p>
+   * Empty is returned if the full street model does not allow the path to one of the targets to
+   * be traversed, for example because of a turn restriction. Use the A* search instead then.
+   */
+  public Optional<List<State>> getCompactStates(
+    CompactStreetGraph compactStreetGraph,
+    Duration maxDuration,
+    Predicate<Vertex> targetFilter
+  ) {
+    var result = getCompactSearchResult(compactStreetGraph, maxDuration);
+    var initialStates = createInitialStates(originVertices());
+    prepareInitialStates(initialStates);
+    var stateChain = new CompactStateChain(result, initialStates);
+
+    var states = new ArrayList<State>();
+    for (Vertex vertex : result.reachedVertices()) {
+      if (!targetFilter.test(vertex)) {
+        continue;
+      }
+      State state = stateChain.state(vertex);
+      if (state == null) {
+        return Optional.empty();
+      }
+      if (state.getElapsedTimeSeconds() <= maxDuration.toSeconds()) {
+        states.add(state);
+      }
+    }
+    return Optional.of(states);
+  }
+
+  /**
+   * Find the path from the origin to the destination of the search using the given contraction
+   * hierarchy, see {@link ContractionHierarchySearch}. The states are created by traversing the
+   * path edges using the full street model. An empty list is returned if the hierarchy is not
+   * customized for the street mode, or for the preferences of the request, if no path is found, if
+   * the full street model does not allow one of the edges to be traversed or if the path takes
+   * longer than the max duration.
+   */
+  public List<GraphPath<State, Edge, Vertex>> getContractionHierarchyPathsToTarget(
+    ContractionHierarchy contractionHierarchy,
+    Duration maxDuration
+  ) {
+    var metric = contractionHierarchy.metric(streetRequest.mode());
+    if (metric == null || !metric.matches(routeRequest.preferences())) {
+      return List.of();
+    }
+    var path = new ContractionHierarchySearch(contractionHierarchy, streetRequest.mode())
+      .route(fromVertices(), toVertices());
+    if (path.isEmpty()) {
+      return List.of();
+    }
+    var origin = arriveBy() ? path.get().to() : path.get().from();
+    var initialStates = createInitialStates(Set.of(origin));
+    prepareInitialStates(initialStates);
+    State state = path.get().traverse(initialStates.iterator().next());
+    if (state == null || state.getElapsedTimeSeconds() > maxDuration.toSeconds()) {
+      return List.of();
+    }
+    return List.of(new GraphPath<>(state));
+  }
+
   @Override
   protected Duration streetRoutingTimeout() {
     return routeRequest.preferences().street().routingTimeout();
   }
 
+  @Override
+  protected AStarQueueType queueType() {
+    return routeRequest.preferences().street().searchQueue();
+  }
+
   @Override
   protected Collection<State> createInitialStates(Set<Vertex> originVertices) {
     StreetSearchRequest streetSearchRequest = StreetSearchRequestMapper
@@ -100,12 +224,20 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   @Override
   protected void initializeHeuristic(
     RemainingWeightHeuristic<State> heuristic,
-    Set<Vertex> ignored,
+    Set<Vertex> origin,
     Set<Vertex> destination,
     boolean arriveBy
   ) {
     if (heuristic.equals(RemainingWeightHeuristic.TRIVIAL)) {
       // No initialization needed
+    } else if (heuristic instanceof LandmarkRemainingWeightHeuristic landmarkHeuristic) {
+      landmarkHeuristic.initialize(
+        streetRequest.mode(),
+        origin,
+        destination,
+        arriveBy,
+        routeRequest.preferences()
+      );
     } else if (heuristic instanceof EuclideanRemainingWeightHeuristic euclideanHeuristic) {
       euclideanHeuristic.initialize(
         streetRequest.mode(),
@@ -21,6 +21,7 @@ import org.opentripplanner.routing.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.linking.SameEdgeAdjuster;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
 
 /**
  * This class is responsible for linking the RouteRequest origin and destination to the Graph used
@@ -108,6 +109,14 @@ public class TemporaryVerticesContainer implements AutoCloseable {
     return index.getStopOrChildStopsVertices(to.stopId);
   }
 
+  /**
+   * Get the compact copy of the street graph the temporary vertices are linked to. The temporary
+   * vertices are not part of it, see {@link Graph#getCompactStreetGraph()}.
+   */
+  public CompactStreetGraph getCompactStreetGraph() {
+    return graph.getCompactStreetGraph();
+  }
+
   /* PRIVATE METHODS */
 
   private void checkIfVerticesFound() {
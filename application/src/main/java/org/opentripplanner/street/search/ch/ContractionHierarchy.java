@@ -0,0 +1,310 @@
+package org.opentripplanner.street.search.ch;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+
+/**
+ * A customizable contraction hierarchy (CCH) of the street graph, used to find long car and
+ * bicycle paths a lot faster than with A*.
+ * <p>
+ * The hierarchy is built in two phases:
+ * <ol>
+ *   <li>
+ *     The metric-independent phase orders the vertices using nested dissection and contracts
+ *     them in that order. When a vertex is contracted all its higher ranked neighbors are
+ *     connected, the resulting arcs are stored in an "upward" graph where each arc goes from a
+ *     lower ranked vertex to a higher ranked vertex. The vertices are numbered by rank.
+ *   </li>
+ *   <li>
+ *     The customization computes the weights of the arcs for a given {@link StreetMode}, see
+ *     {@link ContractionHierarchyMetric}. This is cheap compared with the first phase, and the
+ *     topology is shared by all modes. The metrics are customized for the default preferences.
+ *   </li>
+ * </ol>
+ * Only {@link StreetEdge}s are part of the hierarchy, the temporary vertices used for the origin
+ * and destination of a search are connected by the {@link ContractionHierarchySearch}.
+ * <p>
+ * The hierarchy is a snapshot of the street graph when it is built. It must be built after all
+ * modules changing the street graph are run, if the graph changes afterward a path found using
+ * the hierarchy may not be traversable.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class ContractionHierarchy implements Serializable {
+
+  /** The vertices ordered by rank, the index of a vertex is its rank. */
+  private final Vertex[] vertices;
+
+  /**
+   * The upward arcs of vertex {@code v} are the arcs {@code firstArc[v]} to
+   * {@code firstArc[v+1]-1}. The arcs of a vertex are sorted by the head vertex.
+   */
+  private final int[] firstArc;
+  private final int[] arcTail;
+  private final int[] arcHead;
+
+  private final Map<StreetMode, ContractionHierarchyMetric> metrics;
+
+  private transient volatile Map<Vertex, Integer> indexByVertex;
+
+  private ContractionHierarchy(Vertex[] vertices, int[][] upwardNeighbors, Set<StreetMode> modes) {
+    this.vertices = vertices;
+    this.firstArc = new int[vertices.length + 1];
+    for (int v = 0; v < vertices.length; ++v) {
+      firstArc[v + 1] = firstArc[v] + upwardNeighbors[v].length;
+    }
+    this.arcTail = new int[firstArc[vertices.length]];
+    this.arcHead = new int[arcTail.length];
+    for (int v = 0; v < vertices.length; ++v) {
+      Arrays.fill(arcTail, firstArc[v], firstArc[v + 1], v);
+      System.arraycopy(upwardNeighbors[v], 0, arcHead, firstArc[v], upwardNeighbors[v].length);
+    }
+    var metrics = new EnumMap<StreetMode, ContractionHierarchyMetric>(StreetMode.class);
+    for (StreetMode mode : modes) {
+      metrics.put(
+        mode,
+        ContractionHierarchyMetric.customize(this, mode, RoutingPreferences.DEFAULT)
+      );
+    }
+    this.metrics = Map.copyOf(metrics);
+  }
+
+  /**
+   * Build a contraction hierarchy of the street edges between the given vertices. Only CAR and
+   * BIKE are supported, see {@link ContractionHierarchyMetric#isSupported(StreetMode)}.
+   */
+  public static ContractionHierarchy of(
+    Collection<? extends Vertex> graphVertices,
+    Set<StreetMode> modes
+  ) {
+    var requests = modes
+      .stream()
+      .map(mode -> ContractionHierarchyMetric.searchRequest(mode, RoutingPreferences.DEFAULT))
+      .toList();
+    // Collect the vertices connected by a street edge usable by at least one of the modes
+    var included = new HashSet<Vertex>(graphVertices);
+    var index = new HashMap<Vertex, Integer>();
+    var vertexList = new ArrayList<Vertex>();
+    var edges = new ArrayList<StreetEdge>();
+    for (Vertex v : graphVertices) {
+      for (Edge e : v.getOutgoing()) {
+        if (
+          e instanceof StreetEdge se &&
+          se.getToVertex() != v &&
+          included.contains(se.getToVertex()) &&
+          isUsed(se, requests)
+        ) {
+          edges.add(se);
+          for (Vertex it : List.of(se.getFromVertex(), se.getToVertex())) {
+            if (index.putIfAbsent(it, vertexList.size()) == null) {
+              vertexList.add(it);
+            }
+          }
+        }
+      }
+    }
+
+    int n = vertexList.size();
+    int[][] neighbors = neighbors(n, edges, index);
+
+    double[] x = new double[n];
+    double[] y = new double[n];
+    for (int i = 0; i < n; ++i) {
+      Vertex v = vertexList.get(i);
+      x[i] = v.getLon() * Math.cos(Math.toRadians(v.getLat()));
+      y[i] = v.getLat();
+    }
+    int[] order = NestedDissectionOrder.order(neighbors, x, y);
+    int[] rank = new int[n];
+    Vertex[] vertices = new Vertex[n];
+    for (int r = 0; r < n; ++r) {
+      rank[order[r]] = r;
+      vertices[r] = vertexList.get(order[r]);
+    }
+
+    int[][] upwardNeighbors = new int[n][];
+    for (int v = 0; v < n; ++v) {
+      int rv = rank[v];
+      upwardNeighbors[rv] =
+        Arrays.stream(neighbors[v]).map(u -> rank[u]).filter(r -> r > rv).sorted().toArray();
+    }
+    contract(upwardNeighbors);
+
+    return new ContractionHierarchy(vertices, upwardNeighbors, modes);
+  }
+
+  /** The street modes this hierarchy has been customized for. */
+  public Set<StreetMode> modes() {
+    return metrics.keySet();
+  }
+
+  /**
+   * Return the metric for the given mode, or {@code null} if the hierarchy has not been
+   * customized for the mode.
+   */
+  @Nullable
+  public ContractionHierarchyMetric metric(StreetMode mode) {
+    return metrics.get(mode);
+  }
+
+  public int numberOfVertices() {
+    return vertices.length;
+  }
+
+  /** The number of arcs, this includes both original edges and shortcuts. */
+  public int numberOfArcs() {
+    return arcHead.length;
+  }
+
+  /**
+   * Return the index (rank) of the given vertex, or {@code -1} if the vertex is not part of the
+   * hierarchy.
+   */
+  public int index(Vertex vertex) {
+    Integer index = indexByVertex().get(vertex);
+    return index == null ? -1 : index;
+  }
+
+  public Vertex vertex(int index) {
+    return vertices[index];
+  }
+
+  /** The first upward arc of the given vertex. */
+  public int arcBegin(int vertex) {
+    return firstArc[vertex];
+  }
+
+  /** The index after the last upward arc of the given vertex. */
+  public int arcEnd(int vertex) {
+    return firstArc[vertex + 1];
+  }
+
+  /** The lower ranked vertex of an arc. */
+  public int arcTail(int arc) {
+    return arcTail[arc];
+  }
+
+  /** The higher ranked vertex of an arc. */
+  public int arcHead(int arc) {
+    return arcHead[arc];
+  }
+
+  /**
+   * Return the arc between the given vertices, {@code low} must have a lower rank than
+   * {@code high}. Return {@code -1} if the vertices are not connected.
+   */
+  public int findArc(int low, int high) {
+    int i = Arrays.binarySearch(arcHead, firstArc[low], firstArc[low + 1], high);
+    return i < 0 ? -1 : i;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(ContractionHierarchy.class)
+      .addNum("vertices", vertices.length)
+      .addNum("arcs", arcHead.length)
+      .addCol("modes", metrics.keySet())
+      .toString();
+  }
+
+  private Map<Vertex, Integer> indexByVertex() {
+    if (indexByVertex == null) {
+      synchronized (this) {
+        if (indexByVertex == null) {
+          var map = new HashMap<Vertex, Integer>(vertices.length * 2);
+          for (int i = 0; i < vertices.length; ++i) {
+            map.put(vertices[i], i);
+          }
+          indexByVertex = map;
+        }
+      }
+    }
+    return indexByVertex;
+  }
+
+  private static boolean isUsed(StreetEdge edge, List<StreetSearchRequest> requests) {
+    for (var request : requests) {
+      if (ContractionHierarchyMetric.edgeWeight(edge, request) != ContractionHierarchyMetric.INF) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Create the undirected, sorted and deduplicated adjacency lists. */
+  private static int[][] neighbors(int n, List<StreetEdge> edges, Map<Vertex, Integer> index) {
+    int[] degree = new int[n];
+    int[] from = new int[edges.size()];
+    int[] to = new int[edges.size()];
+    for (int i = 0; i < edges.size(); ++i) {
+      from[i] = index.get(edges.get(i).getFromVertex());
+      to[i] = index.get(edges.get(i).getToVertex());
+      ++degree[from[i]];
+      ++degree[to[i]];
+    }
+    int[][] neighbors = new int[n][];
+    for (int v = 0; v < n; ++v) {
+      neighbors[v] = new int[degree[v]];
+      degree[v] = 0;
+    }
+    for (int i = 0; i < from.length; ++i) {
+      neighbors[from[i]][degree[from[i]]++] = to[i];
+      neighbors[to[i]][degree[to[i]]++] = from[i];
+    }
+    for (int v = 0; v < n; ++v) {
+      neighbors[v] = Arrays.stream(neighbors[v]).sorted().distinct().toArray();
+    }
+    return neighbors;
+  }
+
+  /**
+   * Contract the vertices in rank order. The upward neighbors of a contracted vertex must form a
+   * clique. It is enough to add them to the lowest ranked of these neighbors, its neighbors are
+   * added to the next one when it is contracted, and so on.
+   */
+  private static void contract(int[][] upwardNeighbors) {
+    for (int v = 0; v < upwardNeighbors.length; ++v) {
+      int[] up = upwardNeighbors[v];
+      if (up.length > 1) {
+        int parent = up[0];
+        upwardNeighbors[parent] = union(upwardNeighbors[parent], up, 1);
+      }
+    }
+  }
+
+  /** Merge sorted array {@code a} with {@code b[bStart..]}, both without duplicates. */
+  private static int[] union(int[] a, int[] b, int bStart) {
+    int[] result = new int[a.length + b.length - bStart];
+    int i = 0;
+    int j = bStart;
+    int k = 0;
+    while (i < a.length || j < b.length) {
+      if (j == b.length || (i < a.length && a[i] < b[j])) {
+        result[k++] = a[i++];
+      } else if (i == a.length || b[j] < a[i]) {
+        result[k++] = b[j++];
+      } else {
+        result[k++] = a[i++];
+        ++j;
+      }
+    }
+    return k == result.length ? result : Arrays.copyOf(result, k);
+  }
+}
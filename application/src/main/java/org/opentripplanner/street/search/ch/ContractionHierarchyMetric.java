@@ -0,0 +1,254 @@
+package org.opentripplanner.street.search.ch;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * The arc weights of a {@link ContractionHierarchy} for one {@link StreetMode}. Each arc has a
+ * weight in both directions, from the lower to the higher ranked vertex (forward) and back
+ * (backward). An arc is either an original {@link StreetEdge}, or a shortcut via a lower ranked
+ * middle vertex.
+ * <p>
+ * The weight of a street is the A* weight of traversing it with the preferences the metric is
+ * customized for, in milliseconds. The weight of a turn depends on two streets, so the turn and
+ * intersection traversal costs are not part of the metric. A path found using the metric is
+ * only the shortest A* path if the request gives the streets the same weights, see
+ * {@link #matches(RoutingPreferences)}. Streets with no-through-traffic restrictions for the mode
+ * are not part of the metric.
+ */
+public class ContractionHierarchyMetric implements Serializable {
+
+  /** The weight of an arc which can not be traversed. */
+  public static final int INF = Integer.MAX_VALUE;
+
+  private static final int NO_MIDDLE = -1;
+
+  private final ContractionHierarchy ch;
+  private final StreetMode mode;
+  private final RoutingPreferences preferences;
+  private final int[] forwardWeight;
+  private final int[] backwardWeight;
+  private final int[] forwardMiddle;
+  private final int[] backwardMiddle;
+  private final Edge[] forwardEdge;
+  private final Edge[] backwardEdge;
+
+  private ContractionHierarchyMetric(
+    ContractionHierarchy ch,
+    StreetMode mode,
+    RoutingPreferences preferences
+  ) {
+    int nArcs = ch.numberOfArcs();
+    this.ch = ch;
+    this.mode = mode;
+    this.preferences = preferences;
+    this.forwardWeight = new int[nArcs];
+    this.backwardWeight = new int[nArcs];
+    this.forwardMiddle = new int[nArcs];
+    this.backwardMiddle = new int[nArcs];
+    this.forwardEdge = new Edge[nArcs];
+    this.backwardEdge = new Edge[nArcs];
+    Arrays.fill(forwardWeight, INF);
+    Arrays.fill(backwardWeight, INF);
+    Arrays.fill(forwardMiddle, NO_MIDDLE);
+    Arrays.fill(backwardMiddle, NO_MIDDLE);
+  }
+
+  /** Only CAR and BIKE are supported. */
+  public static boolean isSupported(StreetMode mode) {
+    return mode == StreetMode.CAR || mode == StreetMode.BIKE;
+  }
+
+  /**
+   * Compute the weights of all arcs in the hierarchy for the given mode and preferences. First the
+   * weight of the original edges is set, then each lower triangle {@code (v, a, b)} is visited in
+   * rank order of {@code v}, and the shortcut between {@code a} and {@code b} is updated if the
+   * path via {@code v} is better.
+   */
+  static ContractionHierarchyMetric customize(
+    ContractionHierarchy ch,
+    StreetMode mode,
+    RoutingPreferences preferences
+  ) {
+    var metric = new ContractionHierarchyMetric(ch, mode, preferences);
+    var request = searchRequest(mode, preferences);
+
+    for (int v = 0; v < ch.numberOfVertices(); ++v) {
+      for (Edge e : ch.vertex(v).getOutgoing()) {
+        int u = ch.index(e.getToVertex());
+        int weight = e instanceof StreetEdge se ? edgeWeight(se, request) : INF;
+        if (u < 0 || u == v || weight == INF) {
+          continue;
+        }
+        int arc = v < u ? ch.findArc(v, u) : ch.findArc(u, v);
+        if (v < u && weight < metric.forwardWeight[arc]) {
+          metric.forwardWeight[arc] = weight;
+          metric.forwardEdge[arc] = e;
+        } else if (v > u && weight < metric.backwardWeight[arc]) {
+          metric.backwardWeight[arc] = weight;
+          metric.backwardEdge[arc] = e;
+        }
+      }
+    }
+
+    for (int v = 0; v < ch.numberOfVertices(); ++v) {
+      int end = ch.arcEnd(v);
+      for (int i = ch.arcBegin(v); i < end; ++i) {
+        int a = ch.arcHead(i);
+        for (int j = i + 1; j < end; ++j) {
+          int b = ch.arcHead(j);
+          int arc = ch.findArc(a, b);
+          // a -> v -> b
+          int forward = add(metric.backwardWeight[i], metric.forwardWeight[j]);
+          if (forward < metric.forwardWeight[arc]) {
+            metric.forwardWeight[arc] = forward;
+            metric.forwardMiddle[arc] = v;
+            metric.forwardEdge[arc] = null;
+          }
+          // b -> v -> a
+          int backward = add(metric.backwardWeight[j], metric.forwardWeight[i]);
+          if (backward < metric.backwardWeight[arc]) {
+            metric.backwardWeight[arc] = backward;
+            metric.backwardMiddle[arc] = v;
+            metric.backwardEdge[arc] = null;
+          }
+        }
+      }
+    }
+    return metric;
+  }
+
+  /** The request used to compute the edge weights, see {@link #edgeWeight}. */
+  static StreetSearchRequest searchRequest(StreetMode mode, RoutingPreferences preferences) {
+    if (!isSupported(mode)) {
+      throw new IllegalArgumentException("Street mode not supported: " + mode);
+    }
+    return StreetSearchRequest.of().withMode(mode).withPreferences(preferences).build();
+  }
+
+  /**
+   * The A* weight of traversing the given street edge in milliseconds, or {@link #INF} if the
+   * edge can not be traversed. The edge is traversed using the street model, so the weight
+   * includes everything except the turn costs, which depend on the previous edge. A bicycle is
+   * walked on streets where cycling is not allowed, like in the A* search.
+   */
+  static int edgeWeight(StreetEdge edge, StreetSearchRequest request) {
+    boolean noThruTraffic =
+      switch (request.mode()) {
+        case CAR -> edge.isMotorVehicleNoThruTraffic();
+        case BIKE -> edge.isBicycleNoThruTraffic() || edge.isWalkNoThruTraffic();
+        default -> throw new IllegalArgumentException(
+          "Street mode not supported: " + request.mode()
+        );
+      };
+    if (noThruTraffic) {
+      return INF;
+    }
+    double weight = Double.POSITIVE_INFINITY;
+    for (State state : edge.traverse(new State(edge.getFromVertex(), request))) {
+      weight = Math.min(weight, state.getWeight());
+    }
+    if (Double.isInfinite(weight)) {
+      return INF;
+    }
+    return (int) Math.min(Math.round(weight * 1000.0), INF - 1);
+  }
+
+  /**
+   * Return {@code true} if the A* search with the given preferences gives the streets the same
+   * weights as this metric, or weights which are all scaled by the same factor. Then the shortest
+   * path found using the metric is also the shortest A* path. This is the case if:
+   * <ul>
+   *   <li>The turn reluctance is zero, the turn and intersection costs are not in the metric.</li>
+   *   <li>CAR - Always, the weight is the length divided by the car speed of the street
+   *   multiplied by the car reluctance, which is the same for all streets.</li>
+   *   <li>BIKE - The bicycle speed, reluctance and optimization, and the preferences for walking
+   *   the bicycle and for stairs are the same. There is no cost for mounting and dismounting the
+   *   bicycle, which depends on the previous edge.</li>
+   * </ul>
+   */
+  public boolean matches(RoutingPreferences request) {
+    if (request.street().turnReluctance() != 0.0) {
+      return false;
+    }
+    return switch (mode) {
+      case CAR -> true;
+      case BIKE -> {
+        var bike = request.bike();
+        var metricBike = preferences.bike();
+        yield (
+          bike.speed() == metricBike.speed() &&
+          bike.reluctance() == metricBike.reluctance() &&
+          bike.optimizeType() == metricBike.optimizeType() &&
+          bike.optimizeTriangle().equals(metricBike.optimizeTriangle()) &&
+          bike.walking().equals(metricBike.walking()) &&
+          bike.walking().mountDismountCost().isZero() &&
+          request.walk().stairsReluctance() == preferences.walk().stairsReluctance() &&
+          request.walk().stairsTimeFactor() == preferences.walk().stairsTimeFactor()
+        );
+      }
+      default -> false;
+    };
+  }
+
+  public StreetMode mode() {
+    return mode;
+  }
+
+  /** The preferences used to compute the weights. */
+  public RoutingPreferences preferences() {
+    return preferences;
+  }
+
+  /** The weight of traversing the arc from the lower to the higher ranked vertex. */
+  public int forwardWeight(int arc) {
+    return forwardWeight[arc];
+  }
+
+  /** The weight of traversing the arc from the higher to the lower ranked vertex. */
+  public int backwardWeight(int arc) {
+    return backwardWeight[arc];
+  }
+
+  /**
+   * Add the street edges of the given arc to the list, in travel order. If {@code forward} is
+   * {@code true} the arc is traversed from the lower to the higher ranked vertex.
+   */
+  public void unpack(int arc, boolean forward, List<Edge> result) {
+    int middle = forward ? forwardMiddle[arc] : backwardMiddle[arc];
+    if (middle == NO_MIDDLE) {
+      Edge edge = forward ? forwardEdge[arc] : backwardEdge[arc];
+      if (edge == null) {
+        throw new IllegalStateException("The arc can not be traversed: " + arc);
+      }
+      result.add(edge);
+      return;
+    }
+    int tailArc = ch.findArc(middle, ch.arcTail(arc));
+    int headArc = ch.findArc(middle, ch.arcHead(arc));
+    if (forward) {
+      // tail -> middle -> head
+      unpack(tailArc, false, result);
+      unpack(headArc, true, result);
+    } else {
+      // head -> middle -> tail
+      unpack(headArc, false, result);
+      unpack(tailArc, true, result);
+    }
+  }
+
+  /** Add two weights, the result is {@link #INF} if one of them is. */
+  static int add(int a, int b) {
+    if (a == INF || b == INF) {
+      return INF;
+    }
+    return (int) Math.min((long) a + b, INF - 1);
+  }
+}
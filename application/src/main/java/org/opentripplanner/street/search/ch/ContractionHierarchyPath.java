@@ -0,0 +1,44 @@
+package org.opentripplanner.street.search.ch;
+
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * A path found by a {@link ContractionHierarchySearch}. The edges are listed in travel order,
+ * from {@link #from()} to {@link #to()}, regardless of the direction of the request.
+ *
+ * @param weight The weight of the path in the {@link ContractionHierarchyMetric}.
+ */
+public record ContractionHierarchyPath(Vertex from, Vertex to, List<Edge> edges, int weight) {
+  public ContractionHierarchyPath {
+    edges = List.copyOf(edges);
+  }
+
+  /**
+   * Traverse the edges using the full street model and return the last state. In a depart-after
+   * search the given state must be at {@link #from()}, in an arrive-by search it must be at
+   * {@link #to()} and the edges are traversed in reverse order. If more than one state is returned
+   * when an edge is traversed, the state with the lowest weight is used. Return {@code null} if an
+   * edge can not be traversed, for example because of a turn restriction.
+   */
+  @Nullable
+  public State traverse(State originState) {
+    State state = originState;
+    for (Edge edge : originState.getRequest().arriveBy() ? edges.reversed() : edges) {
+      State next = null;
+      for (State s : edge.traverse(state)) {
+        if (next == null || s.getWeight() < next.getWeight()) {
+          next = s;
+        }
+      }
+      if (next == null) {
+        return null;
+      }
+      state = next;
+    }
+    return state;
+  }
+}
@@ -0,0 +1,232 @@
+package org.opentripplanner.street.search.ch;
+
+import static org.opentripplanner.street.search.ch.ContractionHierarchyMetric.INF;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.compact.VertexQueue;
+
+/**
+ * A bidirectional search in a {@link ContractionHierarchy}. The forward search starts at the
+ * origin and the backward search at the destination, both searches only follow arcs going up in
+ * the hierarchy. The shortest path goes through the vertex where the sum of the weights from
+ * the two searches is lowest. A search stops when the lowest weight in its queue is higher than
+ * the best path found.
+ * <p>
+ * The origin and destination are usually temporary vertices which are not part of the hierarchy.
+ * They are connected to the hierarchy by a small Dijkstra search following the edges of the
+ * street graph until vertices in the hierarchy are reached.
+ * <p>
+ * Only the edges of the path are returned, the caller must traverse them to create the states,
+ * see {@link ContractionHierarchyPath#traverse}.
+ * <p>
+ * This class is NOT THREAD-SAFE, create a new instance for each search.
+ */
+public class ContractionHierarchySearch {
+
+  /** The max number of vertices visited when connecting the origin or destination. */
+  private static final int MAX_ACCESS_VERTICES = 100;
+  private static final int NO_ARC = -1;
+
+  private final ContractionHierarchy ch;
+  private final ContractionHierarchyMetric metric;
+
+  public ContractionHierarchySearch(ContractionHierarchy ch, StreetMode mode) {
+    this.ch = ch;
+    this.metric = ch.metric(mode);
+    if (metric == null) {
+      throw new IllegalArgumentException("The contraction hierarchy does not support: " + mode);
+    }
+  }
+
+  /**
+   * Find the path with the lowest weight from one of the {@code from} vertices to one of the
+   * {@code to} vertices.
+   */
+  public Optional<ContractionHierarchyPath> route(Set<Vertex> from, Set<Vertex> to) {
+    Map<Vertex, Step> access = accessSearch(from, true);
+    Map<Vertex, Step> egress = accessSearch(to, false);
+
+    // Paths not using the hierarchy, if the origin and destination are close
+    int best = INF;
+    Vertex bestVertex = null;
+    for (Step e : egress.values()) {
+      Step a = access.get(e.vertex);
+      if (a != null && ContractionHierarchyMetric.add(a.weight, e.weight) < best) {
+        best = ContractionHierarchyMetric.add(a.weight, e.weight);
+        bestVertex = e.vertex;
+      }
+    }
+
+    var forward = new Direction(true);
+    var backward = new Direction(false);
+    access.values().forEach(it -> forward.seed(ch.index(it.vertex), it.weight));
+    egress.values().forEach(it -> backward.seed(ch.index(it.vertex), it.weight));
+
+    int meet = -1;
+    while (true) {
+      boolean forwardActive = forward.isActive(best);
+      boolean backwardActive = backward.isActive(best);
+      if (!forwardActive && !backwardActive) {
+        break;
+      }
+      Direction dir = forwardActive &&
+        (!backwardActive || forward.queue.peekMinKey() <= backward.queue.peekMinKey())
+        ? forward
+        : backward;
+      Direction other = dir == forward ? backward : forward;
+
+      double key = dir.queue.peekMinKey();
+      int v = dir.queue.extractMin();
+      int weight = dir.weights.get(v);
+      if (key > weight) {
+        continue;
+      }
+      int total = ContractionHierarchyMetric.add(weight, other.weights.get(v));
+      if (total < best) {
+        best = total;
+        meet = v;
+        bestVertex = null;
+      }
+      for (int arc = ch.arcBegin(v); arc < ch.arcEnd(v); ++arc) {
+        int arcWeight = dir.forward ? metric.forwardWeight(arc) : metric.backwardWeight(arc);
+        if (arcWeight != INF) {
+          dir.relax(ch.arcHead(arc), ContractionHierarchyMetric.add(weight, arcWeight), arc);
+        }
+      }
+    }
+
+    if (bestVertex != null) {
+      return Optional.of(path(access.get(bestVertex), List.of(), egress.get(bestVertex), best));
+    }
+    if (meet < 0) {
+      return Optional.empty();
+    }
+
+    var arcs = new ArrayList<Integer>();
+    int v = meet;
+    for (int arc = forward.parentArcs.get(v); arc != NO_ARC; arc = forward.parentArcs.get(v)) {
+      arcs.add(arc);
+      v = ch.arcTail(arc);
+    }
+    Step accessStep = access.get(ch.vertex(v));
+    var edges = new ArrayList<Edge>();
+    for (int arc : arcs.reversed()) {
+      metric.unpack(arc, true, edges);
+    }
+    v = meet;
+    for (int arc = backward.parentArcs.get(v); arc != NO_ARC; arc = backward.parentArcs.get(v)) {
+      metric.unpack(arc, false, edges);
+      v = ch.arcTail(arc);
+    }
+    Step egressStep = egress.get(ch.vertex(v));
+
+    return Optional.of(path(accessStep, edges, egressStep, best));
+  }
+
+  /**
+   * Search from the given vertices until vertices in the hierarchy are reached. The search
+   * follows the outgoing edges if {@code forward} is {@code true}, and incoming edges if not.
+   * Return all visited vertices with the best step leading to each of them.
+   */
+  private Map<Vertex, Step> accessSearch(Set<Vertex> origins, boolean forward) {
+    var visited = new HashMap<Vertex, Step>();
+    var queue = new PriorityQueue<Step>(Comparator.comparingInt(Step::weight));
+    origins.forEach(it -> queue.add(new Step(it, 0, null, null)));
+
+    while (!queue.isEmpty() && visited.size() < MAX_ACCESS_VERTICES) {
+      Step step = queue.poll();
+      if (visited.putIfAbsent(step.vertex, step) != null || ch.index(step.vertex) >= 0) {
+        continue;
+      }
+      for (Edge e : forward ? step.vertex.getOutgoing() : step.vertex.getIncoming()) {
+        Vertex next = forward ? e.getToVertex() : e.getFromVertex();
+        int weight = e instanceof StreetEdge se
+          ? ContractionHierarchyMetric.edgeWeight(se, metric.mode())
+          : 0;
+        if (weight != INF && !visited.containsKey(next)) {
+          queue.add(new Step(next, ContractionHierarchyMetric.add(step.weight, weight), step, e));
+        }
+      }
+    }
+    return visited;
+  }
+
+  private static ContractionHierarchyPath path(
+    Step access,
+    List<Edge> edges,
+    Step egress,
+    int weight
+  ) {
+    var result = new ArrayList<Edge>();
+    for (Step s = access; s.edge != null; s = s.previous) {
+      result.add(s.edge);
+    }
+    Collections.reverse(result);
+    result.addAll(edges);
+    Step s = egress;
+    for (; s.edge != null; s = s.previous) {
+      result.add(s.edge);
+    }
+    return new ContractionHierarchyPath(access.origin(), s.vertex, result, weight);
+  }
+
+  /**
+   * A step in the search connecting the origin or destination to the hierarchy. In the origin
+   * search the edge goes from the previous vertex to this vertex, in the destination search it
+   * goes from this vertex to the previous vertex.
+   */
+  private record Step(Vertex vertex, int weight, @Nullable Step previous, @Nullable Edge edge) {
+    Vertex origin() {
+      Step s = this;
+      while (s.previous != null) {
+        s = s.previous;
+      }
+      return s.vertex;
+    }
+  }
+
+  private static class Direction {
+
+    private final boolean forward;
+    private final TIntIntHashMap weights = new TIntIntHashMap(256, 0.5f, -1, INF);
+    private final TIntIntHashMap parentArcs = new TIntIntHashMap(256, 0.5f, -1, NO_ARC);
+    private final VertexQueue queue = new VertexQueue(256);
+
+    private Direction(boolean forward) {
+      this.forward = forward;
+    }
+
+    /** Add a start vertex of the search, the vertex is ignored if it is not in the hierarchy. */
+    void seed(int vertex, int weight) {
+      if (vertex >= 0) {
+        relax(vertex, weight, NO_ARC);
+      }
+    }
+
+    void relax(int vertex, int weight, int parentArc) {
+      if (weight < weights.get(vertex)) {
+        weights.put(vertex, weight);
+        parentArcs.put(vertex, parentArc);
+        queue.insert(vertex, weight);
+      }
+    }
+
+    boolean isActive(int bestWeight) {
+      return !queue.isEmpty() && queue.peekMinKey() < bestWeight;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package org.opentripplanner.street.search.ch;
+
+import java.util.Arrays;
+
+/**
+ * Compute a nested dissection order for the vertices of an undirected graph. The graph is split
+ * in two halves along a straight line, and the vertices on the border between the halves (the
+ * separator) are put last in the order. The two halves are then ordered recursively in the same
+ * way. Street networks are (almost) planar, so a geometric split gives small separators, which in
+ * turn keeps the number of shortcuts in the contraction hierarchy low.
+ * <p>
+ * Each cell is split along the x-axis, the y-axis and the two diagonals, and the split with the
+ * smallest separator is used. This is a simplified version of the "inertial flow" partitioning,
+ * the separator is the vertex boundary of the split, not a minimum cut.
+ */
+class NestedDissectionOrder {
+
+  /** Cells with this number of vertices or fewer are not split any further. */
+  private static final int MAX_LEAF_CELL_SIZE = 16;
+
+  private static final double[][] DIRECTIONS = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } };
+
+  private final int[][] neighbors;
+  private final double[] x;
+  private final double[] y;
+
+  /** Mark vertices with the current token, new tokens are used instead of clearing the array. */
+  private final int[] marks;
+  private int token = 0;
+
+  private final int[] order;
+  private int next = 0;
+
+  private NestedDissectionOrder(int[][] neighbors, double[] x, double[] y) {
+    this.neighbors = neighbors;
+    this.x = x;
+    this.y = y;
+    this.marks = new int[neighbors.length];
+    this.order = new int[neighbors.length];
+  }
+
+  /**
+   * Return the vertices in nested dissection order, the vertex with the lowest rank first.
+   *
+   * @param neighbors The neighbors of each vertex, edges must be included in both directions.
+   * @param x The x coordinate of each vertex, the coordinates must be projected so the distance
+   *          is about the same in both directions.
+   * @param y The y coordinate of each vertex.
+   */
+  static int[] order(int[][] neighbors, double[] x, double[] y) {
+    var nd = new NestedDissectionOrder(neighbors, x, y);
+    int[] all = new int[neighbors.length];
+    Arrays.setAll(all, i -> i);
+    nd.dissect(all);
+    return nd.order;
+  }
+
+  private void dissect(int[] cell) {
+    if (cell.length <= MAX_LEAF_CELL_SIZE) {
+      append(cell);
+      return;
+    }
+    Split best = null;
+    for (double[] direction : DIRECTIONS) {
+      Split split = split(cell, direction[0], direction[1]);
+      if (best == null || split.separator.length < best.separator.length) {
+        best = split;
+      }
+    }
+    dissect(best.first);
+    dissect(best.second);
+    append(best.separator);
+  }
+
+  /**
+   * Split the cell in two halves of equal size along the given direction, and remove the
+   * separator vertices from the side with the smallest boundary.
+   */
+  private Split split(int[] cell, double dx, double dy) {
+    int n = cell.length;
+    double[] keys = new double[n];
+    for (int i = 0; i < n; ++i) {
+      keys[i] = x[cell[i]] * dx + y[cell[i]] * dy;
+    }
+    double[] sorted = keys.clone();
+    Arrays.sort(sorted);
+    double median = sorted[n / 2];
+    int nLessThanMedian = 0;
+    while (nLessThanMedian < n && sorted[nLessThanMedian] < median) {
+      ++nLessThanMedian;
+    }
+    // Vertices with a key equal to the median are used to balance the two halves
+    int nTiesInFirst = n / 2 - nLessThanMedian;
+
+    int[] first = new int[n / 2];
+    int[] second = new int[n - n / 2];
+    int i1 = 0;
+    int i2 = 0;
+    for (int i = 0; i < n; ++i) {
+      if (keys[i] < median || (keys[i] == median && nTiesInFirst-- > 0)) {
+        first[i1++] = cell[i];
+      } else {
+        second[i2++] = cell[i];
+      }
+    }
+
+    int firstToken = ++token;
+    mark(first, firstToken);
+    int secondToken = ++token;
+    mark(second, secondToken);
+
+    int[] firstBoundary = boundary(first, secondToken);
+    int[] secondBoundary = boundary(second, firstToken);
+
+    return firstBoundary.length <= secondBoundary.length
+      ? new Split(remove(first, firstBoundary), second, firstBoundary)
+      : new Split(first, remove(second, secondBoundary), secondBoundary);
+  }
+
+  /** Return the vertices in the side which have a neighbor marked with the other-side token. */
+  private int[] boundary(int[] side, int otherSideToken) {
+    int[] result = new int[side.length];
+    int size = 0;
+    for (int v : side) {
+      for (int u : neighbors[v]) {
+        if (marks[u] == otherSideToken) {
+          result[size++] = v;
+          break;
+        }
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  private int[] remove(int[] side, int[] separator) {
+    int separatorToken = ++token;
+    mark(separator, separatorToken);
+    return Arrays.stream(side).filter(v -> marks[v] != separatorToken).toArray();
+  }
+
+  private void mark(int[] vertices, int token) {
+    for (int v : vertices) {
+      marks[v] = token;
+    }
+  }
+
+  private void append(int[] vertices) {
+    System.arraycopy(vertices, 0, order, next, vertices.length);
+    next += vertices.length;
+  }
+
+  private record Split(int[] first, int[] second, int[] separator) {}
+}
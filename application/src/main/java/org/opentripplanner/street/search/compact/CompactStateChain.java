@@ -0,0 +1,104 @@
+package org.opentripplanner.street.search.compact;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Create the A* {@link State} chains of the paths found by a {@link CompactStreetSearch}, by
+ * traversing the path edges using the full street model. This is only done for the targets of the
+ * search, and the states are shared by all paths with a common prefix, so each edge of the
+ * shortest path tree is traversed at most once.
+ * <p>
+ * The compact search only accounts for the length, permission and speed of each edge, so the full
+ * street model may not allow an edge to be traversed, for example because of a turn restriction
+ * or no-thru traffic. Then no state is returned, and the caller should fall back to the A* search.
+ * <p>
+ * This class is NOT THREAD-SAFE.
+ */
+public class CompactStateChain {
+
+  private final CompactStreetSearchResult result;
+  private final Map<Vertex, List<State>> initialStates;
+  private final Map<Vertex, State> statesByVertex = new HashMap<>();
+
+  /**
+   * @param initialStates the initial states at the origins of the search, the same origins as
+   *                      used in the compact search.
+   */
+  public CompactStateChain(CompactStreetSearchResult result, Collection<State> initialStates) {
+    this.result = result;
+    this.initialStates = initialStates.stream().collect(Collectors.groupingBy(State::getVertex));
+  }
+
+  /**
+   * Return the last state of the path to the given vertex, or {@code null} if the vertex is not
+   * reached or the full street model does not allow one of the path edges to be traversed. If
+   * more than one state is returned when an edge is traversed, or there is more than one initial
+   * state at the origin, the state with the lowest weight is used.
+   */
+  @Nullable
+  public State state(Vertex vertex) {
+    var path = result.path(vertex);
+    if (path.isEmpty()) {
+      return null;
+    }
+    var origins = initialStates.getOrDefault(path.get().origin(), List.of());
+    boolean arriveBy = result.arriveBy();
+
+    State state = null;
+    for (Edge edge : path.get().edges()) {
+      Vertex next = arriveBy ? edge.getFromVertex() : edge.getToVertex();
+      State nextState = statesByVertex.get(next);
+      if (nextState == null) {
+        nextState = state == null ? traverse(edge, origins) : traverse(edge, state);
+        if (nextState == null) {
+          return null;
+        }
+        statesByVertex.put(next, nextState);
+      }
+      state = nextState;
+    }
+    return state == null ? lowestWeight(origins) : state;
+  }
+
+  @Nullable
+  private static State traverse(Edge edge, Collection<State> states) {
+    State best = null;
+    for (State state : states) {
+      State s = traverse(edge, state);
+      if (s != null && (best == null || s.getWeight() < best.getWeight())) {
+        best = s;
+      }
+    }
+    return best;
+  }
+
+  @Nullable
+  private static State traverse(Edge edge, State state) {
+    State best = null;
+    for (State s : edge.traverse(state)) {
+      if (best == null || s.getWeight() < best.getWeight()) {
+        best = s;
+      }
+    }
+    return best;
+  }
+
+  @Nullable
+  private static State lowestWeight(Collection<State> states) {
+    State best = null;
+    for (State state : states) {
+      if (best == null || state.getWeight() < best.getWeight()) {
+        best = state;
+      }
+    }
+    return best;
+  }
+}
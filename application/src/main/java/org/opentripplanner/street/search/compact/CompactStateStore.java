@@ -0,0 +1,127 @@
+package org.opentripplanner.street.search.compact;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import java.util.Arrays;
+import java.util.List;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * The search states of a {@link CompactStreetSearch} stored as a structure of primitive arrays.
+ * There is one state per reached vertex, so no objects are allocated when an edge is traversed.
+ * The back-pointer of a state is the index of the edge used to reach it, and the path is only
+ * materialized for the targets of the search, see {@link CompactStreetPath} and
+ * {@link CompactStateChain}.
+ * <p>
+ * The states are stored in the order the vertices are reached, and the slot of a vertex is kept
+ * in a primitive hash map. The memory used is proportional to the number of vertices reached, not
+ * to the size of the graph, so a short access search on a large graph stays cheap.
+ * <p>
+ * States reached directly from an origin have no back edge, instead the origin vertex and the
+ * object graph edges used to connect it to the compact graph are kept. There are only a few of
+ * these.
+ */
+class CompactStateStore {
+
+  static final int NO_EDGE = -1;
+  private static final int NO_SLOT = -1;
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final TIntIntHashMap slotByVertex = new TIntIntHashMap(
+    INITIAL_CAPACITY,
+    0.5f,
+    -1,
+    NO_SLOT
+  );
+  private int[] vertices = new int[INITIAL_CAPACITY];
+  private double[] durations = new double[INITIAL_CAPACITY];
+  private double[] distances = new double[INITIAL_CAPACITY];
+  private int[] backEdges = new int[INITIAL_CAPACITY];
+  private int size = 0;
+  private final TIntObjectHashMap<CompactStreetPath.Origin> origins = new TIntObjectHashMap<>();
+
+  /** The duration in seconds, or {@link Double#POSITIVE_INFINITY} if the vertex is not reached. */
+  double duration(int vertex) {
+    int slot = slotByVertex.get(vertex);
+    return slot == NO_SLOT ? Double.POSITIVE_INFINITY : durations[slot];
+  }
+
+  /** The distance in meters traveled to reach the vertex. */
+  double distance(int vertex) {
+    return distances[slotByVertex.get(vertex)];
+  }
+
+  /**
+   * The edge used to reach the vertex, or {@link #NO_EDGE} if the vertex is reached from an
+   * origin.
+   */
+  int backEdge(int vertex) {
+    return backEdges[slotByVertex.get(vertex)];
+  }
+
+  CompactStreetPath.Origin origin(int vertex) {
+    return origins.get(vertex);
+  }
+
+  /**
+   * Set the state of the given vertex, reached using the given compact graph edge.
+   */
+  void update(int vertex, double duration, double distance, int backEdge) {
+    int slot = slot(vertex);
+    durations[slot] = duration;
+    distances[slot] = distance;
+    if (backEdges[slot] == NO_EDGE) {
+      origins.remove(vertex);
+    }
+    backEdges[slot] = backEdge;
+  }
+
+  /**
+   * Set the state of the given vertex, reached from an origin following the given object graph
+   * edges.
+   */
+  void updateFromOrigin(
+    int vertex,
+    double duration,
+    double distance,
+    Vertex origin,
+    List<Edge> originEdges
+  ) {
+    int slot = slot(vertex);
+    durations[slot] = duration;
+    distances[slot] = distance;
+    backEdges[slot] = NO_EDGE;
+    origins.put(vertex, new CompactStreetPath.Origin(origin, originEdges));
+  }
+
+  /** The number of vertices reached. */
+  int size() {
+    return size;
+  }
+
+  /** The compact graph index of the i-th vertex reached, {@code i < size()}. */
+  int vertex(int i) {
+    return vertices[i];
+  }
+
+  /** Return the slot of the given vertex, adding it to the store if it is not reached before. */
+  private int slot(int vertex) {
+    int slot = slotByVertex.get(vertex);
+    if (slot != NO_SLOT) {
+      return slot;
+    }
+    if (size == vertices.length) {
+      int capacity = size * 2;
+      vertices = Arrays.copyOf(vertices, capacity);
+      durations = Arrays.copyOf(durations, capacity);
+      distances = Arrays.copyOf(distances, capacity);
+      backEdges = Arrays.copyOf(backEdges, capacity);
+    }
+    slot = size++;
+    slotByVertex.put(vertex, slot);
+    vertices[slot] = vertex;
+    backEdges[slot] = NO_EDGE;
+    return slot;
+  }
+}
@@ -0,0 +1,249 @@
+package org.opentripplanner.street.search.compact;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * A compact, read-only copy of the street graph stored as primitive arrays in compressed sparse
+ * row (CSR) format. Vertices are identified by an int index, and all edges going out of a vertex
+ * are stored next to each other. This avoids the pointer chasing and virtual calls done when
+ * walking the {@link Vertex}/{@link Edge} object graph, and make searches where only the travel
+ * time matter a lot faster, see {@link CompactStreetSearch}. It is also used to compute the
+ * landmark distance tables.
+ * <p>
+ * Only the attributes needed to compute the travel time are kept: length, permission, car speed
+ * and a few flags. A reference to the original edge is kept, so paths can be mapped back to the
+ * street graph. Turn restrictions, elevation, intersection costs, rental and parking are NOT
+ * part of the compact graph. Edges which are not {@link StreetEdge}s (links to stops, entrances
+ * and other transit entities) are included as pedestrian edges.
+ * <p>
+ * The compact graph is a snapshot, changes to the street graph after it is created are not
+ * reflected. Vertices which are not part of the snapshot, like the temporary vertices used for
+ * the origin and destination of a search, are handled by the {@link CompactStreetSearch}.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class CompactStreetGraph {
+
+  /** The edge is a staircase. */
+  public static final int FLAG_STAIRS = 1;
+  /** The edge is wheelchair accessible. */
+  public static final int FLAG_WHEELCHAIR_ACCESSIBLE = 1 << 1;
+  /** The edge is not a street, but a link to a transit stop, entrance or similar. */
+  public static final int FLAG_LINK = 1 << 2;
+  public static final int FLAG_WALK_NO_THRU_TRAFFIC = 1 << 3;
+  public static final int FLAG_BICYCLE_NO_THRU_TRAFFIC = 1 << 4;
+  public static final int FLAG_MOTOR_VEHICLE_NO_THRU_TRAFFIC = 1 << 5;
+
+  private final Vertex[] vertices;
+  private final Map<Vertex, Integer> indexByVertex;
+
+  /**
+   * The outgoing edges of vertex {@code v} are the edges {@code outgoingOffsets[v]} to
+   * {@code outgoingOffsets[v+1]-1}. The edges are sorted by the from-vertex, so the edge index and
+   * the CSR slot is the same.
+   */
+  private final int[] outgoingOffsets;
+
+  /**
+   * The incoming edges of vertex {@code v} are the edges
+   * {@code incomingEdges[incomingOffsets[v] .. incomingOffsets[v+1]-1]}.
+   */
+  private final int[] incomingOffsets;
+  private final int[] incomingEdges;
+
+  private final Edge[] edges;
+  private final int[] fromVertex;
+  private final int[] toVertex;
+  private final int[] lengthMm;
+  private final float[] carSpeed;
+  private final byte[] permission;
+  private final byte[] flags;
+
+  private CompactStreetGraph(Collection<Vertex> graphVertices) {
+    int nVertices = graphVertices.size();
+    this.vertices = graphVertices.toArray(Vertex[]::new);
+    this.indexByVertex = new HashMap<>(nVertices * 2);
+    for (int i = 0; i < nVertices; ++i) {
+      indexByVertex.put(vertices[i], i);
+    }
+
+    List<Edge> edgeList = new ArrayList<>();
+    for (Vertex v : vertices) {
+      for (Edge e : v.getOutgoing()) {
+        if (indexByVertex.containsKey(e.getToVertex())) {
+          edgeList.add(e);
+        }
+      }
+    }
+
+    int nEdges = edgeList.size();
+    this.edges = edgeList.toArray(Edge[]::new);
+    this.fromVertex = new int[nEdges];
+    this.toVertex = new int[nEdges];
+    this.lengthMm = new int[nEdges];
+    this.carSpeed = new float[nEdges];
+    this.permission = new byte[nEdges];
+    this.flags = new byte[nEdges];
+    this.outgoingOffsets = new int[nVertices + 1];
+    this.incomingOffsets = new int[nVertices + 1];
+    this.incomingEdges = new int[nEdges];
+
+    for (int i = 0; i < nEdges; ++i) {
+      Edge e = edgeList.get(i);
+      fromVertex[i] = indexByVertex.get(e.getFromVertex());
+      toVertex[i] = indexByVertex.get(e.getToVertex());
+      lengthMm[i] = (int) Math.round(e.getDistanceMeters() * 1000.0);
+      permission[i] = (byte) permissionCode(e);
+      flags[i] = (byte) flags(e);
+      carSpeed[i] = e instanceof StreetEdge se ? se.getCarSpeed() : 0f;
+      ++outgoingOffsets[fromVertex[i] + 1];
+      ++incomingOffsets[toVertex[i] + 1];
+    }
+    for (int v = 0; v < nVertices; ++v) {
+      outgoingOffsets[v + 1] += outgoingOffsets[v];
+      incomingOffsets[v + 1] += incomingOffsets[v];
+    }
+    int[] next = new int[nVertices];
+    System.arraycopy(incomingOffsets, 0, next, 0, nVertices);
+    for (int i = 0; i < nEdges; ++i) {
+      incomingEdges[next[toVertex[i]]++] = i;
+    }
+  }
+
+  /**
+   * Create a compact copy of the given vertices and the edges between them.
+   */
+  public static CompactStreetGraph of(Collection<Vertex> vertices) {
+    return new CompactStreetGraph(vertices);
+  }
+
+  public int numberOfVertices() {
+    return vertices.length;
+  }
+
+  public int numberOfEdges() {
+    return fromVertex.length;
+  }
+
+  /**
+   * Return the index of the given vertex, or {@code -1} if the vertex is not part of this graph.
+   */
+  public int index(Vertex vertex) {
+    Integer index = indexByVertex.get(vertex);
+    return index == null ? -1 : index;
+  }
+
+  public Vertex vertex(int index) {
+    return vertices[index];
+  }
+
+  /** The first outgoing edge of the given vertex. */
+  public int outgoingBegin(int vertex) {
+    return outgoingOffsets[vertex];
+  }
+
+  /** The index after the last outgoing edge of the given vertex. */
+  public int outgoingEnd(int vertex) {
+    return outgoingOffsets[vertex + 1];
+  }
+
+  /** The first slot of incoming edges for the given vertex, see {@link #incomingEdge(int)}. */
+  public int incomingBegin(int vertex) {
+    return incomingOffsets[vertex];
+  }
+
+  /** The slot after the last incoming edge of the given vertex. */
+  public int incomingEnd(int vertex) {
+    return incomingOffsets[vertex + 1];
+  }
+
+  /** Return the edge index stored at the given incoming slot. */
+  public int incomingEdge(int slot) {
+    return incomingEdges[slot];
+  }
+
+  /** Return the street graph edge with the given index. */
+  public Edge edge(int edge) {
+    return edges[edge];
+  }
+
+  public int fromVertex(int edge) {
+    return fromVertex[edge];
+  }
+
+  public int toVertex(int edge) {
+    return toVertex[edge];
+  }
+
+  public double lengthMeters(int edge) {
+    return lengthMm[edge] / 1000.0;
+  }
+
+  /** The car speed in meters per second. Zero for edges which are not streets. */
+  public float carSpeed(int edge) {
+    return carSpeed[edge];
+  }
+
+  /**
+   * Return {@code true} if the edge can be traversed with the given permission code, see
+   * {@link #permissionCode(TraverseMode)}.
+   */
+  public boolean allows(int edge, int permissionCode) {
+    return (permission[edge] & permissionCode) != 0;
+  }
+
+  public boolean hasFlag(int edge, int flag) {
+    return (flags[edge] & flag) != 0;
+  }
+
+  /**
+   * Return the {@link StreetTraversalPermission} code needed to traverse an edge using the given
+   * mode.
+   */
+  public static int permissionCode(TraverseMode mode) {
+    return switch (mode) {
+      case WALK -> StreetTraversalPermission.PEDESTRIAN.code;
+      case BICYCLE, SCOOTER -> StreetTraversalPermission.BICYCLE.code;
+      case CAR -> StreetTraversalPermission.CAR.code;
+      case FLEX -> throw new IllegalArgumentException("Mode not supported: " + mode);
+    };
+  }
+
+  static int permissionCode(Edge edge) {
+    return edge instanceof StreetEdge se
+      ? se.getPermission().code
+      : StreetTraversalPermission.PEDESTRIAN.code;
+  }
+
+  static int flags(Edge edge) {
+    if (!(edge instanceof StreetEdge se)) {
+      return FLAG_LINK;
+    }
+    int flags = 0;
+    if (se.isStairs()) {
+      flags |= FLAG_STAIRS;
+    }
+    if (se.isWheelchairAccessible()) {
+      flags |= FLAG_WHEELCHAIR_ACCESSIBLE;
+    }
+    if (se.isWalkNoThruTraffic()) {
+      flags |= FLAG_WALK_NO_THRU_TRAFFIC;
+    }
+    if (se.isBicycleNoThruTraffic()) {
+      flags |= FLAG_BICYCLE_NO_THRU_TRAFFIC;
+    }
+    if (se.isMotorVehicleNoThruTraffic()) {
+      flags |= FLAG_MOTOR_VEHICLE_NO_THRU_TRAFFIC;
+    }
+    return flags;
+  }
+}
@@ -0,0 +1,57 @@
+package org.opentripplanner.street.search.compact;
+
+import java.util.List;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * The path to a vertex found by a {@link CompactStreetSearch}. The edges are listed in the search
+ * order, starting at the origin of the search. In an arrive-by search this is the reverse of the
+ * travel order.
+ * <p>
+ * The compact search does not create any states, use a {@link CompactStateChain} to create the
+ * states of the path using the full street model.
+ */
+public class CompactStreetPath {
+
+  private final Vertex origin;
+  private final List<Edge> edges;
+  private final double durationSeconds;
+  private final double distanceMeters;
+
+  CompactStreetPath(
+    Vertex origin,
+    List<Edge> edges,
+    double durationSeconds,
+    double distanceMeters
+  ) {
+    this.origin = origin;
+    this.edges = List.copyOf(edges);
+    this.durationSeconds = durationSeconds;
+    this.distanceMeters = distanceMeters;
+  }
+
+  /** The vertex the search started from. */
+  public Vertex origin() {
+    return origin;
+  }
+
+  /** The edges of the path, in the search order. */
+  public List<Edge> edges() {
+    return edges;
+  }
+
+  /** The travel time in seconds computed by the compact search. */
+  public double durationSeconds() {
+    return durationSeconds;
+  }
+
+  public double distanceMeters() {
+    return distanceMeters;
+  }
+
+  /**
+   * The origin of a search and the object graph edges used to connect it to the compact graph.
+   */
+  record Origin(Vertex vertex, List<Edge> edges) {}
+}
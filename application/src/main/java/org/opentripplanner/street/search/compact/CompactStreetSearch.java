@@ -0,0 +1,223 @@
+package org.opentripplanner.street.search.compact;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * A one-to-many travel time search (Dijkstra) on the {@link CompactStreetGraph}. The search
+ * computes the shortest travel time to every vertex reachable within the max duration, using a
+ * single {@link TraverseMode} and a constant speed (the edge speed is used for CAR).
+ * <p>
+ * This search is a lot faster and allocates a lot less than the A* on the object graph, but it
+ * only accounts for the length, permission and speed of each edge. It does not handle mode
+ * changes, turn restrictions, elevation or intersection costs. Use it where a travel time is
+ * enough: analyses, heuristics, and pre-filtering before a full search.
+ * <p>
+ * The search states are kept in a {@link CompactStateStore}, one per reached vertex, so
+ * traversing an edge does not allocate any objects. The path to a vertex is only created when
+ * requested, see {@link CompactStreetSearchResult#path(Vertex)}, and the {@link CompactStateChain}
+ * creates the {@code State}s of the paths to the targets using the full street model.
+ * <p>
+ * Origin vertices which are not part of the compact graph (temporary vertices) are connected to
+ * the compact graph by following their edges until a vertex in the compact graph is found.
+ * <p>
+ * This class is NOT THREAD-SAFE, create a new instance for each search.
+ */
+public class CompactStreetSearch {
+
+  /**
+   * Temporary vertices are connected to the graph with at most a few edges, the limit protects
+   * against walking the object graph if a vertex is missing from the compact graph.
+   */
+  static final int MAX_TEMPORARY_EDGES = 4;
+
+  private final CompactStreetGraph graph;
+  private final TraverseMode mode;
+  private final int permissionCode;
+  private final double speed;
+  private final double stairsTimeFactor;
+  private final boolean arriveBy;
+  private final double maxDurationSeconds;
+
+  private final CompactStateStore states;
+  private final VertexQueue queue;
+  private int nVisited = 0;
+
+  /**
+   * @param speed the travel speed in meters per second, not used for {@link TraverseMode#CAR}
+   *              where the edge car speed is used.
+   * @param stairsTimeFactor the factor used to increase the travel time on stairs.
+   * @param arriveBy search backwards in time from the origins, following incoming edges.
+   */
+  public CompactStreetSearch(
+    CompactStreetGraph graph,
+    TraverseMode mode,
+    double speed,
+    double stairsTimeFactor,
+    boolean arriveBy,
+    Duration maxDuration
+  ) {
+    this.graph = graph;
+    this.mode = mode;
+    this.permissionCode = CompactStreetGraph.permissionCode(mode);
+    this.speed = speed;
+    this.stairsTimeFactor = stairsTimeFactor;
+    this.arriveBy = arriveBy;
+    this.maxDurationSeconds = maxDuration.toSeconds();
+    this.states = new CompactStateStore();
+    this.queue = new VertexQueue(1000);
+  }
+
+  /**
+   * Run the search from the given origins and return the result. A search instance can only be
+   * used once.
+   */
+  public CompactStreetSearchResult route(Collection<? extends Vertex> origins) {
+    for (Vertex origin : origins) {
+      addOrigin(origin);
+    }
+
+    while (!queue.isEmpty()) {
+      double duration = queue.peekMinKey();
+      int v = queue.extractMin();
+
+      // The vertex is reached before with a shorter duration, skip this stale entry
+      if (duration > states.duration(v)) {
+        continue;
+      }
+      ++nVisited;
+
+      if (arriveBy) {
+        for (int slot = graph.incomingBegin(v); slot < graph.incomingEnd(v); ++slot) {
+          int edge = graph.incomingEdge(slot);
+          relax(v, graph.fromVertex(edge), edge, duration);
+        }
+      } else {
+        for (int edge = graph.outgoingBegin(v); edge < graph.outgoingEnd(v); ++edge) {
+          relax(v, graph.toVertex(edge), edge, duration);
+        }
+      }
+    }
+    return new CompactStreetSearchResult(this, graph, states, nVisited);
+  }
+
+  boolean arriveBy() {
+    return arriveBy;
+  }
+
+  /**
+   * Return the duration to traverse the given edge, or infinity if the edge can not be traversed.
+   * This is used for edges which are not part of the compact graph.
+   */
+  double edgeDuration(Edge edge) {
+    if ((CompactStreetGraph.permissionCode(edge) & permissionCode) == 0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    float carSpeed = edge instanceof StreetEdge se ? se.getCarSpeed() : 0f;
+    boolean stairs = (CompactStreetGraph.flags(edge) & CompactStreetGraph.FLAG_STAIRS) != 0;
+    return edgeDuration(edge.getDistanceMeters(), carSpeed, stairs);
+  }
+
+  private void relax(int fromVertex, int toVertex, int edge, double fromDuration) {
+    if (!graph.allows(edge, permissionCode)) {
+      return;
+    }
+    double duration =
+      fromDuration +
+      edgeDuration(
+        graph.lengthMeters(edge),
+        graph.carSpeed(edge),
+        graph.hasFlag(edge, CompactStreetGraph.FLAG_STAIRS)
+      );
+
+    if (duration < states.duration(toVertex) && duration <= maxDurationSeconds) {
+      states.update(
+        toVertex,
+        duration,
+        states.distance(fromVertex) + graph.lengthMeters(edge),
+        edge
+      );
+      queue.insert(toVertex, duration);
+    }
+  }
+
+  private double edgeDuration(double lengthMeters, float carSpeed, boolean stairs) {
+    if (mode == TraverseMode.CAR) {
+      return lengthMeters / carSpeed;
+    }
+    double duration = lengthMeters / speed;
+    return stairs ? duration * stairsTimeFactor : duration;
+  }
+
+  /**
+   * Add the origin to the queue. If the origin is not part of the compact graph, follow its edges
+   * until a vertex in the compact graph is found.
+   */
+  private void addOrigin(Vertex origin) {
+    var stack = new ArrayDeque<TemporaryStep>();
+    stack.push(new TemporaryStep(origin, 0.0, 0.0, 0, null, null));
+
+    while (!stack.isEmpty()) {
+      var step = stack.pop();
+      int index = graph.index(step.vertex());
+
+      if (index >= 0) {
+        if (step.duration() < states.duration(index)) {
+          states.updateFromOrigin(index, step.duration(), step.distance(), origin, step.edges());
+          queue.insert(index, step.duration());
+        }
+        continue;
+      }
+      if (step.nEdges() == MAX_TEMPORARY_EDGES) {
+        continue;
+      }
+      var edges = arriveBy ? step.vertex().getIncoming() : step.vertex().getOutgoing();
+      for (Edge edge : edges) {
+        double duration = step.duration() + edgeDuration(edge);
+        if (duration <= maxDurationSeconds) {
+          var next = arriveBy ? edge.getFromVertex() : edge.getToVertex();
+          stack.push(
+            new TemporaryStep(
+              next,
+              duration,
+              step.distance() + edge.getDistanceMeters(),
+              step.nEdges() + 1,
+              step,
+              edge
+            )
+          );
+        }
+      }
+    }
+  }
+
+  private record TemporaryStep(
+    Vertex vertex,
+    double duration,
+    double distance,
+    int nEdges,
+    TemporaryStep previous,
+    Edge edge
+  ) {
+    /** The edges from the origin to this step, in search order. */
+    List<Edge> edges() {
+      if (edge == null) {
+        return List.of();
+      }
+      var edges = new ArrayList<Edge>(nEdges);
+      for (var s = this; s.edge != null; s = s.previous) {
+        edges.add(s.edge);
+      }
+      Collections.reverse(edges);
+      return edges;
+    }
+  }
+}
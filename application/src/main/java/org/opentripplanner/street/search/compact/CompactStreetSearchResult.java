@@ -0,0 +1,156 @@
+package org.opentripplanner.street.search.compact;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * The travel times found by a {@link CompactStreetSearch}, and the paths to the reached vertices.
+ */
+public class CompactStreetSearchResult {
+
+  private final CompactStreetSearch search;
+  private final CompactStreetGraph graph;
+  private final CompactStateStore states;
+  private final int nVisited;
+
+  CompactStreetSearchResult(
+    CompactStreetSearch search,
+    CompactStreetGraph graph,
+    CompactStateStore states,
+    int nVisited
+  ) {
+    this.search = search;
+    this.graph = graph;
+    this.states = states;
+    this.nVisited = nVisited;
+  }
+
+  /**
+   * The travel time in seconds to the given vertex, or {@link Double#POSITIVE_INFINITY} if the
+   * vertex is not reached. If the vertex is not part of the compact graph, the travel time is
+   * computed by following its edges back to the compact graph.
+   */
+  public double durationSeconds(Vertex vertex) {
+    return durationSeconds(vertex, 0);
+  }
+
+  /**
+   * The travel time to the given vertex, or empty if the vertex is not reached.
+   */
+  public Optional<Duration> duration(Vertex vertex) {
+    double seconds = durationSeconds(vertex);
+    return Double.isInfinite(seconds)
+      ? Optional.empty()
+      : Optional.of(Duration.ofMillis(Math.round(seconds * 1000.0)));
+  }
+
+  /**
+   * The travel time in seconds to the vertex with the given compact graph index.
+   */
+  public double durationSeconds(int vertexIndex) {
+    return states.duration(vertexIndex);
+  }
+
+  public boolean isReached(int vertexIndex) {
+    return states.duration(vertexIndex) != Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * The path from the origin of the search to the given vertex, or empty if the vertex is not
+   * reached. The path is created by following the back edges of the search states, this is only
+   * done when requested.
+   */
+  public Optional<CompactStreetPath> path(Vertex vertex) {
+    double duration = durationSeconds(vertex);
+    if (Double.isInfinite(duration)) {
+      return Optional.empty();
+    }
+    var edges = new ArrayList<Edge>();
+    int index = graph.index(vertex);
+
+    // Follow the edges back to the compact graph, if the vertex is a temporary vertex
+    for (int nEdges = 0; index < 0; ++nEdges) {
+      Edge edge = bestTemporaryEdge(vertex, nEdges);
+      edges.add(edge);
+      vertex = search.arriveBy() ? edge.getToVertex() : edge.getFromVertex();
+      index = graph.index(vertex);
+    }
+    double distance = edges.stream().mapToDouble(Edge::getDistanceMeters).sum();
+    distance += states.distance(index);
+
+    int edge = states.backEdge(index);
+    while (edge != CompactStateStore.NO_EDGE) {
+      edges.add(graph.edge(edge));
+      index = search.arriveBy() ? graph.toVertex(edge) : graph.fromVertex(edge);
+      edge = states.backEdge(index);
+    }
+    var origin = states.origin(index);
+    edges.addAll(origin.edges().reversed());
+    Collections.reverse(edges);
+    return Optional.of(new CompactStreetPath(origin.vertex(), edges, duration, distance));
+  }
+
+  /**
+   * The vertices of the compact graph reached by the search, in the order they are first reached.
+   * Temporary vertices are not included.
+   */
+  public List<Vertex> reachedVertices() {
+    var vertices = new ArrayList<Vertex>(states.size());
+    for (int i = 0; i < states.size(); ++i) {
+      vertices.add(graph.vertex(states.vertex(i)));
+    }
+    return vertices;
+  }
+
+  /** The number of vertices visited by the search. */
+  public int nVisited() {
+    return nVisited;
+  }
+
+  boolean arriveBy() {
+    return search.arriveBy();
+  }
+
+  private double durationSeconds(Vertex vertex, int nEdges) {
+    int index = graph.index(vertex);
+    if (index >= 0) {
+      return states.duration(index);
+    }
+    if (nEdges == CompactStreetSearch.MAX_TEMPORARY_EDGES) {
+      return Double.POSITIVE_INFINITY;
+    }
+    // The vertex is reached from the compact graph, so we follow the edges the opposite way
+    var edges = search.arriveBy() ? vertex.getOutgoing() : vertex.getIncoming();
+    double best = Double.POSITIVE_INFINITY;
+    for (Edge edge : edges) {
+      var other = search.arriveBy() ? edge.getToVertex() : edge.getFromVertex();
+      double duration = search.edgeDuration(edge) + durationSeconds(other, nEdges + 1);
+      best = Math.min(best, duration);
+    }
+    return best;
+  }
+
+  /**
+   * Return the edge used to reach the given temporary vertex from the compact graph with the
+   * shortest travel time.
+   */
+  private Edge bestTemporaryEdge(Vertex vertex, int nEdges) {
+    var edges = search.arriveBy() ? vertex.getOutgoing() : vertex.getIncoming();
+    Edge bestEdge = null;
+    double best = Double.POSITIVE_INFINITY;
+    for (Edge edge : edges) {
+      var other = search.arriveBy() ? edge.getToVertex() : edge.getFromVertex();
+      double duration = search.edgeDuration(edge) + durationSeconds(other, nEdges + 1);
+      if (duration < best) {
+        best = duration;
+        bestEdge = edge;
+      }
+    }
+    return bestEdge;
+  }
+}
@@ -0,0 +1,84 @@
+package org.opentripplanner.street.search.compact;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int vertex indexes keyed on a double. The queue does not support
+ * decrease-key, a vertex is inserted again when a shorter duration is found and the caller must
+ * skip the stale entries. All data is stored in primitive arrays, so no objects are allocated when
+ * inserting or extracting elements.
+ */
+public class VertexQueue {
+
+  private int[] elements;
+  private double[] keys;
+  private int size = 0;
+
+  public VertexQueue(int capacity) {
+    this.elements = new int[capacity];
+    this.keys = new double[capacity];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public double peekMinKey() {
+    if (size == 0) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    return keys[0];
+  }
+
+  public void insert(int element, double key) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, size * 2);
+      keys = Arrays.copyOf(keys, size * 2);
+    }
+    int i = size++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (keys[parent] <= key) {
+        break;
+      }
+      elements[i] = elements[parent];
+      keys[i] = keys[parent];
+      i = parent;
+    }
+    elements[i] = element;
+    keys[i] = key;
+  }
+
+  public int extractMin() {
+    if (size == 0) {
+      throw new IllegalStateException("Can not extract from an empty queue.");
+    }
+    int min = elements[0];
+    --size;
+    int lastElement = elements[size];
+    double lastKey = keys[size];
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && keys[child + 1] < keys[child]) {
+        ++child;
+      }
+      if (lastKey <= keys[child]) {
+        break;
+      }
+      elements[i] = elements[child];
+      keys[i] = keys[child];
+      i = child;
+    }
+    elements[i] = lastElement;
+    keys[i] = lastKey;
+    return min;
+  }
+}
@@ -0,0 +1,99 @@
+package org.opentripplanner.street.search.landmark;
+
+import java.io.Serializable;
+import org.opentripplanner.routing.api.request.StreetMode;
+
+/**
+ * The distances between all vertices and a small set of landmarks for one street mode. Using the
+ * triangle inequality the distances give a lower bound on the distance between any two vertices:
+ * <pre>
+ *   d(v, w) >= d(L, w) - d(L, v)
+ *   d(v, w) >= d(v, L) - d(w, L)
+ * </pre>
+ * The distances are in meters for WALK and BIKE, and in seconds for CAR. To keep the table small
+ * each distance is stored as a 16-bit multiple of a per-landmark unit, rounded down. One unit is
+ * subtracted from each bound, so the bound is still a lower bound after the rounding.
+ * <p>
+ * The vertices are identified by their index in {@link Landmarks}.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class LandmarkTable implements Serializable {
+
+  /** The value used for vertices which can not be reached from, or can not reach, a landmark. */
+  static final char UNREACHABLE = Character.MAX_VALUE;
+
+  private final StreetMode mode;
+
+  /** The vertex index of each landmark. */
+  private final int[] landmarks;
+
+  /** The distance represented by one step of the quantized distances, for each landmark. */
+  private final double[] units;
+
+  /** The distance from landmark {@code l} to vertex {@code v} is stored at {@code v * L + l}. */
+  private final char[] fromLandmark;
+
+  /** The distance from vertex {@code v} to landmark {@code l} is stored at {@code v * L + l}. */
+  private final char[] toLandmark;
+
+  LandmarkTable(
+    StreetMode mode,
+    int[] landmarks,
+    double[] units,
+    char[] fromLandmark,
+    char[] toLandmark
+  ) {
+    this.mode = mode;
+    this.landmarks = landmarks;
+    this.units = units;
+    this.fromLandmark = fromLandmark;
+    this.toLandmark = toLandmark;
+  }
+
+  public StreetMode mode() {
+    return mode;
+  }
+
+  public int numberOfLandmarks() {
+    return landmarks.length;
+  }
+
+  /** The vertex index of the given landmark. */
+  public int landmark(int landmark) {
+    return landmarks[landmark];
+  }
+
+  /**
+   * Return a lower bound on the distance from vertex {@code from} to vertex {@code to} using the
+   * given landmark. Return zero if no bound exists.
+   */
+  public double lowerBound(int from, int to, int landmark) {
+    int n = landmarks.length;
+    int bound = 0;
+
+    int fromLandmarkToTarget = fromLandmark[to * n + landmark];
+    int fromLandmarkToSource = fromLandmark[from * n + landmark];
+    if (fromLandmarkToTarget != UNREACHABLE && fromLandmarkToSource != UNREACHABLE) {
+      bound = fromLandmarkToTarget - fromLandmarkToSource - 1;
+    }
+    int fromSourceToLandmark = toLandmark[from * n + landmark];
+    int fromTargetToLandmark = toLandmark[to * n + landmark];
+    if (fromSourceToLandmark != UNREACHABLE && fromTargetToLandmark != UNREACHABLE) {
+      bound = Math.max(bound, fromSourceToLandmark - fromTargetToLandmark - 1);
+    }
+    return bound > 0 ? bound * units[landmark] : 0.0;
+  }
+
+  /**
+   * Return the best lower bound on the distance from vertex {@code from} to vertex {@code to}
+   * using the given landmarks.
+   */
+  public double lowerBound(int from, int to, int[] landmarks) {
+    double bound = 0.0;
+    for (int landmark : landmarks) {
+      bound = Math.max(bound, lowerBound(from, to, landmark));
+    }
+    return bound;
+  }
+}
@@ -0,0 +1,278 @@
+package org.opentripplanner.street.search.landmark;
+
+import static org.opentripplanner.street.search.landmark.LandmarkTable.UNREACHABLE;
+
+import java.util.Arrays;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
+import org.opentripplanner.street.search.compact.VertexQueue;
+
+/**
+ * Select the landmarks for a street mode and compute the {@link LandmarkTable}.
+ * <p>
+ * The landmarks are selected "farthest first": the first landmark is the vertex farthest away
+ * from the center of the graph, and each next landmark is the vertex farthest away from the
+ * landmarks already selected. This puts the landmarks at the edge of the graph, where they give
+ * good bounds for most searches.
+ * <p>
+ * The edge distances must never be higher than the weights used by the street search, so the
+ * lowest of the distances used by the different optimizations is used. Edges which are not
+ * streets, like links to transit stops, have distance zero.
+ */
+class LandmarkTableBuilder {
+
+  /** The smallest distance unit used in the table, one meter or one second. */
+  private static final double MIN_UNIT = 1.0;
+
+  /** The reduction applied to the safest streets by the bicycle SAFEST_STREETS optimization. */
+  private static final double SAFEST_STREETS_REDUCTION = 0.66;
+
+  private final CompactStreetGraph graph;
+  private final StreetMode mode;
+  private final double[] distances;
+
+  private LandmarkTableBuilder(CompactStreetGraph graph, StreetMode mode) {
+    this.graph = graph;
+    this.mode = mode;
+    this.distances = new double[graph.numberOfEdges()];
+    for (int e = 0; e < distances.length; ++e) {
+      distances[e] = edgeDistance(graph.edge(e), mode);
+    }
+  }
+
+  static LandmarkTable build(CompactStreetGraph graph, StreetMode mode, int numberOfLandmarks) {
+    return new LandmarkTableBuilder(graph, mode).build(numberOfLandmarks);
+  }
+
+  /**
+   * The distance used for the given edge and mode, {@link Double#POSITIVE_INFINITY} if the edge
+   * can not be used. The distance is in seconds for CAR and in meters for the other modes.
+   */
+  static double edgeDistance(Edge edge, StreetMode mode) {
+    if (!(edge instanceof StreetEdge se)) {
+      return 0.0;
+    }
+    return switch (mode) {
+      case WALK -> se.getPermission().allows(StreetTraversalPermission.PEDESTRIAN)
+        ? walkDistance(se)
+        : Double.POSITIVE_INFINITY;
+      case BIKE -> se.getPermission().allows(StreetTraversalPermission.PEDESTRIAN_AND_BICYCLE)
+        ? bikeDistance(se)
+        : Double.POSITIVE_INFINITY;
+      case CAR -> se.getPermission().allows(StreetTraversalPermission.CAR) && se.getCarSpeed() > 0
+        ? se.getDistanceMeters() / se.getCarSpeed()
+        : Double.POSITIVE_INFINITY;
+      default -> throw new IllegalArgumentException("Street mode not supported: " + mode);
+    };
+  }
+
+  /** Wheelchair users use the effective bike distance. */
+  private static double walkDistance(StreetEdge edge) {
+    double distance = Math.min(edge.getDistanceMeters(), edge.getEffectiveWalkDistance());
+    distance = Math.min(distance, edge.getEffectiveWalkSafetyDistance());
+    return Math.min(distance, edge.getEffectiveBikeDistance());
+  }
+
+  /** Bicycles may also be walked, this uses the effective bike distance at walking speed. */
+  private static double bikeDistance(StreetEdge edge) {
+    double distance = Math.min(edge.getDistanceMeters(), edge.getEffectiveBikeDistance());
+    distance = Math.min(distance, edge.getEffectiveBicycleSafetyDistance());
+    distance = Math.min(distance, edge.getEffectiveBikeDistanceForWorkCost());
+    // The safest streets are treated as even safer when optimizing for SAFEST_STREETS
+    return Math.min(
+      distance,
+      SAFEST_STREETS_REDUCTION * edge.getBicycleSafetyFactor() * edge.getDistanceMeters()
+    );
+  }
+
+  private LandmarkTable build(int numberOfLandmarks) {
+    int n = graph.numberOfVertices();
+    int[] landmarks = new int[numberOfLandmarks];
+    double[] units = new double[numberOfLandmarks];
+    char[] fromLandmark = new char[n * numberOfLandmarks];
+    char[] toLandmark = new char[n * numberOfLandmarks];
+
+    int count = 0;
+    int center = centerVertex();
+    double[] minDistance = center < 0 ? null : dijkstra(center, true);
+    while (minDistance != null && count < numberOfLandmarks) {
+      int landmark = farthestVertex(minDistance);
+      if (landmark < 0) {
+        break;
+      }
+      double[] forward = dijkstra(landmark, true);
+      double[] backward = dijkstra(landmark, false);
+      units[count] = unit(forward, backward);
+      quantize(forward, units[count], fromLandmark, count, numberOfLandmarks);
+      quantize(backward, units[count], toLandmark, count, numberOfLandmarks);
+      landmarks[count] = landmark;
+      ++count;
+
+      for (int v = 0; v < n; ++v) {
+        minDistance[v] = count == 1 ? forward[v] : Math.min(minDistance[v], forward[v]);
+      }
+    }
+
+    if (count < numberOfLandmarks) {
+      fromLandmark = shrink(fromLandmark, n, numberOfLandmarks, count);
+      toLandmark = shrink(toLandmark, n, numberOfLandmarks, count);
+    }
+    return new LandmarkTable(
+      mode,
+      Arrays.copyOf(landmarks, count),
+      Arrays.copyOf(units, count),
+      fromLandmark,
+      toLandmark
+    );
+  }
+
+  /**
+   * Return the vertex closest to the geographic center of the vertices usable by the mode, or
+   * {@code -1} if no vertex is usable.
+   */
+  private int centerVertex() {
+    double lat = 0;
+    double lon = 0;
+    int count = 0;
+    for (int v = 0; v < graph.numberOfVertices(); ++v) {
+      if (isUsable(v)) {
+        lat += graph.vertex(v).getLat();
+        lon += graph.vertex(v).getLon();
+        ++count;
+      }
+    }
+    if (count == 0) {
+      return -1;
+    }
+    lat /= count;
+    lon /= count;
+
+    int center = -1;
+    double best = Double.POSITIVE_INFINITY;
+    for (int v = 0; v < graph.numberOfVertices(); ++v) {
+      if (isUsable(v)) {
+        Vertex vertex = graph.vertex(v);
+        double d = Math.pow(vertex.getLat() - lat, 2) + Math.pow(vertex.getLon() - lon, 2);
+        if (d < best) {
+          best = d;
+          center = v;
+        }
+      }
+    }
+    return center;
+  }
+
+  /** A vertex is usable if it is connected to a street the mode can use. */
+  private boolean isUsable(int vertex) {
+    for (int e = graph.outgoingBegin(vertex); e < graph.outgoingEnd(vertex); ++e) {
+      if (isUsableStreet(e)) {
+        return true;
+      }
+    }
+    for (int i = graph.incomingBegin(vertex); i < graph.incomingEnd(vertex); ++i) {
+      if (isUsableStreet(graph.incomingEdge(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isUsableStreet(int edge) {
+    return graph.edge(edge) instanceof StreetEdge && distances[edge] != Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Return the usable vertex with the highest distance. If no vertex with a distance above zero
+   * is reachable, a usable vertex which is not reachable from the selected landmarks is returned,
+   * so the landmarks also cover streets which are not connected. Return {@code -1} if all usable
+   * vertices are selected.
+   */
+  private int farthestVertex(double[] distance) {
+    int farthest = -1;
+    int unreachable = -1;
+    double best = 0.0;
+    for (int v = 0; v < distance.length; ++v) {
+      if (distance[v] == Double.POSITIVE_INFINITY) {
+        if (unreachable < 0 && isUsable(v)) {
+          unreachable = v;
+        }
+      } else if (distance[v] > best && isUsable(v)) {
+        best = distance[v];
+        farthest = v;
+      }
+    }
+    return farthest < 0 ? unreachable : farthest;
+  }
+
+  /**
+   * Compute the distance from the given vertex to all other vertices, or from all other vertices
+   * to the given vertex if {@code forward} is {@code false}.
+   */
+  private double[] dijkstra(int origin, boolean forward) {
+    double[] result = new double[graph.numberOfVertices()];
+    Arrays.fill(result, Double.POSITIVE_INFINITY);
+    var queue = new VertexQueue(1024);
+    result[origin] = 0.0;
+    queue.insert(origin, 0.0);
+
+    while (!queue.isEmpty()) {
+      double distance = queue.peekMinKey();
+      int v = queue.extractMin();
+      if (distance > result[v]) {
+        continue;
+      }
+      int begin = forward ? graph.outgoingBegin(v) : graph.incomingBegin(v);
+      int end = forward ? graph.outgoingEnd(v) : graph.incomingEnd(v);
+      for (int i = begin; i < end; ++i) {
+        int e = forward ? i : graph.incomingEdge(i);
+        int next = forward ? graph.toVertex(e) : graph.fromVertex(e);
+        double nextDistance = distance + distances[e];
+        if (nextDistance < result[next]) {
+          result[next] = nextDistance;
+          queue.insert(next, nextDistance);
+        }
+      }
+    }
+    return result;
+  }
+
+  /** The unit needed to store the highest reachable distance in 16 bits. */
+  private static double unit(double[] forward, double[] backward) {
+    double max = 0.0;
+    for (int v = 0; v < forward.length; ++v) {
+      if (forward[v] != Double.POSITIVE_INFINITY) {
+        max = Math.max(max, forward[v]);
+      }
+      if (backward[v] != Double.POSITIVE_INFINITY) {
+        max = Math.max(max, backward[v]);
+      }
+    }
+    return Math.max(MIN_UNIT, max / (UNREACHABLE - 1));
+  }
+
+  private static void quantize(
+    double[] distance,
+    double unit,
+    char[] table,
+    int landmark,
+    int numberOfLandmarks
+  ) {
+    for (int v = 0; v < distance.length; ++v) {
+      table[v * numberOfLandmarks + landmark] = distance[v] == Double.POSITIVE_INFINITY
+        ? UNREACHABLE
+        : (char) Math.min((long) (distance[v] / unit), UNREACHABLE - 1);
+    }
+  }
+
+  private static char[] shrink(char[] table, int n, int oldStride, int newStride) {
+    char[] result = new char[n * newStride];
+    for (int v = 0; v < n; ++v) {
+      System.arraycopy(table, v * oldStride, result, v * newStride, newStride);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,133 @@
+package org.opentripplanner.street.search.landmark;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
+
+/**
+ * Precomputed distances between all vertices of the street graph and a small set of landmark
+ * vertices, one {@link LandmarkTable} for each street mode. The tables are used by the
+ * {@link org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic} to give the
+ * A* search a much better estimate of the remaining weight than the straight line distance, in
+ * particular where the streets take a detour around rivers, fjords, railways and motorways.
+ * <p>
+ * The tables are a snapshot of the street graph when they are built. Vertices added later, like
+ * the temporary vertices used for the origin and destination of a search, are not part of the
+ * tables. Edges added later may make the estimate a little too high, but only by the length of
+ * the new edges.
+ * <p>
+ * The table for each mode uses {@code 4 * numberOfLandmarks} bytes for each vertex.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class Landmarks implements Serializable {
+
+  /** The vertices in the tables, the index of a vertex is its position in this array. */
+  private final Vertex[] vertices;
+
+  private final Map<StreetMode, LandmarkTable> tables;
+
+  private transient volatile Map<Vertex, Integer> indexByVertex;
+
+  private Landmarks(Vertex[] vertices, Map<StreetMode, LandmarkTable> tables) {
+    this.vertices = vertices;
+    this.tables = Map.copyOf(tables);
+  }
+
+  /**
+   * Select the landmarks and compute the tables for the given vertices and modes. Only WALK, BIKE
+   * and CAR are supported, see {@link #isSupported(StreetMode)}.
+   */
+  public static Landmarks of(
+    Collection<Vertex> graphVertices,
+    Set<StreetMode> modes,
+    int numberOfLandmarks
+  ) {
+    for (StreetMode mode : modes) {
+      if (!isSupported(mode)) {
+        throw new IllegalArgumentException("Street mode not supported: " + mode);
+      }
+    }
+    if (numberOfLandmarks < 1) {
+      throw new IllegalArgumentException("At least one landmark is needed: " + numberOfLandmarks);
+    }
+    var graph = CompactStreetGraph.of(graphVertices);
+    var tables = new EnumMap<StreetMode, LandmarkTable>(StreetMode.class);
+    for (StreetMode mode : modes) {
+      tables.put(mode, LandmarkTableBuilder.build(graph, mode, numberOfLandmarks));
+    }
+    var vertices = new Vertex[graph.numberOfVertices()];
+    for (int i = 0; i < vertices.length; ++i) {
+      vertices[i] = graph.vertex(i);
+    }
+    return new Landmarks(vertices, tables);
+  }
+
+  /**
+   * Landmarks are only computed for the modes where the street search uses a single traverse
+   * mode. Modes which include rental, parking or transfers between traverse modes are not
+   * supported.
+   */
+  public static boolean isSupported(StreetMode mode) {
+    return mode == StreetMode.WALK || mode == StreetMode.BIKE || mode == StreetMode.CAR;
+  }
+
+  /** The street modes with a landmark table. */
+  public Set<StreetMode> modes() {
+    return tables.keySet();
+  }
+
+  /** Return the table for the given mode, or {@code null} if the mode has no table. */
+  @Nullable
+  public LandmarkTable table(StreetMode mode) {
+    return tables.get(mode);
+  }
+
+  public int numberOfVertices() {
+    return vertices.length;
+  }
+
+  /**
+   * Return the index of the given vertex, or {@code -1} if the vertex is not part of the tables.
+   */
+  public int index(Vertex vertex) {
+    Integer index = indexByVertex().get(vertex);
+    return index == null ? -1 : index;
+  }
+
+  public Vertex vertex(int index) {
+    return vertices[index];
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(Landmarks.class)
+      .addNum("vertices", vertices.length)
+      .addCol("modes", tables.keySet())
+      .toString();
+  }
+
+  private Map<Vertex, Integer> indexByVertex() {
+    if (indexByVertex == null) {
+      synchronized (this) {
+        if (indexByVertex == null) {
+          var map = new HashMap<Vertex, Integer>(vertices.length * 2);
+          for (int i = 0; i < vertices.length; ++i) {
+            map.put(vertices[i], i);
+          }
+          indexByVertex = map;
+        }
+      }
+    }
+    return indexByVertex;
+  }
+}
@@ -51,6 +51,9 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
   // we should DEFINITELY rename this variable and the associated methods.
   public double walkDistance;
 
+  // the position of this state in the search priority queue, see IndexedQueueItem
+  private int queueIndex = NOT_IN_QUEUE;
+
   /* CONSTRUCTORS */
 
   /**
@@ -290,6 +293,16 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
     return this.backEdge;
   }
 
+  @Override
+  public int getQueueIndex() {
+    return queueIndex;
+  }
+
+  @Override
+  public void setQueueIndex(int index) {
+    this.queueIndex = index;
+  }
+
   public void initBackEdge(Edge initialBackEdge) {
     this.backEdge = requireNotInitialized(this.backEdge, initialBackEdge);
   }
@@ -458,6 +471,7 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
     } catch (CloneNotSupportedException e1) {
       throw new IllegalStateException("This is not happening");
     }
+    ret.queueIndex = NOT_IN_QUEUE;
     return ret;
   }
 
@@ -0,0 +1,201 @@
+package org.opentripplanner.street.search.strategy;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.landmark.LandmarkTable;
+import org.opentripplanner.street.search.landmark.Landmarks;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * A remaining weight heuristic using the precomputed {@link Landmarks} distances (ALT: A*,
+ * landmarks and the triangle inequality). The estimate is the highest of the euclidean estimate
+ * and the landmark lower bound, so it is never worse than the
+ * {@link EuclideanRemainingWeightHeuristic}. The landmark distances are converted to weight using
+ * the lowest reluctance and the highest speed of the mode, see {@link #weightPerUnit}.
+ * <p>
+ * The target is usually a temporary vertex which is not part of the landmark tables. The vertices
+ * in the tables connected to the target are found by a small search from the target, and the
+ * landmark bound is the lowest bound to any of them. If the target can not be connected to the
+ * tables, or the mode has no table, only the euclidean estimate is used.
+ * <p>
+ * Only the landmarks giving the best bound between the origin and the target are used, this keeps
+ * the cost of each estimate low.
+ * <p>
+ * This class is NOT THREAD-SAFE, create a new instance for each search.
+ */
+public class LandmarkRemainingWeightHeuristic implements RemainingWeightHeuristic<State> {
+
+  /** The number of landmarks used in a search. */
+  private static final int MAX_ACTIVE_LANDMARKS = 4;
+
+  /** The max number of vertices visited when connecting the origin or target to the tables. */
+  private static final int MAX_ENTRY_VERTICES = 100;
+
+  private final Landmarks landmarks;
+  private final EuclideanRemainingWeightHeuristic euclidean;
+
+  @Nullable
+  private LandmarkTable table;
+
+  private int[] targets;
+  private int[] activeLandmarks;
+  private double weightPerUnit;
+  private boolean arriveBy;
+
+  public LandmarkRemainingWeightHeuristic(Landmarks landmarks, Float maxCarSpeed) {
+    this.landmarks = landmarks;
+    this.euclidean = new EuclideanRemainingWeightHeuristic(maxCarSpeed);
+  }
+
+  public void initialize(
+    StreetMode streetMode,
+    Set<Vertex> fromVertices,
+    Set<Vertex> toVertices,
+    boolean arriveBy,
+    RoutingPreferences preferences
+  ) {
+    euclidean.initialize(streetMode, toVertices, arriveBy, preferences);
+    this.arriveBy = arriveBy;
+    this.table = landmarks.table(streetMode);
+    if (table == null || table.numberOfLandmarks() == 0) {
+      table = null;
+      return;
+    }
+
+    // In a depart-after search the target is reached from the vertices in the tables, in an
+    // arrive-by search the search goes backward and the target is where the trip starts.
+    targets = entryVertices(toVertices, arriveBy);
+    int[] origins = entryVertices(fromVertices, !arriveBy);
+    if (targets == null || targets.length == 0) {
+      table = null;
+      return;
+    }
+    activeLandmarks = selectActiveLandmarks(origins);
+    weightPerUnit = weightPerUnit(streetMode, preferences);
+  }
+
+  @Override
+  public double estimateRemainingWeight(State s) {
+    double estimate = euclidean.estimateRemainingWeight(s);
+    if (table == null) {
+      return estimate;
+    }
+    int v = landmarks.index(s.getVertex());
+    if (v < 0) {
+      return estimate;
+    }
+    double bound = Double.POSITIVE_INFINITY;
+    for (int target : targets) {
+      bound = Math.min(bound, lowerBound(v, target, activeLandmarks));
+      if (bound * weightPerUnit <= estimate) {
+        return estimate;
+      }
+    }
+    return bound * weightPerUnit;
+  }
+
+  /**
+   * The lowest weight of one table unit, a meter for WALK and BIKE and a second for CAR. This is
+   * the lowest reluctance which may apply to the mode, divided by the highest speed.
+   */
+  static double weightPerUnit(StreetMode streetMode, RoutingPreferences preferences) {
+    var walk = preferences.walk();
+    return switch (streetMode) {
+      case CAR -> preferences.car().reluctance();
+      case BIKE -> {
+        var bike = preferences.bike();
+        double reluctance = min(
+          bike.reluctance(),
+          bike.walking().reluctance(),
+          walk.stairsReluctance() * Math.min(1.0, bike.walking().stairsReluctance())
+        );
+        yield reluctance / Math.max(bike.speed(), bike.walking().speed());
+      }
+      default -> {
+        var wheelchair = preferences.wheelchair();
+        double reluctance =
+          Math.min(walk.reluctance(), walk.stairsReluctance()) *
+          min(1.0, wheelchair.inaccessibleStreetReluctance(), wheelchair.stairsReluctance());
+        yield reluctance / walk.speed();
+      }
+    };
+  }
+
+  /** The lower bound from the vertex to the target, in the direction of travel. */
+  private double lowerBound(int vertex, int target, int[] landmarks) {
+    return arriveBy
+      ? table.lowerBound(target, vertex, landmarks)
+      : table.lowerBound(vertex, target, landmarks);
+  }
+
+  /**
+   * Select the landmarks giving the best bound between the first origin and the targets. All
+   * landmarks are used if the origin is not connected to the tables.
+   */
+  private int[] selectActiveLandmarks(@Nullable int[] origins) {
+    int n = table.numberOfLandmarks();
+    if (origins == null || origins.length == 0 || n <= MAX_ACTIVE_LANDMARKS) {
+      return IntStream.range(0, n).toArray();
+    }
+    int origin = origins[0];
+    double[] bounds = new double[n];
+    for (int l = 0; l < n; ++l) {
+      bounds[l] = Double.POSITIVE_INFINITY;
+      for (int target : targets) {
+        bounds[l] = Math.min(bounds[l], lowerBound(origin, target, new int[] { l }));
+      }
+    }
+    return IntStream
+      .range(0, n)
+      .boxed()
+      .sorted(Comparator.comparingDouble(l -> -bounds[l]))
+      .limit(MAX_ACTIVE_LANDMARKS)
+      .mapToInt(Integer::intValue)
+      .toArray();
+  }
+
+  /**
+   * Find the vertices in the tables closest to the given vertices, following the outgoing edges
+   * if {@code forward} is {@code true} and incoming edges if not. Every path between the given
+   * vertices and the tables goes through one of the returned vertices. Return {@code null} if
+   * the search visits too many vertices outside the tables.
+   */
+  @Nullable
+  private int[] entryVertices(Set<Vertex> vertices, boolean forward) {
+    var result = new TIntArrayList();
+    var visited = new HashSet<Vertex>();
+    var queue = new ArrayDeque<Vertex>(vertices);
+    while (!queue.isEmpty()) {
+      Vertex v = queue.poll();
+      if (!visited.add(v)) {
+        continue;
+      }
+      int index = landmarks.index(v);
+      if (index >= 0) {
+        result.add(index);
+        continue;
+      }
+      if (visited.size() > MAX_ENTRY_VERTICES) {
+        return null;
+      }
+      for (Edge e : forward ? v.getOutgoing() : v.getIncoming()) {
+        queue.add(forward ? e.getToVertex() : e.getFromVertex());
+      }
+    }
+    return result.toArray();
+  }
+
+  private static double min(double a, double b, double c) {
+    return Math.min(a, Math.min(b, c));
+  }
+}
@@ -7,7 +7,6 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.OptionalInt;
-import java.util.function.IntUnaryOperator;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.transit.model.basic.Accessibility;
@@ -19,13 +18,31 @@ import org.opentripplanner.transit.model.timetable.booking.BookingInfo;
  * carried along by States when routing to ensure that they have a consistent, fast view of the trip
  * when realtime updates have been applied. All times are expressed as seconds since midnight (as in
  * GTFS).
+ * <p>
+ * The real-time times are not stored, only the delays relative to the shared scheduled times. If
+ * all stops have the same delay, only this constant delay is stored. If not, the delays are kept
+ * per stop in {@code short} arrays, and in {@code int} arrays only if a delay does not fit in a
+ * {@code short} (more than about 9 hours). The per-stop states, headsigns and occupancy are only
+ * allocated when set.
  */
 public final class RealTimeTripTimes implements TripTimes {
 
   private ScheduledTripTimes scheduledTripTimes;
 
-  private int[] arrivalTimes;
-  private int[] departureTimes;
+  /** {@code true} if any arrival or departure time is updated, even if the delay is zero. */
+  private boolean timesUpdated;
+
+  /** The delay at all stops, used if the per-stop delay arrays are {@code null}. */
+  private int constantDelay;
+
+  /** The delay at each stop, or {@code null} if another representation is used. */
+  private short[] arrivalDelays;
+  private short[] departureDelays;
+
+  /** The delay at each stop, used only if a delay does not fit in the short arrays. */
+  private int[] wideArrivalDelays;
+  private int[] wideDepartureDelays;
+
   private RealTimeState realTimeState;
   private StopRealTimeState[] stopRealTimeStates;
   private I18NString[] headsigns;
@@ -68,11 +85,7 @@ public final class RealTimeTripTimes implements TripTimes {
     this.headsigns = headsigns;
     this.occupancyStatus = occupancyStatus;
     this.wheelchairAccessibility = wheelchairAccessibility;
-
-    // We set these to null to indicate that this is a non-updated/scheduled TripTimes.
-    // We cannot point to the scheduled times because we do not want to make an unnecessary copy.
-    this.arrivalTimes = null;
-    this.departureTimes = null;
+    // The times are not updated, the delay is zero and no delay arrays are allocated
   }
 
   public static RealTimeTripTimes of(ScheduledTripTimes scheduledTripTimes) {
@@ -135,7 +148,7 @@ public final class RealTimeTripTimes implements TripTimes {
    */
   @Override
   public int getArrivalTime(final int stop) {
-    return getOrElse(stop, arrivalTimes, scheduledTripTimes::getScheduledArrivalTime);
+    return scheduledTripTimes.getScheduledArrivalTime(stop) + getArrivalDelay(stop);
   }
 
   /**
@@ -144,19 +157,25 @@ public final class RealTimeTripTimes implements TripTimes {
    */
   @Override
   public int getDepartureTime(final int stop) {
-    return getOrElse(stop, departureTimes, scheduledTripTimes::getScheduledDepartureTime);
+    return scheduledTripTimes.getScheduledDepartureTime(stop) + getDepartureDelay(stop);
   }
 
   /** @return the difference between the scheduled and actual arrival times at this stop. */
   @Override
   public int getArrivalDelay(final int stop) {
-    return getArrivalTime(stop) - scheduledTripTimes.getScheduledArrivalTime(stop);
+    if (arrivalDelays != null) {
+      return arrivalDelays[stop];
+    }
+    return wideArrivalDelays != null ? wideArrivalDelays[stop] : constantDelay;
   }
 
   /** @return the difference between the scheduled and actual departure times at this stop. */
   @Override
   public int getDepartureDelay(final int stop) {
-    return getDepartureTime(stop) - scheduledTripTimes.getScheduledDepartureTime(stop);
+    if (departureDelays != null) {
+      return departureDelays[stop];
+    }
+    return wideDepartureDelays != null ? wideDepartureDelays[stop] : constantDelay;
   }
 
   public void setRecorded(int stop) {
@@ -193,6 +212,10 @@ public final class RealTimeTripTimes implements TripTimes {
 
   public void setOccupancyStatus(int stop, OccupancyStatus occupancyStatus) {
     prepareForRealTimeUpdates();
+    if (this.occupancyStatus == null) {
+      this.occupancyStatus = new OccupancyStatus[getNumStops()];
+      Arrays.fill(this.occupancyStatus, OccupancyStatus.NO_DATA_AVAILABLE);
+    }
     this.occupancyStatus[stop] = occupancyStatus;
   }
 
@@ -293,23 +316,33 @@ public final class RealTimeTripTimes implements TripTimes {
   }
 
   public void updateDepartureTime(final int stop, final int time) {
-    prepareForRealTimeUpdates();
-    departureTimes[stop] = time;
+    updateDepartureDelay(stop, time - scheduledTripTimes.getScheduledDepartureTime(stop));
   }
 
   public void updateDepartureDelay(final int stop, final int delay) {
     prepareForRealTimeUpdates();
-    departureTimes[stop] = scheduledTripTimes.getScheduledDepartureTime(stop) + delay;
+    if (prepareToSetDelay(delay)) {
+      if (departureDelays != null) {
+        departureDelays[stop] = (short) delay;
+      } else {
+        wideDepartureDelays[stop] = delay;
+      }
+    }
   }
 
   public void updateArrivalTime(final int stop, final int time) {
-    prepareForRealTimeUpdates();
-    arrivalTimes[stop] = time;
+    updateArrivalDelay(stop, time - scheduledTripTimes.getScheduledArrivalTime(stop));
   }
 
   public void updateArrivalDelay(final int stop, final int delay) {
     prepareForRealTimeUpdates();
-    arrivalTimes[stop] = scheduledTripTimes.getScheduledArrivalTime(stop) + delay;
+    if (prepareToSetDelay(delay)) {
+      if (arrivalDelays != null) {
+        arrivalDelays[stop] = (short) delay;
+      } else {
+        wideArrivalDelays[stop] = delay;
+      }
+    }
   }
 
   @Nullable
@@ -333,7 +366,7 @@ public final class RealTimeTripTimes implements TripTimes {
    * now (frequency trips don't have updates).
    */
   public TripTimes timeShift(final int stop, final int time, final boolean depart) {
-    if (arrivalTimes != null || departureTimes != null) {
+    if (timesUpdated) {
       return null;
     }
     // Adjust 0-based times to match desired stoptime.
@@ -529,6 +562,10 @@ public final class RealTimeTripTimes implements TripTimes {
 
   private void setStopRealTimeStates(int stop, StopRealTimeState state) {
     prepareForRealTimeUpdates();
+    if (this.stopRealTimeStates == null) {
+      this.stopRealTimeStates = new StopRealTimeState[getNumStops()];
+      Arrays.fill(stopRealTimeStates, StopRealTimeState.DEFAULT);
+    }
     this.stopRealTimeStates[stop] = state;
   }
 
@@ -553,30 +590,107 @@ public final class RealTimeTripTimes implements TripTimes {
     }
 
     prepareForRealTimeUpdates();
+    if (headsigns == null) {
+      this.headsigns = new I18NString[getNumStops()];
+    }
     headsigns[index] = headsign;
   }
 
-  private static int getOrElse(int index, int[] array, IntUnaryOperator defaultValue) {
-    return array != null ? array[index] : defaultValue.applyAsInt(index);
+  /**
+   * Make sure a delay for a single stop can be set in the per-stop delay arrays. The arrays are
+   * created from the constant delay, and widened to int arrays if the delay does not fit in a
+   * short. Returns {@code false} if the delay is the same as the constant delay, and there is no
+   * need to create the arrays.
+   */
+  private boolean prepareToSetDelay(int delay) {
+    boolean perStop = arrivalDelays != null || wideArrivalDelays != null;
+    if (!perStop && delay == constantDelay) {
+      return false;
+    }
+    boolean fitsInShort = delay == (short) delay && constantDelay == (short) constantDelay;
+    if (!perStop && fitsInShort) {
+      arrivalDelays = new short[getNumStops()];
+      departureDelays = new short[getNumStops()];
+      Arrays.fill(arrivalDelays, (short) constantDelay);
+      Arrays.fill(departureDelays, (short) constantDelay);
+    } else if (!perStop) {
+      wideArrivalDelays = new int[getNumStops()];
+      wideDepartureDelays = new int[getNumStops()];
+      Arrays.fill(wideArrivalDelays, constantDelay);
+      Arrays.fill(wideDepartureDelays, constantDelay);
+    } else if (arrivalDelays != null && delay != (short) delay) {
+      wideArrivalDelays = toIntArray(arrivalDelays);
+      wideDepartureDelays = toIntArray(departureDelays);
+      arrivalDelays = null;
+      departureDelays = null;
+    }
+    return true;
+  }
+
+  /**
+   * Replace the per-stop delays with a constant delay if all arrivals and departures have the
+   * same delay, and narrow int delays to short delays if they all fit. The times are not changed.
+   * This is called when the update is finished and the trip times are added to the timetable
+   * snapshot, see {@link org.opentripplanner.model.TimetableSnapshot#update}.
+   */
+  public void compactDelays() {
+    int nStops = getNumStops();
+    if (nStops == 0 || (arrivalDelays == null && wideArrivalDelays == null)) {
+      return;
+    }
+    int first = getArrivalDelay(0);
+    boolean constant = true;
+    boolean fitsInShort = true;
+    for (int s = 0; s < nStops; s++) {
+      int arr = getArrivalDelay(s);
+      int dep = getDepartureDelay(s);
+      constant &= arr == first && dep == first;
+      fitsInShort &= arr == (short) arr && dep == (short) dep;
+    }
+    if (constant) {
+      constantDelay = first;
+      arrivalDelays = null;
+      departureDelays = null;
+      wideArrivalDelays = null;
+      wideDepartureDelays = null;
+    } else if (fitsInShort && wideArrivalDelays != null) {
+      arrivalDelays = toShortArray(wideArrivalDelays);
+      departureDelays = toShortArray(wideDepartureDelays);
+      wideArrivalDelays = null;
+      wideDepartureDelays = null;
+    }
+  }
+
+  private static int[] toIntArray(short[] values) {
+    int[] result = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = values[i];
+    }
+    return result;
+  }
+
+  private static short[] toShortArray(int[] values) {
+    short[] result = new short[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = (short) values[i];
+    }
+    return result;
   }
 
   /**
-   * If they don't already exist, create arrays for updated arrival and departure times that are
-   * just time-shifted copies of the zero-based scheduled departure times.
+   * The first time the times or states are updated, reset the per-stop real-time states,
+   * headsigns and occupancy to the scheduled values. They are allocated when they are set.
    * <p>
    * Also sets the realtime state to UPDATED.
    */
   private void prepareForRealTimeUpdates() {
-    if (arrivalTimes == null) {
-      this.arrivalTimes = scheduledTripTimes.copyArrivalTimes();
-      this.departureTimes = scheduledTripTimes.copyDepartureTimes();
+    if (!timesUpdated) {
+      this.timesUpdated = true;
       // Update the real-time state
       this.realTimeState = RealTimeState.UPDATED;
-      this.stopRealTimeStates = new StopRealTimeState[arrivalTimes.length];
-      Arrays.fill(stopRealTimeStates, StopRealTimeState.DEFAULT);
-      this.headsigns = scheduledTripTimes.copyHeadsigns(() -> null);
-      this.occupancyStatus = new OccupancyStatus[arrivalTimes.length];
-      Arrays.fill(occupancyStatus, OccupancyStatus.NO_DATA_AVAILABLE);
+      this.stopRealTimeStates = null;
+      this.headsigns = null;
+      this.occupancyStatus = null;
       // skip immutable types: scheduledTripTimes & wheelchairAccessibility
     }
   }
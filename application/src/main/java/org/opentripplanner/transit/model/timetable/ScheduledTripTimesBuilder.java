@@ -4,6 +4,7 @@ import java.util.BitSet;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.i18n.I18NString;
+import org.opentripplanner.framework.lang.IntUtils;
 import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.transit.model.framework.DeduplicatorService;
 import org.opentripplanner.transit.model.timetable.booking.BookingInfo;
@@ -89,8 +90,12 @@ public class ScheduledTripTimesBuilder {
     return arrivalTimes;
   }
 
+  /**
+   * The times are deduplicated when the trip times are built, after they are shifted to start at
+   * zero.
+   */
   public ScheduledTripTimesBuilder withArrivalTimes(int[] arrivalTimes) {
-    this.arrivalTimes = deduplicator.deduplicateIntArray(arrivalTimes);
+    this.arrivalTimes = arrivalTimes;
     return this;
   }
 
@@ -103,8 +108,11 @@ public class ScheduledTripTimesBuilder {
     return departureTimes;
   }
 
+  /**
+   * @see #withArrivalTimes(int[])
+   */
   public ScheduledTripTimesBuilder withDepartureTimes(int[] departureTimes) {
-    this.departureTimes = deduplicator.deduplicateIntArray(departureTimes);
+    this.departureTimes = departureTimes;
     return this;
   }
 
@@ -180,12 +188,18 @@ public class ScheduledTripTimesBuilder {
 
   public ScheduledTripTimes build() {
     normalizeTimes();
+    this.arrivalTimes = deduplicator.deduplicateIntArray(arrivalTimes);
+    this.departureTimes = deduplicator.deduplicateIntArray(departureTimes);
     return new ScheduledTripTimes(this);
   }
 
   /**
    * Times are always shifted to zero based on the first departure time. This is essential for
-   * frequencies and deduplication.
+   * frequencies and deduplication: all trips in a pattern running with the same hop and dwell
+   * times share the same arrival and departure arrays, and only differ in the timeShift.
+   * <p>
+   * The shifted times are copied, the arrays passed into the builder may be shared with other
+   * trip times or with the deduplicator and must not be modified.
    */
   private void normalizeTimes() {
     if (departureTimes == null) {
@@ -199,20 +213,9 @@ public class ScheduledTripTimesBuilder {
     if (shift == 0) {
       return;
     }
-    this.departureTimes = timeShift(departureTimes, shift);
-    if (arrivalTimes != departureTimes) {
-      this.arrivalTimes = timeShift(arrivalTimes, shift);
-    }
+    boolean sameArray = arrivalTimes == departureTimes;
+    this.departureTimes = IntUtils.shiftArray(-shift, departureTimes);
+    this.arrivalTimes = sameArray ? departureTimes : IntUtils.shiftArray(-shift, arrivalTimes);
     this.timeShift += shift;
   }
-
-  int[] timeShift(int[] a, int shift) {
-    if (shift == 0) {
-      return a;
-    }
-    for (int i = 0; i < a.length; i++) {
-      a[i] -= shift;
-    }
-    return a;
-  }
 }
@@ -632,9 +632,19 @@ public class DefaultTransitService implements TransitEditorService {
   @Override
   public TransitLayer getRealtimeTransitLayer() {
     OTPRequestTimeoutException.checkForTimeout();
+    TimetableSnapshot currentSnapshot = lazyGetTimeTableSnapShot();
+    if (currentSnapshot != null && currentSnapshot.getRealtimeTransitLayer() != null) {
+      return currentSnapshot.getRealtimeTransitLayer();
+    }
     return this.timetableRepository.getRealtimeTransitLayer();
   }
 
+  @Override
+  public long getRealtimeDataVersion() {
+    TimetableSnapshot currentSnapshot = lazyGetTimeTableSnapShot();
+    return currentSnapshot == null ? 0 : currentSnapshot.getVersion();
+  }
+
   @Override
   public void setTransitLayer(TransitLayer transitLayer) {
     this.timetableRepository.setTransitLayer(transitLayer);
@@ -260,8 +260,20 @@ public interface TransitService {
 
   TransitLayer getTransitLayer();
 
+  /**
+   * The real-time transit layer. If real-time updates are enabled this is the layer committed
+   * together with the timetable snapshot used by this service, so that routing and the timetable
+   * lookups of one request see the same real-time data.
+   */
   TransitLayer getRealtimeTransitLayer();
 
+  /**
+   * The version of the real-time data seen by this service, or 0 if there is no real-time data.
+   * The version increases each time the real-time updates are committed, and is the same for the
+   * lifetime of the service - so all parts of one request see the same real-time data.
+   */
+  long getRealtimeDataVersion();
+
   CalendarService getCalendarService();
 
   ZoneId getTimeZone();
@@ -6,10 +6,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.opentripplanner.updater.spi.GraphUpdater;
@@ -61,6 +63,11 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    */
   private final List<GraphUpdater> updaterList = new ArrayList<>();
 
+  /**
+   * Tasks run on the graph writer thread when the manager is stopped, see {@link #addStopTask}.
+   */
+  private final List<Runnable> stopTasks = new ArrayList<>();
+
   /**
    * The Graph that will be updated.
    */
@@ -122,6 +129,14 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     reportReadinessForUpdaters();
   }
 
+  /**
+   * Run the task on the graph writer thread when the manager is stopped, after the updaters are
+   * stopped and torn down, and before the graph writer thread is stopped.
+   */
+  public void addStopTask(Runnable task) {
+    stopTasks.add(task);
+  }
+
   /**
    * Initiate the graceful shutdown of thread pools.
    * Running tasks will be cancelled.
@@ -166,6 +181,18 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     }
     updaterList.clear();
 
+    for (Runnable task : stopTasks) {
+      try {
+        scheduler.submit(task).get(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOG.warn("Interrupted while running the stop tasks.");
+        break;
+      } catch (ExecutionException | TimeoutException e) {
+        LOG.warn("Failed to run stop task {}", task, e);
+      }
+    }
+
     // Shutdown scheduler
     scheduler.shutdownNow();
     try {
@@ -22,6 +22,9 @@ import org.opentripplanner.transit.service.TransitService;
  * <p>
  * The class should only be used if we know that the feed producer is unable to produce trip_ids in
  * the GTFS-RT feed.
+ * <p>
+ * The matcher keeps no state of its own, it only reads the transit service. It is safe to use from
+ * several threads, like the parallel match phase of the GTFS-RT trip updates.
  */
 public class GtfsRealtimeFuzzyTripMatcher {
 
@@ -78,7 +81,7 @@ public class GtfsRealtimeFuzzyTripMatcher {
     return trip.toBuilder().setTripId(matchedTrip.getId().getId()).build();
   }
 
-  public synchronized Trip getTrip(
+  public Trip getTrip(
     Route route,
     Direction direction,
     int startTime,
@@ -1,6 +1,7 @@
 package org.opentripplanner.updater;
 
 import java.time.Duration;
+import javax.annotation.Nullable;
 
 /**
  * {@link
@@ -8,20 +9,80 @@ import java.time.Duration;
  */
 public record TimetableSnapshotSourceParameters(
   Duration maxSnapshotFrequency,
-  boolean purgeExpiredData
+  boolean purgeExpiredData,
+  boolean parallelTripUpdateMatching,
+  @Nullable String persistenceDirectory,
+  Duration persistenceInterval,
+  Duration persistenceMaxAge
 ) {
   public static final TimetableSnapshotSourceParameters DEFAULT = new TimetableSnapshotSourceParameters(
     Duration.ofSeconds(1),
-    true
+    true,
+    false,
+    null,
+    Duration.ofMinutes(1),
+    Duration.ofHours(1)
   );
 
+  public TimetableSnapshotSourceParameters(Duration maxSnapshotFrequency, boolean purgeExpiredData) {
+    this(
+      maxSnapshotFrequency,
+      purgeExpiredData,
+      DEFAULT.parallelTripUpdateMatching,
+      DEFAULT.persistenceDirectory,
+      DEFAULT.persistenceInterval,
+      DEFAULT.persistenceMaxAge
+    );
+  }
+
   /* Factory functions, used instead of a builder - useful in tests. */
 
   public TimetableSnapshotSourceParameters withMaxSnapshotFrequency(Duration maxSnapshotFrequency) {
-    return new TimetableSnapshotSourceParameters(maxSnapshotFrequency, this.purgeExpiredData);
+    return new TimetableSnapshotSourceParameters(
+      maxSnapshotFrequency,
+      this.purgeExpiredData,
+      this.parallelTripUpdateMatching,
+      this.persistenceDirectory,
+      this.persistenceInterval,
+      this.persistenceMaxAge
+    );
   }
 
   public TimetableSnapshotSourceParameters withPurgeExpiredData(boolean purgeExpiredData) {
-    return new TimetableSnapshotSourceParameters(this.maxSnapshotFrequency, purgeExpiredData);
+    return new TimetableSnapshotSourceParameters(
+      this.maxSnapshotFrequency,
+      purgeExpiredData,
+      this.parallelTripUpdateMatching,
+      this.persistenceDirectory,
+      this.persistenceInterval,
+      this.persistenceMaxAge
+    );
+  }
+
+  public TimetableSnapshotSourceParameters withParallelTripUpdateMatching(
+    boolean parallelTripUpdateMatching
+  ) {
+    return new TimetableSnapshotSourceParameters(
+      this.maxSnapshotFrequency,
+      this.purgeExpiredData,
+      parallelTripUpdateMatching,
+      this.persistenceDirectory,
+      this.persistenceInterval,
+      this.persistenceMaxAge
+    );
+  }
+
+  public TimetableSnapshotSourceParameters withPersistence(
+    String persistenceDirectory,
+    Duration persistenceInterval
+  ) {
+    return new TimetableSnapshotSourceParameters(
+      this.maxSnapshotFrequency,
+      this.purgeExpiredData,
+      this.parallelTripUpdateMatching,
+      persistenceDirectory,
+      persistenceInterval,
+      this.persistenceMaxAge
+    );
   }
 }
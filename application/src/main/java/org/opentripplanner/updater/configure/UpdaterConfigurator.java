@@ -254,14 +254,19 @@ public class UpdaterConfigurator {
    */
   private void configureTimetableSnapshotFlush(GraphUpdaterManager updaterManager) {
     if (siriTimetableSnapshotSource != null || gtfsTimetableSnapshotSource != null) {
+      var flush = new TimetableSnapshotFlush(
+        siriTimetableSnapshotSource,
+        gtfsTimetableSnapshotSource
+      );
       updaterManager
         .getScheduler()
         .scheduleWithFixedDelay(
-          new TimetableSnapshotFlush(siriTimetableSnapshotSource, gtfsTimetableSnapshotSource),
+          flush,
           0,
           updatersParameters.timetableSnapshotParameters().maxSnapshotFrequency().toSeconds(),
           TimeUnit.SECONDS
         );
+      updaterManager.addStopTask(flush::flushAndPersist);
     }
   }
 }
@@ -75,12 +75,14 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
       new TimetableSnapshotManager(
         timetableRepository.getTransitLayerUpdater(),
         parameters,
-        () -> LocalDate.now(timetableRepository.getTimeZone())
+        () -> LocalDate.now(timetableRepository.getTimeZone()),
+        "siri"
       );
     this.transitEditorService =
       new DefaultTransitService(timetableRepository, getTimetableSnapshotBuffer());
     this.tripPatternCache =
       new SiriTripPatternCache(tripPatternIdGenerator, transitEditorService::getPatternForTrip);
+    snapshotManager.restorePersistedSnapshot(transitEditorService::getTripPatternForId);
 
     timetableRepository.initTimetableSnapshotProvider(this);
   }
@@ -356,4 +358,12 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
   public void flushBuffer() {
     snapshotManager.purgeAndCommit();
   }
+
+  /**
+   * Flush pending changes and save the real-time data, if it is persisted. This is called when
+   * OTP stops.
+   */
+  public void flushAndPersistBuffer() {
+    snapshotManager.commitAndPersist();
+  }
 }
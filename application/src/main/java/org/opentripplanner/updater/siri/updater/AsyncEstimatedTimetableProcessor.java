@@ -1,15 +1,24 @@
 package org.opentripplanner.updater.siri.updater;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.opentripplanner.updater.trip.UpdateIncrementality;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
 import uk.org.siri.siri20.ServiceDelivery;
 
 /**
  * Apply asynchronously estimated timetable updates in the graph-writer thread and forward the
  * result to an update result consumer.
+ * <p>
+ * If batching is enabled, the estimated vehicle journeys of consecutive service deliveries are
+ * grouped by an {@link EstimatedTimetableBatcher} and applied together, instead of one graph
+ * writer task for each delivery.
  */
 public class AsyncEstimatedTimetableProcessor {
 
@@ -17,30 +26,105 @@ public class AsyncEstimatedTimetableProcessor {
   private final WriteToGraphCallback saveResultOnGraph;
   private final Consumer<UpdateResult> updateResultConsumer;
 
+  @Nullable
+  private final EstimatedTimetableBatcher batcher;
+
+  /**
+   * @param batching the batching parameters, or {@code null} to apply each delivery on its own.
+   */
   public AsyncEstimatedTimetableProcessor(
     EstimatedTimetableHandler estimatedTimetableHandler,
     WriteToGraphCallback saveResultOnGraph,
-    Consumer<UpdateResult> updateResultConsumer
+    Consumer<UpdateResult> updateResultConsumer,
+    @Nullable BatchingParameters batching
   ) {
     this.estimatedTimetableHandler = estimatedTimetableHandler;
     this.saveResultOnGraph = saveResultOnGraph;
     this.updateResultConsumer = updateResultConsumer;
+    this.batcher =
+      batching == null
+        ? null
+        : new EstimatedTimetableBatcher(
+          batching.maxBatchSize(),
+          batching.maxBatchLatency(),
+          batching.configRef(),
+          this::applyBatch
+        );
   }
 
   /**
    * Apply the estimated timetables to the transit model.
-   * This method is non-blocking and applies the changes asynchronously.
+   * This method is non-blocking and applies the changes asynchronously, unless the batching queue
+   * is full.
    * @return a future indicating when the changes are applied.
    */
   public Future<?> processSiriData(ServiceDelivery serviceDelivery) {
-    return saveResultOnGraph.execute(context ->
-      updateResultConsumer.accept(
-        estimatedTimetableHandler.applyUpdate(
-          serviceDelivery.getEstimatedTimetableDeliveries(),
-          UpdateIncrementality.DIFFERENTIAL,
-          context
+    if (batcher == null) {
+      return saveResultOnGraph.execute(context ->
+        updateResultConsumer.accept(
+          estimatedTimetableHandler.applyUpdate(
+            serviceDelivery.getEstimatedTimetableDeliveries(),
+            UpdateIncrementality.DIFFERENTIAL,
+            context
+          )
         )
-      )
-    );
+      );
+    }
+
+    var journeys = serviceDelivery
+      .getEstimatedTimetableDeliveries()
+      .stream()
+      .flatMap(delivery -> delivery.getEstimatedJourneyVersionFrames().stream())
+      .flatMap(frame -> frame.getEstimatedVehicleJourneies().stream())
+      .toList();
+    try {
+      return batcher.add(journeys);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return CompletableFuture.failedFuture(e);
+    }
   }
+
+  /**
+   * Stop batching the deliveries.
+   */
+  public void shutdown() {
+    if (batcher != null) {
+      batcher.shutdown();
+    }
+  }
+
+  private void applyBatch(List<EstimatedVehicleJourney> batch, CompletableFuture<Void> done) {
+    try {
+      saveResultOnGraph.execute(context -> {
+        try {
+          updateResultConsumer.accept(
+            estimatedTimetableHandler.applyUpdate(
+              EstimatedTimetableStreamReader.toDeliveries(batch),
+              UpdateIncrementality.DIFFERENTIAL,
+              context
+            )
+          );
+          done.complete(null);
+        } catch (RuntimeException e) {
+          done.completeExceptionally(e);
+          throw e;
+        }
+      });
+    } catch (RuntimeException e) {
+      done.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * @param maxBatchSize    the number of estimated vehicle journeys that triggers applying a batch.
+   * @param maxBatchLatency the longest time a journey waits before it is applied, unless the
+   *                        previous batch is still being applied.
+   * @param configRef       used to tag the metrics.
+   */
+  public record BatchingParameters(
+    int maxBatchSize,
+    Duration maxBatchLatency,
+    String configRef
+  ) {}
 }
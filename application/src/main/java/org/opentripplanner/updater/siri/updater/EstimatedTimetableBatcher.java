@@ -0,0 +1,234 @@
+package org.opentripplanner.updater.siri.updater;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+
+/**
+ * Group the estimated vehicle journeys of consecutive SIRI-ET messages into batches, so that a
+ * burst of small messages is applied in one graph writer task instead of one task per message.
+ * <p>
+ * A batch is applied when it contains {@code maxBatchSize} journeys, or when the oldest journey
+ * has waited for {@code maxBatchLatency}. If the same dated vehicle journey is updated more than
+ * once in a batch, only the newest update is kept.
+ * <p>
+ * Only one batch is applied at a time. While it is applied, new journeys are collected in the
+ * next batch, and the threads adding journeys are blocked when it is full. This bounds the number
+ * of journeys waiting to be applied.
+ * <p>
+ * This class is thread-safe.
+ */
+public class EstimatedTimetableBatcher {
+
+  private static final String METRICS_PREFIX = "siri_et_batch";
+
+  private final int maxBatchSize;
+  private final Duration maxBatchLatency;
+
+  /**
+   * Apply a batch of journeys and complete the future when it is applied. This is called with the
+   * lock held, so it should not block.
+   */
+  private final BiConsumer<List<EstimatedVehicleJourney>, CompletableFuture<Void>> applyBatch;
+
+  private final ScheduledExecutorService scheduler;
+
+  @Nullable
+  private final Timer latencyTimer;
+
+  private final Object lock = new Object();
+
+  /** The journeys waiting to be applied, by dated vehicle journey, in the order they arrived. */
+  private LinkedHashMap<Object, EstimatedVehicleJourney> pending = new LinkedHashMap<>();
+
+  /** Completed when the pending journeys are applied. */
+  private CompletableFuture<Void> pendingApplied = new CompletableFuture<>();
+
+  /** The time the oldest pending journey was added. */
+  private long pendingSinceNanos;
+
+  private boolean flushScheduled = false;
+  private boolean batchInProgress = false;
+
+  public EstimatedTimetableBatcher(
+    int maxBatchSize,
+    Duration maxBatchLatency,
+    String configRef,
+    BiConsumer<List<EstimatedVehicleJourney>, CompletableFuture<Void>> applyBatch
+  ) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be at least 1: " + maxBatchSize);
+    }
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchLatency = maxBatchLatency;
+    this.applyBatch = applyBatch;
+    this.scheduler =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        var thread = new Thread(r, "siri-et-batcher-" + configRef);
+        thread.setDaemon(true);
+        return thread;
+      });
+
+    if (OTPFeature.ActuatorAPI.isOn()) {
+      var tags = Tags.of("configRef", configRef);
+      Gauge
+        .builder(METRICS_PREFIX + ".queue_size", this, EstimatedTimetableBatcher::queueSize)
+        .description("Estimated vehicle journeys waiting to be applied")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+      this.latencyTimer =
+        Timer
+          .builder(METRICS_PREFIX + ".latency")
+          .description("Time from an estimated vehicle journey is received until it is applied")
+          .tags(tags)
+          .register(Metrics.globalRegistry);
+    } else {
+      this.latencyTimer = null;
+    }
+  }
+
+  /**
+   * Add the journeys of a message to the next batch. This blocks while the next batch is full and
+   * the previous one is still being applied.
+   *
+   * @return a future completed when the journeys are applied.
+   */
+  public Future<?> add(List<EstimatedVehicleJourney> journeys) throws InterruptedException {
+    if (journeys.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    synchronized (lock) {
+      while (batchInProgress && pending.size() >= maxBatchSize) {
+        lock.wait();
+      }
+      if (pending.isEmpty()) {
+        pendingSinceNanos = System.nanoTime();
+      }
+      for (var journey : journeys) {
+        var key = datedVehicleJourneyKey(journey);
+        // Remove before put, so the journey is ordered by its newest update
+        pending.remove(key);
+        pending.put(key, journey);
+      }
+      var applied = pendingApplied;
+      if (pending.size() >= maxBatchSize) {
+        flush();
+      } else if (!flushScheduled) {
+        flushScheduled = true;
+        scheduler.schedule(
+          this::flushAfterLatency,
+          maxBatchLatency.toNanos(),
+          TimeUnit.NANOSECONDS
+        );
+      }
+      return applied;
+    }
+  }
+
+  /**
+   * The number of journeys waiting to be applied.
+   */
+  public int queueSize() {
+    synchronized (lock) {
+      return pending.size();
+    }
+  }
+
+  /**
+   * Stop the timer thread. The pending journeys are not applied.
+   */
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * Identify the dated vehicle journey that a journey updates. A journey that can not be
+   * identified is never replaced by another one.
+   */
+  static Object datedVehicleJourneyKey(EstimatedVehicleJourney journey) {
+    var framed = journey.getFramedVehicleJourneyRef();
+    if (
+      framed != null &&
+      framed.getDatedVehicleJourneyRef() != null &&
+      framed.getDataFrameRef() != null
+    ) {
+      return List.of(
+        "framed",
+        framed.getDataFrameRef().getValue(),
+        framed.getDatedVehicleJourneyRef()
+      );
+    }
+    if (journey.getDatedVehicleJourneyRef() != null) {
+      return List.of("dated", journey.getDatedVehicleJourneyRef().getValue());
+    }
+    if (journey.getEstimatedVehicleJourneyCode() != null) {
+      return List.of("code", journey.getEstimatedVehicleJourneyCode());
+    }
+    return journey;
+  }
+
+  /* private methods */
+
+  private void flushAfterLatency() {
+    synchronized (lock) {
+      flushScheduled = false;
+      flush();
+    }
+  }
+
+  /**
+   * Send the pending journeys to be applied, unless a batch is already in progress. In that case
+   * they are sent when it is done. Must be called with the lock held.
+   */
+  private void flush() {
+    if (batchInProgress || pending.isEmpty()) {
+      return;
+    }
+    var batch = new ArrayList<>(pending.values());
+    var applied = pendingApplied;
+    long since = pendingSinceNanos;
+    pending = new LinkedHashMap<>();
+    pendingApplied = new CompletableFuture<>();
+    batchInProgress = true;
+    lock.notifyAll();
+
+    var done = new CompletableFuture<Void>();
+    done.whenComplete((ignore, error) -> {
+      if (latencyTimer != null) {
+        latencyTimer.record(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+      }
+      if (error == null) {
+        applied.complete(null);
+      } else {
+        applied.completeExceptionally(error);
+      }
+      batchDone();
+    });
+    applyBatch.accept(batch, done);
+  }
+
+  private void batchDone() {
+    synchronized (lock) {
+      batchInProgress = false;
+      lock.notifyAll();
+      // The journeys collected while the batch was applied have waited long enough
+      if (!pending.isEmpty()) {
+        flush();
+      }
+    }
+  }
+}
@@ -1,7 +1,10 @@
 package org.opentripplanner.updater.siri.updater;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import org.opentripplanner.updater.trip.UpdateIncrementality;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
 import uk.org.siri.siri20.Siri;
 
 /**
@@ -18,6 +21,18 @@ public interface EstimatedTimetableSource {
    */
   Optional<Siri> getUpdates();
 
+  /**
+   * Fetch the updates and read them as a stream, passing the journeys on to the consumer in
+   * batches. The first batch has the incrementality of this source, the following batches are
+   * {@link UpdateIncrementality#DIFFERENTIAL} since they add to the first one. Blocking call.
+   * <p>
+   * Errors while fetching or reading the feed are logged, they are not thrown.
+   */
+  StreamResult streamUpdates(
+    EstimatedTimetableStreamReader reader,
+    BiConsumer<UpdateIncrementality, List<EstimatedVehicleJourney>> batchConsumer
+  );
+
   /**
    * @return The incrementality of the last collection of updates.
    * {@link UpdateIncrementality}
@@ -25,4 +40,15 @@ public interface EstimatedTimetableSource {
   UpdateIncrementality incrementalityOfLastUpdates();
 
   String getFeedId();
+
+  /**
+   * The outcome of {@link #streamUpdates}.
+   *
+   * @param success  {@code false} if the feed could not be fetched or read, or if newer data has
+   *                 already been processed. Batches read before a failure are still passed on.
+   * @param moreData {@code true} if the service delivery says that there is more data to fetch
+   */
+  record StreamResult(boolean success, boolean moreData) {
+    static final StreamResult FAILED = new StreamResult(false, false);
+  }
 }
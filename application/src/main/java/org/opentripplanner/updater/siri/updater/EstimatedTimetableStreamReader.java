@@ -0,0 +1,197 @@
+package org.opentripplanner.updater.siri.updater;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import java.io.InputStream;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import uk.org.siri.siri20.EstimatedTimetableDeliveryStructure;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+import uk.org.siri.siri20.EstimatedVersionFrameStructure;
+import uk.org.siri.siri20.Siri;
+
+/**
+ * Read a SIRI-ET service delivery from a stream, one {@code EstimatedVehicleJourney} at a time,
+ * instead of unmarshalling the whole document. The journeys are passed on in batches, so the
+ * memory used is proportional to the batch size and not to the size of the delivery.
+ * <p>
+ * Only the journeys and the header fields {@code ResponseTimestamp} and {@code MoreData} of the
+ * service delivery are read, everything else in the document is skipped.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE, create one instance per updater.
+ */
+public class EstimatedTimetableStreamReader {
+
+  private static final String SERVICE_DELIVERY = "ServiceDelivery";
+  private static final String RESPONSE_TIMESTAMP = "ResponseTimestamp";
+  private static final String MORE_DATA = "MoreData";
+  private static final String ESTIMATED_TIMETABLE_DELIVERY = "EstimatedTimetableDelivery";
+  private static final String ESTIMATED_VEHICLE_JOURNEY = "EstimatedVehicleJourney";
+
+  private static final JAXBContext JAXB_CONTEXT = createJaxbContext();
+
+  private final XMLInputFactory xmlInputFactory;
+  private final Unmarshaller unmarshaller;
+  private final DatatypeFactory datatypeFactory;
+  private final int batchSize;
+
+  public EstimatedTimetableStreamReader(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be at least 1: " + batchSize);
+    }
+    this.batchSize = batchSize;
+    this.xmlInputFactory = XMLInputFactory.newFactory();
+    // Do not resolve external entities, the same as the JAXB unmarshalling of the full document
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    try {
+      this.unmarshaller = JAXB_CONTEXT.createUnmarshaller();
+      this.datatypeFactory = DatatypeFactory.newInstance();
+    } catch (JAXBException | DatatypeConfigurationException e) {
+      // This is a programming error - not expected!
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Wrap a batch of journeys in a delivery, so it can be applied like an unmarshalled delivery.
+   */
+  public static List<EstimatedTimetableDeliveryStructure> toDeliveries(
+    List<EstimatedVehicleJourney> journeys
+  ) {
+    var frame = new EstimatedVersionFrameStructure();
+    frame.getEstimatedVehicleJourneies().addAll(journeys);
+    var delivery = new EstimatedTimetableDeliveryStructure();
+    delivery.getEstimatedJourneyVersionFrames().add(frame);
+    return List.of(delivery);
+  }
+
+  /**
+   * Read the service delivery in the stream.
+   *
+   * @param acceptDelivery called with the header of the service delivery before the first batch.
+   *                       If it returns false, the rest of the stream is not read.
+   * @param batchConsumer  called with each batch of journeys, in the order of the document. The
+   *                       consumer may keep the list, a new one is created for each batch.
+   * @return the header of the service delivery, or empty if the document does not contain one.
+   */
+  public Optional<ServiceDeliveryHeader> read(
+    InputStream is,
+    Predicate<ServiceDeliveryHeader> acceptDelivery,
+    Consumer<List<EstimatedVehicleJourney>> batchConsumer
+  ) throws XMLStreamException, JAXBException {
+    XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(is);
+    try {
+      return read(reader, acceptDelivery, batchConsumer);
+    } finally {
+      reader.close();
+    }
+  }
+
+  private Optional<ServiceDeliveryHeader> read(
+    XMLStreamReader reader,
+    Predicate<ServiceDeliveryHeader> acceptDelivery,
+    Consumer<List<EstimatedVehicleJourney>> batchConsumer
+  ) throws XMLStreamException, JAXBException {
+    ZonedDateTime responseTimestamp = null;
+    boolean moreData = false;
+    ServiceDeliveryHeader header = null;
+    // The depth of the ServiceDelivery element, used to read only its own header fields
+    int depth = 0;
+    int serviceDeliveryDepth = -1;
+    List<EstimatedVehicleJourney> batch = new ArrayList<>(batchSize);
+
+    while (reader.hasNext()) {
+      int event = reader.getEventType();
+      if (event == XMLStreamConstants.END_ELEMENT) {
+        --depth;
+        if (depth < serviceDeliveryDepth) {
+          break;
+        }
+      } else if (event == XMLStreamConstants.START_ELEMENT) {
+        ++depth;
+        String name = reader.getLocalName();
+
+        if (serviceDeliveryDepth < 0) {
+          if (SERVICE_DELIVERY.equals(name)) {
+            serviceDeliveryDepth = depth;
+          }
+        } else if (header == null) {
+          if (depth == serviceDeliveryDepth + 1 && RESPONSE_TIMESTAMP.equals(name)) {
+            responseTimestamp = parseDateTime(reader.getElementText());
+            --depth;
+          } else if (depth == serviceDeliveryDepth + 1 && MORE_DATA.equals(name)) {
+            moreData = Boolean.parseBoolean(reader.getElementText().trim());
+            --depth;
+          } else if (ESTIMATED_TIMETABLE_DELIVERY.equals(name)) {
+            header = new ServiceDeliveryHeader(responseTimestamp, moreData);
+            if (!acceptDelivery.test(header)) {
+              return Optional.of(header);
+            }
+          }
+        }
+
+        if (header != null && ESTIMATED_VEHICLE_JOURNEY.equals(name)) {
+          // The unmarshaller reads the whole element, and leaves the reader at the next event
+          batch.add(unmarshaller.unmarshal(reader, EstimatedVehicleJourney.class).getValue());
+          --depth;
+          if (batch.size() == batchSize) {
+            batchConsumer.accept(batch);
+            batch = new ArrayList<>(batchSize);
+          }
+          continue;
+        }
+      }
+      reader.next();
+    }
+
+    if (serviceDeliveryDepth < 0) {
+      return Optional.empty();
+    }
+    if (header == null) {
+      // A delivery without estimated timetables
+      header = new ServiceDeliveryHeader(responseTimestamp, moreData);
+      if (!acceptDelivery.test(header)) {
+        return Optional.of(header);
+      }
+    }
+    if (!batch.isEmpty()) {
+      batchConsumer.accept(batch);
+    }
+    return Optional.of(header);
+  }
+
+  @Nullable
+  private ZonedDateTime parseDateTime(String text) {
+    text = text.trim();
+    if (text.isEmpty()) {
+      return null;
+    }
+    return datatypeFactory.newXMLGregorianCalendar(text).toGregorianCalendar().toZonedDateTime();
+  }
+
+  private static JAXBContext createJaxbContext() {
+    try {
+      return JAXBContext.newInstance(Siri.class);
+    } catch (JAXBException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * The fields of the service delivery that are read before the estimated timetables.
+   */
+  public record ServiceDeliveryHeader(@Nullable ZonedDateTime responseTimestamp, boolean moreData) {}
+}
@@ -5,14 +5,17 @@ import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.io.OtpHttpClientException;
 import org.opentripplanner.updater.spi.HttpHeaders;
 import org.opentripplanner.updater.trip.UpdateIncrementality;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
 import uk.org.siri.siri20.Siri;
 
 public class SiriETHttpTripUpdateSource implements EstimatedTimetableSource {
@@ -76,6 +79,56 @@ public class SiriETHttpTripUpdateSource implements EstimatedTimetableSource {
     return Optional.empty();
   }
 
+  @Override
+  public StreamResult streamUpdates(
+    EstimatedTimetableStreamReader reader,
+    BiConsumer<UpdateIncrementality, List<EstimatedVehicleJourney>> batchConsumer
+  ) {
+    long t1 = System.currentTimeMillis();
+    try {
+      var result = siriLoader.fetchETFeed(
+        requestorRef,
+        is ->
+          reader
+            .read(is, this::acceptServiceDelivery, batch -> {
+              var incrementality = updateIncrementality;
+              //All subsequent batches and requests will return changes since the first batch
+              updateIncrementality = DIFFERENTIAL;
+              batchConsumer.accept(incrementality, batch);
+            })
+            .filter(header -> !isBeforeLastTimestamp(header))
+            .map(header -> new StreamResult(true, header.moreData()))
+            .orElse(StreamResult.FAILED)
+      );
+      return result.orElse(StreamResult.FAILED);
+    } catch (OtpHttpClientException e) {
+      LOG.info("Failed after {} ms", (System.currentTimeMillis() - t1));
+      LOG.warn("Could not get SIRI-ET data from {}", url, e);
+    } catch (Exception e) {
+      LOG.info("Failed after {} ms", (System.currentTimeMillis() - t1));
+      LOG.warn("Failed to parse SIRI-ET feed from {}", url, e);
+    }
+    return StreamResult.FAILED;
+  }
+
+  private boolean acceptServiceDelivery(EstimatedTimetableStreamReader.ServiceDeliveryHeader header) {
+    if (isBeforeLastTimestamp(header)) {
+      LOG.info("Newer data has already been processed");
+      return false;
+    }
+    if (header.responseTimestamp() != null) {
+      lastTimestamp = header.responseTimestamp();
+    }
+    return true;
+  }
+
+  private boolean isBeforeLastTimestamp(
+    EstimatedTimetableStreamReader.ServiceDeliveryHeader header
+  ) {
+    var responseTimestamp = header.responseTimestamp();
+    return responseTimestamp != null && responseTimestamp.isBefore(lastTimestamp);
+  }
+
   @Override
   public UpdateIncrementality incrementalityOfLastUpdates() {
     return updateIncrementality;
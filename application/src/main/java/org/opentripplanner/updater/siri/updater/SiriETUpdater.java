@@ -1,16 +1,21 @@
 package org.opentripplanner.updater.siri.updater;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.opentripplanner.updater.siri.SiriTimetableSnapshotSource;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.ResultLogger;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
+import org.opentripplanner.updater.trip.UpdateIncrementality;
 import org.opentripplanner.updater.trip.metrics.TripUpdateMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.org.siri.siri20.EstimatedTimetableDeliveryStructure;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
 import uk.org.siri.siri20.ServiceDelivery;
 
 /**
@@ -24,6 +29,18 @@ public class SiriETUpdater extends PollingGraphUpdater {
    */
   private final EstimatedTimetableSource updateSource;
 
+  /**
+   * Set only if the updates should be read as a stream and applied in batches
+   */
+  @Nullable
+  private final EstimatedTimetableStreamReader streamReader;
+
+  /**
+   * The last batch sent to the graph writer when streaming, until it is applied
+   */
+  @Nullable
+  private Future<?> pendingBatch;
+
   /**
    * Feed id that is used for the trip ids in the TripUpdates
    */
@@ -49,6 +66,11 @@ public class SiriETUpdater extends PollingGraphUpdater {
 
     this.blockReadinessUntilInitialized = config.blockReadinessUntilInitialized();
 
+    this.streamReader =
+      config.streamingBatchSize() > 0
+        ? new EstimatedTimetableStreamReader(config.streamingBatchSize())
+        : null;
+
     LOG.info(
       "Creating stop time updater (SIRI ET) running every {} seconds : {}",
       pollingPeriod(),
@@ -72,6 +94,10 @@ public class SiriETUpdater extends PollingGraphUpdater {
    */
   @Override
   public void runPolling() {
+    if (streamReader != null) {
+      runStreamingPolling();
+      return;
+    }
     boolean moreData = false;
     do {
       var updates = updateSource.getUpdates();
@@ -97,6 +123,102 @@ public class SiriETUpdater extends PollingGraphUpdater {
     } while (moreData);
   }
 
+  /**
+   * Read the updates as a stream and apply them in batches. The last batch of a page is held back
+   * until the end of the page is read, so that it can mark the updater as primed after the last
+   * page. A batch is only read when the previous one is applied or being applied, so at most three
+   * batches are kept in memory: the one being applied, the one held back and the one being read.
+   */
+  private void runStreamingPolling() {
+    EstimatedTimetableSource.StreamResult result;
+    do {
+      var batches = new PageBatches();
+      result = updateSource.streamUpdates(streamReader, batches::add);
+      // Mark this updater as primed after the last batch of the last page is applied
+      batches.finish(result.success() && !result.moreData());
+    } while (result.success() && result.moreData());
+    awaitPendingBatch();
+  }
+
+  /**
+   * Send a batch to the graph writer, after the previous batch is applied.
+   */
+  private void applyBatch(
+    UpdateIncrementality incrementality,
+    List<EstimatedVehicleJourney> batch,
+    boolean markPrimed
+  ) {
+    awaitPendingBatch();
+    pendingBatch =
+      saveResultOnGraph.execute(context -> {
+        var result = estimatedTimetableHandler.applyUpdate(
+          EstimatedTimetableStreamReader.toDeliveries(batch),
+          incrementality,
+          context
+        );
+        ResultLogger.logUpdateResult(feedId, "siri-et", result);
+        recordMetrics.accept(result);
+        if (markPrimed) {
+          primed = true;
+        }
+      });
+  }
+
+  /**
+   * Wait for the last batch sent to the graph writer. Errors are logged and not thrown, so they
+   * are not taken for errors reading the feed.
+   */
+  private void awaitPendingBatch() {
+    if (pendingBatch == null) {
+      return;
+    }
+    try {
+      pendingBatch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOG.info("Interrupted while applying SIRI-ET updates from feed {}", feedId);
+    } catch (ExecutionException e) {
+      LOG.error("Failed to apply SIRI-ET updates from feed {}", feedId, e.getCause());
+    } finally {
+      pendingBatch = null;
+    }
+  }
+
+  /**
+   * The batches of one page of the feed. Each batch is applied when the next one is read, the
+   * last one when the end of the page is reached.
+   */
+  private class PageBatches {
+
+    @Nullable
+    private UpdateIncrementality heldIncrementality;
+
+    @Nullable
+    private List<EstimatedVehicleJourney> heldBatch;
+
+    void add(UpdateIncrementality incrementality, List<EstimatedVehicleJourney> batch) {
+      if (heldBatch != null) {
+        applyBatch(heldIncrementality, heldBatch, false);
+      }
+      heldIncrementality = incrementality;
+      heldBatch = batch;
+    }
+
+    /**
+     * @param lastPage {@code true} if this is the last page, and it was read successfully.
+     */
+    void finish(boolean lastPage) {
+      if (heldBatch != null) {
+        applyBatch(heldIncrementality, heldBatch, lastPage);
+        heldBatch = null;
+      } else if (lastPage) {
+        // The page has no journeys to apply
+        awaitPendingBatch();
+        pendingBatch = saveResultOnGraph.execute(context -> primed = true);
+      }
+    }
+  }
+
   public String toString() {
     String s = (updateSource == null) ? "NONE" : updateSource.toString();
     return "Polling SIRI ET updater with update source = " + s;
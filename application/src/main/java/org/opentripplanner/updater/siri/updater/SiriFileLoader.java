@@ -5,6 +5,7 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Optional;
+import org.opentripplanner.framework.io.OtpHttpClient.ResponseMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.org.siri.siri20.Siri;
@@ -61,8 +62,20 @@ public class SiriFileLoader implements SiriLoader {
     return fetchFeed();
   }
 
-  @SuppressWarnings("ResultOfMethodCallIgnored")
+  /**
+   * Read the next file with the given mapper.
+   */
+  @Override
+  public <T> Optional<T> fetchETFeed(String requestorRef, ResponseMapper<T> responseMapper) {
+    return fetchFeed(responseMapper);
+  }
+
   private Optional<Siri> fetchFeed() {
+    return fetchFeed(SiriHelper::unmarshal);
+  }
+
+  @SuppressWarnings("ResultOfMethodCallIgnored")
+  private <T> Optional<T> fetchFeed(ResponseMapper<T> responseMapper) {
     File[] files = directory.listFiles();
     if (files == null) {
       return Optional.empty();
@@ -76,12 +89,10 @@ public class SiriFileLoader implements SiriLoader {
       var inProgressFile = newFile(file, SUFFIX_IN_PROGRESS);
       try {
         file.renameTo(inProgressFile);
-        Siri siri = null;
-
         try (InputStream is = new FileInputStream(inProgressFile)) {
-          siri = SiriHelper.unmarshal(is);
+          T response = responseMapper.apply(is);
           inProgressFile.renameTo(newFile(file, SUFFIX_OK));
-          return Optional.of(siri);
+          return Optional.of(response);
         }
       } catch (Exception ex) {
         inProgressFile.renameTo(newFile(file, SUFFIX_FAILED));
@@ -4,6 +4,7 @@ import jakarta.xml.bind.JAXBException;
 import java.time.Duration;
 import java.util.Optional;
 import org.opentripplanner.framework.io.OtpHttpClient;
+import org.opentripplanner.framework.io.OtpHttpClient.ResponseMapper;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
 import org.opentripplanner.updater.spi.HttpHeaders;
 import org.slf4j.Logger;
@@ -48,7 +49,7 @@ public class SiriHttpLoader implements SiriLoader {
     requestTimer.init();
     String sxServiceRequest = SiriHelper.createSXServiceRequestAsXml(requestorRef);
     requestTimer.serviceRequestCreated();
-    return fetchFeed(sxServiceRequest, requestTimer, requestorRef);
+    return fetchFeed(sxServiceRequest, requestTimer, requestorRef, SiriHelper::unmarshal);
   }
 
   /**
@@ -60,13 +61,27 @@ public class SiriHttpLoader implements SiriLoader {
     requestTimer.init();
     String etServiceRequest = SiriHelper.createETServiceRequestAsXml(requestorRef, previewInterval);
     requestTimer.serviceRequestCreated();
-    return fetchFeed(etServiceRequest, requestTimer, requestorRef);
+    return fetchFeed(etServiceRequest, requestTimer, requestorRef, SiriHelper::unmarshal);
   }
 
-  private Optional<Siri> fetchFeed(
+  /**
+   * Send a SIRI-ET service request and map the response with the given mapper.
+   */
+  @Override
+  public <T> Optional<T> fetchETFeed(String requestorRef, ResponseMapper<T> responseMapper)
+    throws JAXBException {
+    RequestTimer requestTimer = new RequestTimer("ET");
+    requestTimer.init();
+    String etServiceRequest = SiriHelper.createETServiceRequestAsXml(requestorRef, previewInterval);
+    requestTimer.serviceRequestCreated();
+    return fetchFeed(etServiceRequest, requestTimer, requestorRef, responseMapper);
+  }
+
+  private <T> Optional<T> fetchFeed(
     String serviceRequest,
     RequestTimer requestTimer,
-    String requestorRef
+    String requestorRef,
+    ResponseMapper<T> responseMapper
   ) {
     try {
       return otpHttpClient.postXmlAndMap(
@@ -76,9 +91,9 @@ public class SiriHttpLoader implements SiriLoader {
         requestHeaders.asMap(),
         is -> {
           requestTimer.responseFetched();
-          Siri siri = SiriHelper.unmarshal(is);
+          T response = responseMapper.apply(is);
           requestTimer.responseUnmarshalled();
-          return Optional.of(siri);
+          return Optional.of(response);
         }
       );
     } finally {
@@ -2,6 +2,7 @@ package org.opentripplanner.updater.siri.updater;
 
 import jakarta.xml.bind.JAXBException;
 import java.util.Optional;
+import org.opentripplanner.framework.io.OtpHttpClient.ResponseMapper;
 import uk.org.siri.siri20.Siri;
 
 /**
@@ -17,4 +18,11 @@ public interface SiriLoader {
    * Request a new Siri ET update.
    */
   Optional<Siri> fetchETFeed(String requestorRef) throws JAXBException;
+
+  /**
+   * Request a new Siri ET update and map the raw response with the given mapper, instead of
+   * unmarshalling the whole document. This is used to read large deliveries as a stream.
+   */
+  <T> Optional<T> fetchETFeed(String requestorRef, ResponseMapper<T> responseMapper)
+    throws JAXBException;
 }
@@ -21,7 +21,9 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
   private final AsyncEstimatedTimetableSource asyncEstimatedTimetableSource;
   private final EstimatedTimetableHandler estimatedTimetableHandler;
   private final Consumer<UpdateResult> updateResultConsumer;
+  private final AsyncEstimatedTimetableProcessor.BatchingParameters batching;
   private WriteToGraphCallback saveResultOnGraph;
+  private AsyncEstimatedTimetableProcessor asyncEstimatedTimetableProcessor;
 
   public SiriETGooglePubsubUpdater(
     SiriETGooglePubsubUpdaterParameters config,
@@ -47,6 +49,7 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
       );
 
     updateResultConsumer = TripUpdateMetrics.streaming(config);
+    batching = config.batching();
   }
 
   @Override
@@ -56,14 +59,23 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
 
   @Override
   public void run() {
-    AsyncEstimatedTimetableProcessor asyncEstimatedTimetableProcessor = new AsyncEstimatedTimetableProcessor(
-      estimatedTimetableHandler,
-      saveResultOnGraph,
-      updateResultConsumer
-    );
+    asyncEstimatedTimetableProcessor =
+      new AsyncEstimatedTimetableProcessor(
+        estimatedTimetableHandler,
+        saveResultOnGraph,
+        updateResultConsumer,
+        batching
+      );
     asyncEstimatedTimetableSource.start(asyncEstimatedTimetableProcessor::processSiriData);
   }
 
+  @Override
+  public void teardown() {
+    if (asyncEstimatedTimetableProcessor != null) {
+      asyncEstimatedTimetableProcessor.shutdown();
+    }
+  }
+
   @Override
   public boolean isPrimed() {
     return asyncEstimatedTimetableSource.isPrimed();
@@ -4,6 +4,7 @@ import java.time.Duration;
 import java.util.Objects;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.updater.siri.updater.AsyncEstimatedTimetableProcessor;
 import org.opentripplanner.updater.trip.UrlUpdaterParameters;
 
 public record SiriETGooglePubsubUpdaterParameters(
@@ -15,11 +16,14 @@ public record SiriETGooglePubsubUpdaterParameters(
   @Nullable String dataInitializationUrl,
   Duration reconnectPeriod,
   Duration initialGetDataTimeout,
-  boolean fuzzyTripMatching
+  boolean fuzzyTripMatching,
+  int maxBatchSize,
+  Duration maxBatchLatency
 )
   implements UrlUpdaterParameters {
   public static Duration RECONNECT_PERIOD = Duration.ofSeconds(30);
   public static Duration INITIAL_GET_DATA_TIMEOUT = Duration.ofSeconds(30);
+  public static Duration MAX_BATCH_LATENCY = Duration.ofSeconds(1);
 
   public SiriETGooglePubsubUpdaterParameters {
     Objects.requireNonNull(subscriptionProjectName);
@@ -28,6 +32,7 @@ public record SiriETGooglePubsubUpdaterParameters(
     Objects.requireNonNull(reconnectPeriod);
     Objects.requireNonNull(initialGetDataTimeout);
     Objects.requireNonNull(reconnectPeriod);
+    Objects.requireNonNull(maxBatchLatency);
   }
 
   @Override
@@ -43,6 +48,8 @@ public record SiriETGooglePubsubUpdaterParameters(
       .addDuration("initialGetDataTimeout", initialGetDataTimeout, INITIAL_GET_DATA_TIMEOUT)
       .addBoolIfTrue("fuzzyTripMatching", fuzzyTripMatching)
       .addObj("dataInitializationUrl", dataInitializationUrl, null)
+      .addNum("maxBatchSize", maxBatchSize, 0)
+      .addDuration("maxBatchLatency", maxBatchLatency, MAX_BATCH_LATENCY)
       .toString();
   }
 
@@ -50,4 +57,18 @@ public record SiriETGooglePubsubUpdaterParameters(
   public String url() {
     return dataInitializationUrl;
   }
+
+  /**
+   * @return the batching parameters, or {@code null} if the updates should not be batched.
+   */
+  @Nullable
+  public AsyncEstimatedTimetableProcessor.BatchingParameters batching() {
+    return maxBatchSize > 0
+      ? new AsyncEstimatedTimetableProcessor.BatchingParameters(
+        maxBatchSize,
+        maxBatchLatency,
+        configRef
+      )
+      : null;
+  }
 }
@@ -40,4 +40,21 @@ public class TimetableSnapshotFlush implements Runnable {
       LOG.error("Error flushing timetable snapshot buffer", t);
     }
   }
+
+  /**
+   * Flush the buffer and save the real-time data, if it is persisted, so the last changes are not
+   * lost when OTP stops.
+   */
+  public void flushAndPersist() {
+    try {
+      if (siriTimetableSnapshotSource != null) {
+        siriTimetableSnapshotSource.flushAndPersistBuffer();
+      }
+      if (gtfsTimetableSnapshotSource != null) {
+        gtfsTimetableSnapshotSource.flushAndPersistBuffer();
+      }
+    } catch (Throwable t) {
+      LOG.error("Error saving timetable snapshot buffer", t);
+    }
+  }
 }
@@ -3,7 +3,9 @@ package org.opentripplanner.updater.spi;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import org.opentripplanner.transit.model.framework.Result;
 
 /**
@@ -15,8 +17,19 @@ public record UpdateResult(
   int successful,
   int failed,
   Multimap<UpdateError.UpdateErrorType, UpdateError> failures,
-  List<UpdateSuccess.WarningType> warnings
+  List<UpdateSuccess.WarningType> warnings,
+  Map<String, Duration> durationByPhase,
+  int skipped
 ) {
+  public UpdateResult(
+    int successful,
+    int failed,
+    Multimap<UpdateError.UpdateErrorType, UpdateError> failures,
+    List<UpdateSuccess.WarningType> warnings
+  ) {
+    this(successful, failed, failures, warnings, Map.of(), 0);
+  }
+
   /**
    * Create an empty result.
    */
@@ -34,4 +47,27 @@ public record UpdateResult(
     var errorIndex = Multimaps.index(errors, UpdateError::errorType);
     return new UpdateResult(successes.size(), errors.size(), errorIndex, warnings);
   }
+
+  /**
+   * Return a copy with the time spent in each phase of applying the updates, for example matching
+   * and applying them. The phases are recorded as metrics by the updaters.
+   */
+  public UpdateResult withDurationByPhase(Map<String, Duration> durationByPhase) {
+    return new UpdateResult(
+      successful,
+      failed,
+      failures,
+      warnings,
+      Map.copyOf(durationByPhase),
+      skipped
+    );
+  }
+
+  /**
+   * Return a copy with the number of updates that were skipped without being applied, because
+   * they were unchanged since the previous update.
+   */
+  public UpdateResult withSkipped(int skipped) {
+    return new UpdateResult(successful, failed, failures, warnings, durationByPhase, skipped);
+  }
 }
@@ -3,6 +3,7 @@ package org.opentripplanner.updater.trip;
 import com.google.transit.realtime.GtfsRealtime.TripUpdate;
 import java.util.List;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.UpdateResult;
@@ -42,6 +43,12 @@ public class PollingTripUpdater extends PollingGraphUpdater {
    */
   private final boolean fuzzyTripMatching;
 
+  /**
+   * Set only if the trip updates that are unchanged since the previous poll should be skipped
+   */
+  @Nullable
+  private final TripUpdateChangeDetector changeDetector;
+
   public PollingTripUpdater(
     PollingTripUpdaterParameters parameters,
     TimetableSnapshotSource snapshotSource
@@ -53,6 +60,8 @@ public class PollingTripUpdater extends PollingGraphUpdater {
     this.backwardsDelayPropagationType = parameters.backwardsDelayPropagationType();
     this.snapshotSource = snapshotSource;
     this.fuzzyTripMatching = parameters.fuzzyTripMatching();
+    this.changeDetector =
+      parameters.skipUnchangedTripUpdates() ? new TripUpdateChangeDetector() : null;
 
     this.recordMetrics = BatchTripUpdateMetrics.batch(parameters);
 
@@ -87,7 +96,8 @@ public class PollingTripUpdater extends PollingGraphUpdater {
         incrementality,
         updates,
         feedId,
-        recordMetrics
+        recordMetrics,
+        changeDetector
       );
       saveResultOnGraph.execute(runnable);
     }
@@ -100,6 +110,7 @@ public class PollingTripUpdater extends PollingGraphUpdater {
       .addObj("updateSource", updateSource)
       .addStr("feedId", feedId)
       .addBool("fuzzyTripMatching", fuzzyTripMatching)
+      .addBool("skipUnchangedTripUpdates", changeDetector != null)
       .toString();
   }
 }
@@ -9,6 +9,7 @@ public record PollingTripUpdaterParameters(
   Duration frequency,
   boolean fuzzyTripMatching,
   BackwardsDelayPropagationType backwardsDelayPropagationType,
+  boolean skipUnchangedTripUpdates,
 
   String feedId,
   String url,
@@ -1,9 +1,23 @@
 package org.opentripplanner.updater.trip;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.RealTimeTripUpdate;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TimetableSnapshot;
@@ -28,6 +42,7 @@ import org.slf4j.LoggerFactory;
 public final class TimetableSnapshotManager {
 
   private static final Logger LOG = LoggerFactory.getLogger(TimetableSnapshotManager.class);
+  private static final String METRICS_PREFIX = "timetable_snapshot";
   private final TransitLayerUpdater transitLayerUpdater;
 
   /**
@@ -55,21 +70,77 @@ public final class TimetableSnapshotManager {
 
   private LocalDate lastPurgeDate = null;
 
+  /** See {@link #bufferResets()}. */
+  private long bufferResets = 0;
+
+  /**
+   * Saves the committed snapshots at regular intervals, or {@code null} if the real-time data is
+   * not persisted.
+   */
+  @Nullable
+  private final TimetableSnapshotPersistence persistence;
+
+  /**
+   * Writes the snapshots to disk in the background, so the graph writer thread is not blocked by
+   * the write. If a write is still running when the next snapshot is due, only the newest waiting
+   * snapshot is kept.
+   */
+  @Nullable
+  private final ExecutorService persistenceExecutor;
+
+  private final Duration persistenceInterval;
+
+  private Instant lastPersistTime = Instant.now();
+
+  /** The version of the last snapshot saved or restored. */
+  private volatile long persistedVersion = -1;
+
   /**
    *
    * @param localDateNow This supplier allows you to inject a custom lambda to override what is
    *                     considered 'today'. This is useful for unit testing.
+   * @param source       The kind of real-time updates managed, used to tag the metrics.
    */
   public TimetableSnapshotManager(
     TransitLayerUpdater transitLayerUpdater,
     TimetableSnapshotSourceParameters parameters,
-    Supplier<LocalDate> localDateNow
+    Supplier<LocalDate> localDateNow,
+    String source
   ) {
     this.transitLayerUpdater = transitLayerUpdater;
     this.purgeExpiredData = parameters.purgeExpiredData();
     this.localDateNow = Objects.requireNonNull(localDateNow);
+    this.persistenceInterval = parameters.persistenceInterval();
     // Force commit so that snapshot initializes
     commitTimetableSnapshot(true);
+    // Set after the first commit, so the empty snapshot does not replace the saved data
+    if (parameters.persistenceDirectory() == null) {
+      this.persistence = null;
+      this.persistenceExecutor = null;
+    } else {
+      this.persistence =
+        TimetableSnapshotPersistence.of(
+          parameters.persistenceDirectory(),
+          source,
+          parameters.persistenceMaxAge()
+        );
+      this.persistenceExecutor =
+        new ThreadPoolExecutor(
+          1,
+          1,
+          0,
+          TimeUnit.SECONDS,
+          new ArrayBlockingQueue<>(1),
+          new ThreadFactoryBuilder()
+            .setNameFormat("realtime-snapshot-writer-" + source)
+            .setDaemon(true)
+            .build(),
+          new ThreadPoolExecutor.DiscardOldestPolicy()
+        );
+    }
+    if (OTPFeature.ActuatorAPI.isOn()) {
+      registerMetrics(source);
+    }
   }
 
   /**
@@ -77,6 +148,9 @@ public final class TimetableSnapshotManager {
    * timetable objects it references are guaranteed to never change, so the requesting thread is
    * provided a consistent view of all TripTimes. The routing thread need only release its reference
    * to the snapshot to release resources.
+   * <p>
+   * This does not lock, the snapshot is published through a volatile reference. The real-time
+   * transit layer committed together with the snapshot is available from it.
    */
   public TimetableSnapshot getTimetableSnapshot() {
     return snapshot.get();
@@ -104,11 +178,92 @@ public final class TimetableSnapshotManager {
     if (force || buffer.isDirty()) {
       LOG.debug("Committing {}", buffer);
       snapshot.publish(buffer.commit(transitLayerUpdater, force));
+      persistIfDue();
     } else {
       LOG.debug("Buffer was unchanged, keeping old snapshot.");
     }
   }
 
+  /**
+   * Apply the real-time data saved by a previous instance to the buffer and commit it. This should
+   * be called before the updaters are started.
+   *
+   * @param patternById Look up the trip pattern in the current graph.
+   */
+  public void restorePersistedSnapshot(Function<FeedScopedId, TripPattern> patternById) {
+    if (persistence == null) {
+      return;
+    }
+    var updates = persistence.read(patternById);
+    int applied = 0;
+    for (var update : updates) {
+      if (buffer.update(update).isSuccess()) {
+        ++applied;
+      }
+    }
+    if (applied > 0) {
+      ++bufferResets;
+      LOG.info("Restored {} real-time trip updates from {}", applied, persistence.path());
+      commitTimetableSnapshot(true);
+      // The restored data is already saved, it is not saved again unless it changes
+      persistedVersion = snapshot.get().getVersion();
+    }
+  }
+
+  /**
+   * Commit the pending changes and save the last snapshot if it has changed since it was last
+   * saved. This waits for the write to finish, and is called when OTP stops so the real-time data
+   * applied since the last save is not lost. It should be called from the graph writer thread
+   * after the updaters are stopped.
+   */
+  public void commitAndPersist() {
+    commitTimetableSnapshot(false);
+    if (persistence == null) {
+      return;
+    }
+    persistenceExecutor.shutdown();
+    try {
+      if (!persistenceExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOG.warn("Timeout waiting for the real-time data to be saved to {}", persistence.path());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    var published = snapshot.get();
+    if (published.getVersion() != persistedVersion) {
+      persist(published);
+    }
+  }
+
+  /**
+   * Save the last committed snapshot in the background if the persistence interval has passed
+   * since it was last saved.
+   */
+  private void persistIfDue() {
+    if (persistence == null) {
+      return;
+    }
+    var now = Instant.now();
+    if (Duration.between(lastPersistTime, now).compareTo(persistenceInterval) < 0) {
+      return;
+    }
+    lastPersistTime = now;
+    // The published snapshot is never changed, so it is safe to read it in another thread
+    var published = snapshot.get();
+    persistenceExecutor.execute(() -> persist(published));
+  }
+
+  private void persist(TimetableSnapshot published) {
+    try {
+      int count = persistence.write(published);
+      persistedVersion = published.getVersion();
+      LOG.debug("Saved {} real-time trip updates to {}", count, persistence.path());
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to save the real-time data to {}: {}", persistence.path(), e.getMessage());
+    }
+  }
+
   /**
    * Get the current trip pattern given a trip id and a service date, if it has been changed from
    * the scheduled pattern with an update, for which the stopPattern is different.
@@ -125,11 +280,13 @@ public final class TimetableSnapshotManager {
   /**
    * Make a snapshot after each message in anticipation of incoming requests.
    * Purge data if necessary (and force new snapshot if anything was purged).
-   * Make sure that the public (locking) getTimetableSnapshot function is not called.
    */
   public void purgeAndCommit() {
     if (purgeExpiredData) {
       final boolean modified = purgeExpiredData();
+      if (modified) {
+        ++bufferResets;
+      }
       commitTimetableSnapshot(modified);
     } else {
       commitTimetableSnapshot(false);
@@ -174,11 +331,66 @@ public final class TimetableSnapshotManager {
     return buffer.purgeExpiredData(previously);
   }
 
+  /**
+   * Expose the size of the real-time data in the last committed snapshot as gauges, to monitor
+   * that it does not grow without bounds.
+   */
+  private void registerMetrics(String source) {
+    var tags = Tags.of("source", source);
+    registerGauge(
+      "patterns",
+      "Trip patterns with real-time timetables",
+      tags,
+      TimetableSnapshot::countPatternsWithRealTimeTimetables
+    );
+    registerGauge(
+      "modified_trip_patterns",
+      "Trips on a service date moved to a new trip pattern",
+      tags,
+      TimetableSnapshot::countNewTripPatternsForModifiedTrips
+    );
+    registerGauge(
+      "added_trips",
+      "Trips added by real-time updates",
+      tags,
+      s -> s.listRealTimeAddedTrips().size()
+    );
+    registerGauge(
+      "added_routes",
+      "Routes added by real-time updates",
+      tags,
+      s -> s.listRealTimeAddedRoutes().size()
+    );
+  }
+
+  private void registerGauge(
+    String name,
+    String description,
+    Tags tags,
+    ToIntFunction<TimetableSnapshot> value
+  ) {
+    Gauge
+      .builder(METRICS_PREFIX + "." + name, snapshot, s -> value.applyAsInt(s.get()))
+      .description(description)
+      .tags(tags)
+      .register(Metrics.globalRegistry);
+  }
+
   /**
    * Clear all data of snapshot for the provided feed id
    */
   public void clearBuffer(String feedId) {
     buffer.clear(feedId);
+    ++bufferResets;
+  }
+
+  /**
+   * The number of times the buffer has been cleared, restored or purged. An updater that
+   * remembers what it has applied to the buffer uses this to find out that the buffer was changed
+   * by someone else.
+   */
+  public long bufferResets() {
+    return bufferResets;
   }
 
   /**
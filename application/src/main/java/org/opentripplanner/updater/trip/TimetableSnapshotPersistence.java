@@ -0,0 +1,310 @@
+package org.opentripplanner.updater.trip;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.file.FileDataSource;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.model.RealTimeTripUpdate;
+import org.opentripplanner.model.Timetable;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.transit.model.framework.DataValidationException;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.RealTimeState;
+import org.opentripplanner.transit.model.timetable.RealTimeTripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write the real-time state of the trips in a committed timetable snapshot to a compact binary
+ * data source, and read it back when OTP is restarted. This allows a new instance to serve
+ * real-time data before the updaters have fetched it again.
+ * <p>
+ * The delays, the real-time state of the trip and of each stop are saved for the trips updated on
+ * their scheduled trip pattern. The trips added by real-time updates and the trips moved to a new
+ * trip pattern are not saved, they are restored by the updaters.
+ * <p>
+ * The data is matched against the trip patterns and trips of the current graph when it is read.
+ * Trips that do not exist in the graph anymore or have a different number of stops are skipped,
+ * so a file written with another graph can be read safely.
+ * <p>
+ * The time the data is written is saved with it, and data older than the max age is not read.
+ * Outdated delays would be worse than no real-time data at all.
+ */
+public class TimetableSnapshotPersistence {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimetableSnapshotPersistence.class);
+
+  private static final int MAGIC = 0x4f545052;
+  private static final int FORMAT_VERSION = 2;
+
+  private static final RealTimeState[] REAL_TIME_STATES = RealTimeState.values();
+
+  private static final byte STOP_DEFAULT = 0;
+  private static final byte STOP_CANCELLED = 1;
+  private static final byte STOP_RECORDED = 2;
+  private static final byte STOP_NO_DATA = 3;
+  private static final byte STOP_INACCURATE_PREDICTIONS = 4;
+
+  private final DataSource dataSource;
+  private final DataSource tempDataSource;
+  private final Duration maxAge;
+  private final Clock clock;
+
+  /**
+   * @param tempDataSource The data is written here first, and then moved to the data source.
+   */
+  public TimetableSnapshotPersistence(
+    DataSource dataSource,
+    DataSource tempDataSource,
+    Duration maxAge
+  ) {
+    this(dataSource, tempDataSource, maxAge, Clock.systemUTC());
+  }
+
+  /**
+   * @param clock Used to set the time the data is written and to compute its age, this is
+   *              useful for unit testing.
+   */
+  TimetableSnapshotPersistence(
+    DataSource dataSource,
+    DataSource tempDataSource,
+    Duration maxAge,
+    Clock clock
+  ) {
+    this.dataSource = dataSource;
+    this.tempDataSource = tempDataSource;
+    this.maxAge = maxAge;
+    this.clock = clock;
+  }
+
+  /**
+   * Save the real-time data to a file in the given directory. The name of the file contains the
+   * source of the real-time updates, so more than one snapshot source can use the same directory.
+   */
+  public static TimetableSnapshotPersistence of(String directory, String source, Duration maxAge) {
+    var name = "realtime-snapshot-" + source + ".bin";
+    return new TimetableSnapshotPersistence(
+      new FileDataSource(new File(directory, name), FileType.UNKNOWN),
+      new FileDataSource(new File(directory, name + ".tmp"), FileType.UNKNOWN),
+      maxAge
+    );
+  }
+
+  /**
+   * Write the real-time state of the updated trips in the snapshot to the data source, replacing
+   * the previous content. The data is written to the temporary data source first, which is then
+   * moved to the data source. So if OTP stops during the write, the previous data is kept intact.
+   *
+   * @return the number of trips written
+   */
+  public int write(TimetableSnapshot snapshot) throws IOException {
+    int count = 0;
+    try (
+      var out = new DataOutputStream(
+        new BufferedOutputStream(new GZIPOutputStream(tempDataSource.asOutputStream()))
+      )
+    ) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeLong(clock.millis());
+
+      for (Timetable timetable : snapshot.listTimetables()) {
+        TripPattern pattern = timetable.getPattern();
+        LocalDate serviceDate = timetable.getServiceDate();
+        if (pattern.isCreatedByRealtimeUpdater() || serviceDate == null) {
+          continue;
+        }
+        for (TripTimes tripTimes : timetable.getTripTimes()) {
+          if (isRestorable(snapshot, tripTimes, serviceDate)) {
+            out.writeBoolean(true);
+            writeTripTimes(out, pattern, serviceDate, tripTimes);
+            ++count;
+          }
+        }
+      }
+      out.writeBoolean(false);
+    }
+    tempDataSource.moveTo(dataSource);
+    return count;
+  }
+
+  /**
+   * Read the trip updates saved in the data source. Returns an empty list if the data source does
+   * not exist, it is older than the max age, or it can not be read.
+   *
+   * @param patternById Look up the trip pattern in the current graph.
+   */
+  public List<RealTimeTripUpdate> read(Function<FeedScopedId, TripPattern> patternById) {
+    if (!dataSource.exists()) {
+      return List.of();
+    }
+    var updates = new ArrayList<RealTimeTripUpdate>();
+    int skipped = 0;
+    try (
+      var in = new DataInputStream(
+        new BufferedInputStream(new GZIPInputStream(dataSource.asInputStream()))
+      )
+    ) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        LOG.warn("Unknown format of real-time snapshot {}, it is ignored.", dataSource.path());
+        return List.of();
+      }
+      var age = Duration.between(Instant.ofEpochMilli(in.readLong()), clock.instant());
+      if (age.compareTo(maxAge) > 0) {
+        LOG.info(
+          "The real-time snapshot {} was saved {} ago, more than the max age {}. It is ignored.",
+          dataSource.path(),
+          DurationUtils.durationToStr(age),
+          DurationUtils.durationToStr(maxAge)
+        );
+        return List.of();
+      }
+      while (in.readBoolean()) {
+        var update = readTripTimes(in, patternById);
+        if (update == null) {
+          ++skipped;
+        } else {
+          updates.add(update);
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.warn(
+        "Failed to read the real-time snapshot {}, it is ignored: {}",
+        dataSource.path(),
+        e.getMessage()
+      );
+      return List.of();
+    }
+    if (skipped > 0) {
+      LOG.info("{} trips in the real-time snapshot were not found in the graph.", skipped);
+    }
+    return updates;
+  }
+
+  public String path() {
+    return dataSource.path();
+  }
+
+  /* private methods */
+
+  private static boolean isRestorable(
+    TimetableSnapshot snapshot,
+    TripTimes tripTimes,
+    LocalDate serviceDate
+  ) {
+    if (tripTimes.isScheduled() || !(tripTimes instanceof RealTimeTripTimes)) {
+      return false;
+    }
+    // The new trip pattern of a modified trip is not saved, so the trip is not either
+    var tripId = tripTimes.getTrip().getId();
+    return snapshot.getNewTripPatternForModifiedTrip(tripId, serviceDate) == null;
+  }
+
+  private static void writeTripTimes(
+    DataOutputStream out,
+    TripPattern pattern,
+    LocalDate serviceDate,
+    TripTimes tripTimes
+  ) throws IOException {
+    out.writeUTF(pattern.getId().toString());
+    out.writeUTF(tripTimes.getTrip().getId().toString());
+    out.writeInt((int) serviceDate.toEpochDay());
+    out.writeByte(tripTimes.getRealTimeState().ordinal());
+
+    int numStops = tripTimes.getNumStops();
+    out.writeInt(numStops);
+    for (int i = 0; i < numStops; i++) {
+      out.writeInt(tripTimes.getArrivalDelay(i));
+      out.writeInt(tripTimes.getDepartureDelay(i));
+      out.writeByte(stopState(tripTimes, i));
+    }
+  }
+
+  /**
+   * @return the trip update, or {@code null} if it does not match the graph.
+   */
+  private static RealTimeTripUpdate readTripTimes(
+    DataInputStream in,
+    Function<FeedScopedId, TripPattern> patternById
+  ) throws IOException {
+    var patternId = FeedScopedId.parse(in.readUTF());
+    var tripId = FeedScopedId.parse(in.readUTF());
+    var serviceDate = LocalDate.ofEpochDay(in.readInt());
+    var realTimeState = REAL_TIME_STATES[in.readByte()];
+    int numStops = in.readInt();
+    int[] arrivalDelays = new int[numStops];
+    int[] departureDelays = new int[numStops];
+    byte[] stopStates = new byte[numStops];
+    for (int i = 0; i < numStops; i++) {
+      arrivalDelays[i] = in.readInt();
+      departureDelays[i] = in.readInt();
+      stopStates[i] = in.readByte();
+    }
+
+    TripPattern pattern = patternById.apply(patternId);
+    if (pattern == null) {
+      return null;
+    }
+    TripTimes scheduledTripTimes = pattern.getScheduledTimetable().getTripTimes(tripId);
+    if (scheduledTripTimes == null || scheduledTripTimes.getNumStops() != numStops) {
+      return null;
+    }
+
+    RealTimeTripTimes tripTimes = scheduledTripTimes.copyScheduledTimes();
+    for (int i = 0; i < numStops; i++) {
+      tripTimes.updateArrivalDelay(i, arrivalDelays[i]);
+      tripTimes.updateDepartureDelay(i, departureDelays[i]);
+      setStopState(tripTimes, i, stopStates[i]);
+    }
+    tripTimes.setRealTimeState(realTimeState);
+    try {
+      tripTimes.validateNonIncreasingTimes();
+    } catch (DataValidationException e) {
+      return null;
+    }
+    return new RealTimeTripUpdate(pattern, tripTimes, serviceDate);
+  }
+
+  private static byte stopState(TripTimes tripTimes, int stop) {
+    if (tripTimes.isCancelledStop(stop)) {
+      return STOP_CANCELLED;
+    }
+    if (tripTimes.isRecordedStop(stop)) {
+      return STOP_RECORDED;
+    }
+    if (tripTimes.isNoDataStop(stop)) {
+      return STOP_NO_DATA;
+    }
+    if (tripTimes.isPredictionInaccurate(stop)) {
+      return STOP_INACCURATE_PREDICTIONS;
+    }
+    return STOP_DEFAULT;
+  }
+
+  private static void setStopState(RealTimeTripTimes tripTimes, int stop, byte state) {
+    switch (state) {
+      case STOP_CANCELLED -> tripTimes.setCancelled(stop);
+      case STOP_RECORDED -> tripTimes.setRecorded(stop);
+      case STOP_NO_DATA -> tripTimes.setNoData(stop);
+      case STOP_INACCURATE_PREDICTIONS -> tripTimes.setPredictionInaccurate(stop);
+      default -> {}
+    }
+  }
+}
@@ -26,15 +26,18 @@ import com.google.transit.realtime.GtfsRealtime.TripUpdate;
 import com.google.transit.realtime.GtfsRealtime.TripUpdate.StopTimeUpdate;
 import de.mfdz.MfdzRealtimeExtensions;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Supplier;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
 import org.opentripplanner.framework.lang.StringUtils;
@@ -45,6 +48,7 @@ import org.opentripplanner.model.StopTime;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.model.TimetableSnapshotProvider;
+import org.opentripplanner.model.TripTimesPatch;
 import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.framework.DataValidationException;
 import org.opentripplanner.transit.model.framework.Deduplicator;
@@ -105,6 +109,7 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
 
   private final TimetableSnapshotManager snapshotManager;
   private final Supplier<LocalDate> localDateNow;
+  private final boolean parallelTripUpdateMatching;
 
   public TimetableSnapshotSource(
     TimetableSnapshotSourceParameters parameters,
@@ -126,7 +131,8 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       new TimetableSnapshotManager(
         timetableRepository.getTransitLayerUpdater(),
         parameters,
-        localDateNow
+        localDateNow,
+        "gtfs-rt"
       );
     this.timeZone = timetableRepository.getTimeZone();
     this.transitEditorService =
@@ -134,6 +140,8 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     this.deduplicator = timetableRepository.getDeduplicator();
     this.serviceCodes = timetableRepository.getServiceCodes();
     this.localDateNow = localDateNow;
+    this.parallelTripUpdateMatching = parameters.parallelTripUpdateMatching();
+    snapshotManager.restorePersistedSnapshot(transitEditorService::getTripPatternForId);
 
     // Inject this into the transit model
     timetableRepository.initTimetableSnapshotProvider(this);
@@ -151,6 +159,11 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
    * @param updateIncrementality          Determines the incrementality of the updates. FULL updates clear the buffer
    *                                      of all previous updates for the given feed id.
    * @param updates                       GTFS-RT TripUpdate's that should be applied atomically
+   * <p>
+   * If parallel trip update matching is enabled, the trip updates are first matched against the
+   * scheduled trips, and the updated trip times of SCHEDULED trips are calculated in parallel. The
+   * buffer is then updated serially in the order of the updates, the same as without it. The
+   * fuzzy trip matching then sees the trips as they were before this batch of updates.
    */
   public UpdateResult applyTripUpdates(
     GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher,
@@ -172,15 +185,35 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       snapshotManager.clearBuffer(feedId);
     }
 
+    var durationByPhase = new LinkedHashMap<String, Duration>();
+    List<MatchedTripUpdate> matchedUpdates = null;
+    if (parallelTripUpdateMatching) {
+      long matchStart = System.nanoTime();
+      matchedUpdates =
+        updates
+          .parallelStream()
+          .map(u -> matchTripUpdate(u, fuzzyTripMatcher, backwardsDelayPropagationType, feedId))
+          .toList();
+      durationByPhase.put("match", Duration.ofNanos(System.nanoTime() - matchStart));
+    }
+    long applyStart = System.nanoTime();
+
     LOG.debug("message contains {} trip updates", updates.size());
     int uIndex = 0;
-    for (TripUpdate tripUpdate : updates) {
+    for (int i = 0; i < updates.size(); i++) {
+      TripUpdate tripUpdate = updates.get(i);
+      MatchedTripUpdate matchedUpdate = null;
+      if (matchedUpdates != null) {
+        matchedUpdate = matchedUpdates.get(i);
+        tripUpdate = matchedUpdate.tripUpdate();
+      }
+
       if (!tripUpdate.hasTrip()) {
         debug(feedId, "", "Missing TripDescriptor in gtfs-rt trip update: \n{}", tripUpdate);
         continue;
       }
 
-      if (fuzzyTripMatcher != null) {
+      if (fuzzyTripMatcher != null && matchedUpdates == null) {
         final TripDescriptor trip = fuzzyTripMatcher.match(feedId, tripUpdate.getTrip());
         tripUpdate = tripUpdate.toBuilder().setTrip(trip).build();
       }
@@ -233,7 +266,8 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
               tripUpdate,
               tripId,
               serviceDate,
-              backwardsDelayPropagationType
+              backwardsDelayPropagationType,
+              matchedUpdate
             );
             case ADDED -> validateAndHandleAddedTrip(
               tripUpdate,
@@ -279,7 +313,8 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       }
     }
 
-    var updateResult = UpdateResult.ofResults(results);
+    durationByPhase.put("apply", Duration.ofNanos(System.nanoTime() - applyStart));
+    var updateResult = UpdateResult.ofResults(results).withDurationByPhase(durationByPhase);
 
     if (updateIncrementality == FULL_DATASET) {
       logUpdateResult(feedId, failuresByRelationship, updateResult);
@@ -287,6 +322,73 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     return updateResult;
   }
 
+  /**
+   * Match a trip update against the scheduled trips, and calculate the updated trip times if it is
+   * an update to a SCHEDULED trip in the static data. This only reads the scheduled data and the
+   * buffer, it does not change anything and can run in parallel. The validation done here is
+   * repeated when the update is applied, only the calculation of the trip times is reused.
+   */
+  private MatchedTripUpdate matchTripUpdate(
+    TripUpdate tripUpdate,
+    @Nullable GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher,
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    String feedId
+  ) {
+    if (!tripUpdate.hasTrip()) {
+      return new MatchedTripUpdate(tripUpdate);
+    }
+    if (fuzzyTripMatcher != null) {
+      final TripDescriptor trip = fuzzyTripMatcher.match(feedId, tripUpdate.getTrip());
+      tripUpdate = tripUpdate.toBuilder().setTrip(trip).build();
+    }
+    final TripDescriptor tripDescriptor = tripUpdate.getTrip();
+    var scheduleRelationship = Objects.requireNonNullElse(
+      tripDescriptor.getScheduleRelationship(),
+      SCHEDULED
+    );
+    if (
+      scheduleRelationship != SCHEDULED ||
+      !tripDescriptor.hasTripId() ||
+      tripDescriptor.getTripId().isBlank() ||
+      tripUpdate.getStopTimeUpdateCount() < 1
+    ) {
+      return new MatchedTripUpdate(tripUpdate);
+    }
+
+    FeedScopedId tripId = new FeedScopedId(feedId, tripDescriptor.getTripId());
+    final Trip trip = transitEditorService.getScheduledTripForId(tripId);
+    final TripPattern pattern = trip == null ? null : getPatternForTripId(tripId);
+    if (pattern == null) {
+      return new MatchedTripUpdate(tripUpdate);
+    }
+
+    LocalDate serviceDate;
+    try {
+      serviceDate =
+        tripDescriptor.hasStartDate()
+          ? ServiceDateUtils.parseString(tripDescriptor.getStartDate())
+          : localDateNow.get();
+    } catch (final ParseException e) {
+      return new MatchedTripUpdate(tripUpdate);
+    }
+    var serviceDates = transitEditorService
+      .getCalendarService()
+      .getServiceDatesForServiceId(trip.getServiceId());
+    if (!serviceDates.contains(serviceDate)) {
+      return new MatchedTripUpdate(tripUpdate);
+    }
+
+    var tripTimesPatch = pattern
+      .getScheduledTimetable()
+      .createUpdatedTripTimesFromGTFSRT(
+        tripUpdate,
+        timeZone,
+        serviceDate,
+        backwardsDelayPropagationType
+      );
+    return new MatchedTripUpdate(tripUpdate, pattern, serviceDate, tripTimesPatch);
+  }
+
   /**
    * Remove previous realtime updates for this trip. This is necessary to avoid previous stop
    * pattern modifications from persisting. If a trip was previously added with the
@@ -349,6 +451,14 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     return snapshotManager.getTimetableSnapshotBuffer();
   }
 
+  /**
+   * The number of times the buffer has been cleared, restored or purged, see
+   * {@link TimetableSnapshotManager#bufferResets()}.
+   */
+  long bufferResets() {
+    return snapshotManager.bufferResets();
+  }
+
   private static void logUpdateResult(
     String feedId,
     Map<ScheduleRelationship, Integer> failuresByRelationship,
@@ -369,11 +479,16 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       });
   }
 
+  /**
+   * @param matchedUpdate the result of {@link #matchTripUpdate}, or {@code null} if the updated
+   *                      trip times should be calculated here.
+   */
   private Result<UpdateSuccess, UpdateError> handleScheduledTrip(
     TripUpdate tripUpdate,
     FeedScopedId tripId,
     LocalDate serviceDate,
-    BackwardsDelayPropagationType backwardsDelayPropagationType
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    @Nullable MatchedTripUpdate matchedUpdate
   ) {
     final TripPattern pattern = getPatternForTripId(tripId);
 
@@ -401,14 +516,19 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     }
 
     // Get new TripTimes based on scheduled timetable
-    var result = pattern
-      .getScheduledTimetable()
-      .createUpdatedTripTimesFromGTFSRT(
-        tripUpdate,
-        timeZone,
-        serviceDate,
-        backwardsDelayPropagationType
-      );
+    var precalculated = matchedUpdate == null
+      ? null
+      : matchedUpdate.tripTimesPatchFor(pattern, serviceDate);
+    var result = precalculated != null
+      ? precalculated
+      : pattern
+        .getScheduledTimetable()
+        .createUpdatedTripTimesFromGTFSRT(
+          tripUpdate,
+          timeZone,
+          serviceDate,
+          backwardsDelayPropagationType
+        );
 
     if (result.isFailure()) {
       // necessary so the success type is correct
@@ -1130,6 +1250,35 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     LOG.debug(m, params);
   }
 
+  /**
+   * A trip update after fuzzy trip matching, with the updated trip times for a SCHEDULED trip if
+   * they are calculated in advance.
+   */
+  private record MatchedTripUpdate(
+    TripUpdate tripUpdate,
+    @Nullable TripPattern pattern,
+    @Nullable LocalDate serviceDate,
+    @Nullable Result<TripTimesPatch, UpdateError> tripTimesPatch
+  ) {
+    MatchedTripUpdate(TripUpdate tripUpdate) {
+      this(tripUpdate, null, null, null);
+    }
+
+    /**
+     * Return the calculated trip times if they are calculated for the given pattern and service
+     * date, otherwise {@code null}.
+     */
+    @Nullable
+    Result<TripTimesPatch, UpdateError> tripTimesPatchFor(
+      TripPattern pattern,
+      LocalDate serviceDate
+    ) {
+      return pattern == this.pattern && serviceDate.equals(this.serviceDate)
+        ? tripTimesPatch
+        : null;
+    }
+  }
+
   private enum CancelationType {
     CANCEL,
     DELETE,
@@ -1138,4 +1287,12 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
   public void flushBuffer() {
     snapshotManager.purgeAndCommit();
   }
+
+  /**
+   * Flush pending changes and save the real-time data, if it is persisted. This is called when
+   * OTP stops.
+   */
+  public void flushAndPersistBuffer() {
+    snapshotManager.commitAndPersist();
+  }
 }
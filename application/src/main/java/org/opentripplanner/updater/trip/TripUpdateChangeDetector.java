@@ -0,0 +1,181 @@
+package org.opentripplanner.updater.trip;
+
+import static org.opentripplanner.updater.trip.UpdateIncrementality.DIFFERENTIAL;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
+
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.updater.spi.UpdateError;
+import org.opentripplanner.updater.spi.UpdateResult;
+
+/**
+ * Removes the trip updates that are unchanged since they were last applied, so that a feed that
+ * repeats the same trip updates poll after poll only applies the ones that changed.
+ * <p>
+ * The trip updates are identified by trip id and start date. Two trip updates are unchanged if
+ * they are equal, not counting the timestamp. Trip updates without a trip id or start date are
+ * always applied, since the trip they apply to depends on the fuzzy trip matching or on the
+ * current date.
+ * <p>
+ * A full dataset replaces all previous updates of the feed. Skipping the unchanged trip updates is
+ * then only possible if every previously applied trip is still in the dataset, and it is applied
+ * as a {@link UpdateIncrementality#DIFFERENTIAL} update on top of the previous one. If a trip is
+ * missing, the full dataset is applied as it is.
+ * <p>
+ * Only the trip updates that were applied successfully are recorded, see
+ * {@link #recordResult(UpdateResult, long)}. A failed trip update is applied again the next time,
+ * even if it is unchanged. All recorded updates are forgotten if the buffer is cleared, restored
+ * or purged by someone else, since the recorded updates may then no longer be in the buffer.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE. It should only be used by the graph writer thread.
+ */
+class TripUpdateChangeDetector {
+
+  /**
+   * The last applied trip update for each trip and start date, without the timestamp. The value is
+   * {@code null} if the last update of the trip failed, the trip is then in the buffer in an
+   * unknown state.
+   */
+  private Map<TripAndStartDate, TripUpdate> applied = new HashMap<>();
+
+  /**
+   * {@code true} if the buffer only contains the updates in {@link #applied} for this feed. Any
+   * update without a trip id or start date makes this {@code false} until the next time a full
+   * dataset is applied as it is.
+   */
+  private boolean complete = false;
+
+  /** The buffer resets seen when the last result was recorded, see {@link #recordResult}. */
+  private long bufferResets = -1;
+
+  /** The state to record when the changes returned by the last call are applied. */
+  @Nullable
+  private Pending pending;
+
+  /**
+   * @param bufferResets the number of times the buffer has been reset, see
+   *                     {@link TimetableSnapshotManager#bufferResets()}.
+   */
+  Changes detectChanges(
+    UpdateIncrementality incrementality,
+    List<TripUpdate> updates,
+    long bufferResets
+  ) {
+    // If the result of the previous changes was not recorded, the buffer is in an unknown state
+    if (pending != null || bufferResets != this.bufferResets) {
+      applied = new HashMap<>();
+      complete = false;
+    }
+    var current = new HashMap<TripAndStartDate, TripUpdate>();
+    var changed = new ArrayList<TripUpdate>();
+    boolean allIdentified = true;
+
+    for (TripUpdate update : updates) {
+      var key = TripAndStartDate.of(update);
+      if (key == null) {
+        allIdentified = false;
+        changed.add(update);
+        continue;
+      }
+      var normalized = update.hasTimestamp() ? update.toBuilder().clearTimestamp().build() : update;
+      var previous = applied.get(key);
+      // A trip updated more than once in the same feed is always applied
+      if (
+        !complete ||
+        current.containsKey(key) ||
+        previous == null ||
+        previous.hashCode() != normalized.hashCode() ||
+        !previous.equals(normalized)
+      ) {
+        changed.add(update);
+      }
+      current.put(key, normalized);
+    }
+
+    if (incrementality == FULL_DATASET) {
+      boolean skip = complete && current.keySet().containsAll(applied.keySet());
+      pending = new Pending(current, allIdentified, !skip);
+      return skip
+        ? new Changes(DIFFERENTIAL, changed, updates.size() - changed.size())
+        : new Changes(FULL_DATASET, updates, 0);
+    }
+
+    var next = new HashMap<>(applied);
+    next.putAll(current);
+    pending = new Pending(next, complete && allIdentified, false);
+    return new Changes(DIFFERENTIAL, changed, updates.size() - changed.size());
+  }
+
+  /**
+   * Record the result of applying the changes returned by the last call to
+   * {@link #detectChanges}. The trips that failed are not recorded as applied.
+   *
+   * @param bufferResets the number of times the buffer has been reset after the changes were
+   *                     applied, a full dataset applied as it is resets the buffer itself.
+   */
+  void recordResult(UpdateResult result, long bufferResets) {
+    if (pending == null) {
+      throw new IllegalStateException("No changes to record");
+    }
+    var next = pending;
+    pending = null;
+
+    boolean nextComplete = next.complete();
+    var failedTripIds = new HashSet<String>();
+    for (UpdateError error : result.failures().values()) {
+      if (error.tripId() == null) {
+        nextComplete = false;
+      } else {
+        failedTripIds.add(error.tripId().getId());
+      }
+    }
+    if (next.bufferCleared()) {
+      // The buffer was cleared, so the trips that failed are not in it
+      next.applied().keySet().removeIf(key -> failedTripIds.contains(key.tripId()));
+    } else {
+      // The previous update of a trip that failed may still be in the buffer
+      next
+        .applied()
+        .replaceAll((key, update) -> failedTripIds.contains(key.tripId()) ? null : update);
+    }
+    applied = next.applied();
+    complete = nextComplete;
+    this.bufferResets = bufferResets;
+  }
+
+  /**
+   * The trip updates to apply and how to apply them.
+   *
+   * @param skipped the number of unchanged trip updates that are skipped
+   */
+  record Changes(UpdateIncrementality incrementality, List<TripUpdate> updates, int skipped) {}
+
+  /**
+   * @param bufferCleared {@code true} if the changes are a full dataset applied as it is.
+   */
+  private record Pending(
+    Map<TripAndStartDate, TripUpdate> applied,
+    boolean complete,
+    boolean bufferCleared
+  ) {}
+
+  private record TripAndStartDate(String tripId, String startDate) {
+    static TripAndStartDate of(TripUpdate update) {
+      var trip = update.getTrip();
+      if (
+        !update.hasTrip() ||
+        !trip.hasTripId() ||
+        trip.getTripId().isBlank() ||
+        !trip.hasStartDate()
+      ) {
+        return null;
+      }
+      return new TripAndStartDate(trip.getTripId(), trip.getStartDate());
+    }
+  }
+}
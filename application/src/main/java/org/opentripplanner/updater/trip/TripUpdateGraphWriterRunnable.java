@@ -4,6 +4,7 @@ import com.google.transit.realtime.GtfsRealtime.TripUpdate;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.RealTimeUpdateContext;
 import org.opentripplanner.updater.spi.UpdateResult;
@@ -25,6 +26,9 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
   private final Consumer<UpdateResult> sendMetrics;
   private final TimetableSnapshotSource snapshotSource;
 
+  @Nullable
+  private final TripUpdateChangeDetector changeDetector;
+
   TripUpdateGraphWriterRunnable(
     TimetableSnapshotSource snapshotSource,
     boolean fuzzyTripMatching,
@@ -33,6 +37,32 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
     List<TripUpdate> updates,
     String feedId,
     Consumer<UpdateResult> sendMetrics
+  ) {
+    this(
+      snapshotSource,
+      fuzzyTripMatching,
+      backwardsDelayPropagationType,
+      updateIncrementality,
+      updates,
+      feedId,
+      sendMetrics,
+      null
+    );
+  }
+
+  /**
+   * @param changeDetector if not null, the trip updates that are unchanged since the previous
+   *                       update are skipped.
+   */
+  TripUpdateGraphWriterRunnable(
+    TimetableSnapshotSource snapshotSource,
+    boolean fuzzyTripMatching,
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    UpdateIncrementality updateIncrementality,
+    List<TripUpdate> updates,
+    String feedId,
+    Consumer<UpdateResult> sendMetrics,
+    @Nullable TripUpdateChangeDetector changeDetector
   ) {
     this.snapshotSource = snapshotSource;
     this.fuzzyTripMatching = fuzzyTripMatching;
@@ -41,17 +71,28 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
     this.updates = Objects.requireNonNull(updates);
     this.feedId = Objects.requireNonNull(feedId);
     this.sendMetrics = sendMetrics;
+    this.changeDetector = changeDetector;
   }
 
   @Override
   public void run(RealTimeUpdateContext context) {
+    var changes = changeDetector == null
+      ? new TripUpdateChangeDetector.Changes(updateIncrementality, updates, 0)
+      : changeDetector.detectChanges(
+        updateIncrementality,
+        updates,
+        snapshotSource.bufferResets()
+      );
     var result = snapshotSource.applyTripUpdates(
       fuzzyTripMatching ? context.gtfsRealtimeFuzzyTripMatcher() : null,
       backwardsDelayPropagationType,
-      updateIncrementality,
-      updates,
+      changes.incrementality(),
+      changes.updates(),
       feedId
     );
-    sendMetrics.accept(result);
+    if (changeDetector != null) {
+      changeDetector.recordResult(result, snapshotSource.bufferResets());
+    }
+    sendMetrics.accept(result.withSkipped(changes.skipped()));
   }
 }
@@ -28,6 +28,7 @@ public class BatchTripUpdateMetrics extends TripUpdateMetrics {
   private final AtomicInteger successfulGauge;
   private final AtomicInteger failureGauge;
   private final AtomicInteger warningsGauge;
+  private final AtomicInteger skippedGauge;
   private final Map<UpdateError.UpdateErrorType, AtomicInteger> failuresByType = new HashMap<>();
   private final Map<UpdateSuccess.WarningType, AtomicInteger> warningsByType = new HashMap<>();
 
@@ -43,16 +44,25 @@ public class BatchTripUpdateMetrics extends TripUpdateMetrics {
 
     this.warningsGauge =
       getGauge("warnings", "Number of warnings when successfully applying trip updates");
+
+    this.skippedGauge =
+      getGauge(
+        "skipped",
+        "Trip updates that were skipped at the most recent update since they were unchanged"
+      );
   }
 
   public void setGauges(UpdateResult result) {
     this.successfulGauge.set(result.successful());
     this.failureGauge.set(result.failed());
     this.warningsGauge.set(result.warnings().size());
+    this.skippedGauge.set(result.skipped());
 
     setFailureTypes(result);
 
     setWarnings(result);
+
+    recordPhaseDurations(METRICS_PREFIX, result);
   }
 
   private void setWarnings(UpdateResult result) {
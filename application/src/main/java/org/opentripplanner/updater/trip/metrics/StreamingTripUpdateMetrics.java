@@ -45,6 +45,7 @@ public class StreamingTripUpdateMetrics extends TripUpdateMetrics {
 
     setFailures(result);
     setWarnings(result);
+    recordPhaseDurations(METRICS_PREFIX, result);
   }
 
   private void setWarnings(UpdateResult result) {
@@ -1,6 +1,9 @@
 package org.opentripplanner.updater.trip.metrics;
 
+import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -36,6 +39,23 @@ public class TripUpdateMetrics {
     });
   }
 
+  /**
+   * Record the time spent in each phase of applying the updates as timers, tagged with the name of
+   * the phase.
+   */
+  protected void recordPhaseDurations(String metricsPrefix, UpdateResult result) {
+    result
+      .durationByPhase()
+      .forEach((phase, duration) ->
+        Timer
+          .builder(metricsPrefix + ".phase_duration")
+          .description("Time spent in each phase of applying the trip updates")
+          .tags(Tags.concat(baseTags, "phase", phase))
+          .register(Metrics.globalRegistry)
+          .record(duration)
+      );
+  }
+
   private static Consumer<UpdateResult> getConsumer(Supplier<Consumer<UpdateResult>> maker) {
     if (OTPFeature.ActuatorAPI.isOn()) {
       return maker.get();
@@ -1,6 +1,7 @@
 package org.opentripplanner.apis.gtfs;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.opentripplanner.model.plan.PlanTestConstants.D10m;
 import static org.opentripplanner.model.plan.PlanTestConstants.T11_00;
@@ -373,6 +374,7 @@ class GraphQLIntegrationTest {
     );
     var actualJson = responseBody(response);
     assertEquals(200, response.getStatus());
+    assertNotNull(response.getHeaderString(GtfsGraphQLIndex.REALTIME_DATA_VERSION_HEADER));
 
     Path expectationFile = getExpectation(path);
 
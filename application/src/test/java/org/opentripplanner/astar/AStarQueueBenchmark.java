@@ -0,0 +1,124 @@
+package org.opentripplanner.astar;
+
+import java.time.Duration;
+import java.util.List;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+
+/**
+ * A simple benchmark comparing the {@link AStarQueueType}s. A street grid is created, and a
+ * one-to-many search is run from the center of the grid for WALK, BIKE and CAR with increasing
+ * max duration. The average time per search is printed for each queue type.
+ * <p>
+ * This is not a unit test, run it from the IDE with the test classpath:
+ * <pre>
+ * AStarQueueBenchmark [grid size] [iterations]
+ * </pre>
+ */
+public class AStarQueueBenchmark {
+
+  /** The distance between two streets in the grid in degrees, about 110 meters north-south. */
+  private static final double GRID_SPACING = 0.001;
+  private static final int WARM_UP_ITERATIONS = 3;
+
+  private final StreetVertex center;
+
+  private AStarQueueBenchmark(int gridSize) {
+    var vertices = new StreetVertex[gridSize][gridSize];
+    for (int i = 0; i < gridSize; ++i) {
+      for (int j = 0; j < gridSize; ++j) {
+        vertices[i][j] =
+          StreetModelForTest.intersectionVertex(
+            "V" + i + "_" + j,
+            60.0 + i * GRID_SPACING,
+            10.0 + j * GRID_SPACING
+          );
+      }
+    }
+    for (int i = 0; i < gridSize; ++i) {
+      for (int j = 0; j < gridSize; ++j) {
+        if (i + 1 < gridSize) {
+          street(vertices[i][j], vertices[i + 1][j]);
+        }
+        if (j + 1 < gridSize) {
+          street(vertices[i][j], vertices[i][j + 1]);
+        }
+        // Add a few diagonal streets, so there is more than one path with the same cost
+        if (i + 1 < gridSize && j + 1 < gridSize && (i + j) % 3 == 0) {
+          street(vertices[i][j], vertices[i + 1][j + 1]);
+        }
+      }
+    }
+    this.center = vertices[gridSize / 2][gridSize / 2];
+  }
+
+  public static void main(String[] args) {
+    int gridSize = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    var benchmark = new AStarQueueBenchmark(gridSize);
+
+    System.out.printf("%-5s %8s %14s %14s%n", "Mode", "Max", "BinHeap", "IndexedDary");
+    for (var mode : List.of(StreetMode.WALK, StreetMode.BIKE, StreetMode.CAR)) {
+      for (int minutes : new int[] { 5, 10, 20, 40 }) {
+        var maxDuration = Duration.ofMinutes(minutes);
+        double binHeap = benchmark.run(mode, maxDuration, AStarQueueType.BINARY_HEAP, iterations);
+        double indexed = benchmark.run(
+          mode,
+          maxDuration,
+          AStarQueueType.INDEXED_DARY_HEAP,
+          iterations
+        );
+        System.out.printf("%-5s %6dm %11.2f ms %11.2f ms%n", mode, minutes, binHeap, indexed);
+      }
+    }
+  }
+
+  /**
+   * Run the search and return the average time in milliseconds.
+   */
+  private double run(
+    StreetMode mode,
+    Duration maxDuration,
+    AStarQueueType queueType,
+    int iterations
+  ) {
+    for (int i = 0; i < WARM_UP_ITERATIONS; ++i) {
+      search(mode, maxDuration, queueType);
+    }
+    long start = System.nanoTime();
+    int nVertices = 0;
+    for (int i = 0; i < iterations; ++i) {
+      nVertices += search(mode, maxDuration, queueType);
+    }
+    if (nVertices == 0) {
+      throw new IllegalStateException("No vertices reached");
+    }
+    return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+  }
+
+  private int search(StreetMode mode, Duration maxDuration, AStarQueueType queueType) {
+    var request = new RouteRequest();
+    request.withPreferences(it -> it.withStreet(s -> s.withSearchQueue(queueType)));
+    return StreetSearchBuilder
+      .of()
+      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(maxDuration))
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(center)
+      .getShortestPathTree()
+      .getVertexCount();
+  }
+
+  private static void street(StreetVertex a, StreetVertex b) {
+    double length = SphericalDistanceLibrary.distance(a.getCoordinate(), b.getCoordinate());
+    StreetModelForTest.streetEdge(a, b, length, StreetTraversalPermission.ALL);
+    StreetModelForTest.streetEdge(b, a, length, StreetTraversalPermission.ALL);
+  }
+}
@@ -10,6 +10,8 @@ import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.locationtech.jts.geom.Coordinate;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
@@ -86,11 +88,14 @@ public class AStarTest {
     edges("market_20th", "russell_20th", "leary_20th", "ballard_20th", "shilshole_20th");
   }
 
-  @Test
-  public void testForward() {
+  @ParameterizedTest
+  @EnumSource(AStarQueueType.class)
+  public void testForward(AStarQueueType queueType) {
     var request = new RouteRequest();
 
-    request.withPreferences(pref -> pref.withWalk(w -> w.withSpeed(1.0)));
+    request.withPreferences(pref ->
+      pref.withWalk(w -> w.withSpeed(1.0)).withStreet(s -> s.withSearchQueue(queueType))
+    );
     Vertex from = graph.getVertex("56th_24th");
     Vertex to = graph.getVertex("leary_20th");
     ShortestPathTree tree = StreetSearchBuilder
@@ -120,7 +125,9 @@ public class AStarTest {
   public void testBack() {
     var request = new RouteRequest();
 
-    request.withPreferences(pref -> pref.withWalk(w -> w.withSpeed(1.0)));
+    request.withPreferences(pref ->
+      pref.withWalk(w -> w.withSpeed(1.0)).withStreet(s -> s.withSearchQueue(queueType))
+    );
     request.setArriveBy(true);
     Vertex from = graph.getVertex("56th_24th");
     Vertex to = graph.getVertex("leary_20th");
@@ -204,8 +211,9 @@ public class AStarTest {
     assertEquals("near_56th_20th", states.get(8).getVertex().getLabelString());
   }
 
-  @Test
-  public void testBackExtraEdges() {
+  @ParameterizedTest
+  @EnumSource(AStarQueueType.class)
+  public void testBackExtraEdges(AStarQueueType queueType) {
     var request = new RouteRequest();
 
     request.withPreferences(pref -> pref.withWalk(w -> w.withSpeed(1.0)));
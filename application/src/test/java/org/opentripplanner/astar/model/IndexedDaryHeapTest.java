@@ -0,0 +1,159 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.astar.spi.IndexedQueueItem;
+
+class IndexedDaryHeapTest {
+
+  private static final int N = 20_000;
+
+  private final Random random = new Random(42);
+
+  @ParameterizedTest
+  @ValueSource(ints = { 2, 3, 4, 8 })
+  void insertAndExtract(int arity) {
+    var subject = new IndexedDaryHeap<Item>(arity, 10);
+    var items = randomItems();
+    items.forEach(it -> subject.insert(it, it.key));
+
+    assertEquals(N, subject.size());
+    assertEquals(sorted(items), extractAll(subject));
+    assertTrue(subject.isEmpty());
+    assertNull(subject.peekMin());
+    assertNull(subject.extractMin());
+    assertThrows(IllegalStateException.class, subject::peekMinKey);
+  }
+
+  @Test
+  void replaceWithDecreasedAndIncreasedKey() {
+    var subject = new IndexedDaryHeap<Item>();
+    var items = randomItems();
+    items.forEach(it -> subject.insert(it, it.key));
+
+    var replacements = new ArrayList<Item>();
+    for (Item it : items) {
+      var replacement = new Item(random.nextDouble() * 10_000);
+      assertTrue(subject.replace(it, replacement, replacement.key));
+      assertFalse(subject.contains(it));
+      assertEquals(IndexedQueueItem.NOT_IN_QUEUE, it.getQueueIndex());
+      replacements.add(replacement);
+    }
+    assertEquals(N, subject.size());
+    assertEquals(sorted(replacements), extractAll(subject));
+  }
+
+  @Test
+  void remove() {
+    var subject = new IndexedDaryHeap<Item>();
+    var items = randomItems();
+    items.forEach(it -> subject.insert(it, it.key));
+
+    var kept = new ArrayList<Item>();
+    for (int i = 0; i < items.size(); ++i) {
+      Item it = items.get(i);
+      if (i % 3 == 0) {
+        assertTrue(subject.remove(it));
+        assertFalse(subject.contains(it));
+        assertEquals(IndexedQueueItem.NOT_IN_QUEUE, it.getQueueIndex());
+      } else {
+        kept.add(it);
+      }
+    }
+    assertEquals(kept.size(), subject.size());
+    assertEquals(sorted(kept), extractAll(subject));
+  }
+
+  @Test
+  void itemsNotInTheHeapAreIgnored() {
+    var subject = new IndexedDaryHeap<Item>();
+    var a = new Item(1.0);
+    var b = new Item(2.0);
+    subject.insert(a, a.key);
+    subject.insert(b, b.key);
+
+    // A copy of an item has the same index, but is not in the heap
+    var copyOfB = new Item(0.5);
+    copyOfB.setQueueIndex(b.getQueueIndex());
+
+    assertFalse(subject.contains(copyOfB));
+    assertFalse(subject.remove(copyOfB));
+    assertFalse(subject.replace(copyOfB, new Item(0.1), 0.1));
+    assertEquals(2, subject.size());
+
+    assertEquals(a, subject.extractMin());
+    assertFalse(subject.remove(a));
+    assertEquals(2.0, subject.peekMinKey());
+  }
+
+  @Test
+  void reset() {
+    var subject = new IndexedDaryHeap<Item>();
+    var items = randomItems();
+    items.forEach(it -> subject.insert(it, it.key));
+
+    subject.reset();
+
+    assertTrue(subject.isEmpty());
+    assertTrue(items.stream().noneMatch(subject::contains));
+  }
+
+  @Test
+  void invalidArity() {
+    assertThrows(IllegalArgumentException.class, () -> new IndexedDaryHeap<Item>(1, 10));
+  }
+
+  private List<Item> randomItems() {
+    var items = new ArrayList<Item>(N);
+    for (int i = 0; i < N; ++i) {
+      items.add(new Item(random.nextDouble() * 10_000));
+    }
+    return items;
+  }
+
+  private static List<Double> sorted(List<Item> items) {
+    return items.stream().map(it -> it.key).sorted(Comparator.naturalOrder()).toList();
+  }
+
+  private static List<Double> extractAll(IndexedDaryHeap<Item> heap) {
+    var result = new ArrayList<Double>();
+    while (!heap.isEmpty()) {
+      double key = heap.peekMinKey();
+      Item it = heap.extractMin();
+      assertEquals(it.key, key);
+      result.add(key);
+    }
+    return result;
+  }
+
+  private static class Item implements IndexedQueueItem {
+
+    private double key;
+    private int queueIndex = NOT_IN_QUEUE;
+
+    Item(double key) {
+      this.key = key;
+    }
+
+    @Override
+    public int getQueueIndex() {
+      return queueIndex;
+    }
+
+    @Override
+    public void setQueueIndex(int index) {
+      this.queueIndex = index;
+    }
+  }
+}
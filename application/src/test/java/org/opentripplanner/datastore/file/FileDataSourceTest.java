@@ -76,6 +76,22 @@ public class FileDataSourceTest {
     assertEquals("Go, go, go!", new String(subject.asInputStream().readAllBytes(), UTF_8));
   }
 
+  @Test
+  public void testMoveTo() throws IOException {
+    File source = new File(tempDir, FILENAME + ".tmp");
+    File target = new File(tempDir, FILENAME);
+    Files.writeString(source.toPath(), "New");
+    Files.writeString(target.toPath(), "Old");
+    FileDataSource subject = new FileDataSource(source, GRAPH);
+    FileDataSource targetSource = new FileDataSource(target, GRAPH);
+
+    subject.moveTo(targetSource);
+
+    assertFalse(subject.exists());
+    assertEquals("New", new String(targetSource.asInputStream().readAllBytes(), UTF_8));
+    target.delete();
+  }
+
   @Test
   public void verifyReadingNoneExistingFileFails() {
     // given
@@ -0,0 +1,90 @@
+package org.opentripplanner.graph_builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.base.ByteArrayDataSource;
+
+class StreetGraphFingerprintTest {
+
+  private static final String BUILD_CONFIG = "{ \"osmDefaults\" : { } }";
+
+  private static final DataSource OSM = dataSource("osm.pbf", FileType.OSM, 1000, 10);
+  private static final DataSource DEM = dataSource("dem.tif", FileType.DEM, 2000, 20);
+  private static final DataSource STREET_GRAPH = dataSource(
+    "streetGraph.obj",
+    FileType.GRAPH,
+    3000,
+    30
+  );
+
+  @TempDir
+  File tempDir;
+
+  @Test
+  void unchangedInputs() throws Exception {
+    var saved = saveAndLoad(StreetGraphFingerprint.of(List.of(OSM, DEM), BUILD_CONFIG));
+
+    var current = StreetGraphFingerprint.of(List.of(OSM, DEM), BUILD_CONFIG);
+
+    assertTrue(current.listChanges(saved, STREET_GRAPH).isEmpty());
+    assertEquals(Duration.ofMinutes(5), saved.osmModuleDuration());
+  }
+
+  @Test
+  void changedInputs() throws Exception {
+    var saved = saveAndLoad(StreetGraphFingerprint.of(List.of(OSM, DEM), BUILD_CONFIG));
+
+    var newOsm = dataSource("osm.pbf", FileType.OSM, 1000, 11);
+    var newInput = dataSource("osm2.pbf", FileType.OSM, 1000, 10);
+    var current = StreetGraphFingerprint.of(List.of(newOsm, newInput), "{ }");
+
+    assertEquals(
+      List.of("OSM osm.pbf", "OSM osm2.pbf", "buildConfig", "DEM dem.tif (removed)"),
+      current.listChanges(saved, STREET_GRAPH)
+    );
+  }
+
+  @Test
+  void changedStreetGraph() throws Exception {
+    var saved = saveAndLoad(StreetGraphFingerprint.of(List.of(OSM), BUILD_CONFIG));
+
+    var current = StreetGraphFingerprint.of(List.of(OSM), BUILD_CONFIG);
+    var newStreetGraph = dataSource("streetGraph.obj", FileType.GRAPH, 3000, 31);
+
+    assertEquals(List.of("streetGraph streetGraph.obj"), current.listChanges(saved, newStreetGraph));
+  }
+
+  @Test
+  void unknownModificationTimeIsAChange() throws Exception {
+    var osm = dataSource("osm.pbf", FileType.OSM, 1000, DataSource.UNKNOWN);
+    var saved = saveAndLoad(StreetGraphFingerprint.of(List.of(osm), BUILD_CONFIG));
+
+    var current = StreetGraphFingerprint.of(List.of(osm), BUILD_CONFIG);
+
+    assertEquals(List.of("OSM osm.pbf"), current.listChanges(saved, STREET_GRAPH));
+  }
+
+  @Test
+  void missingFile() {
+    assertTrue(StreetGraphFingerprint.load(new File(tempDir, "missing.properties")).isEmpty());
+  }
+
+  private StreetGraphFingerprint saveAndLoad(StreetGraphFingerprint fingerprint)
+    throws Exception {
+    var file = new File(tempDir, "streetGraph-inputs.properties");
+    fingerprint.withStreetGraph(STREET_GRAPH, Duration.ofMinutes(5)).save(file);
+    return StreetGraphFingerprint.load(file).orElseThrow();
+  }
+
+  private static DataSource dataSource(String name, FileType type, long size, long lastModified) {
+    return new ByteArrayDataSource(name, name, type, size, lastModified, false);
+  }
+}
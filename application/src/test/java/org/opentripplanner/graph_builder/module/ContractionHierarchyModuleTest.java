@@ -0,0 +1,46 @@
+package org.opentripplanner.graph_builder.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+
+class ContractionHierarchyModuleTest {
+
+  @Test
+  void buildGraph() {
+    var graph = new Graph();
+    var a = intersectionVertex("A", 60.0, 10.0);
+    var b = intersectionVertex("B", 60.0, 10.001);
+    var c = intersectionVertex("C", 60.001, 10.001);
+    graph.addVertex(a);
+    graph.addVertex(b);
+    graph.addVertex(c);
+    streetEdge(a, b, 60, StreetTraversalPermission.ALL);
+    streetEdge(b, c, 110, StreetTraversalPermission.PEDESTRIAN);
+
+    var subject = new ContractionHierarchyModule(graph, Set.of(StreetMode.CAR));
+    subject.checkInputs();
+    subject.buildGraph();
+
+    var contractionHierarchy = graph.getContractionHierarchy();
+    assertNotNull(contractionHierarchy);
+    assertEquals(Set.of(StreetMode.CAR), contractionHierarchy.modes());
+    // C is only connected by a pedestrian street
+    assertEquals(2, contractionHierarchy.numberOfVertices());
+  }
+
+  @Test
+  void unsupportedMode() {
+    var subject = new ContractionHierarchyModule(new Graph(), Set.of(StreetMode.WALK));
+    assertThrows(OtpAppException.class, subject::checkInputs);
+  }
+}
@@ -250,6 +250,28 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
     );
   }
 
+  @Test
+  public void testEqualRequestsAreSearchedOnce() {
+    var reqWalk = new RouteRequest();
+    reqWalk.journey().transfer().setMode(StreetMode.WALK);
+
+    var reqWalkCopy = new RouteRequest();
+    reqWalkCopy.journey().transfer().setMode(StreetMode.WALK);
+
+    var reqWheelchair = new RouteRequest();
+    reqWheelchair.journey().transfer().setMode(StreetMode.WALK);
+    reqWheelchair.setWheelchair(true);
+
+    var reqBike = new RouteRequest();
+    reqBike.journey().transfer().setMode(StreetMode.BIKE);
+
+    var profiles = DirectTransferGenerator.distinctTransferProfiles(
+      List.of(reqWalk, reqWalkCopy, reqWheelchair, reqBike)
+    );
+
+    assertEquals(List.of(reqWalk, reqWheelchair, reqBike), profiles);
+  }
+
   @Test
   public void testTransferOnIsolatedStations() {
     var otpModel = model(true, false, true);
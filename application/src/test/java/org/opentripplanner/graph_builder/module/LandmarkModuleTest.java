@@ -0,0 +1,53 @@
+package org.opentripplanner.graph_builder.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+
+class LandmarkModuleTest {
+
+  @Test
+  void buildGraph() {
+    var graph = new Graph();
+    var a = intersectionVertex("A", 60.0, 10.0);
+    var b = intersectionVertex("B", 60.0, 10.001);
+    var c = intersectionVertex("C", 60.001, 10.001);
+    graph.addVertex(a);
+    graph.addVertex(b);
+    graph.addVertex(c);
+    streetEdge(a, b, 60, StreetTraversalPermission.ALL);
+    streetEdge(b, c, 110, StreetTraversalPermission.PEDESTRIAN);
+
+    var subject = new LandmarkModule(graph, Set.of(StreetMode.WALK, StreetMode.CAR), 2);
+    subject.checkInputs();
+    subject.buildGraph();
+
+    var landmarks = graph.getLandmarks();
+    assertNotNull(landmarks);
+    assertEquals(Set.of(StreetMode.WALK, StreetMode.CAR), landmarks.modes());
+    assertEquals(3, landmarks.numberOfVertices());
+    assertEquals(2, landmarks.table(StreetMode.WALK).numberOfLandmarks());
+    assertEquals(2, landmarks.table(StreetMode.CAR).numberOfLandmarks());
+  }
+
+  @Test
+  void unsupportedMode() {
+    var subject = new LandmarkModule(new Graph(), Set.of(StreetMode.BIKE_RENTAL), 16);
+    assertThrows(OtpAppException.class, subject::checkInputs);
+  }
+
+  @Test
+  void noLandmarks() {
+    var subject = new LandmarkModule(new Graph(), Set.of(StreetMode.WALK), 0);
+    assertThrows(OtpAppException.class, subject::checkInputs);
+  }
+}
@@ -92,6 +92,59 @@ class StreetLinkerModuleTest {
     });
   }
 
+  @Test
+  void linkStopsToTheSameEdge() {
+    var from = StreetModelForTest.intersectionVertex(
+      KONGSBERG_PLATFORM_1.y - DELTA,
+      KONGSBERG_PLATFORM_1.x - DELTA
+    );
+    var to = StreetModelForTest.intersectionVertex(
+      KONGSBERG_PLATFORM_1.y + DELTA,
+      KONGSBERG_PLATFORM_1.x + DELTA
+    );
+    Graph graph = new Graph();
+    graph.addVertex(from);
+    graph.addVertex(to);
+    StreetModelForTest.streetEdge(from, to, PEDESTRIAN);
+
+    var builder = SiteRepository.of();
+    var stop1 = builder
+      .regularStop(id("stop-1"))
+      .withCoordinate(KONGSBERG_PLATFORM_1.y - DELTA / 2, KONGSBERG_PLATFORM_1.x - DELTA / 2)
+      .build();
+    var stop2 = builder
+      .regularStop(id("stop-2"))
+      .withCoordinate(KONGSBERG_PLATFORM_1.y + DELTA / 2, KONGSBERG_PLATFORM_1.x + DELTA / 2)
+      .build();
+    builder.withRegularStop(stop1).withRegularStop(stop2);
+    var timetableRepository = new TimetableRepository(builder.build(), new Deduplicator());
+
+    var stopVertex1 = TransitStopVertex.of().withStop(stop1).build();
+    var stopVertex2 = TransitStopVertex.of().withStop(stop2).build();
+    graph.addVertex(stopVertex1);
+    graph.addVertex(stopVertex2);
+    graph.hasStreets = true;
+
+    var module = new StreetLinkerModule(
+      graph,
+      timetableRepository,
+      DataImportIssueStore.NOOP,
+      false
+    );
+    module.buildGraph();
+
+    // The edge found for the second stop is split when the first stop is linked, so the second
+    // stop is linked to one of the new edges
+    var split1 = (SplitterVertex) stopVertex1.getOutgoing().iterator().next().getToVertex();
+    var split2 = (SplitterVertex) stopVertex2.getOutgoing().iterator().next().getToVertex();
+    assertEquals(1, stopVertex1.getOutgoing().size());
+    assertEquals(1, stopVertex2.getOutgoing().size());
+    assertTrue(split1.isConnected(from));
+    assertTrue(split1.isConnected(split2));
+    assertTrue(split2.isConnected(to));
+    assertFalse(from.isConnected(to));
+  }
+
   private static class TestModel {
 
     private final TransitStopVertex stopVertex;
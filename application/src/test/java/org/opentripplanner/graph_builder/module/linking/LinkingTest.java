@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.graph_builder.module.linking.TestGraph.addExtraStops;
 import static org.opentripplanner.graph_builder.module.linking.TestGraph.addRegularStopGrid;
 import static org.opentripplanner.graph_builder.module.linking.TestGraph.link;
+import static org.opentripplanner.graph_builder.module.linking.TestGraph.linkWithCandidates;
 
 import java.io.File;
 import java.util.Comparator;
@@ -23,6 +24,7 @@ import org.opentripplanner.osm.OsmProvider;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.street.model.StreetTraversalPermission;
 import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.edge.StreetEdgeBuilder;
 import org.opentripplanner.street.model.edge.StreetTransitStopLink;
@@ -147,6 +149,32 @@ public class LinkingTest {
     }
   }
 
+  /**
+   * Test that finding the edges to link to for all stops in advance builds the same graph as
+   * linking the stops one by one. Some of the stops are duplicates or almost duplicates of each
+   * other, so the edges found for a stop are often split by an earlier stop.
+   */
+  @Test
+  public void testStopsLinkedIdenticallyWithLinkCandidates() {
+    TestOtpModel model = buildGraphNoTransit();
+    Graph g1 = model.graph();
+    addExtraStops(g1);
+    addRegularStopGrid(g1);
+    link(g1, model.timetableRepository());
+
+    TestOtpModel model2 = buildGraphNoTransit();
+    Graph g2 = model2.graph();
+    addExtraStops(g2);
+    addRegularStopGrid(g2);
+    linkWithCandidates(g2, model2.timetableRepository());
+
+    var splitLabels = splitLabels(g1);
+    assertFalse(splitLabels.isEmpty());
+    assertEquals(splitLabels, splitLabels(g2));
+    assertEquals(vertices(g1), vertices(g2));
+    assertEquals(edges(g1), edges(g2));
+  }
+
   /** Build a graph in Columbus, OH with no transit */
   public static TestOtpModel buildGraphNoTransit() {
     var deduplicator = new Deduplicator();
@@ -163,6 +191,46 @@ public class LinkingTest {
     return new TestOtpModel(gg, timetableRepository);
   }
 
+  private static List<String> splitLabels(Graph graph) {
+    return graph
+      .getVerticesOfType(SplitterVertex.class)
+      .stream()
+      .map(Vertex::getLabelString)
+      .sorted()
+      .toList();
+  }
+
+  private static List<String> vertices(Graph graph) {
+    return graph
+      .getVertices()
+      .stream()
+      .map(v -> v.getLabelString() + " " + v.getCoordinate())
+      .sorted()
+      .toList();
+  }
+
+  private static List<String> edges(Graph graph) {
+    return graph
+      .getEdges()
+      .stream()
+      .map(LinkingTest::edgeToString)
+      .sorted()
+      .toList();
+  }
+
+  private static String edgeToString(Edge e) {
+    var geometry = e.getGeometry();
+    return (
+      e.getClass().getSimpleName() +
+      " " +
+      e.getFromVertex().getLabelString() +
+      " -> " +
+      e.getToVertex().getLabelString() +
+      " " +
+      (geometry == null ? "" : geometry.toText())
+    );
+  }
+
   private static List<StreetTransitStopLink> outgoingStls(final TransitStopVertex tsv) {
     return tsv
       .getOutgoing()
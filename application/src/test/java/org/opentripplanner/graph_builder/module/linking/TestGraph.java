@@ -4,8 +4,11 @@ import java.util.List;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.LinkingDirection;
 import org.opentripplanner.routing.linking.VertexLinker;
+import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetTransitStopLink;
+import org.opentripplanner.street.model.vertex.StreetVertex;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
@@ -20,6 +23,8 @@ class TestGraph {
 
   private static final TimetableRepositoryForTest TEST_MODEL = TimetableRepositoryForTest.of();
 
+  private static final TraverseModeSet WALK = new TraverseModeSet(TraverseMode.WALK);
+
   /** Add a regular grid of stops to the graph */
   public static void addRegularStopGrid(Graph graph) {
     int count = 0;
@@ -67,22 +72,37 @@ class TestGraph {
     VertexLinker linker = graph.getLinker();
 
     for (TransitStopVertex tStop : graph.getVerticesOfType(TransitStopVertex.class)) {
+      linker.linkVertexPermanently(tStop, WALK, LinkingDirection.BOTH_WAYS, TestGraph::stopLinks);
+    }
+  }
+
+  /**
+   * Link the stops in the graph like {@link #link(Graph, TimetableRepository)}, but find the
+   * edges to link to for all stops in advance, like the StreetLinkerModule does.
+   */
+  public static void linkWithCandidates(Graph graph, TimetableRepository timetableRepository) {
+    timetableRepository.index();
+    graph.index(timetableRepository.getSiteRepository());
+
+    VertexLinker linker = graph.getLinker();
+    var stops = graph.getVerticesOfType(TransitStopVertex.class);
+    var candidates = linker.findPermanentLinkCandidates(stops, WALK);
+
+    for (TransitStopVertex tStop : stops) {
       linker.linkVertexPermanently(
         tStop,
-        new TraverseModeSet(TraverseMode.WALK),
+        WALK,
         LinkingDirection.BOTH_WAYS,
-        (vertex, streetVertex) ->
-          List.of(
-            StreetTransitStopLink.createStreetTransitStopLink(
-              (TransitStopVertex) vertex,
-              streetVertex
-            ),
-            StreetTransitStopLink.createStreetTransitStopLink(
-              streetVertex,
-              (TransitStopVertex) vertex
-            )
-          )
+        TestGraph::stopLinks,
+        candidates
       );
     }
   }
+
+  private static List<Edge> stopLinks(Vertex vertex, StreetVertex streetVertex) {
+    return List.of(
+      StreetTransitStopLink.createStreetTransitStopLink((TransitStopVertex) vertex, streetVertex),
+      StreetTransitStopLink.createStreetTransitStopLink(streetVertex, (TransitStopVertex) vertex)
+    );
+  }
 }
@@ -21,6 +21,7 @@ import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
 
 class StreetNearbyStopFinderTest extends GraphRoutingTest {
 
@@ -30,10 +31,11 @@ class StreetNearbyStopFinderTest extends GraphRoutingTest {
   private TransitStopVertex stopB;
   private TransitStopVertex stopC;
   private TransitStopVertex stopD;
+  private CompactStreetGraph compactStreetGraph;
 
   @BeforeEach
   protected void setUp() throws Exception {
-    modelOf(
+    var model = modelOf(
       new GraphRoutingTest.Builder() {
         @Override
         public void build() {
@@ -61,6 +63,7 @@ class StreetNearbyStopFinderTest extends GraphRoutingTest {
         }
       }
     );
+    compactStreetGraph = CompactStreetGraph.of(model.graph().getVertices());
   }
 
   @Test
@@ -165,6 +168,77 @@ class StreetNearbyStopFinderTest extends GraphRoutingTest {
     assertStopAtDistance(stopC, 200, sortedNearbyStops.get(0));
   }
 
+  @Test
+  void testCompactStreetGraph() {
+    var durationLimit = Duration.ofMinutes(10);
+    var maxStopCount = 0;
+    var finder = new StreetNearbyStopFinder(
+      durationLimit,
+      maxStopCount,
+      null,
+      Set.of(),
+      compactStreetGraph
+    );
+
+    var sortedNearbyStops = sort(
+      finder.findNearbyStops(stopA, new RouteRequest(), new StreetRequest(), false)
+    );
+
+    assertThat(sortedNearbyStops).hasSize(4);
+    assertZeroDistanceStop(stopA, sortedNearbyStops.get(0));
+    assertStopAtDistance(stopB, 100, sortedNearbyStops.get(1));
+    assertStopAtDistance(stopC, 200, sortedNearbyStops.get(2));
+    assertStopAtDistance(stopD, 300, sortedNearbyStops.get(3));
+    // The edges of the path are traversed using the full street model
+    assertEquals(stopA, sortedNearbyStops.get(3).edges.getFirst().getFromVertex());
+    assertEquals(stopD, sortedNearbyStops.get(3).edges.getLast().getToVertex());
+  }
+
+  @Test
+  void testCompactStreetGraphReverseDirection() {
+    var durationLimit = Duration.ofMinutes(10);
+    var maxStopCount = 0;
+    var finder = new StreetNearbyStopFinder(
+      durationLimit,
+      maxStopCount,
+      null,
+      Set.of(),
+      compactStreetGraph
+    );
+
+    var sortedNearbyStops = sort(
+      finder.findNearbyStops(stopD, new RouteRequest(), new StreetRequest(), true)
+    );
+
+    assertThat(sortedNearbyStops).hasSize(4);
+    assertZeroDistanceStop(stopD, sortedNearbyStops.get(0));
+    assertStopAtDistance(stopA, 300, sortedNearbyStops.get(3));
+    // The path goes from the nearby stop to the origin
+    assertEquals(stopA, sortedNearbyStops.get(3).edges.getFirst().getFromVertex());
+    assertEquals(stopD, sortedNearbyStops.get(3).edges.getLast().getToVertex());
+  }
+
+  @Test
+  void testCompactStreetGraphMaxStopCount() {
+    var durationLimit = Duration.ofMinutes(10);
+    var maxStopCount = 2;
+    var finder = new StreetNearbyStopFinder(
+      durationLimit,
+      maxStopCount,
+      null,
+      Set.of(),
+      compactStreetGraph
+    );
+
+    var sortedNearbyStops = sort(
+      finder.findNearbyStops(stopA, new RouteRequest(), new StreetRequest(), false)
+    );
+
+    assertThat(sortedNearbyStops).hasSize(2);
+    assertZeroDistanceStop(stopA, sortedNearbyStops.get(0));
+    assertStopAtDistance(stopB, 100, sortedNearbyStops.get(1));
+  }
+
   private List<NearbyStop> sort(Collection<NearbyStop> stops) {
     return stops.stream().sorted(Comparator.comparing(x -> x.distance)).toList();
   }
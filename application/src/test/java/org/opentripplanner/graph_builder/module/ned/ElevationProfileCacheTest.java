@@ -0,0 +1,106 @@
+package org.opentripplanner.graph_builder.module.ned;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V1;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V2;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V3;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.StreetElevationExtensionBuilder;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+
+class ElevationProfileCacheTest {
+
+  private static final double DISTANCE_BETWEEN_SAMPLES = 10;
+
+  @TempDir
+  File tempDir;
+
+  @Test
+  void writeAndRead() throws IOException {
+    var file = new File(tempDir, "cached_elevations.bin");
+    var e1 = edgeWithElevation(V1, V2, 10, 20);
+    var e2 = edgeWithElevation(V2, V3, 20, 15);
+    var notCached = streetEdge(V1, V3);
+
+    ElevationProfileCache.write(file, DISTANCE_BETWEEN_SAMPLES, true, List.of(e1, e2, e1));
+
+    try (var subject = ElevationProfileCache.open(file, DISTANCE_BETWEEN_SAMPLES, true)) {
+      assertNotNull(subject);
+      assertEquals(2, subject.size());
+      assertProfile(e1.getElevationProfile(), subject.get(e1.getGeometry()));
+      assertProfile(e2.getElevationProfile(), subject.get(e2.getGeometry()));
+      // The same geometry, even if it is another edge
+      assertProfile(e1.getElevationProfile(), subject.get(streetEdge(V1, V2).getGeometry()));
+      assertNull(subject.get(notCached.getGeometry()));
+    }
+  }
+
+  @Test
+  void otherParameters() throws IOException {
+    var file = new File(tempDir, "cached_elevations.bin");
+    ElevationProfileCache.write(
+      file,
+      DISTANCE_BETWEEN_SAMPLES,
+      true,
+      List.of(edgeWithElevation(V1, V2, 10, 20))
+    );
+
+    assertNull(ElevationProfileCache.open(file, DISTANCE_BETWEEN_SAMPLES, false));
+    assertNull(ElevationProfileCache.open(file, 2 * DISTANCE_BETWEEN_SAMPLES, true));
+  }
+
+  @Test
+  void unknownFormat() throws IOException {
+    var file = new File(tempDir, "cached_elevations.bin");
+    Files.write(file.toPath(), new byte[100]);
+
+    assertThrows(
+      IOException.class,
+      () -> ElevationProfileCache.open(file, DISTANCE_BETWEEN_SAMPLES, true)
+    );
+  }
+
+  private static StreetEdge edgeWithElevation(
+    StreetVertex from,
+    StreetVertex to,
+    double fromElevation,
+    double toElevation
+  ) {
+    var edge = streetEdge(from, to);
+    var profile = new PackedCoordinateSequence.Double(
+      new Coordinate[] {
+        new Coordinate(0, fromElevation),
+        new Coordinate(edge.getDistanceMeters(), toElevation),
+      }
+    );
+    StreetElevationExtensionBuilder
+      .of(edge)
+      .withElevationProfile(profile)
+      .withComputed(true)
+      .build()
+      .ifPresent(edge::setElevationExtension);
+    return edge;
+  }
+
+  private static void assertProfile(
+    PackedCoordinateSequence expected,
+    PackedCoordinateSequence actual
+  ) {
+    assertNotNull(actual);
+    assertArrayEquals(expected.toCoordinateArray(), actual.toCoordinateArray());
+  }
+}
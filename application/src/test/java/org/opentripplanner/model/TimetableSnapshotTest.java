@@ -27,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import org.opentripplanner.ConstantsForTests;
 import org.opentripplanner.TestOtpModel;
 import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
@@ -301,13 +302,14 @@ public class TimetableSnapshotTest {
 
     TransitLayerUpdater transitLayer = new TransitLayerUpdater(null) {
       @Override
-      public void update(
+      public TransitLayer update(
         Collection<Timetable> updatedTimetables,
         Map<TripPattern, SortedSet<Timetable>> timetables
       ) {
         updateIsCalled.set(true);
         assertThat(updatedTimetables).hasSize(1);
         assertThat(timetables).hasSize(1);
+        return null;
       }
     };
 
@@ -316,6 +318,57 @@ public class TimetableSnapshotTest {
     assertTrue(updateIsCalled.get());
   }
 
+  @Test
+  void testVersionIncreasesWithEachCommit() {
+    TimetableSnapshot buffer = new TimetableSnapshot();
+
+    TimetableSnapshot first = buffer.commit(null, true);
+    assertNull(buffer.commit(null, false));
+    TimetableSnapshot second = buffer.commit(null, true);
+
+    assertEquals(1, first.getVersion());
+    assertEquals(2, second.getVersion());
+    assertNull(second.getRealtimeTransitLayer());
+  }
+
+  @Test
+  void testPurgeRealTimeAddedTrips() {
+    TimetableSnapshot snapshot = new TimetableSnapshot();
+    TripPattern pattern = patternIndex.get(new FeedScopedId(feedId, "1.1"));
+    Trip trip = pattern.scheduledTripsAsStream().findFirst().orElseThrow();
+    TripTimes updatedTriptimes = TripTimesFactory.tripTimes(
+      trip,
+      List.of(new StopTime()),
+      new Deduplicator()
+    );
+    RealTimeTripUpdate realTimeTripUpdate = new RealTimeTripUpdate(
+      pattern,
+      updatedTriptimes,
+      SERVICE_DATE,
+      TripOnServiceDate.of(trip.getId()).withTrip(trip).withServiceDate(SERVICE_DATE).build(),
+      true,
+      true
+    );
+    snapshot.update(realTimeTripUpdate);
+    TimetableSnapshot first = snapshot.commit();
+
+    // The trip is still running on the service date
+    snapshot.purgeExpiredData(SERVICE_DATE.minusDays(1));
+    assertNotNull(snapshot.getRealTimeAddedTrip(trip.getId()));
+
+    assertTrue(snapshot.purgeExpiredData(SERVICE_DATE));
+    assertNull(snapshot.getRealTimeAddedTrip(trip.getId()));
+    assertNull(snapshot.getRealTimeAddedPatternForTrip(trip));
+    assertNull(snapshot.getRealTimeAddedTripOnServiceDateById(trip.getId()));
+    assertNull(snapshot.getRealtimeAddedRoute(pattern.getRoute().getId()));
+    assertTrue(snapshot.getRealTimeAddedPatternForRoute(pattern.getRoute()).isEmpty());
+
+    TimetableSnapshot second = snapshot.commit(null, true);
+    assertEquals(1, first.listRealTimeAddedTrips().size());
+    assertEquals(0, second.listRealTimeAddedTrips().size());
+    assertEquals(0, second.countPatternsWithRealTimeTimetables());
+  }
+
   @Test
   void testCannotUpdateReadOnlyTimetableSnapshot() {
     TimetableSnapshot committedSnapshot = createCommittedSnapshot();
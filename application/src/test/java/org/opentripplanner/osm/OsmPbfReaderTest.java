@@ -0,0 +1,96 @@
+package org.opentripplanner.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
+import org.opentripplanner.graph_builder.module.osm.OsmDatabaseTest;
+import org.opentripplanner.test.support.ResourceLoader;
+
+class OsmPbfReaderTest {
+
+  private static final ResourceLoader RESOURCE_LOADER = ResourceLoader.of(OsmDatabaseTest.class);
+
+  private final OsmPbfReader subject = new OsmPbfReader(2);
+
+  @AfterEach
+  void shutdown() {
+    subject.shutdown();
+  }
+
+  @Test
+  void laterPassesReadAllEntitiesOfTheirPhase() throws IOException {
+    var index = new OsmPbfReader.BlockIndex();
+
+    var all = read(OsmParserPhase.Relations, index);
+    assertTrue(index.size() > 1);
+    assertTrue(all.nodes > 0);
+    assertTrue(all.ways > 0);
+    assertTrue(all.relations > 0);
+
+    var ways = read(OsmParserPhase.Ways, index);
+    assertEquals(all.ways, ways.ways);
+    assertTrue(ways.nodes <= all.nodes);
+
+    var nodes = read(OsmParserPhase.Nodes, index);
+    assertEquals(all.nodes, nodes.nodes);
+    assertTrue(nodes.ways <= all.ways);
+  }
+
+  @Test
+  void numberOfThreadsMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new OsmPbfReader(0));
+  }
+
+  private CountingParser read(OsmParserPhase phase, OsmPbfReader.BlockIndex index)
+    throws IOException {
+    var file = RESOURCE_LOADER.file("ehningen-minimal.osm.pbf");
+    var parser = new CountingParser(new OsmProvider(file, false));
+    try (var in = new FileInputStream(file)) {
+      subject.read(in, phase, index, parser);
+    }
+    return parser;
+  }
+
+  /**
+   * Count the entities in the blocks passed to the parser, independent of the phase.
+   */
+  private static class CountingParser extends OsmParser {
+
+    int nodes = 0;
+    int ways = 0;
+    int relations = 0;
+
+    CountingParser(OsmProvider provider) {
+      super(new OsmDatabase(DataImportIssueStore.NOOP), provider);
+    }
+
+    @Override
+    protected void parseRelations(List<Osmformat.Relation> rels) {
+      relations += rels.size();
+    }
+
+    @Override
+    protected void parseDense(Osmformat.DenseNodes nodes) {
+      this.nodes += nodes.getIdCount();
+    }
+
+    @Override
+    protected void parseNodes(List<Osmformat.Node> nodes) {
+      this.nodes += nodes.size();
+    }
+
+    @Override
+    protected void parseWays(List<Osmformat.Way> ways) {
+      this.ways += ways.size();
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package org.opentripplanner.raptor._data.transit;
 
 import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntBiFunction;
 import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripScheduleSearchFactory;
@@ -9,10 +10,16 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripS
 public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSchedule> {
 
   private final TestTripSchedule[] trips;
+  private final int nStops;
+
+  /** The packed times are created the first time they are used. */
+  private int[] arrivalTimes;
+  private int[] departureTimes;
 
   public TestTripSearchTimetable(TestRoute route) {
     int nTrips = route.timetable().numberOfTripSchedules();
     this.trips = new TestTripSchedule[nTrips];
+    this.nStops = route.pattern().numberOfStopsInPattern();
 
     for (int i = 0; i < nTrips; ++i) {
       trips[i] = route.getTripSchedule(i);
@@ -39,8 +46,35 @@ public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSche
     return (int tripIndex) -> trips[tripIndex].departure(stopPositionInPattern);
   }
 
+  @Override
+  public int[] packedArrivalTimes() {
+    if (arrivalTimes == null) {
+      arrivalTimes = pack(TestTripSchedule::arrival);
+    }
+    return arrivalTimes;
+  }
+
+  @Override
+  public int[] packedDepartureTimes() {
+    if (departureTimes == null) {
+      departureTimes = pack(TestTripSchedule::departure);
+    }
+    return departureTimes;
+  }
+
   @Override
   public RaptorTripScheduleSearch<TestTripSchedule> tripSearch(SearchDirection direction) {
     return TripScheduleSearchFactory.create(direction, this);
   }
+
+  private int[] pack(ToIntBiFunction<TestTripSchedule, Integer> time) {
+    int nTrips = trips.length;
+    int[] result = new int[nStops * nTrips];
+    for (int i = 0; i < nTrips; ++i) {
+      for (int s = 0; s < nStops; ++s) {
+        result[s * nTrips + i] = time.applyAsInt(trips[i], s);
+      }
+    }
+    return result;
+  }
 }
@@ -0,0 +1,109 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToStringDetailed;
+import static org.opentripplanner.raptor._data.transit.TestAccessEgress.walk;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+import static org.opentripplanner.raptor.api.request.Optimization.PARALLEL;
+import static org.opentripplanner.raptor.api.request.RaptorProfile.MULTI_CRITERIA;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorEnvironment;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.moduletests.support.ModuleTestDebugLogging;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should return the same paths when the multi-criteria search-window is split in slices
+ * and the slices are searched in parallel, as when the whole search-window is searched in one
+ * range-raptor search. The access with a time-penalty is included to check the iterations before
+ * the start of the search-window, these should only be done by the earliest slice.
+ */
+public class M01_SearchWindowSlicesTest implements RaptorTestConstants {
+
+  private static final ExecutorService THREAD_POOL = Executors.newFixedThreadPool(4);
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+
+  @BeforeEach
+  void setup() {
+    data
+      .withRoutes(
+        route("R1", STOP_A, STOP_B, STOP_C)
+          .withTimetable(schedule("0:02 0:10 0:20").repeat(25, 7 * 60)),
+        route("R2", STOP_C, STOP_D).withTimetable(schedule("0:05 0:15").repeat(20, 10 * 60)),
+        route("R3", STOP_B, STOP_E).withTimetable(schedule("0:04 0:30").repeat(8, 23 * 60)),
+        route("R4", STOP_E, STOP_D).withTimetable(schedule("0:01 0:05").repeat(40, 5 * 60))
+      )
+      .withTransfer(STOP_C, transfer(STOP_E, D2m));
+
+    requestBuilder
+      .profile(MULTI_CRITERIA)
+      .enableOptimization(PARALLEL)
+      .searchParams()
+      .addAccessPaths(walk(STOP_A, D1m).withTimePenalty(D10m), walk(STOP_B, D10m))
+      .addEgressPaths(walk(STOP_D, D1m))
+      .earliestDepartureTime(T00_00)
+      .searchWindow(Duration.ofHours(2));
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @AfterAll
+  static void shutdown() {
+    THREAD_POOL.shutdown();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 2, 3, 4, 7 })
+  void sameResultAsOneSearch(int slices) {
+    var request = requestBuilder.build();
+    var expected = search(request, 1);
+
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, search(request, slices));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 2, 4 })
+  void sameResultWithSearchWindowNotMatchingIterationStep(int slices) {
+    var request = requestBuilder.searchParams().searchWindowInSeconds(100 * 60 + 25).build();
+
+    assertEquals(search(request, 1), search(request, slices));
+  }
+
+  private String search(RaptorRequest<TestTripSchedule> request, int slices) {
+    var tuningParameters = new RaptorTuningParameters() {
+      @Override
+      public int searchWindowSlices() {
+        return slices;
+      }
+    };
+    var environment = new RaptorEnvironment() {
+      @Override
+      public ExecutorService threadPool() {
+        return THREAD_POOL;
+      }
+    };
+    var config = new RaptorConfig<TestTripSchedule>(tuningParameters, environment);
+    return pathsToStringDetailed(new RaptorService<>(config).route(request, data));
+  }
+}
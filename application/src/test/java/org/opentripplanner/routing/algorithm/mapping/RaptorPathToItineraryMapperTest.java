@@ -319,6 +319,8 @@ public class RaptorPathToItineraryMapperTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
   }
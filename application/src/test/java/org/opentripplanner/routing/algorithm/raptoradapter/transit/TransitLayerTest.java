@@ -3,7 +3,6 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 import static java.util.Map.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -65,6 +64,8 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
     var runningOnDate = transitLayer.getTripPatternsRunningOnDateCopy(date);
@@ -94,12 +95,13 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
     var runningOnDate = transitLayer.getTripPatternsForRunningDate(date);
     assertEquals(1, runningOnDate.size());
-    assertEquals(tripPatterns, runningOnDate);
-    assertTrue(tripPatterns == runningOnDate);
+    assertEquals(tripPatterns, List.copyOf(runningOnDate));
     assertEquals(0, transitLayer.getTripPatternsForRunningDate(date.minusDays(1)).size());
     assertEquals(0, transitLayer.getTripPatternsForRunningDate(date.plusDays(1)).size());
   }
@@ -122,6 +124,8 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(date);
@@ -150,6 +154,8 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(serviceDate);
@@ -183,6 +189,8 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(firstRunningDate);
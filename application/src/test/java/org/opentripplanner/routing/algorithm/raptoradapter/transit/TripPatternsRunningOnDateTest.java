@@ -0,0 +1,97 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+
+class TripPatternsRunningOnDateTest {
+
+  private static final TimetableRepositoryForTest TEST_MODEL = TimetableRepositoryForTest.of();
+  private static final LocalDate DATE = LocalDate.of(2024, 1, 1);
+
+  private static final RoutingTripPattern PATTERN_1 = pattern("P1");
+  private static final RoutingTripPattern PATTERN_2 = pattern("P2");
+  private static final TripTimes TRIP_TIMES = TripTimesFactory.tripTimes(
+    TimetableRepositoryForTest
+      .trip("1")
+      .withRoute(TimetableRepositoryForTest.route("1").build())
+      .build(),
+    List.of(new StopTime()),
+    new Deduplicator()
+  );
+
+  private static final TripPatternForDate P1_TODAY = tripPatternForDate(PATTERN_1, DATE);
+  private static final TripPatternForDate P1_YESTERDAY = tripPatternForDate(
+    PATTERN_1,
+    DATE.minusDays(1)
+  );
+  private static final TripPatternForDate P2_TODAY = tripPatternForDate(PATTERN_2, DATE);
+
+  @Test
+  void of() {
+    var subject = TripPatternsRunningOnDate.of(List.of(P1_TODAY, P1_YESTERDAY, P2_TODAY));
+
+    assertEquals(3, subject.size());
+    assertEquals(Set.of(P1_TODAY, P1_YESTERDAY, P2_TODAY), new HashSet<>(subject));
+    assertTrue(subject.contains(P1_YESTERDAY));
+  }
+
+  @Test
+  void addEqualElementIsIgnored() {
+    var subject = TripPatternsRunningOnDate.of(List.of(P1_TODAY, P1_TODAY));
+
+    assertEquals(1, subject.size());
+    assertEquals(List.of(P1_TODAY), List.copyOf(subject));
+  }
+
+  @Test
+  void editDoesNotChangeOriginal() {
+    var original = TripPatternsRunningOnDate.of(List.of(P1_TODAY, P1_YESTERDAY));
+
+    var edited = original.edit().remove(P1_TODAY).add(P2_TODAY).remove(P2_TODAY).build();
+
+    assertEquals(Set.of(P1_TODAY, P1_YESTERDAY), new HashSet<>(original));
+    assertEquals(List.of(P1_YESTERDAY), List.copyOf(edited));
+    assertFalse(edited.contains(P1_TODAY));
+  }
+
+  @Test
+  void removeMissingElementIsIgnored() {
+    var subject = TripPatternsRunningOnDate.EMPTY.edit().remove(P1_TODAY).build();
+
+    assertEquals(0, subject.size());
+    assertFalse(subject.iterator().hasNext());
+  }
+
+  private static RoutingTripPattern pattern(String id) {
+    var stopTime = new StopTime();
+    stopTime.setStop(TEST_MODEL.stop("TEST:STOP", 0, 0).build());
+    return TripPattern
+      .of(TimetableRepositoryForTest.id(id))
+      .withRoute(TimetableRepositoryForTest.route("1").build())
+      .withStopPattern(new StopPattern(List.of(stopTime)))
+      .build()
+      .getRoutingTripPattern();
+  }
+
+  private static TripPatternForDate tripPatternForDate(
+    RoutingTripPattern pattern,
+    LocalDate serviceDate
+  ) {
+    return new TripPatternForDate(pattern, List.of(TRIP_TIMES), List.of(), serviceDate);
+  }
+}
@@ -0,0 +1,131 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.raptor.spi.RaptorTripScheduleSearch.UNBOUNDED_TRIP_INDEX;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTripPattern;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor._data.transit.TestTripSearchTimetable;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * The packed array searches should find the same trips as the time function searches, this is
+ * tested on random timetables with fewer and more trips than the binary search thresholds.
+ */
+class PackedTripScheduleSearchTest implements RaptorTestConstants {
+
+  private static final int N_STOPS = 4;
+  private static final int DWELL_TIME = 30;
+
+  private final Random random = new Random(7);
+
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 2, 7, 16, 17, 50, 51, 200 })
+  void boardSearch(int nTrips) {
+    var timetable = new TestTripSearchTimetable(createRoute(nTrips));
+    var expected = search(SearchDirection.FORWARD, timetable, TripScheduleSearchType.TIME_FUNCTION);
+    var subject = search(SearchDirection.FORWARD, timetable, TripScheduleSearchType.PACKED_ARRAY);
+
+    for (int stopPos = 0; stopPos < N_STOPS; ++stopPos) {
+      for (int time : searchTimes(timetable)) {
+        assertSameTrip(expected, subject, time, stopPos, UNBOUNDED_TRIP_INDEX);
+        for (int upperBound = 0; upperBound <= nTrips; ++upperBound) {
+          assertSameTrip(expected, subject, time, stopPos, upperBound);
+        }
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 2, 7, 16, 17, 50, 51, 200 })
+  void alightSearch(int nTrips) {
+    var timetable = new TestTripSearchTimetable(createRoute(nTrips));
+    var expected = search(SearchDirection.REVERSE, timetable, TripScheduleSearchType.TIME_FUNCTION);
+    var subject = search(SearchDirection.REVERSE, timetable, TripScheduleSearchType.PACKED_ARRAY);
+
+    for (int stopPos = 0; stopPos < N_STOPS; ++stopPos) {
+      for (int time : searchTimes(timetable)) {
+        assertSameTrip(expected, subject, time, stopPos, UNBOUNDED_TRIP_INDEX);
+        for (int lowerBound = 0; lowerBound < nTrips; ++lowerBound) {
+          assertSameTrip(expected, subject, time, stopPos, lowerBound);
+        }
+      }
+    }
+  }
+
+  private static RaptorTripScheduleSearch<TestTripSchedule> search(
+    SearchDirection direction,
+    TestTripSearchTimetable timetable,
+    TripScheduleSearchType type
+  ) {
+    return TripScheduleSearchFactory.create(direction, timetable, type);
+  }
+
+  private static void assertSameTrip(
+    RaptorTripScheduleSearch<TestTripSchedule> expected,
+    RaptorTripScheduleSearch<TestTripSchedule> subject,
+    int time,
+    int stopPos,
+    int tripIndexBound
+  ) {
+    int expectedIndex = expected.search(time, stopPos, tripIndexBound).tripIndex();
+    var result = subject.search(time, stopPos, tripIndexBound);
+    assertEquals(
+      expectedIndex,
+      result.tripIndex(),
+      () -> "time: %d, stopPos: %d, bound: %d".formatted(time, stopPos, tripIndexBound)
+    );
+    if (!result.empty()) {
+      assertSame(expected.search(time, stopPos, tripIndexBound).trip(), result.trip());
+    }
+  }
+
+  /**
+   * All times in the timetable, and the times just before and after.
+   */
+  private static int[] searchTimes(TestTripSearchTimetable timetable) {
+    return IntStream
+      .concat(
+        Arrays.stream(timetable.packedArrivalTimes()),
+        Arrays.stream(timetable.packedDepartureTimes())
+      )
+      .flatMap(t -> IntStream.of(t - 1, t, t + 1))
+      .distinct()
+      .toArray();
+  }
+
+  /**
+   * Create a route with random times. The trips do not pass each other, but several trips may
+   * have the same time at a stop.
+   */
+  private TestRoute createRoute(int nTrips) {
+    var builders = new TestTripSchedule.Builder[nTrips];
+    int[] previous = null;
+    for (int i = 0; i < nTrips; ++i) {
+      int[] arrivals = new int[N_STOPS];
+      for (int s = 0; s < N_STOPS; ++s) {
+        int time = s == 0
+          ? 3600 + random.nextInt(300)
+          : arrivals[s - 1] + 60 + random.nextInt(600);
+        if (previous != null) {
+          time = Math.max(time, previous[s] + random.nextInt(2) * random.nextInt(300));
+        }
+        arrivals[s] = time;
+      }
+      builders[i] = TestTripSchedule.schedule().arrivals(arrivals).arrDepOffset(DWELL_TIME);
+      previous = arrivals;
+    }
+    return TestRoute
+      .route(TestTripPattern.pattern("R1", STOP_A, STOP_B, STOP_C, STOP_D))
+      .withTimetable(builders);
+  }
+}
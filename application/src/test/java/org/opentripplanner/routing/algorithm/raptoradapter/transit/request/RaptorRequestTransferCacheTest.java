@@ -0,0 +1,64 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
+import org.opentripplanner.routing.api.request.RouteRequest;
+
+class RaptorRequestTransferCacheTest {
+
+  private static final List<List<Transfer>> TRANSFERS = List.of(
+    List.of(new Transfer(1, 100)),
+    List.of(new Transfer(0, 100))
+  );
+
+  @Test
+  void sameRequestReturnsCachedTransfers() {
+    var subject = new RaptorRequestTransferCache(5);
+
+    var first = subject.get(TRANSFERS, walkRequest(1.33, 2.0));
+    var second = subject.get(TRANSFERS, walkRequest(1.33, 2.0));
+
+    assertSame(first, second);
+    assertEquals(1, subject.buildCount());
+  }
+
+  @Test
+  void smallPreferenceChangesAreNotSharedWithoutQuantization() {
+    var subject = new RaptorRequestTransferCache(5);
+
+    var first = subject.get(TRANSFERS, walkRequest(1.33, 2.0));
+    var second = subject.get(TRANSFERS, walkRequest(1.31, 2.1));
+
+    assertNotSame(first, second);
+    assertEquals(2, subject.buildCount());
+  }
+
+  @Test
+  void smallPreferenceChangesShareQuantizedTransfers() {
+    var subject = new RaptorRequestTransferCache(5, true);
+
+    var first = subject.get(TRANSFERS, walkRequest(1.33, 2.0));
+    var second = subject.get(TRANSFERS, walkRequest(1.31, 2.1));
+    var slower = subject.get(TRANSFERS, walkRequest(1.0, 2.0));
+
+    assertSame(first, second);
+    assertNotSame(first, slower);
+    assertEquals(2, subject.buildCount());
+
+    // 100 m at the quantized speed of 1.3 m/s
+    assertEquals(77, first.getForwardTransfers(0).get(0).durationInSeconds());
+  }
+
+  private static RouteRequest walkRequest(double speed, double reluctance) {
+    var request = new RouteRequest();
+    request.withPreferences(pref ->
+      pref.withWalk(w -> w.withSpeed(speed).withReluctance(reluctance))
+    );
+    return request;
+  }
+}
@@ -0,0 +1,121 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTripPatternCache.FilteredTripPatterns;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.request.filter.SelectRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilterRequest;
+import org.opentripplanner.transit.model.basic.MainAndSubMode;
+import org.opentripplanner.transit.model.basic.TransitMode;
+
+class RaptorRequestTripPatternCacheTest {
+
+  private static final ZonedDateTime TIME_ZERO = ZonedDateTime.of(
+    2024,
+    5,
+    1,
+    0,
+    0,
+    0,
+    0,
+    ZoneIds.OSLO
+  );
+
+  private final AtomicInteger created = new AtomicInteger();
+  private final RaptorRequestTripPatternCache subject = new RaptorRequestTripPatternCache(5);
+
+  @Test
+  void sameFilterReturnsCachedTripPatterns() {
+    var first = get(subject, TIME_ZERO, filter(busOnlyRequest()));
+    var second = get(subject, TIME_ZERO, filter(busOnlyRequest()));
+
+    assertSame(first, second);
+    assertEquals(1, created.get());
+  }
+
+  @Test
+  void differentFilterOrSearchDayIsNotCached() {
+    var bus = get(subject, TIME_ZERO, filter(busOnlyRequest()));
+    var all = get(subject, TIME_ZERO, filter(new RouteRequest()));
+    var nextDay = get(subject, TIME_ZERO.plusDays(1), filter(busOnlyRequest()));
+
+    assertNotSame(bus, all);
+    assertNotSame(bus, nextDay);
+    assertEquals(3, created.get());
+    assertEquals(3, subject.size());
+  }
+
+  @Test
+  void invalidateAndEmptyCopy() {
+    get(subject, TIME_ZERO, filter(busOnlyRequest()));
+
+    assertEquals(0, subject.emptyCopy().size());
+    assertEquals(1, subject.size());
+
+    subject.invalidate();
+    assertEquals(0, subject.size());
+
+    get(subject, TIME_ZERO, filter(busOnlyRequest()));
+    assertEquals(2, created.get());
+  }
+
+  @Test
+  void cacheIsDisabledWhenMaximumSizeIsZero() {
+    var disabled = new RaptorRequestTripPatternCache(0);
+    var first = get(disabled, TIME_ZERO, filter(busOnlyRequest()));
+    var second = get(disabled, TIME_ZERO, filter(busOnlyRequest()));
+
+    assertNotSame(first, second);
+    assertEquals(0, disabled.size());
+  }
+
+  private FilteredTripPatterns get(
+    RaptorRequestTripPatternCache cache,
+    ZonedDateTime transitSearchTimeZero,
+    TransitDataProviderFilter filter
+  ) {
+    return cache.get(
+      transitSearchTimeZero,
+      1,
+      2,
+      filter,
+      () -> {
+        created.incrementAndGet();
+        return new FilteredTripPatterns(List.of(), List.of());
+      }
+    );
+  }
+
+  private static TransitDataProviderFilter filter(RouteRequest request) {
+    return new RouteRequestTransitDataProviderFilter(request);
+  }
+
+  private static RouteRequest busOnlyRequest() {
+    var request = new RouteRequest();
+    request
+      .journey()
+      .transit()
+      .setFilters(
+        List.of(
+          TransitFilterRequest
+            .of()
+            .addSelect(
+              SelectRequest
+                .of()
+                .withTransportModes(List.of(new MainAndSubMode(TransitMode.BUS)))
+                .build()
+            )
+            .build()
+        )
+      );
+    return request;
+  }
+}
@@ -67,7 +67,8 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
       startOfTime,
       tripPatternsForDates,
       new TestTransitDataProviderFilter(),
-      TransitGroupPriorityService.empty()
+      TransitGroupPriorityService.empty(),
+      TripScheduleSearchType.TIME_FUNCTION
     );
 
     // Get the results
@@ -0,0 +1,182 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTripPattern;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor._data.transit.TestTripSearchTimetable;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * A simple benchmark comparing the {@link TripScheduleSearchType}s. Board and alight searches are
+ * run for random times and stop positions on patterns with 10, 100 and 1000 trips. The times are
+ * looked up in the same way as in the {@link TripPatternForDates}. The average time per search is
+ * printed for each search type.
+ * <p>
+ * This is not a unit test, run it from the IDE with the test classpath:
+ * <pre>
+ * TripScheduleSearchBenchmark [searches per round] [rounds]
+ * </pre>
+ */
+public class TripScheduleSearchBenchmark implements RaptorTestConstants {
+
+  private static final int N_STOPS = 20;
+  private static final int WARM_UP_ROUNDS = 5;
+  private static final int TRIP_FREQUENCY = 300;
+
+  private final Random random = new Random(11);
+
+  public static void main(String[] args) {
+    int searches = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+    var benchmark = new TripScheduleSearchBenchmark();
+
+    System.out.printf("%-8s %6s %14s %14s%n", "Search", "Trips", "TimeFunction", "PackedArray");
+    for (var direction : SearchDirection.values()) {
+      for (int nTrips : new int[] { 10, 100, 1000 }) {
+        var timetable = benchmark.createTimetable(nTrips);
+        int[] times = benchmark.randomTimes(searches, nTrips);
+        int[] stops = benchmark.randomStopPositions(searches);
+        double timeFunction = run(
+          direction,
+          timetable,
+          TripScheduleSearchType.TIME_FUNCTION,
+          times,
+          stops,
+          rounds
+        );
+        double packed = run(
+          direction,
+          timetable,
+          TripScheduleSearchType.PACKED_ARRAY,
+          times,
+          stops,
+          rounds
+        );
+        System.out.printf(
+          "%-8s %6d %11.1f ns %11.1f ns%n",
+          direction.isForward() ? "Board" : "Alight",
+          nTrips,
+          timeFunction,
+          packed
+        );
+      }
+    }
+  }
+
+  /**
+   * Run the searches and return the average time per search in nanoseconds.
+   */
+  private static double run(
+    SearchDirection direction,
+    Timetable timetable,
+    TripScheduleSearchType type,
+    int[] times,
+    int[] stops,
+    int rounds
+  ) {
+    var search = TripScheduleSearchFactory.create(direction, timetable, type);
+    for (int i = 0; i < WARM_UP_ROUNDS; ++i) {
+      search(search, times, stops);
+    }
+    long start = System.nanoTime();
+    long found = 0;
+    for (int i = 0; i < rounds; ++i) {
+      found += search(search, times, stops);
+    }
+    if (found == 0) {
+      throw new IllegalStateException("No trips found");
+    }
+    return (System.nanoTime() - start) / (double) rounds / times.length;
+  }
+
+  private static long search(
+    RaptorTripScheduleSearch<TestTripSchedule> search,
+    int[] times,
+    int[] stops
+  ) {
+    long found = 0;
+    for (int i = 0; i < times.length; ++i) {
+      found += search.search(times[i], stops[i], RaptorTripScheduleSearch.UNBOUNDED_TRIP_INDEX)
+        .tripIndex();
+    }
+    return found;
+  }
+
+  private Timetable createTimetable(int nTrips) {
+    var stops = new int[N_STOPS];
+    var times = new int[N_STOPS];
+    for (int s = 0; s < N_STOPS; ++s) {
+      stops[s] = STOP_A + s;
+      times[s] = s == 0 ? 0 : times[s - 1] + 60 + random.nextInt(240);
+    }
+    var route = TestRoute
+      .route(TestTripPattern.pattern("R1", stops))
+      .withTimetable(TestTripSchedule.schedule().times(times).repeat(nTrips, TRIP_FREQUENCY));
+    return new Timetable(new TestTripSearchTimetable(route), nTrips);
+  }
+
+  private int[] randomTimes(int size, int nTrips) {
+    int[] result = new int[size];
+    for (int i = 0; i < size; ++i) {
+      result[i] = random.nextInt((nTrips + 2) * TRIP_FREQUENCY);
+    }
+    return result;
+  }
+
+  private int[] randomStopPositions(int size) {
+    int[] result = new int[size];
+    for (int i = 0; i < size; ++i) {
+      result[i] = random.nextInt(N_STOPS);
+    }
+    return result;
+  }
+
+  /**
+   * Look up the times in the same way as the {@link TripPatternForDates}.
+   */
+  private record Timetable(TestTripSearchTimetable delegate, int nTrips)
+    implements TripSearchTimetable<TestTripSchedule> {
+    @Override
+    public IntUnaryOperator getArrivalTimes(int stopPositionInPattern) {
+      final int[] times = delegate.packedArrivalTimes();
+      final int base = stopPositionInPattern * nTrips;
+      return (int index) -> times[base + index];
+    }
+
+    @Override
+    public IntUnaryOperator getDepartureTimes(int stopPositionInPattern) {
+      final int[] times = delegate.packedDepartureTimes();
+      final int base = stopPositionInPattern * nTrips;
+      return (int index) -> times[base + index];
+    }
+
+    @Override
+    public int[] packedArrivalTimes() {
+      return delegate.packedArrivalTimes();
+    }
+
+    @Override
+    public int[] packedDepartureTimes() {
+      return delegate.packedDepartureTimes();
+    }
+
+    @Override
+    public TestTripSchedule getTripSchedule(int index) {
+      return delegate.getTripSchedule(index);
+    }
+
+    @Override
+    public int numberOfTripSchedules() {
+      return nTrips;
+    }
+
+    @Override
+    public RaptorTripScheduleSearch<TestTripSchedule> tripSearch(SearchDirection direction) {
+      return TripScheduleSearchFactory.create(direction, this);
+    }
+  }
+}
@@ -7,6 +7,7 @@ import static org.opentripplanner.routing.api.request.preference.ImmutablePrefer
 import java.time.Duration;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.opentripplanner.astar.AStarQueueType;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.framework.TimeAndCostPenalty;
 import org.opentripplanner.routing.api.request.framework.TimePenalty;
@@ -19,6 +20,7 @@ class StreetPreferencesTest {
   private static final Duration MAX_ACCESS_EGRESS = Duration.ofMinutes(5);
   private static final Duration MAX_DIRECT = Duration.ofMinutes(10);
   private static final Duration ROUTING_TIMEOUT = Duration.ofSeconds(3);
+  private static final AStarQueueType SEARCH_QUEUE = AStarQueueType.INDEXED_DARY_HEAP;
   private static final DrivingDirection DRIVING_DIRECTION = DrivingDirection.LEFT;
   private static final int ELEVATOR_BOARD_TIME = (int) Duration.ofMinutes(2).toSeconds();
   private static final IntersectionTraversalModel INTERSECTION_TRAVERSAL_MODEL =
@@ -38,6 +40,7 @@ class StreetPreferencesTest {
     .withAccessEgress(it -> it.withMaxDuration(MAX_ACCESS_EGRESS, Map.of()))
     .withMaxDirectDuration(MAX_DIRECT, Map.of())
     .withRoutingTimeout(ROUTING_TIMEOUT)
+    .withSearchQueue(SEARCH_QUEUE)
     .build();
 
   @Test
@@ -84,6 +87,11 @@ class StreetPreferencesTest {
     assertEquals(ROUTING_TIMEOUT, subject.routingTimeout());
   }
 
+  @Test
+  void searchQueue() {
+    assertEquals(SEARCH_QUEUE, subject.searchQueue());
+  }
+
   @Test
   void testOfAndCopyOf() {
     // Return same object if no value is set
@@ -107,6 +115,7 @@ class StreetPreferencesTest {
       "turnReluctance: 2.0, " +
       "drivingDirection: LEFT, " +
       "routingTimeout: 3s, " +
+      "searchQueue: INDEXED_DARY_HEAP, " +
       "elevator: ElevatorPreferences{boardTime: 2m}, " +
       "intersectionTraversalModel: CONSTANT, " +
       "accessEgress: AccessEgressPreferences{penalty: TimeAndCostPenaltyForEnum{CAR_TO_PARK: " +
@@ -0,0 +1,100 @@
+package org.opentripplanner.standalone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.standalone.IncrementalGraphBuild.STREET_GRAPH_FINGERPRINT_FILENAME;
+
+import java.io.File;
+import java.nio.file.Files;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opentripplanner.graph_builder.StreetGraphFingerprint;
+import org.opentripplanner.graph_builder.module.osm.OsmModule;
+import org.opentripplanner.routing.graph.SerializedGraphObject;
+import org.opentripplanner.standalone.config.CommandLineParameters;
+import org.opentripplanner.standalone.configure.LoadApplication;
+import org.opentripplanner.test.support.ResourceLoader;
+
+class IncrementalGraphBuildTest {
+
+  @TempDir
+  File baseDir;
+
+  private File osmFile;
+  private File fingerprintFile;
+  private CommandLineParameters cli;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    osmFile = new File(baseDir, "ehningen-minimal.osm.pbf");
+    Files.copy(
+      ResourceLoader.of(OsmModule.class).file("ehningen-minimal.osm.pbf").toPath(),
+      osmFile.toPath()
+    );
+    fingerprintFile = new File(baseDir, STREET_GRAPH_FINGERPRINT_FILENAME);
+    cli = CommandLineParameters.createCliForTest(baseDir);
+    cli.build = true;
+    cli.incremental = true;
+  }
+
+  @Test
+  void buildStreetGraph() {
+    var params = new IncrementalGraphBuild(cli).buildStreetGraphIfChanged();
+
+    assertTransitBuild(params);
+    assertTrue(fingerprintFile.exists());
+    assertFingerprintIsUpToDate();
+
+    // The transit build loads the saved street graph
+    var loadApp = new LoadApplication(params);
+    assertEquals(loadApp.getStreetGraphDataStore().path(), loadApp.getInputGraphDataStore().path());
+    var streetGraph = SerializedGraphObject.load(loadApp.getInputGraphDataStore());
+    assertTrue(streetGraph.graph.countVertices() > 0);
+  }
+
+  @Test
+  void reuseStreetGraph() {
+    new IncrementalGraphBuild(cli).buildStreetGraphIfChanged();
+    var streetGraph = new LoadApplication(cli).getStreetGraphDataStore();
+    long streetGraphModified = streetGraph.lastModified();
+    // The modification time of the fingerprint file is not part of the fingerprint
+    assertTrue(fingerprintFile.setLastModified(1000L));
+
+    var params = new IncrementalGraphBuild(cli).buildStreetGraphIfChanged();
+
+    assertTransitBuild(params);
+    assertEquals(1000L, fingerprintFile.lastModified());
+    assertEquals(streetGraphModified, streetGraph.lastModified());
+  }
+
+  @Test
+  void rebuildStreetGraphWhenTheInputsChange() {
+    new IncrementalGraphBuild(cli).buildStreetGraphIfChanged();
+    assertTrue(fingerprintFile.setLastModified(1000L));
+    assertTrue(osmFile.setLastModified(osmFile.lastModified() - 60_000L));
+
+    var params = new IncrementalGraphBuild(cli).buildStreetGraphIfChanged();
+
+    assertTransitBuild(params);
+    assertNotEquals(1000L, fingerprintFile.lastModified());
+    assertFingerprintIsUpToDate();
+  }
+
+  private void assertFingerprintIsUpToDate() {
+    var loadApp = new LoadApplication(cli);
+    var saved = StreetGraphFingerprint.load(fingerprintFile).orElseThrow();
+    var changes = loadApp
+      .streetGraphFingerprint()
+      .listChanges(saved, loadApp.getStreetGraphDataStore());
+    assertEquals(0, changes.size(), changes.toString());
+  }
+
+  private static void assertTransitBuild(CommandLineParameters params) {
+    assertTrue(params.doLoadStreetGraph());
+    assertTrue(params.doBuildTransit());
+    assertFalse(params.doBuildStreet());
+  }
+}
@@ -85,6 +85,38 @@ public class CommandLineParametersTest {
     assertFalse(subject.doSaveGraph());
   }
 
+  @Test
+  public void incrementalBuild() {
+    subject.build = true;
+    subject.incremental = true;
+    subject.save = true;
+    subject.serve = true;
+    assertTrue(subject.doIncrementalBuild());
+    subject.inferAndValidate();
+
+    var street = subject.incrementalStreetGraphBuild();
+    assertTrue(street.doBuildStreet());
+    assertFalse(street.doBuildTransit());
+    assertTrue(street.doSaveStreetGraph());
+    assertFalse(street.doServe());
+    street.inferAndValidate();
+
+    var transit = subject.incrementalTransitBuild();
+    assertTrue(transit.doLoadStreetGraph());
+    assertFalse(transit.doBuildStreet());
+    assertTrue(transit.doSaveGraph());
+    assertTrue(transit.doServe());
+    transit.inferAndValidate();
+
+    // The original parameters are not changed
+    assertTrue(subject.doIncrementalBuild());
+  }
+
+  @Test
+  public void incrementalRequiresBuild() {
+    validateWith().loadStreet().save().incremental().expectNotValid();
+  }
+
   @Test
   public void doLoadGraph() {
     subject.load = true;
@@ -198,6 +230,11 @@ public class CommandLineParametersTest {
       return this;
     }
 
+    TestValidation incremental() {
+      subject.incremental = true;
+      return this;
+    }
+
     TestValidation server() {
       subject.serve = true;
       return this;
@@ -0,0 +1,359 @@
+package org.opentripplanner.street.search.ch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
+import static org.opentripplanner.street.search.ch.ContractionHierarchyMetric.INF;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.core.VehicleRoutingOptimizeType;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+class ContractionHierarchyTest {
+
+  private static final int GRID_SIZE = 15;
+  private static final double GRID_SPACING = 0.001;
+  private static final StreetTraversalPermission[] PERMISSIONS = {
+    StreetTraversalPermission.ALL,
+    StreetTraversalPermission.ALL,
+    StreetTraversalPermission.ALL,
+    StreetTraversalPermission.CAR,
+    StreetTraversalPermission.PEDESTRIAN_AND_BICYCLE,
+    StreetTraversalPermission.PEDESTRIAN,
+  };
+
+  private static final Map<StreetMode, StreetSearchRequest> WEIGHT_REQUESTS = new EnumMap<>(
+    Map.of(
+      StreetMode.CAR,
+      ContractionHierarchyMetric.searchRequest(StreetMode.CAR, RoutingPreferences.DEFAULT),
+      StreetMode.BIKE,
+      ContractionHierarchyMetric.searchRequest(StreetMode.BIKE, RoutingPreferences.DEFAULT)
+    )
+  );
+
+  private final Random random = new Random(7);
+  private final List<StreetVertex> vertices = new ArrayList<>();
+  private final StreetVertex[][] grid = new StreetVertex[GRID_SIZE][GRID_SIZE];
+
+  /** Not part of the hierarchy, used as a temporary vertex connected to the grid */
+  private final StreetVertex temporary = intersectionVertex("T", 60.0, 9.9995);
+
+  private final ContractionHierarchy subject;
+
+  ContractionHierarchyTest() {
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        grid[i][j] =
+          intersectionVertex("V" + i + "_" + j, 60.0 + i * GRID_SPACING, 10.0 + j * GRID_SPACING);
+        vertices.add(grid[i][j]);
+      }
+    }
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        if (i + 1 < GRID_SIZE) {
+          randomStreet(grid[i][j], grid[i + 1][j]);
+        }
+        if (j + 1 < GRID_SIZE) {
+          randomStreet(grid[i][j], grid[i][j + 1]);
+        }
+      }
+    }
+    streetEdge(temporary, grid[0][0], 50, StreetTraversalPermission.ALL);
+    streetEdge(grid[0][0], temporary, 50, StreetTraversalPermission.ALL);
+
+    subject = ContractionHierarchy.of(vertices, Set.of(StreetMode.CAR, StreetMode.BIKE));
+  }
+
+  @Test
+  void hierarchy() {
+    assertEquals(Set.of(StreetMode.CAR, StreetMode.BIKE), subject.modes());
+    // Vertices only connected by pedestrian streets are not part of the hierarchy
+    long expectedVertices = vertices.stream().filter(this::hasCarOrBikeStreet).count();
+    assertEquals(expectedVertices, subject.numberOfVertices());
+    assertEquals(-1, subject.index(temporary));
+    assertNull(subject.metric(StreetMode.WALK));
+
+    for (int v = 0; v < subject.numberOfVertices(); ++v) {
+      assertEquals(v, subject.index(subject.vertex(v)));
+      for (int arc = subject.arcBegin(v); arc < subject.arcEnd(v); ++arc) {
+        assertEquals(v, subject.arcTail(arc));
+        assertTrue(subject.arcHead(arc) > v);
+        assertEquals(arc, subject.findArc(v, subject.arcHead(arc)));
+      }
+    }
+  }
+
+  @Test
+  void unsupportedMode() {
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> ContractionHierarchy.of(vertices, Set.of(StreetMode.WALK))
+    );
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "CAR", "BIKE" })
+  void shortestPath(StreetMode mode) {
+    var search = new ContractionHierarchySearch(subject, mode);
+    for (int i = 0; i < 200; ++i) {
+      Vertex from = vertices.get(random.nextInt(vertices.size()));
+      Vertex to = vertices.get(random.nextInt(vertices.size()));
+      int expected = dijkstra(from, mode).getOrDefault(to, INF);
+
+      var path = search.route(Set.of(from), Set.of(to));
+
+      if (expected == INF) {
+        assertFalse(path.isPresent());
+      } else {
+        assertTrue(path.isPresent());
+        assertEquals(expected, path.get().weight());
+        assertPath(path.get(), from, to, mode);
+      }
+    }
+  }
+
+  @Test
+  void temporaryOriginAndDestination() {
+    Vertex to = grid[GRID_SIZE - 1][GRID_SIZE - 1];
+    int expected = dijkstra(temporary, StreetMode.BIKE).get(to);
+
+    var search = new ContractionHierarchySearch(subject, StreetMode.BIKE);
+    var path = search.route(Set.of(temporary), Set.of(to)).orElseThrow();
+    assertEquals(expected, path.weight());
+    assertPath(path, temporary, to, StreetMode.BIKE);
+
+    var back = search.route(Set.of(to), Set.of(temporary)).orElseThrow();
+    assertPath(back, to, temporary, StreetMode.BIKE);
+
+    // The origin and destination are connected without using the hierarchy
+    var direct = search.route(Set.of(temporary), Set.of(grid[0][0])).orElseThrow();
+    assertEquals(1, direct.edges().size());
+  }
+
+  @Test
+  void traversePath() {
+    Vertex from = grid[1][2];
+    Vertex to = grid[GRID_SIZE - 2][GRID_SIZE - 1];
+    var path = new ContractionHierarchySearch(subject, StreetMode.CAR)
+      .route(Set.of(from), Set.of(to))
+      .orElseThrow();
+
+    for (boolean arriveBy : new boolean[] { false, true }) {
+      var request = request(it -> {});
+      request.setArriveBy(arriveBy);
+      var paths = StreetSearchBuilder
+        .of()
+        .setRequest(request)
+        .setStreetRequest(new StreetRequest(StreetMode.CAR))
+        .setFrom(from)
+        .setTo(to)
+        .getContractionHierarchyPathsToTarget(subject, Duration.ofHours(1));
+
+      assertEquals(1, paths.size());
+      var graphPath = paths.getFirst();
+      assertEquals(path.edges(), graphPath.edges);
+      assertEquals(from, graphPath.states.getFirst().getVertex());
+      assertEquals(to, graphPath.states.getLast().getVertex());
+    }
+
+    var tooLong = StreetSearchBuilder
+      .of()
+      .setRequest(request(it -> {}))
+      .setStreetRequest(new StreetRequest(StreetMode.CAR))
+      .setFrom(from)
+      .setTo(to)
+      .getContractionHierarchyPathsToTarget(subject, Duration.ofSeconds(1));
+    assertTrue(tooLong.isEmpty());
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "CAR", "BIKE" })
+  void sameWeightAsAStar(StreetMode mode) {
+    assertSameWeightAsAStar(mode, request(it -> {}));
+  }
+
+  @Test
+  void sameWeightAsAStarWithScaledCarWeights() {
+    // The car reluctance is the same for all streets, so it does not change the shortest path
+    assertSameWeightAsAStar(StreetMode.CAR, request(it -> it.withCar(c -> c.withReluctance(3.5))));
+  }
+
+  @Test
+  void requestsWithOtherWeightsAreNotServed() {
+    // The default turn reluctance adds turn costs, which are not part of the hierarchy
+    var turnCosts = new RouteRequest();
+    assertTrue(contractionHierarchyPaths(StreetMode.CAR, turnCosts).isEmpty());
+    assertFalse(contractionHierarchyPaths(StreetMode.CAR, request(it -> {})).isEmpty());
+
+    var otherBikeWeights = List.of(
+      turnCosts,
+      request(it ->
+        it.withBike(b -> b.withOptimizeType(VehicleRoutingOptimizeType.SHORTEST_DURATION))
+      ),
+      request(it -> it.withBike(b -> b.withSpeed(8.0))),
+      request(it -> it.withBike(b -> b.withReluctance(3.0))),
+      request(it -> it.withBike(b -> b.withWalking(w -> w.withMountDismountCost(60))))
+    );
+    for (var request : otherBikeWeights) {
+      assertTrue(contractionHierarchyPaths(StreetMode.BIKE, request).isEmpty());
+    }
+    assertFalse(contractionHierarchyPaths(StreetMode.BIKE, request(it -> {})).isEmpty());
+  }
+
+  /**
+   * The path found using the hierarchy has the same weight as the path found by A*, using the
+   * full street model.
+   */
+  private void assertSameWeightAsAStar(StreetMode mode, RouteRequest request) {
+    int nPaths = 0;
+    for (int i = 0; i < 50; ++i) {
+      Vertex from = vertices.get(random.nextInt(vertices.size()));
+      Vertex to = vertices.get(random.nextInt(vertices.size()));
+      if (from == to) {
+        continue;
+      }
+      var aStar = StreetSearchBuilder
+        .of()
+        .setRequest(request)
+        .setStreetRequest(new StreetRequest(mode))
+        .setFrom(from)
+        .setTo(to)
+        .getPathsToTarget();
+      var ch = StreetSearchBuilder
+        .of()
+        .setRequest(request)
+        .setStreetRequest(new StreetRequest(mode))
+        .setFrom(from)
+        .setTo(to)
+        .getContractionHierarchyPathsToTarget(subject, Duration.ofHours(10));
+
+      assertEquals(aStar.size(), ch.size());
+      if (!aStar.isEmpty()) {
+        // The hierarchy weights are rounded to milliseconds for each street
+        assertEquals(aStar.getFirst().getWeight(), ch.getFirst().getWeight(), 0.05);
+        ++nPaths;
+      }
+    }
+    assertTrue(nPaths > 0);
+  }
+
+  private List<GraphPath<State, Edge, Vertex>> contractionHierarchyPaths(
+    StreetMode mode,
+    RouteRequest request
+  ) {
+    return StreetSearchBuilder
+      .of()
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(grid[0][0])
+      .setTo(grid[GRID_SIZE - 1][GRID_SIZE - 1])
+      .getContractionHierarchyPathsToTarget(subject, Duration.ofHours(10));
+  }
+
+  /**
+   * A request with the default preferences except for the turn reluctance, the turn costs are not
+   * part of the hierarchy.
+   */
+  private static RouteRequest request(Consumer<RoutingPreferences.Builder> body) {
+    var request = new RouteRequest();
+    request.withPreferences(it -> it.withStreet(s -> s.withTurnReluctance(0.0)).apply(body));
+    return request;
+  }
+
+  private void assertPath(ContractionHierarchyPath path, Vertex from, Vertex to, StreetMode mode) {
+    assertEquals(from, path.from());
+    assertEquals(to, path.to());
+    Vertex current = from;
+    int weight = 0;
+    for (Edge edge : path.edges()) {
+      assertEquals(current, edge.getFromVertex());
+      weight = ContractionHierarchyMetric.add(weight, weight(edge, mode));
+      current = edge.getToVertex();
+    }
+    assertEquals(to, current);
+    assertEquals(path.weight(), weight);
+  }
+
+  private boolean hasCarOrBikeStreet(Vertex v) {
+    return Stream
+      .concat(v.getOutgoing().stream(), v.getIncoming().stream())
+      .filter(e -> e.getFromVertex() != temporary && e.getToVertex() != temporary)
+      .anyMatch(e -> weight(e, StreetMode.CAR) != INF || weight(e, StreetMode.BIKE) != INF);
+  }
+
+  /** A plain Dijkstra search using the same edge weights as the hierarchy. */
+  private static Map<Vertex, Integer> dijkstra(Vertex from, StreetMode mode) {
+    var result = new HashMap<Vertex, Integer>();
+    var queue = new PriorityQueue<Map.Entry<Vertex, Integer>>(
+      Comparator.comparingInt(Map.Entry::getValue)
+    );
+    queue.add(Map.entry(from, 0));
+    while (!queue.isEmpty()) {
+      var it = queue.poll();
+      if (result.putIfAbsent(it.getKey(), it.getValue()) != null) {
+        continue;
+      }
+      for (Edge e : it.getKey().getOutgoing()) {
+        int weight = weight(e, mode);
+        if (weight != INF && !result.containsKey(e.getToVertex())) {
+          queue.add(Map.entry(e.getToVertex(), it.getValue() + weight));
+        }
+      }
+    }
+    return result;
+  }
+
+  private static int weight(Edge edge, StreetMode mode) {
+    return ContractionHierarchyMetric.edgeWeight((StreetEdge) edge, WEIGHT_REQUESTS.get(mode));
+  }
+
+  /** Add a street with random permission, speed and safety, and make some of them one-way. */
+  private void randomStreet(StreetVertex a, StreetVertex b) {
+    double length = SphericalDistanceLibrary.distance(a.getCoordinate(), b.getCoordinate());
+    var permission = PERMISSIONS[random.nextInt(PERMISSIONS.length)];
+    float carSpeed = 5f + random.nextInt(25);
+    float safety = 0.5f + random.nextFloat() * 2f;
+    streetEdgeBuilder(a, b, length, permission)
+      .withCarSpeed(carSpeed)
+      .withBicycleSafetyFactor(safety)
+      .buildAndConnect();
+    if (random.nextInt(5) > 0) {
+      streetEdgeBuilder(b, a, length, permission)
+        .withCarSpeed(carSpeed)
+        .withBicycleSafetyFactor(safety)
+        .buildAndConnect();
+    }
+  }
+}
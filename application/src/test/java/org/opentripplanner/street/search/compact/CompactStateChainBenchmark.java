@@ -0,0 +1,186 @@
+package org.opentripplanner.street.search.compact;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+
+/**
+ * A simple benchmark comparing the states created by the A* search with the states created by
+ * the compact street search and the {@link CompactStateChain}. A street grid is created with a
+ * target (like a transit stop) at every {@link #TARGET_SPACING} intersection, and a one-to-many
+ * search is run from the center of the grid for WALK, BIKE and CAR with increasing max duration.
+ * The states at the targets are returned, the same way as the access and egress search does.
+ * <p>
+ * The average time and the average number of bytes allocated per search is printed for each
+ * search, the allocation is measured with the {@link ThreadMXBean} of the JVM.
+ * <p>
+ * This is not a unit test, run it from the IDE with the test classpath:
+ * <pre>
+ * CompactStateChainBenchmark [grid size] [iterations]
+ * </pre>
+ */
+public class CompactStateChainBenchmark {
+
+  /** The distance between two streets in the grid in degrees, about 110 meters north-south. */
+  private static final double GRID_SPACING = 0.001;
+  private static final int TARGET_SPACING = 4;
+  private static final int WARM_UP_ITERATIONS = 3;
+
+  private final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+  private final StreetVertex center;
+  private final Set<Vertex> targets = new HashSet<>();
+  private final CompactStreetGraph compactStreetGraph;
+
+  private CompactStateChainBenchmark(int gridSize) {
+    var vertices = new StreetVertex[gridSize][gridSize];
+    List<Vertex> allVertices = new ArrayList<>();
+    for (int i = 0; i < gridSize; ++i) {
+      for (int j = 0; j < gridSize; ++j) {
+        vertices[i][j] =
+          StreetModelForTest.intersectionVertex(
+            "V" + i + "_" + j,
+            60.0 + i * GRID_SPACING,
+            10.0 + j * GRID_SPACING
+          );
+        allVertices.add(vertices[i][j]);
+        if (i % TARGET_SPACING == 0 && j % TARGET_SPACING == 0) {
+          targets.add(vertices[i][j]);
+        }
+      }
+    }
+    for (int i = 0; i < gridSize; ++i) {
+      for (int j = 0; j < gridSize; ++j) {
+        if (i + 1 < gridSize) {
+          street(vertices[i][j], vertices[i + 1][j]);
+        }
+        if (j + 1 < gridSize) {
+          street(vertices[i][j], vertices[i][j + 1]);
+        }
+        // Add a few diagonal streets, so there is more than one path with the same cost
+        if (i + 1 < gridSize && j + 1 < gridSize && (i + j) % 3 == 0) {
+          street(vertices[i][j], vertices[i + 1][j + 1]);
+        }
+      }
+    }
+    this.center = vertices[gridSize / 2][gridSize / 2];
+    this.compactStreetGraph = CompactStreetGraph.of(allVertices);
+  }
+
+  public static void main(String[] args) {
+    int gridSize = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    var benchmark = new CompactStateChainBenchmark(gridSize);
+
+    System.out.printf(
+      "%-5s %8s %8s %14s %14s %12s %12s%n",
+      "Mode",
+      "Max",
+      "Targets",
+      "A*",
+      "Compact",
+      "A* MB",
+      "Compact MB"
+    );
+    for (var mode : List.of(StreetMode.WALK, StreetMode.BIKE, StreetMode.CAR)) {
+      for (int minutes : new int[] { 5, 10, 20, 40 }) {
+        var maxDuration = Duration.ofMinutes(minutes);
+        var aStar = benchmark.run(iterations, () -> benchmark.aStar(mode, maxDuration));
+        var compact = benchmark.run(iterations, () -> benchmark.compact(mode, maxDuration));
+        System.out.printf(
+          "%-5s %6dm %8d %11.2f ms %11.2f ms %12.1f %12.1f%n",
+          mode,
+          minutes,
+          compact.nTargets(),
+          aStar.millis(),
+          compact.millis(),
+          aStar.megabytes(),
+          compact.megabytes()
+        );
+      }
+    }
+  }
+
+  /**
+   * Run the search and return the average time in milliseconds, the average allocation in
+   * megabytes and the number of targets reached.
+   */
+  private Result run(int iterations, Search search) {
+    for (int i = 0; i < WARM_UP_ITERATIONS; ++i) {
+      search.run();
+    }
+    long allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    int nTargets = 0;
+    for (int i = 0; i < iterations; ++i) {
+      nTargets = search.run().size();
+    }
+    long time = System.nanoTime() - start;
+    allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBytes;
+    if (nTargets == 0) {
+      throw new IllegalStateException("No targets reached");
+    }
+    return new Result(
+      time / 1_000_000.0 / iterations,
+      allocatedBytes / 1_000_000.0 / iterations,
+      nTargets
+    );
+  }
+
+  private List<State> aStar(StreetMode mode, Duration maxDuration) {
+    var spt = searchBuilder(mode)
+      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(maxDuration))
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .getShortestPathTree();
+    var states = new ArrayList<State>();
+    for (State state : spt.getAllStates()) {
+      if (targets.contains(state.getVertex()) && state.isFinal()) {
+        states.add(state);
+      }
+    }
+    return states;
+  }
+
+  private List<State> compact(StreetMode mode, Duration maxDuration) {
+    return searchBuilder(mode)
+      .getCompactStates(compactStreetGraph, maxDuration, targets::contains)
+      .orElseThrow();
+  }
+
+  private StreetSearchBuilder searchBuilder(StreetMode mode) {
+    return StreetSearchBuilder
+      .of()
+      .setRequest(new RouteRequest())
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(center);
+  }
+
+  private static void street(StreetVertex a, StreetVertex b) {
+    double length = SphericalDistanceLibrary.distance(a.getCoordinate(), b.getCoordinate());
+    StreetModelForTest.streetEdge(a, b, length, StreetTraversalPermission.ALL);
+    StreetModelForTest.streetEdge(b, a, length, StreetTraversalPermission.ALL);
+  }
+
+  @FunctionalInterface
+  private interface Search {
+    /** Run the search and return the states at the targets. */
+    List<State> run();
+  }
+
+  private record Result(double millis, double megabytes, int nTargets) {}
+}
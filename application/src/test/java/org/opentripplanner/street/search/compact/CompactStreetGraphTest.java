@@ -0,0 +1,56 @@
+package org.opentripplanner.street.search.compact;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdgeBuilder;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+class CompactStreetGraphTest {
+
+  private static final double DELTA = 0.001;
+
+  private final StreetVertex v0 = intersectionVertex("V0", 0, -0.001);
+  private final StreetVertex v1 = intersectionVertex("V1", 0, 0);
+  private final StreetVertex v2 = intersectionVertex("V2", 0, 0.001);
+  private final StreetVertex v3 = intersectionVertex("V3", 0, 0.002);
+  private final StreetVertex v4 = intersectionVertex("V4", 0.001, 0.001);
+
+  @Test
+  void compactGraph() {
+    streetEdge(v0, v1, 50, StreetTraversalPermission.ALL);
+    var e12 = streetEdge(v1, v2, 100, StreetTraversalPermission.ALL);
+    streetEdge(v2, v3, 100, StreetTraversalPermission.PEDESTRIAN);
+    streetEdge(v1, v4, 300, StreetTraversalPermission.CAR);
+    streetEdge(v4, v3, 100, StreetTraversalPermission.ALL);
+    // V0 is not part of the compact graph, so the edge from V0 is left out
+    var subject = CompactStreetGraph.of(List.of(v1, v2, v3, v4));
+
+    assertEquals(4, subject.numberOfVertices());
+    assertEquals(4, subject.numberOfEdges());
+    assertEquals(-1, subject.index(v0));
+
+    int v1Index = subject.index(v1);
+    int v3Index = subject.index(v3);
+    assertSame(v1, subject.vertex(v1Index));
+    assertEquals(2, subject.outgoingEnd(v1Index) - subject.outgoingBegin(v1Index));
+    assertEquals(2, subject.incomingEnd(v3Index) - subject.incomingBegin(v3Index));
+
+    int edge = subject.outgoingBegin(v1Index);
+    assertSame(e12, subject.edge(edge));
+    assertEquals(v1Index, subject.fromVertex(edge));
+    assertEquals(subject.index(v2), subject.toVertex(edge));
+    assertEquals(100.0, subject.lengthMeters(edge), DELTA);
+    assertTrue(subject.allows(edge, CompactStreetGraph.permissionCode(TraverseMode.CAR)));
+    assertEquals(StreetEdgeBuilder.DEFAULT_CAR_SPEED, subject.carSpeed(edge), DELTA);
+    assertFalse(subject.hasFlag(edge, CompactStreetGraph.FLAG_STAIRS));
+  }
+}
@@ -0,0 +1,163 @@
+package org.opentripplanner.street.search.compact;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+
+/**
+ * A simple benchmark comparing the {@link CompactStreetSearch} with the A* search on the object
+ * graph. A street grid is created, and a one-to-many search is run from the center of the grid
+ * for WALK, BIKE and CAR with increasing max duration. The average time per search and the number
+ * of vertices reached is printed for each search.
+ * <p>
+ * This is not a unit test, run it from the IDE with the test classpath:
+ * <pre>
+ * CompactStreetSearchBenchmark [grid size] [iterations]
+ * </pre>
+ */
+public class CompactStreetSearchBenchmark {
+
+  /** The distance between two streets in the grid in degrees, about 110 meters north-south. */
+  private static final double GRID_SPACING = 0.001;
+  private static final int WARM_UP_ITERATIONS = 3;
+
+  private final StreetVertex center;
+  private final CompactStreetGraph compactStreetGraph;
+
+  private CompactStreetSearchBenchmark(int gridSize) {
+    var vertices = new StreetVertex[gridSize][gridSize];
+    List<Vertex> allVertices = new ArrayList<>();
+    for (int i = 0; i < gridSize; ++i) {
+      for (int j = 0; j < gridSize; ++j) {
+        vertices[i][j] =
+          StreetModelForTest.intersectionVertex(
+            "V" + i + "_" + j,
+            60.0 + i * GRID_SPACING,
+            10.0 + j * GRID_SPACING
+          );
+        allVertices.add(vertices[i][j]);
+      }
+    }
+    for (int i = 0; i < gridSize; ++i) {
+      for (int j = 0; j < gridSize; ++j) {
+        if (i + 1 < gridSize) {
+          street(vertices[i][j], vertices[i + 1][j]);
+        }
+        if (j + 1 < gridSize) {
+          street(vertices[i][j], vertices[i][j + 1]);
+        }
+        // Add a few diagonal streets, so there is more than one path with the same cost
+        if (i + 1 < gridSize && j + 1 < gridSize && (i + j) % 3 == 0) {
+          street(vertices[i][j], vertices[i + 1][j + 1]);
+        }
+      }
+    }
+    this.center = vertices[gridSize / 2][gridSize / 2];
+
+    long start = System.nanoTime();
+    this.compactStreetGraph = CompactStreetGraph.of(allVertices);
+    System.out.printf(
+      "Compact street graph with %d vertices created in %.2f ms%n%n",
+      compactStreetGraph.numberOfVertices(),
+      (System.nanoTime() - start) / 1_000_000.0
+    );
+  }
+
+  public static void main(String[] args) {
+    int gridSize = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    var benchmark = new CompactStreetSearchBenchmark(gridSize);
+
+    System.out.printf(
+      "%-5s %8s %14s %14s %8s %10s %10s%n",
+      "Mode",
+      "Max",
+      "A*",
+      "Compact",
+      "Speedup",
+      "A* n",
+      "Compact n"
+    );
+    for (var mode : List.of(StreetMode.WALK, StreetMode.BIKE, StreetMode.CAR)) {
+      for (int minutes : new int[] { 5, 10, 20, 40 }) {
+        var maxDuration = Duration.ofMinutes(minutes);
+        var aStar = benchmark.run(iterations, () -> benchmark.aStar(mode, maxDuration));
+        var compact = benchmark.run(iterations, () -> benchmark.compact(mode, maxDuration));
+        System.out.printf(
+          "%-5s %6dm %11.2f ms %11.2f ms %7.1fx %10d %10d%n",
+          mode,
+          minutes,
+          aStar.millis(),
+          compact.millis(),
+          aStar.millis() / compact.millis(),
+          aStar.nVertices(),
+          compact.nVertices()
+        );
+      }
+    }
+  }
+
+  /**
+   * Run the search and return the average time in milliseconds and the number of vertices
+   * reached.
+   */
+  private Result run(int iterations, Search search) {
+    for (int i = 0; i < WARM_UP_ITERATIONS; ++i) {
+      search.run();
+    }
+    long start = System.nanoTime();
+    int nVertices = 0;
+    for (int i = 0; i < iterations; ++i) {
+      nVertices = search.run();
+    }
+    if (nVertices == 0) {
+      throw new IllegalStateException("No vertices reached");
+    }
+    return new Result((System.nanoTime() - start) / 1_000_000.0 / iterations, nVertices);
+  }
+
+  private int aStar(StreetMode mode, Duration maxDuration) {
+    return searchBuilder(mode)
+      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(maxDuration))
+      .getShortestPathTree()
+      .getVertexCount();
+  }
+
+  private int compact(StreetMode mode, Duration maxDuration) {
+    return searchBuilder(mode)
+      .getCompactSearchResult(compactStreetGraph, maxDuration)
+      .nVisited();
+  }
+
+  private StreetSearchBuilder searchBuilder(StreetMode mode) {
+    return StreetSearchBuilder
+      .of()
+      .setRequest(new RouteRequest())
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(center);
+  }
+
+  private static void street(StreetVertex a, StreetVertex b) {
+    double length = SphericalDistanceLibrary.distance(a.getCoordinate(), b.getCoordinate());
+    StreetModelForTest.streetEdge(a, b, length, StreetTraversalPermission.ALL);
+    StreetModelForTest.streetEdge(b, a, length, StreetTraversalPermission.ALL);
+  }
+
+  @FunctionalInterface
+  private interface Search {
+    /** Run the search and return the number of vertices reached. */
+    int run();
+  }
+
+  private record Result(double millis, int nVertices) {}
+}
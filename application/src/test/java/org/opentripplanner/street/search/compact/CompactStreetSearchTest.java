@@ -0,0 +1,181 @@
+package org.opentripplanner.street.search.compact;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.StreetEdgeBuilder;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+class CompactStreetSearchTest {
+
+  private static final double DELTA = 0.001;
+  private static final double CAR_SPEED = StreetEdgeBuilder.DEFAULT_CAR_SPEED;
+  private static final Duration MAX_DURATION = Duration.ofHours(1);
+
+  private final StreetVertex v0 = intersectionVertex("V0", 0, -0.001);
+  private final StreetVertex v1 = intersectionVertex("V1", 0, 0);
+  private final StreetVertex v2 = intersectionVertex("V2", 0, 0.001);
+  private final StreetVertex v3 = intersectionVertex("V3", 0, 0.002);
+  private final StreetVertex v4 = intersectionVertex("V4", 0.001, 0.001);
+
+  private final StreetEdge e01 = streetEdge(v0, v1, 50, StreetTraversalPermission.ALL);
+  private final StreetEdge e12 = streetEdge(v1, v2, 100, StreetTraversalPermission.ALL);
+  private final StreetEdge e23 = streetEdge(v2, v3, 100, StreetTraversalPermission.PEDESTRIAN);
+  private final StreetEdge e14 = streetEdge(v1, v4, 300, StreetTraversalPermission.CAR);
+  private final StreetEdge e43 = streetEdge(v4, v3, 100, StreetTraversalPermission.ALL);
+
+  private final CompactStreetGraph subject;
+
+  CompactStreetSearchTest() {
+    // V0 is not part of the compact graph, and is used as a temporary vertex
+    subject = CompactStreetGraph.of(List.of(v1, v2, v3, v4));
+  }
+
+  @Test
+  void walk() {
+    var result = search(TraverseMode.WALK, false).route(Set.of(v1));
+
+    assertEquals(0.0, result.durationSeconds(v1), DELTA);
+    assertEquals(100.0, result.durationSeconds(v2), DELTA);
+    assertEquals(200.0, result.durationSeconds(v3), DELTA);
+    // Only cars are allowed from V1 to V4
+    assertTrue(Double.isInfinite(result.durationSeconds(v4)));
+    assertFalse(result.isReached(subject.index(v4)));
+    assertEquals(3, result.nVisited());
+  }
+
+  @Test
+  void car() {
+    var result = search(TraverseMode.CAR, false).route(Set.of(v1));
+
+    assertEquals(100.0 / CAR_SPEED, result.durationSeconds(v2), DELTA);
+    // Cars are not allowed from V2 to V3, so the car must go by V4
+    assertEquals(400.0 / CAR_SPEED, result.durationSeconds(v3), DELTA);
+  }
+
+  @Test
+  void arriveBy() {
+    var result = search(TraverseMode.WALK, true).route(Set.of(v3));
+
+    assertEquals(100.0, result.durationSeconds(v2), DELTA);
+    assertEquals(200.0, result.durationSeconds(v1), DELTA);
+    // V0 is not in the compact graph, but is reached following the edge to V1
+    assertEquals(250.0, result.durationSeconds(v0), DELTA);
+  }
+
+  @Test
+  void temporaryOrigin() {
+    var result = search(TraverseMode.WALK, false).route(Set.of(v0));
+
+    assertEquals(50.0, result.durationSeconds(v1), DELTA);
+    assertEquals(250.0, result.durationSeconds(v3), DELTA);
+    assertEquals(Duration.ofSeconds(250), result.duration(v3).orElseThrow());
+  }
+
+  @Test
+  void maxDuration() {
+    var search = new CompactStreetSearch(
+      subject,
+      TraverseMode.WALK,
+      1.0,
+      1.0,
+      false,
+      Duration.ofSeconds(150)
+    );
+    var result = search.route(Set.of(v1));
+
+    assertEquals(100.0, result.durationSeconds(v2), DELTA);
+    assertTrue(result.duration(v3).isEmpty());
+  }
+
+  @Test
+  void path() {
+    var path = search(TraverseMode.CAR, false).route(Set.of(v0)).path(v3).orElseThrow();
+
+    assertEquals(v0, path.origin());
+    assertEquals(List.of(e01, e14, e43), path.edges());
+    assertEquals(450.0, path.distanceMeters(), DELTA);
+    assertEquals(450.0 / CAR_SPEED, path.durationSeconds(), DELTA);
+  }
+
+  @Test
+  void arriveByPath() {
+    var result = search(TraverseMode.WALK, true).route(Set.of(v3));
+    var path = result.path(v0).orElseThrow();
+
+    assertEquals(v3, path.origin());
+    // The edges are listed in the search order
+    assertEquals(List.of(e23, e12, e01), path.edges());
+    assertEquals(250.0, path.durationSeconds(), DELTA);
+    assertEquals(List.of(e43), result.path(v4).orElseThrow().edges());
+  }
+
+  @Test
+  void reachedVertices() {
+    var result = search(TraverseMode.WALK, false).route(Set.of(v1));
+
+    assertEquals(List.of(v1, v2, v3), result.reachedVertices());
+  }
+
+  @Test
+  void stateChain() {
+    var result = search(TraverseMode.WALK, false).route(Set.of(v0));
+    var request = StreetSearchRequest.of().withMode(StreetMode.WALK).build();
+    var stateChain = new CompactStateChain(result, List.of(new State(v0, request)));
+
+    State state = stateChain.state(v3);
+
+    assertNotNull(state);
+    assertEquals(v3, state.getVertex());
+    assertEquals(e23, state.getBackEdge());
+    assertEquals(250.0, state.getWalkDistance(), DELTA);
+    // The states are shared by the paths with a common prefix
+    assertSame(state.getBackState(), stateChain.state(v2));
+    assertNull(stateChain.state(v4));
+  }
+
+  @Test
+  void arriveByStateChain() {
+    var result = search(TraverseMode.WALK, true).route(Set.of(v3));
+    var request = StreetSearchRequest.of().withMode(StreetMode.WALK).withArriveBy(true).build();
+    var stateChain = new CompactStateChain(result, List.of(new State(v3, request)));
+
+    State state = stateChain.state(v0);
+
+    assertNotNull(state);
+    assertEquals(v0, state.getVertex());
+    assertEquals(e01, state.getBackEdge());
+    assertEquals(250.0, state.getWalkDistance(), DELTA);
+  }
+
+  @Test
+  void stateChainWhenAnEdgeCanNotBeTraversed() {
+    var result = search(TraverseMode.WALK, false).route(Set.of(v1));
+    // Cars are not allowed from V2 to V3
+    var request = StreetSearchRequest.of().withMode(StreetMode.CAR).build();
+    var stateChain = new CompactStateChain(result, List.of(new State(v1, request)));
+
+    assertNotNull(stateChain.state(v2));
+    assertNull(stateChain.state(v3));
+  }
+
+  private CompactStreetSearch search(TraverseMode mode, boolean arriveBy) {
+    return new CompactStreetSearch(subject, mode, 1.0, 1.0, arriveBy, MAX_DURATION);
+  }
+}
@@ -0,0 +1,172 @@
+package org.opentripplanner.street.search.landmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+class LandmarksTest {
+
+  private static final int GRID_SIZE = 15;
+  private static final double GRID_SPACING = 0.001;
+  private static final int RIVER = GRID_SIZE / 2;
+  private static final StreetTraversalPermission[] PERMISSIONS = {
+    StreetTraversalPermission.ALL,
+    StreetTraversalPermission.ALL,
+    StreetTraversalPermission.ALL,
+    StreetTraversalPermission.CAR,
+    StreetTraversalPermission.PEDESTRIAN_AND_BICYCLE,
+    StreetTraversalPermission.PEDESTRIAN,
+  };
+
+  private final Random random = new Random(11);
+  private final List<Vertex> vertices = new ArrayList<>();
+  private final StreetVertex[][] grid = new StreetVertex[GRID_SIZE][GRID_SIZE];
+
+  private final Landmarks subject;
+
+  LandmarksTest() {
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        grid[i][j] =
+          intersectionVertex("V" + i + "_" + j, 60.0 + i * GRID_SPACING, 10.0 + j * GRID_SPACING);
+        vertices.add(grid[i][j]);
+      }
+    }
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        // A river between row RIVER and RIVER+1, with a bridge at each end
+        boolean bridge = j == 0 || j == GRID_SIZE - 1;
+        if (i + 1 < GRID_SIZE && (i != RIVER || bridge)) {
+          randomStreet(grid[i][j], grid[i + 1][j], bridge);
+        }
+        if (j + 1 < GRID_SIZE) {
+          randomStreet(grid[i][j], grid[i][j + 1], false);
+        }
+      }
+    }
+    subject = Landmarks.of(vertices, Set.of(StreetMode.WALK, StreetMode.BIKE, StreetMode.CAR), 4);
+  }
+
+  @Test
+  void landmarks() {
+    assertEquals(Set.of(StreetMode.WALK, StreetMode.BIKE, StreetMode.CAR), subject.modes());
+    assertEquals(vertices.size(), subject.numberOfVertices());
+    assertNull(subject.table(StreetMode.BIKE_RENTAL));
+    assertEquals(-1, subject.index(intersectionVertex("X", 61.0, 11.0)));
+    for (int v = 0; v < subject.numberOfVertices(); ++v) {
+      assertEquals(v, subject.index(subject.vertex(v)));
+    }
+    for (StreetMode mode : subject.modes()) {
+      var table = subject.table(mode);
+      assertEquals(mode, table.mode());
+      assertEquals(4, table.numberOfLandmarks());
+      int[] landmarks = new int[4];
+      Arrays.setAll(landmarks, table::landmark);
+      assertEquals(4, Arrays.stream(landmarks).distinct().count());
+    }
+  }
+
+  @Test
+  void unsupportedMode() {
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> Landmarks.of(vertices, Set.of(StreetMode.BIKE_RENTAL), 4)
+    );
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> Landmarks.of(vertices, Set.of(StreetMode.WALK), 0)
+    );
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "WALK", "BIKE", "CAR" })
+  void lowerBound(StreetMode mode) {
+    var table = subject.table(mode);
+    int[] allLandmarks = new int[table.numberOfLandmarks()];
+    Arrays.setAll(allLandmarks, i -> i);
+
+    for (int i = 0; i < 200; ++i) {
+      Vertex from = vertices.get(random.nextInt(vertices.size()));
+      Vertex to = vertices.get(random.nextInt(vertices.size()));
+      double expected = dijkstra(from, mode).getOrDefault(to, Double.POSITIVE_INFINITY);
+
+      double bound = table.lowerBound(subject.index(from), subject.index(to), allLandmarks);
+
+      assertTrue(bound >= 0.0);
+      assertTrue(bound <= expected, () -> "%s > %s for %s".formatted(bound, expected, mode));
+    }
+  }
+
+  @Test
+  void lowerBoundAcrossRiver() {
+    // Crossing the river in the middle of the grid takes a long detour, the landmark bound
+    // should be a lot better than the straight line distance.
+    Vertex from = grid[RIVER][GRID_SIZE / 2];
+    Vertex to = grid[RIVER + 1][GRID_SIZE / 2];
+    double distance = SphericalDistanceLibrary.distance(from.getCoordinate(), to.getCoordinate());
+    var table = subject.table(StreetMode.WALK);
+    int[] allLandmarks = new int[table.numberOfLandmarks()];
+    Arrays.setAll(allLandmarks, i -> i);
+
+    double bound = table.lowerBound(subject.index(from), subject.index(to), allLandmarks);
+
+    assertTrue(bound > 2 * distance, () -> bound + " <= 2 * " + distance);
+  }
+
+  /** A plain Dijkstra search using the same edge distances as the tables. */
+  private static Map<Vertex, Double> dijkstra(Vertex from, StreetMode mode) {
+    var result = new HashMap<Vertex, Double>();
+    var queue = new PriorityQueue<Map.Entry<Vertex, Double>>(
+      Comparator.comparingDouble(Map.Entry::getValue)
+    );
+    queue.add(Map.entry(from, 0.0));
+    while (!queue.isEmpty()) {
+      var it = queue.poll();
+      if (result.putIfAbsent(it.getKey(), it.getValue()) != null) {
+        continue;
+      }
+      for (Edge e : it.getKey().getOutgoing()) {
+        double distance = LandmarkTableBuilder.edgeDistance(e, mode);
+        if (distance != Double.POSITIVE_INFINITY && !result.containsKey(e.getToVertex())) {
+          queue.add(Map.entry(e.getToVertex(), it.getValue() + distance));
+        }
+      }
+    }
+    return result;
+  }
+
+  /** Add a street with random permission and speed, and make some of them one-way. */
+  private void randomStreet(StreetVertex a, StreetVertex b, boolean bridge) {
+    double length = SphericalDistanceLibrary.distance(a.getCoordinate(), b.getCoordinate());
+    var permission = bridge
+      ? StreetTraversalPermission.ALL
+      : PERMISSIONS[random.nextInt(PERMISSIONS.length)];
+    float carSpeed = 5f + random.nextInt(25);
+    streetEdgeBuilder(a, b, length, permission).withCarSpeed(carSpeed).buildAndConnect();
+    if (bridge || random.nextInt(5) > 0) {
+      streetEdgeBuilder(b, a, length, permission).withCarSpeed(carSpeed).buildAndConnect();
+    }
+  }
+}
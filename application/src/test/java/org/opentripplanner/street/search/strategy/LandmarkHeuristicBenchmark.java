@@ -0,0 +1,228 @@
+package org.opentripplanner.street.search.strategy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.astar.spi.TraverseVisitor;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.landmark.Landmarks;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * A simple benchmark comparing the number of vertices visited by the A* search (the same as
+ * {@code AStar.nVisited}) and the search time when using the
+ * {@link EuclideanRemainingWeightHeuristic} and the {@link LandmarkRemainingWeightHeuristic}.
+ * <p>
+ * A street grid with a river crossing the middle of the grid is created, the river can only be
+ * crossed at two bridges. Two kinds of searches are run between random vertices for WALK, BIKE
+ * and CAR:
+ * <ul>
+ *   <li>direct: a search between two vertices of the grid, like a direct street search.</li>
+ *   <li>
+ *     access: a search limited by a max duration to a stop vertex which is not part of the
+ *     landmark tables, like the street part of a search to a given stop.
+ *   </li>
+ * </ul>
+ * <p>
+ * This is not a unit test, run it from the IDE with the test classpath:
+ * <pre>
+ * LandmarkHeuristicBenchmark [grid size] [searches] [landmarks]
+ * </pre>
+ */
+public class LandmarkHeuristicBenchmark {
+
+  /** The distance between two streets in the grid in degrees, about 110 meters north-south. */
+  private static final double GRID_SPACING = 0.001;
+  private static final Duration ACCESS_MAX_DURATION = Duration.ofMinutes(45);
+
+  private final Random random = new Random(42);
+  private final List<Vertex> vertices = new ArrayList<>();
+  private final List<StreetVertex> stops = new ArrayList<>();
+  private final Landmarks landmarks;
+
+  private LandmarkHeuristicBenchmark(int gridSize, int numberOfLandmarks) {
+    var grid = new StreetVertex[gridSize][gridSize];
+    for (int i = 0; i < gridSize; ++i) {
+      for (int j = 0; j < gridSize; ++j) {
+        grid[i][j] =
+          StreetModelForTest.intersectionVertex(
+            "V" + i + "_" + j,
+            60.0 + i * GRID_SPACING,
+            10.0 + j * GRID_SPACING
+          );
+        vertices.add(grid[i][j]);
+      }
+    }
+    int river = gridSize / 2;
+    for (int i = 0; i < gridSize; ++i) {
+      for (int j = 0; j < gridSize; ++j) {
+        boolean bridge = j == gridSize / 5 || j == gridSize * 4 / 5;
+        if (i + 1 < gridSize && (i != river || bridge)) {
+          street(grid[i][j], grid[i + 1][j]);
+        }
+        if (j + 1 < gridSize) {
+          street(grid[i][j], grid[i][j + 1]);
+        }
+      }
+    }
+    long start = System.currentTimeMillis();
+    this.landmarks =
+      Landmarks.of(
+        vertices,
+        Set.of(StreetMode.WALK, StreetMode.BIKE, StreetMode.CAR),
+        numberOfLandmarks
+      );
+    System.out.printf(
+      "Computed %d landmarks for %d vertices in %d ms%n",
+      numberOfLandmarks,
+      vertices.size(),
+      System.currentTimeMillis() - start
+    );
+
+    // Stops on both sides of the river, added after the landmarks like a temporary vertex
+    for (int k = 0; k < 10; ++k) {
+      var at = grid[river + (k % 2 == 0 ? -1 : 2)][random.nextInt(gridSize)];
+      var stop = StreetModelForTest.intersectionVertex(
+        "S" + k,
+        at.getLat() + GRID_SPACING / 4,
+        at.getLon()
+      );
+      street(stop, at);
+      stops.add(stop);
+    }
+  }
+
+  public static void main(String[] args) {
+    int gridSize = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+    int searches = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+    int numberOfLandmarks = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+    var benchmark = new LandmarkHeuristicBenchmark(gridSize, numberOfLandmarks);
+
+    System.out.printf(
+      "%-5s %-7s %14s %14s %10s %12s %12s%n",
+      "Mode",
+      "Search",
+      "Euclidean",
+      "Landmark",
+      "Reduction",
+      "Euclidean",
+      "Landmark"
+    );
+    for (var mode : List.of(StreetMode.WALK, StreetMode.BIKE, StreetMode.CAR)) {
+      benchmark.run(mode, false, searches);
+      benchmark.run(mode, true, searches);
+    }
+  }
+
+  /**
+   * Run the same random searches with both heuristics, and print the average number of visited
+   * vertices and the average time.
+   */
+  private void run(StreetMode mode, boolean access, int searches) {
+    var pairs = new ArrayList<Vertex[]>();
+    for (int i = 0; i < searches; ++i) {
+      Vertex from = vertices.get(random.nextInt(vertices.size()));
+      Vertex to = access
+        ? stops.get(random.nextInt(stops.size()))
+        : vertices.get(random.nextInt(vertices.size()));
+      pairs.add(new Vertex[] { from, to });
+    }
+    var euclidean = run(mode, access, pairs, EuclideanRemainingWeightHeuristic::new);
+    var landmark = run(
+      mode,
+      access,
+      pairs,
+      () -> new LandmarkRemainingWeightHeuristic(landmarks, null)
+    );
+    System.out.printf(
+      "%-5s %-7s %14.0f %14.0f %9.0f%% %9.2f ms %9.2f ms%n",
+      mode,
+      access ? "access" : "direct",
+      euclidean.visited,
+      landmark.visited,
+      100.0 * (1.0 - landmark.visited / euclidean.visited),
+      euclidean.millis,
+      landmark.millis
+    );
+  }
+
+  private Result run(
+    StreetMode mode,
+    boolean access,
+    List<Vertex[]> pairs,
+    Supplier<RemainingWeightHeuristic<State>> heuristic
+  ) {
+    // Warm up
+    for (var pair : pairs) {
+      search(mode, access, pair[0], pair[1], heuristic.get(), null);
+    }
+    var visitor = new CountingVisitor();
+    long start = System.nanoTime();
+    for (var pair : pairs) {
+      search(mode, access, pair[0], pair[1], heuristic.get(), visitor);
+    }
+    double millis = (System.nanoTime() - start) / 1_000_000.0 / pairs.size();
+    return new Result((double) visitor.visited / pairs.size(), millis);
+  }
+
+  private static void search(
+    StreetMode mode,
+    boolean access,
+    Vertex from,
+    Vertex to,
+    RemainingWeightHeuristic<State> heuristic,
+    TraverseVisitor<State, Edge> visitor
+  ) {
+    var builder = StreetSearchBuilder
+      .of()
+      .setHeuristic(heuristic)
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setTraverseVisitor(visitor)
+      .setRequest(new RouteRequest())
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(from)
+      .setTo(to);
+    if (access) {
+      builder.setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(ACCESS_MAX_DURATION));
+    }
+    builder.getPathsToTarget();
+  }
+
+  private static void street(StreetVertex a, StreetVertex b) {
+    double length = SphericalDistanceLibrary.distance(a.getCoordinate(), b.getCoordinate());
+    StreetModelForTest.streetEdge(a, b, length, StreetTraversalPermission.ALL);
+    StreetModelForTest.streetEdge(b, a, length, StreetTraversalPermission.ALL);
+  }
+
+  private record Result(double visited, double millis) {}
+
+  private static class CountingVisitor implements TraverseVisitor<State, Edge> {
+
+    private long visited = 0;
+
+    @Override
+    public void visitEdge(Edge edge) {}
+
+    @Override
+    public void visitVertex(State state) {
+      ++visited;
+    }
+
+    @Override
+    public void visitEnqueue() {}
+  }
+}
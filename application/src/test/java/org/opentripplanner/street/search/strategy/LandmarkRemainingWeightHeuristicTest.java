@@ -0,0 +1,167 @@
+package org.opentripplanner.street.search.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.astar.spi.TraverseVisitor;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.landmark.Landmarks;
+import org.opentripplanner.street.search.state.State;
+
+class LandmarkRemainingWeightHeuristicTest {
+
+  private static final int GRID_SIZE = 15;
+  private static final double GRID_SPACING = 0.001;
+  private static final int RIVER = GRID_SIZE / 2;
+
+  private final Random random = new Random(3);
+  private final List<Vertex> vertices = new ArrayList<>();
+  private final StreetVertex[][] grid = new StreetVertex[GRID_SIZE][GRID_SIZE];
+
+  /** Not part of the landmark tables, used as a temporary vertex connected to the grid */
+  private final StreetVertex temporary = intersectionVertex("T", 60.0, 9.9995);
+
+  private final Landmarks landmarks;
+
+  LandmarkRemainingWeightHeuristicTest() {
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        grid[i][j] =
+          intersectionVertex("V" + i + "_" + j, 60.0 + i * GRID_SPACING, 10.0 + j * GRID_SPACING);
+        vertices.add(grid[i][j]);
+      }
+    }
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        // A river between row RIVER and RIVER+1, with one bridge at the east end
+        if (i + 1 < GRID_SIZE && (i != RIVER || j == GRID_SIZE - 1)) {
+          street(grid[i][j], grid[i + 1][j]);
+        }
+        if (j + 1 < GRID_SIZE) {
+          street(grid[i][j], grid[i][j + 1]);
+        }
+      }
+    }
+    landmarks = Landmarks.of(vertices, Set.of(StreetMode.WALK, StreetMode.CAR), 4);
+    street(temporary, grid[0][0]);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "WALK", "CAR" })
+  void sameWeightAsEuclidean(StreetMode mode) {
+    for (boolean arriveBy : new boolean[] { false, true }) {
+      for (int i = 0; i < 50; ++i) {
+        Vertex from = vertices.get(random.nextInt(vertices.size()));
+        Vertex to = vertices.get(random.nextInt(vertices.size()));
+        assertSameWeight(mode, arriveBy, from, to);
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "WALK", "CAR" })
+  void temporaryOriginAndDestination(StreetMode mode) {
+    Vertex other = grid[GRID_SIZE - 1][0];
+    for (boolean arriveBy : new boolean[] { false, true }) {
+      assertSameWeight(mode, arriveBy, temporary, other);
+      assertSameWeight(mode, arriveBy, other, temporary);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "WALK", "CAR" })
+  void fewerVisitedVerticesAcrossRiver(StreetMode mode) {
+    Vertex from = grid[RIVER][0];
+    Vertex to = grid[RIVER + 1][0];
+
+    var euclidean = new CountingVisitor();
+    search(mode, false, from, to, new EuclideanRemainingWeightHeuristic(), euclidean);
+    var landmark = new CountingVisitor();
+    search(mode, false, from, to, new LandmarkRemainingWeightHeuristic(landmarks, null), landmark);
+
+    assertTrue(
+      landmark.visited < euclidean.visited,
+      () -> "%d >= %d".formatted(landmark.visited, euclidean.visited)
+    );
+  }
+
+  private void assertSameWeight(StreetMode mode, boolean arriveBy, Vertex from, Vertex to) {
+    var expected = search(mode, arriveBy, from, to, new EuclideanRemainingWeightHeuristic(), null);
+    var actual = search(
+      mode,
+      arriveBy,
+      from,
+      to,
+      new LandmarkRemainingWeightHeuristic(landmarks, null),
+      null
+    );
+    assertEquals(expected.isEmpty(), actual.isEmpty());
+    if (!expected.isEmpty()) {
+      // The intersection costs make the result depend a little on the order vertices are visited
+      double weight = expected.getFirst().getWeight();
+      assertEquals(weight, actual.getFirst().getWeight(), weight * 0.01);
+    }
+  }
+
+  private static List<GraphPath<State, Edge, Vertex>> search(
+    StreetMode mode,
+    boolean arriveBy,
+    Vertex from,
+    Vertex to,
+    RemainingWeightHeuristic<State> heuristic,
+    TraverseVisitor<State, Edge> visitor
+  ) {
+    var request = new RouteRequest();
+    request.setArriveBy(arriveBy);
+    return StreetSearchBuilder
+      .of()
+      .setHeuristic(heuristic)
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setTraverseVisitor(visitor)
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(from)
+      .setTo(to)
+      .getPathsToTarget();
+  }
+
+  private static void street(StreetVertex a, StreetVertex b) {
+    double length = SphericalDistanceLibrary.distance(a.getCoordinate(), b.getCoordinate());
+    streetEdge(a, b, length, StreetTraversalPermission.ALL);
+    streetEdge(b, a, length, StreetTraversalPermission.ALL);
+  }
+
+  private static class CountingVisitor implements TraverseVisitor<State, Edge> {
+
+    private int visited = 0;
+
+    @Override
+    public void visitEdge(Edge edge) {}
+
+    @Override
+    public void visitVertex(State state) {
+      ++visited;
+    }
+
+    @Override
+    public void visitEnqueue() {}
+  }
+}
@@ -386,6 +386,47 @@ class RealTimeTripTimesTest {
     assertEquals(6 * 60 + 13, updatedTripTimesA.getArrivalTime(6));
   }
 
+  @Test
+  public void testConstantDelay() {
+    RealTimeTripTimes updatedTripTimesA = createInitialTripTimes().copyScheduledTimes();
+    for (int s = 0; s < updatedTripTimesA.getNumStops(); s++) {
+      updatedTripTimesA.updateArrivalDelay(s, 90);
+      updatedTripTimesA.updateDepartureDelay(s, 90);
+    }
+    updatedTripTimesA.validateNonIncreasingTimes();
+    updatedTripTimesA.compactDelays();
+
+    assertEquals(RealTimeState.UPDATED, updatedTripTimesA.getRealTimeState());
+    for (int s = 0; s < updatedTripTimesA.getNumStops(); s++) {
+      assertEquals(90, updatedTripTimesA.getArrivalDelay(s));
+      assertEquals(s * 60 + 90, updatedTripTimesA.getDepartureTime(s));
+    }
+
+    updatedTripTimesA.updateArrivalDelay(7, 120);
+    updatedTripTimesA.updateDepartureDelay(7, 120);
+
+    assertEquals(90, updatedTripTimesA.getArrivalDelay(6));
+    assertEquals(7 * 60 + 120, updatedTripTimesA.getArrivalTime(7));
+  }
+
+  @Test
+  public void testDelayLargerThanShort() {
+    int largeDelay = 10 * 3600;
+    RealTimeTripTimes updatedTripTimesA = createInitialTripTimes().copyScheduledTimes();
+    updatedTripTimesA.updateDepartureDelay(0, 10);
+    updatedTripTimesA.updateArrivalDelay(7, largeDelay);
+    updatedTripTimesA.updateDepartureDelay(7, largeDelay);
+
+    assertEquals(10, updatedTripTimesA.getDepartureDelay(0));
+    assertEquals(0, updatedTripTimesA.getArrivalDelay(3));
+    assertEquals(7 * 60 + largeDelay, updatedTripTimesA.getArrivalTime(7));
+
+    updatedTripTimesA.validateNonIncreasingTimes();
+    updatedTripTimesA.compactDelays();
+    assertEquals(10, updatedTripTimesA.getDepartureDelay(0));
+    assertEquals(largeDelay, updatedTripTimesA.getDepartureDelay(7));
+  }
+
   @Test
   public void testCancel() {
     RealTimeTripTimes updatedTripTimesA = createInitialTripTimes().copyScheduledTimes();
@@ -3,6 +3,7 @@ package org.opentripplanner.transit.model.timetable;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.id;
@@ -14,6 +15,7 @@ import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
 import org.opentripplanner.transit.model.basic.Accessibility;
 import org.opentripplanner.transit.model.framework.DataValidationException;
+import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 
 class ScheduledTripTimesTest {
@@ -177,4 +179,23 @@ class ScheduledTripTimesTest {
   void copyDepartureTimes() {
     assertArrayEquals(new int[] { T10_01, T11_02, T12_03 }, subject.copyDepartureTimes());
   }
+
+  @Test
+  void tripsWithSameRunningTimesShareTimes() {
+    var deduplicator = new Deduplicator();
+    int[] times = TimeUtils.times("10:00 11:00 12:00");
+    var first = ScheduledTripTimes.of(deduplicator).withTrip(TRIP).withArrivalTimes(times).build();
+    var second = ScheduledTripTimes
+      .of(deduplicator)
+      .withTrip(TRIP)
+      .withArrivalTimes("10:30 11:30 12:30")
+      .build();
+
+    assertSame(first.copyOf(null).arrivalTimes(), second.copyOf(null).arrivalTimes());
+    assertSame(first.copyOf(null).departureTimes(), second.copyOf(null).arrivalTimes());
+    assertEquals(T10_00, first.getDepartureTime(STOP_POS_0));
+    assertEquals(T12_00 + 1800, second.getArrivalTime(STOP_POS_2));
+    // The times passed in are not modified
+    assertArrayEquals(TimeUtils.times("10:00 11:00 12:00"), times);
+  }
 }
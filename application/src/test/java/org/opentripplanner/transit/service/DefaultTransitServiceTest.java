@@ -1,6 +1,7 @@
 package org.opentripplanner.transit.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.opentripplanner.transit.model.basic.TransitMode.BUS;
 import static org.opentripplanner.transit.model.basic.TransitMode.FERRY;
 import static org.opentripplanner.transit.model.basic.TransitMode.RAIL;
@@ -9,11 +10,17 @@ import static org.opentripplanner.transit.model.basic.TransitMode.TRAM;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.model.RealTimeTripUpdate;
+import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.network.StopPattern;
@@ -121,4 +128,70 @@ class DefaultTransitServiceTest {
     Collection<TripPattern> patternsForStop = service.getPatternsForStop(STOP_B, true);
     assertEquals(Set.of(FERRY_PATTERN, RAIL_PATTERN, REAL_TIME_PATTERN), patternsForStop);
   }
+
+  @Test
+  void realtimeTransitLayerIsPinnedWithTheSnapshot() {
+    var timetableRepository = new TimetableRepository();
+    var snapshotLayer = transitLayer();
+    timetableRepository.setRealtimeTransitLayer(transitLayer());
+
+    var snapshot = new TimetableSnapshot()
+      .commit(
+        new TransitLayerUpdater(null) {
+          @Override
+          public TransitLayer update(
+            Collection<Timetable> updatedTimetables,
+            Map<TripPattern, SortedSet<Timetable>> timetables
+          ) {
+            return snapshotLayer;
+          }
+        },
+        true
+      );
+    var subject = new DefaultTransitService(timetableRepository, snapshot);
+    assertSame(snapshotLayer, subject.getRealtimeTransitLayer());
+
+    // A layer published after the service is created is not seen by it
+    timetableRepository.setRealtimeTransitLayer(transitLayer());
+    assertSame(snapshotLayer, subject.getRealtimeTransitLayer());
+  }
+
+  @Test
+  void realtimeTransitLayerWithoutASnapshotLayer() {
+    var timetableRepository = new TimetableRepository();
+    var repositoryLayer = transitLayer();
+    timetableRepository.setRealtimeTransitLayer(repositoryLayer);
+
+    var snapshot = new TimetableSnapshot().commit(null, true);
+    var subject = new DefaultTransitService(timetableRepository, snapshot);
+
+    assertSame(repositoryLayer, subject.getRealtimeTransitLayer());
+  }
+
+  @Test
+  void realtimeDataVersionIsPinnedWithTheSnapshot() {
+    var buffer = new TimetableSnapshot();
+    var published = new AtomicReference<>(buffer.commit(null, true));
+    var timetableRepository = new TimetableRepository();
+    timetableRepository.initTimetableSnapshotProvider(published::get);
+
+    var subject = new DefaultTransitService(timetableRepository);
+    assertEquals(1, subject.getRealtimeDataVersion());
+
+    // A snapshot committed after the service has seen the first one is not seen by it
+    published.set(buffer.commit(null, true));
+    assertEquals(1, subject.getRealtimeDataVersion());
+    assertEquals(2, new DefaultTransitService(timetableRepository).getRealtimeDataVersion());
+  }
+
+  @Test
+  void realtimeDataVersionWithoutRealtimeData() {
+    var subject = new DefaultTransitService(new TimetableRepository());
+
+    assertEquals(0, subject.getRealtimeDataVersion());
+  }
+
+  private static TransitLayer transitLayer() {
+    return new TransitLayer(Map.of(), null, null, null, null, null, null, null, null, null);
+  }
 }
@@ -0,0 +1,127 @@
+package org.opentripplanner.updater.siri.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.org.siri.siri20.DatedVehicleJourneyRef;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+import uk.org.siri.siri20.LineRef;
+
+class EstimatedTimetableBatcherTest {
+
+  private final List<List<EstimatedVehicleJourney>> batches = new ArrayList<>();
+  private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+  private final EstimatedTimetableBatcher subject = new EstimatedTimetableBatcher(
+    3,
+    Duration.ofHours(1),
+    "test",
+    (batch, done) -> {
+      batches.add(batch);
+      pending.add(done);
+    }
+  );
+
+  @AfterEach
+  void shutdown() {
+    subject.shutdown();
+  }
+
+  @Test
+  void batchIsAppliedWhenFull() throws Exception {
+    var applied = subject.add(List.of(journey("J1", "L1"), journey("J2", "L1")));
+    assertFalse(applied.isDone());
+    assertEquals(2, subject.queueSize());
+
+    subject.add(List.of(journey("J3", "L1")));
+
+    assertEquals(1, batches.size());
+    assertEquals(List.of("J1", "J2", "J3"), ids(batches.getFirst()));
+    assertEquals(0, subject.queueSize());
+
+    pending.getFirst().complete(null);
+    assertTrue(applied.isDone());
+  }
+
+  @Test
+  void onlyTheNewestUpdateOfAJourneyIsKept() throws Exception {
+    subject.add(List.of(journey("J1", "L1"), journey("J2", "L1")));
+    subject.add(List.of(journey("J1", "L2")));
+    assertEquals(2, subject.queueSize());
+
+    subject.add(List.of(journey("J3", "L1")));
+
+    var batch = batches.getFirst();
+    assertEquals(List.of("J2", "J1", "J3"), ids(batch));
+    assertEquals("L2", batch.get(1).getLineRef().getValue());
+  }
+
+  @Test
+  void batchIsAppliedAfterMaxLatency() throws Exception {
+    var applied = new CopyOnWriteArrayList<List<EstimatedVehicleJourney>>();
+    var batcher = new EstimatedTimetableBatcher(
+      3,
+      Duration.ofMillis(10),
+      "test",
+      (batch, done) -> {
+        applied.add(batch);
+        done.complete(null);
+      }
+    );
+    try {
+      batcher.add(List.of(journey("J1", "L1"))).get(5, TimeUnit.SECONDS);
+    } finally {
+      batcher.shutdown();
+    }
+    assertEquals(List.of("J1"), ids(applied.getFirst()));
+  }
+
+  @Test
+  void nextBatchWaitsForThePreviousOne() throws Exception {
+    subject.add(List.of(journey("J1", "L1"), journey("J2", "L1"), journey("J3", "L1")));
+    var applied = subject.add(List.of(journey("J4", "L1"), journey("J5", "L1")));
+    subject.add(List.of(journey("J6", "L1")));
+
+    assertEquals(1, batches.size());
+    assertEquals(3, subject.queueSize());
+
+    pending.getFirst().complete(null);
+
+    assertEquals(2, batches.size());
+    assertEquals(List.of("J4", "J5", "J6"), ids(batches.get(1)));
+    assertFalse(applied.isDone());
+  }
+
+  @Test
+  void batchSizeMustBePositive() {
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new EstimatedTimetableBatcher(0, Duration.ZERO, "test", (batch, done) -> {})
+    );
+  }
+
+  private static EstimatedVehicleJourney journey(String id, String line) {
+    var journey = new EstimatedVehicleJourney();
+    var ref = new DatedVehicleJourneyRef();
+    ref.setValue(id);
+    journey.setDatedVehicleJourneyRef(ref);
+    var lineRef = new LineRef();
+    lineRef.setValue(line);
+    journey.setLineRef(lineRef);
+    return journey;
+  }
+
+  private static List<String> ids(List<EstimatedVehicleJourney> journeys) {
+    return journeys.stream().map(j -> j.getDatedVehicleJourneyRef().getValue()).toList();
+  }
+}
@@ -0,0 +1,107 @@
+package org.opentripplanner.updater.siri.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+
+class EstimatedTimetableStreamReaderTest {
+
+  private static final String DELIVERY =
+    """
+    <?xml version="1.0" encoding="UTF-8"?>
+    <Siri xmlns="http://www.siri.org.uk/siri" version="2.0">
+      <ServiceDelivery>
+        <ResponseTimestamp>2024-05-08T10:00:00+02:00</ResponseTimestamp>
+        <ProducerRef>TEST</ProducerRef>
+        <MoreData>true</MoreData>
+        <EstimatedTimetableDelivery version="2.0">
+          <ResponseTimestamp>2024-05-08T09:59:00+02:00</ResponseTimestamp>
+          <EstimatedJourneyVersionFrame>
+            <RecordedAtTime>2024-05-08T09:59:00+02:00</RecordedAtTime>
+            %s
+          </EstimatedJourneyVersionFrame>
+        </EstimatedTimetableDelivery>
+      </ServiceDelivery>
+    </Siri>
+    """;
+
+  private static final String JOURNEY =
+    """
+    <EstimatedVehicleJourney>
+      <LineRef>L%1$d</LineRef>
+      <DatedVehicleJourneyRef>J%1$d</DatedVehicleJourneyRef>
+    </EstimatedVehicleJourney>
+    """;
+
+  @Test
+  void readJourneysInBatches() throws Exception {
+    var batches = new ArrayList<List<EstimatedVehicleJourney>>();
+
+    var header = new EstimatedTimetableStreamReader(2)
+      .read(delivery(5), h -> true, batches::add)
+      .orElseThrow();
+
+    assertEquals(
+      ZonedDateTime.parse("2024-05-08T10:00:00+02:00").toInstant(),
+      header.responseTimestamp().toInstant()
+    );
+    assertTrue(header.moreData());
+    assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+    assertEquals(
+      List.of("J0", "J1", "J2", "J3", "J4"),
+      batches
+        .stream()
+        .flatMap(List::stream)
+        .map(j -> j.getDatedVehicleJourneyRef().getValue())
+        .toList()
+    );
+    assertEquals("L4", batches.get(2).get(0).getLineRef().getValue());
+  }
+
+  @Test
+  void rejectedDeliveryIsNotRead() throws Exception {
+    var batches = new ArrayList<List<EstimatedVehicleJourney>>();
+
+    var header = new EstimatedTimetableStreamReader(2).read(delivery(3), h -> false, batches::add);
+
+    assertTrue(header.isPresent());
+    assertTrue(batches.isEmpty());
+  }
+
+  @Test
+  void documentWithoutServiceDelivery() throws Exception {
+    var xml = "<Siri xmlns=\"http://www.siri.org.uk/siri\" version=\"2.0\"/>";
+
+    var header = new EstimatedTimetableStreamReader(2)
+      .read(
+        new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+        h -> true,
+        b -> {}
+      );
+
+    assertFalse(header.isPresent());
+  }
+
+  @Test
+  void batchSizeMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new EstimatedTimetableStreamReader(0));
+  }
+
+  private static ByteArrayInputStream delivery(int numberOfJourneys) {
+    var journeys = new StringBuilder();
+    for (int i = 0; i < numberOfJourneys; i++) {
+      journeys.append(JOURNEY.formatted(i));
+    }
+    var xml = DELIVERY.formatted(journeys).strip();
+    return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -18,6 +18,7 @@ public class GtfsRealtimeTripUpdateSourceTest {
         Duration.ofSeconds(10),
         false,
         BackwardsDelayPropagationType.ALWAYS,
+        false,
         "rt",
         ResourceLoader.of(this).url("septa.pbf").toString(),
         HttpHeaders.empty()
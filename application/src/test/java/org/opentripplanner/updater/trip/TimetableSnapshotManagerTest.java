@@ -86,7 +86,8 @@ class TimetableSnapshotManagerTest {
     var snapshotManager = new TimetableSnapshotManager(
       null,
       TimetableSnapshotSourceParameters.DEFAULT.withPurgeExpiredData(purgeExpiredData),
-      clock::get
+      clock::get,
+      "test"
     );
 
     var res1 = snapshotManager.updateBuffer(new RealTimeTripUpdate(PATTERN, TRIP_TIMES, YESTERDAY));
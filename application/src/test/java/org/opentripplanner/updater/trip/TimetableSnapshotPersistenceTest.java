@@ -0,0 +1,162 @@
+package org.opentripplanner.updater.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.file.FileDataSource;
+import org.opentripplanner.model.RealTimeTripUpdate;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.RealTimeState;
+import org.opentripplanner.transit.model.timetable.ScheduledTripTimes;
+import org.opentripplanner.transit.model.timetable.Trip;
+
+class TimetableSnapshotPersistenceTest {
+
+  private static final LocalDate SERVICE_DATE = LocalDate.of(2024, 5, 30);
+  private static final Instant NOW = Instant.parse("2024-05-30T10:00:00Z");
+  private static final Duration MAX_AGE = Duration.ofHours(1);
+
+  private static final TimetableRepositoryForTest TEST_MODEL = TimetableRepositoryForTest.of();
+  private static final Trip TRIP = TimetableRepositoryForTest.trip("trip").build();
+  private static final ScheduledTripTimes SCHEDULED_TRIP_TIMES = ScheduledTripTimes
+    .of()
+    .withArrivalTimes("10:00 10:10 10:20")
+    .withTrip(TRIP)
+    .build();
+  private static final TripPattern PATTERN = TimetableRepositoryForTest
+    .tripPattern("pattern", TimetableRepositoryForTest.route("r1").build())
+    .withStopPattern(
+      TimetableRepositoryForTest.stopPattern(
+        TEST_MODEL.stop("1").build(),
+        TEST_MODEL.stop("2").build(),
+        TEST_MODEL.stop("3").build()
+      )
+    )
+    .withScheduledTimeTableBuilder(builder -> builder.addTripTimes(SCHEDULED_TRIP_TIMES))
+    .build();
+
+  @TempDir
+  File tempDir;
+
+  private File file;
+  private TimetableSnapshotPersistence subject;
+
+  @BeforeEach
+  void setUp() {
+    file = new File(tempDir, "realtime-snapshot-test.bin");
+    subject = persistence(NOW);
+  }
+
+  @Test
+  void writeAndRead() throws Exception {
+    var tripTimes = SCHEDULED_TRIP_TIMES.copyScheduledTimes();
+    tripTimes.updateArrivalDelay(1, 120);
+    tripTimes.updateDepartureDelay(1, 120);
+    tripTimes.updateArrivalDelay(2, 60);
+    tripTimes.updateDepartureDelay(2, 60);
+    tripTimes.setRecorded(0);
+    tripTimes.setCancelled(2);
+    tripTimes.setRealTimeState(RealTimeState.UPDATED);
+    tripTimes.validateNonIncreasingTimes();
+
+    var buffer = new TimetableSnapshot();
+    buffer.update(new RealTimeTripUpdate(PATTERN, tripTimes, SERVICE_DATE));
+
+    assertEquals(1, subject.write(buffer.commit()));
+
+    List<RealTimeTripUpdate> updates = subject.read(id ->
+      PATTERN.getId().equals(id) ? PATTERN : null
+    );
+
+    assertEquals(1, updates.size());
+    var update = updates.getFirst();
+    assertEquals(PATTERN, update.pattern());
+    assertEquals(SERVICE_DATE, update.serviceDate());
+    var restored = update.updatedTripTimes();
+    assertEquals(RealTimeState.UPDATED, restored.getRealTimeState());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(tripTimes.getArrivalTime(i), restored.getArrivalTime(i));
+      assertEquals(tripTimes.getDepartureTime(i), restored.getDepartureTime(i));
+    }
+    assertTrue(restored.isRecordedStop(0));
+    assertFalse(restored.isCancelledStop(1));
+    assertTrue(restored.isCancelledStop(2));
+  }
+
+  @Test
+  void tripsNotInTheGraphAreSkipped() throws Exception {
+    var tripTimes = SCHEDULED_TRIP_TIMES.copyScheduledTimes();
+    tripTimes.cancelTrip();
+    var buffer = new TimetableSnapshot();
+    buffer.update(new RealTimeTripUpdate(PATTERN, tripTimes, SERVICE_DATE));
+    subject.write(buffer.commit());
+
+    assertTrue(subject.read(id -> null).isEmpty());
+  }
+
+  @Test
+  void writeReplacesTheFile() throws Exception {
+    var tripTimes = SCHEDULED_TRIP_TIMES.copyScheduledTimes();
+    tripTimes.cancelTrip();
+    var buffer = new TimetableSnapshot();
+    buffer.update(new RealTimeTripUpdate(PATTERN, tripTimes, SERVICE_DATE));
+    subject.write(buffer.commit());
+
+    assertEquals(0, subject.write(new TimetableSnapshot().commit(null, true)));
+
+    assertTrue(subject.read(id -> PATTERN).isEmpty());
+    assertFalse(new File(file.getPath() + ".tmp").exists());
+  }
+
+  @Test
+  void outdatedFileIsIgnored() throws Exception {
+    var tripTimes = SCHEDULED_TRIP_TIMES.copyScheduledTimes();
+    tripTimes.cancelTrip();
+    var buffer = new TimetableSnapshot();
+    buffer.update(new RealTimeTripUpdate(PATTERN, tripTimes, SERVICE_DATE));
+    subject.write(buffer.commit());
+
+    var withinMaxAge = persistence(NOW.plus(MAX_AGE));
+    assertEquals(1, withinMaxAge.read(id -> PATTERN).size());
+
+    var later = NOW.plus(MAX_AGE).plusSeconds(1);
+    var outdated = persistence(later);
+    assertTrue(outdated.read(id -> PATTERN).isEmpty());
+  }
+
+  @Test
+  void missingFile() {
+    assertTrue(subject.read(id -> PATTERN).isEmpty());
+  }
+
+  @Test
+  void unreadableDataIsIgnored() throws Exception {
+    Files.write(file.toPath(), new byte[] { 1, 2, 3 });
+
+    assertTrue(subject.read(id -> PATTERN).isEmpty());
+  }
+
+  private TimetableSnapshotPersistence persistence(Instant now) {
+    return new TimetableSnapshotPersistence(
+      new FileDataSource(file, FileType.UNKNOWN),
+      new FileDataSource(new File(file.getPath() + ".tmp"), FileType.UNKNOWN),
+      MAX_AGE,
+      Clock.fixed(now, ZoneOffset.UTC)
+    );
+  }
+}
@@ -281,6 +281,60 @@ public class TimetableSnapshotSourceTest {
     }
   }
 
+  @Test
+  public void testParallelTripUpdateMatching() {
+    var updater = new TimetableSnapshotSource(
+      new TimetableSnapshotSourceParameters(Duration.ZERO, true)
+        .withParallelTripUpdateMatching(true),
+      timetableRepository,
+      () -> SERVICE_DATE
+    );
+    var updates = List.of(
+      delayedTripUpdate("1.2", 60),
+      CANCELLATION,
+      delayedTripUpdate("1.3", 120),
+      delayedTripUpdate("1.2", 180)
+    );
+
+    var result = updater.applyTripUpdates(
+      TRIP_MATCHER_NOOP,
+      REQUIRED_NO_DATA,
+      DIFFERENTIAL,
+      updates,
+      feedId
+    );
+    updater.flushBuffer();
+
+    assertEquals(4, result.successful());
+    assertTrue(result.durationByPhase().containsKey("match"));
+    assertTrue(result.durationByPhase().containsKey("apply"));
+
+    var snapshot = updater.getTimetableSnapshot();
+    assertTrue(tripTimesForToday(snapshot, "1.1").isCanceledOrDeleted());
+    // The last update of a trip wins, the same as when the updates are applied serially
+    assertEquals(180, tripTimesForToday(snapshot, "1.2").getArrivalDelay(1));
+    assertEquals(120, tripTimesForToday(snapshot, "1.3").getArrivalDelay(1));
+  }
+
+  private TripUpdate delayedTripUpdate(String tripId, int delay) {
+    return new TripUpdateBuilder(
+      tripId,
+      SERVICE_DATE,
+      ScheduleRelationship.SCHEDULED,
+      transitService.getTimeZone()
+    )
+      .addDelayedStopTime(1, delay)
+      .addDelayedStopTime(2, delay)
+      .addDelayedStopTime(3, delay)
+      .build();
+  }
+
+  private TripTimes tripTimesForToday(TimetableSnapshot snapshot, String tripId) {
+    var trip = transitService.getTripForId(new FeedScopedId(feedId, tripId));
+    var timetable = snapshot.resolve(transitService.getPatternForTrip(trip), SERVICE_DATE);
+    return timetable.getTripTimes(trip);
+  }
+
   private TimetableSnapshotSource defaultUpdater() {
     return new TimetableSnapshotSource(
       new TimetableSnapshotSourceParameters(Duration.ZERO, true),
@@ -0,0 +1,154 @@
+package org.opentripplanner.updater.trip;
+
+import static com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship.SCHEDULED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.TRIP_NOT_FOUND;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.DIFFERENTIAL;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
+
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.updater.spi.UpdateError;
+import org.opentripplanner.updater.spi.UpdateResult;
+
+class TripUpdateChangeDetectorTest {
+
+  private static final String FEED_ID = "F";
+  private static final LocalDate SERVICE_DATE = LocalDate.of(2024, 5, 8);
+
+  private static final TripUpdate A = delayed("A", 60);
+  private static final TripUpdate B = delayed("B", 60);
+  private static final TripUpdate B_CHANGED = delayed("B", 120);
+  private static final TripUpdate C = delayed("C", 60);
+
+  private final TripUpdateChangeDetector subject = new TripUpdateChangeDetector();
+
+  @Test
+  void firstFullDatasetIsAppliedAsItIs() {
+    var changes = XX(new TripUpdateChangeDetector.Changes(FULL_DATASET, List.of(A, B), 0), changes);
+  }
+
+  @Test
+  void unchangedTripUpdatesAreSkipped() {
+    applied(FULL_DATASET, List.of(A, B));
+
+    var changes = subject.detectChanges(FULL_DATASET, List.of(A, B_CHANGED, C), 0);
+
+    assertEquals(
+      new TripUpdateChangeDetector.Changes(DIFFERENTIAL, List.of(B_CHANGED, C), 1),
+      changes
+    );
+  }
+
+  @Test
+  void timestampIsIgnored() {
+    applied(FULL_DATASET, List.of(A));
+    var later = A.toBuilder().setTimestamp(1_700_000_000L).build();
+
+    var changes = subject.detectChanges(FULL_DATASET, List.of(later), 0);
+
+    assertEquals(new TripUpdateChangeDetector.Changes(DIFFERENTIAL, List.of(), 1), changes);
+  }
+
+  @Test
+  void fullDatasetWithMissingTripIsAppliedAsItIs() {
+    applied(FULL_DATASET, List.of(A, B));
+
+    var changes = subject.detectChanges(FULL_DATASET, List.of(A), 0);
+
+    assertEquals(new TripUpdateChangeDetector.Changes(FULL_DATASET, List.of(A), 0), changes);
+  }
+
+  @Test
+  void tripUpdateWithoutStartDateIsAlwaysApplied() {
+    var withoutStartDate = A
+      .toBuilder()
+      .setTrip(TripDescriptor.newBuilder().setTripId("A"))
+      .build();
+    applied(FULL_DATASET, List.of(withoutStartDate, B));
+
+    var changes = subject.detectChanges(FULL_DATASET, List.of(withoutStartDate, B), 0);
+
+    // The previous update of the unidentified trip can not be replaced, so nothing is skipped
+    assertEquals(
+      new TripUpdateChangeDetector.Changes(FULL_DATASET, List.of(withoutStartDate, B), 0),
+      changes
+    );
+  }
+
+  @Test
+  void differentialUpdatesAreComparedWithTheLastAppliedUpdate() {
+    applied(FULL_DATASET, List.of(A, B));
+    applied(DIFFERENTIAL, List.of(B_CHANGED));
+
+    var changes = subject.detectChanges(DIFFERENTIAL, List.of(A, B_CHANGED), 0);
+
+    assertEquals(new TripUpdateChangeDetector.Changes(DIFFERENTIAL, List.of(), 2), changes);
+  }
+
+  @Test
+  void failedTripUpdateIsAppliedAgain() {
+    subject.detectChanges(FULL_DATASET, List.of(A, B), 0);
+    subject.recordResult(failed("B"), 0);
+
+    var changes = subject.detectChanges(FULL_DATASET, List.of(A, B), 0);
+
+    assertEquals(new TripUpdateChangeDetector.Changes(DIFFERENTIAL, List.of(B), 1), changes);
+  }
+
+  @Test
+  void fullDatasetWithoutFailedTripIsAppliedAsItIs() {
+    applied(FULL_DATASET, List.of(A, B));
+    subject.detectChanges(DIFFERENTIAL, List.of(B_CHANGED), 0);
+    subject.recordResult(failed("B"), 0);
+
+    // The previous update of B may still be in the buffer
+    var changes = subject.detectChanges(FULL_DATASET, List.of(A), 0);
+
+    assertEquals(new TripUpdateChangeDetector.Changes(FULL_DATASET, List.of(A), 0), changes);
+  }
+
+  @Test
+  void appliedUpdatesAreForgottenWhenTheBufferIsReset() {
+    applied(FULL_DATASET, List.of(A, B));
+
+    var changes = subject.detectChanges(FULL_DATASET, List.of(A, B), 1);
+
+    assertEquals(new TripUpdateChangeDetector.Changes(FULL_DATASET, List.of(A, B), 0), changes);
+  }
+
+  @Test
+  void appliedUpdatesAreForgottenIfTheResultIsNotRecorded() {
+    applied(FULL_DATASET, List.of(A, B));
+    subject.detectChanges(DIFFERENTIAL, List.of(B_CHANGED), 0);
+
+    var changes = subject.detectChanges(FULL_DATASET, List.of(A, B_CHANGED), 0);
+
+    assertEquals(
+      new TripUpdateChangeDetector.Changes(FULL_DATASET, List.of(A, B_CHANGED), 0),
+      changes
+    );
+  }
+
+  private void applied(UpdateIncrementality incrementality, List<TripUpdate> updates) {
+    subject.detectChanges(incrementality, updates, 0);
+    subject.recordResult(UpdateResult.empty(), 0);
+  }
+
+  private static UpdateResult failed(String tripId) {
+    return UpdateResult.ofResults(
+      List.of(UpdateError.result(new FeedScopedId(FEED_ID, tripId), TRIP_NOT_FOUND))
+    );
+  }
+
+  private static TripUpdate delayed(String tripId, int delay) {
+    return new TripUpdateBuilder(tripId, SERVICE_DATE, SCHEDULED, ZoneIds.UTC)
+      .addDelayedStopTime(1, delay)
+      .build();
+  }
+}